@@ -0,0 +1,72 @@
+package Ejemplos.Advanced;
+
+public class Bucles_eval_8 {
+	static int escrituras = 0;
+	int total;
+
+	public static void main(String[] args)
+	{
+		int[] a = new int[20];
+		for (int i = 0; i < a.length; i++)
+			a[i] = (i * 7) % 11 + 1;
+
+		// BUCLES FOR Y FOREACH CON REDUCCIONES
+		int suma = 0;
+		for (int i = 0; i < a.length; i++)
+			suma += a[i];
+		System.out.println(suma);
+
+		long producto = 1;
+		int bits = 0;
+		boolean todos = true;
+		String texto = "";
+		for (int x : a)
+		{
+			producto *= x;
+			bits |= x;
+			todos &= x > 0;
+			texto += x;
+		}
+		System.out.println(producto + " " + bits + " " + todos + " " + texto);
+
+		// CADA ITERACION ESCRIBE SU ELEMENTO
+		int[] doble = new int[a.length];
+		for (int i = 0; i < doble.length; i++)
+			doble[i] = Math.max(a[i], 5) * 2;
+		for (int x : doble)
+			System.out.print(x + " ");
+		System.out.println();
+
+		// CADA ITERACION DEPENDE DE LA ANTERIOR
+		int[] acumulado = new int[a.length];
+		acumulado[0] = a[0];
+		for (int i = 1; i < acumulado.length; i++)
+			acumulado[i] = acumulado[i - 1] + a[i];
+		System.out.println(acumulado[acumulado.length - 1]);
+
+		// LAS ITERACIONES ESCRIBEN UN ATRIBUTO E IMPRIMEN
+		for (int i = 0; i <= 9; i++)
+		{
+			escrituras++;
+			System.out.print(i);
+		}
+		System.out.println(" " + escrituras);
+
+		Bucles_eval_8 objeto = new Bucles_eval_8();
+		System.out.println(objeto.sumar(a, 3));
+		System.out.println(objeto.total);
+	}
+
+	int sumar(int[] a, int peso)
+	{
+		int suma = 0;
+		for (int i = 0; i < a.length; i++)
+		{
+			suma += a[i] * peso;
+			total += a[i];
+		}
+		for (int x : a)
+			suma -= x;
+		return suma;
+	}
+}
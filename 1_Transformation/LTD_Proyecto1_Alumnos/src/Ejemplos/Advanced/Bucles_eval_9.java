@@ -0,0 +1,72 @@
+package Ejemplos.Advanced;
+
+public class Bucles_eval_9 {
+	public static void main(String[] args)
+	{
+		for (int n = 0; n <= 12; n++)
+			System.out.println(n + ": " + buscar(n) + " " + sumar(n) + " " + new Bucles_eval_9().primero(n));
+	}
+
+	public static int buscar(int n)
+	{
+		// BUCLE WHILE CON CONTINUE, BREAK Y RETURN ANIDADOS
+		int x = 0;
+		int suma = 0;
+		while (x < n)
+		{
+			x++;
+			if (x % 2 == 0)
+			{
+				if (x % 4 == 0)
+					continue;
+				suma += 10;
+			}
+			else
+			{
+				if (x == 9)
+					break;
+				if (suma > 40)
+					return suma;
+			}
+			suma += x;
+		}
+		return suma;
+	}
+
+	public static int sumar(int n)
+	{
+		// BUCLE WHILE CON UN CONTINUE Y UN BREAK EN EL MISMO IF
+		int i = 0;
+		int suma = 0;
+		while (i < n)
+		{
+			i++;
+			if (i % 3 == 0)
+			{
+				if (i > 9)
+					break;
+				continue;
+			}
+			suma += i;
+		}
+		return suma;
+	}
+
+	int primero(int n)
+	{
+		// BUCLE FOR CON BREAK Y RETURN ANIDADOS
+		int encontrado = -1;
+		for (int i = 1; i < n; i++)
+		{
+			if (i * i > n)
+			{
+				if (n % i == 0)
+					return encontrado;
+				encontrado = i;
+				break;
+			}
+			encontrado = -i;
+		}
+		return encontrado;
+	}
+}
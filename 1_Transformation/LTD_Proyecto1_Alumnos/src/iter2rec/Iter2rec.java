@@ -4,13 +4,16 @@ import iter2rec.transformation.Transformer;
 import japa.parser.JavaParser;
 import japa.parser.ParseException;
 import japa.parser.ast.CompilationUnit;
+import japa.parser.ast.visitor.DumpVisitor;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.PrintStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 
 public class Iter2rec
 {
@@ -96,14 +99,25 @@ public class Iter2rec
 		try
 		{
 			final FileOutputStream out = new FileOutputStream(this.destinationFile);
-			final PrintStream print = new PrintStream(out);
+			final Writer print = new BufferedWriter(new OutputStreamWriter(out));
 
-			print.print(this.cu.toString());
+			try
+			{
+				this.cu.accept(new DumpVisitor(print), null);
+			}
+			finally
+			{
+				print.close();
+			}
 		}
 		catch (FileNotFoundException fnf)
 		{
 			fnf.printStackTrace();
 		}
+		catch (IOException io)
+		{
+			io.printStackTrace();
+		}
 	}
 	private CompilationUnit getCompilationUnit()
 	{
@@ -1,6 +1,7 @@
 package iter2rec.transformation;
 
 import iter2rec.transformation.loop.Loop;
+import iter2rec.transformation.variable.DefUseIndex;
 
 import java.util.LinkedList;
 import java.util.List;
@@ -18,6 +19,7 @@ public class Method
 	private TypeDeclaration type;
 	private MethodDeclaration method;
 	private int methodsCreated = 0;
+	private DefUseIndex defUseIndex;
 
 	public Method(CompilationUnit cu, TypeDeclaration type, MethodDeclaration method)
 	{
@@ -38,6 +40,13 @@ public class Method
 	{
 		return this.method;
 	}
+	// Shared by all the loops of the method
+	public DefUseIndex getDefUseIndex()
+	{
+		if (this.defUseIndex == null)
+			this.defUseIndex = new DefUseIndex(this.method);
+		return this.defUseIndex;
+	}
 
 	public List<Loop> lookForLoops()
 	{
@@ -1,5 +1,6 @@
 package iter2rec.transformation;
 
+import japa.parser.ast.expr.*;
 import japa.parser.ast.stmt.*;
 
 import java.util.LinkedList;
@@ -47,8 +48,10 @@ public class Sentence
 			// FIXME: getStmts may be null!!!
 			if (((SwitchEntryStmt) statement).getStmts() != null)
 				statements.addAll(((SwitchEntryStmt) statement).getStmts());
-		} else if (statement instanceof SwitchStmt)
-			statements.addAll(((SwitchStmt) statement).getEntries());
+		} else if (statement instanceof SwitchStmt) {
+			if (((SwitchStmt) statement).getEntries() != null)
+				statements.addAll(((SwitchStmt) statement).getEntries());
+		}
 		else if (statement instanceof IfStmt)
 		{
 			final IfStmt ifStmt = (IfStmt)statement;
@@ -66,4 +69,222 @@ public class Sentence
 
 		return statements;
 	}
+	public static List<Expression> getExpressions(Statement statement)
+	{
+		final List<Expression> expressions = new LinkedList<Expression>();
+
+		if (statement instanceof AssertStmt)
+		{
+			final AssertStmt assertStmt = (AssertStmt)statement;
+			expressions.add(assertStmt.getCheck());
+			expressions.add(assertStmt.getMessage());
+		}
+		else if (statement instanceof BlockStmt) ;
+		else if (statement instanceof BreakStmt) ;
+		else if (statement instanceof ContinueStmt) ;
+		else if (statement instanceof DoStmt)
+		{
+			final DoStmt doStmt = (DoStmt)statement;
+			expressions.add(doStmt.getCondition());
+		}
+		else if (statement instanceof EmptyStmt) ;
+		else if (statement instanceof ExplicitConstructorInvocationStmt)
+		{
+			final ExplicitConstructorInvocationStmt emptyStmt = (ExplicitConstructorInvocationStmt)statement;
+			expressions.add(emptyStmt.getExpr());
+		}
+		else if (statement instanceof ExpressionStmt)
+		{
+			final ExpressionStmt expressionStmt = (ExpressionStmt)statement;
+			expressions.add(expressionStmt.getExpression());
+		}
+		else if (statement instanceof ForeachStmt)
+		{
+			final ForeachStmt foreachStmt = (ForeachStmt)statement;
+			expressions.add(foreachStmt.getIterable());
+		}
+		else if (statement instanceof ForStmt)
+		{
+			List<Expression> forExpressions;
+			final ForStmt forStmt = (ForStmt)statement;
+			forExpressions = forStmt.getInit();
+			if (forExpressions != null)
+				expressions.addAll(forExpressions);
+			expressions.add(forStmt.getCompare());
+			forExpressions = forStmt.getUpdate();
+			if (forExpressions != null)
+				expressions.addAll(forExpressions);
+		}
+		else if (statement instanceof IfStmt)
+		{
+			final IfStmt ifStmt = (IfStmt)statement;
+			expressions.add(ifStmt.getCondition());
+		}
+		else if (statement instanceof LabeledStmt) ;
+		else if (statement instanceof ReturnStmt)
+		{
+			final ReturnStmt returnStmt = (ReturnStmt)statement;
+			expressions.add(returnStmt.getExpr());
+		}
+		else if (statement instanceof SwitchEntryStmt)
+		{
+			final SwitchEntryStmt switchEntryStmt = (SwitchEntryStmt)statement;
+			expressions.add(switchEntryStmt.getLabel());
+		}
+		else if (statement instanceof SwitchStmt)
+		{
+			final SwitchStmt switchStmt = (SwitchStmt)statement;
+			expressions.add(switchStmt.getSelector());
+		}
+		else if (statement instanceof SynchronizedStmt)
+		{
+			final SynchronizedStmt synchronizedStmt = (SynchronizedStmt)statement;
+			expressions.add(synchronizedStmt.getExpr());
+		}
+		else if (statement instanceof ThrowStmt)
+		{
+			final ThrowStmt throwStmt = (ThrowStmt)statement;
+			expressions.add(throwStmt.getExpr());
+		}
+		else if (statement instanceof TryStmt) ;
+		else if (statement instanceof ThrowStmt) ;
+		else if (statement instanceof WhileStmt)
+		{
+			final WhileStmt whileStmt = (WhileStmt)statement;
+			expressions.add(whileStmt.getCondition());
+		}
+
+		return expressions;
+	}
+	public static List<Expression> getExpressions(Expression expression)
+	{
+		final List<Expression> expressions = new LinkedList<Expression>();
+
+		if (expression instanceof AnnotationExpr)
+		{
+			final AnnotationExpr annotationExpr = (AnnotationExpr)expression;
+			expressions.add(annotationExpr.getName());
+		}
+		else if (expression instanceof ArrayAccessExpr)
+		{
+			final ArrayAccessExpr arrayAccessExpr = (ArrayAccessExpr)expression;
+			expressions.add(arrayAccessExpr.getName());
+			expressions.add(arrayAccessExpr.getIndex());
+		}
+		else if (expression instanceof ArrayCreationExpr)
+		{
+			final ArrayCreationExpr arrayCreationExpr = (ArrayCreationExpr)expression;
+			expressions.add(arrayCreationExpr.getInitializer());
+			if (arrayCreationExpr.getDimensions() != null)
+				expressions.addAll(arrayCreationExpr.getDimensions());
+		}
+		else if (expression instanceof ArrayInitializerExpr)
+		{
+			final ArrayInitializerExpr arrayCreationExpr = (ArrayInitializerExpr)expression;
+			if (arrayCreationExpr.getValues() != null)
+				expressions.addAll(arrayCreationExpr.getValues());
+		}
+		else if (expression instanceof AssignExpr)
+		{
+			final AssignExpr assignExpr = (AssignExpr)expression;
+			expressions.add(assignExpr.getTarget());
+			expressions.add(assignExpr.getValue());
+		}
+		else if (expression instanceof BinaryExpr)
+		{
+			final BinaryExpr binaryExpr = (BinaryExpr)expression;
+			expressions.add(binaryExpr.getLeft());
+			expressions.add(binaryExpr.getRight());
+		}
+		else if (expression instanceof CastExpr)
+		{
+			final CastExpr castExpr = (CastExpr)expression;
+			expressions.add(castExpr.getExpr());
+		}
+		else if (expression instanceof ClassExpr) ;
+		else if (expression instanceof ConditionalExpr)
+		{
+			final ConditionalExpr conditionalExpr = (ConditionalExpr)expression;
+			expressions.add(conditionalExpr.getCondition());
+			expressions.add(conditionalExpr.getThenExpr());
+			expressions.add(conditionalExpr.getElseExpr());
+		}
+		else if (expression instanceof EnclosedExpr)
+		{
+			final EnclosedExpr enclosedExpr = (EnclosedExpr)expression;
+			expressions.add(enclosedExpr.getInner());
+		}
+		else if (expression instanceof FieldAccessExpr)
+		{
+			final FieldAccessExpr fieldAccessExpr = (FieldAccessExpr)expression;
+			expressions.add(fieldAccessExpr.getScope());
+		}
+		else if (expression instanceof InstanceOfExpr)
+		{
+			final InstanceOfExpr instanceOfExpr = (InstanceOfExpr)expression;
+			expressions.add(instanceOfExpr.getExpr());
+		}
+		else if (expression instanceof LiteralExpr) ;
+		else if (expression instanceof MarkerAnnotationExpr)
+		{
+			final MarkerAnnotationExpr markerAnnotationExpr = (MarkerAnnotationExpr)expression;
+			expressions.add(markerAnnotationExpr.getName());
+		}
+		else if (expression instanceof MethodCallExpr)
+		{
+			final MethodCallExpr methodCallExpr = (MethodCallExpr)expression;
+			expressions.add(methodCallExpr.getScope());
+			List<Expression> args = methodCallExpr.getArgs();
+			if (args != null)
+				expressions.addAll(args);
+		}
+		else if (expression instanceof NameExpr) ;
+		else if (expression instanceof NormalAnnotationExpr)
+		{
+			final NormalAnnotationExpr normalAnnotationExpr = (NormalAnnotationExpr)expression;
+			expressions.add(normalAnnotationExpr.getName());
+		}
+		else if (expression instanceof ObjectCreationExpr)
+		{
+			final ObjectCreationExpr objectCreationExpr = (ObjectCreationExpr)expression;
+			expressions.add(objectCreationExpr.getScope());
+			// FIXME: the argument list may be null!!!
+			if (objectCreationExpr.getArgs() != null)
+				expressions.addAll(objectCreationExpr.getArgs());
+		}
+		else if (expression instanceof QualifiedNameExpr)
+		{
+			final QualifiedNameExpr qualifiedNameExpr = (QualifiedNameExpr)expression;
+			expressions.add(qualifiedNameExpr.getQualifier());
+		}
+		else if (expression instanceof SingleMemberAnnotationExpr)
+		{
+			final SingleMemberAnnotationExpr singleMemberAnnotationExpr = (SingleMemberAnnotationExpr)expression;
+			expressions.add(singleMemberAnnotationExpr.getMemberValue());
+			expressions.add(singleMemberAnnotationExpr.getName());
+		}
+		else if (expression instanceof SuperExpr)
+		{
+			final SuperExpr superExpr = (SuperExpr)expression;
+			expressions.add(superExpr.getClassExpr());
+		}
+		else if (expression instanceof ThisExpr)
+		{
+			final ThisExpr thisExpr = (ThisExpr)expression;
+			expressions.add(thisExpr.getClassExpr());
+		}
+		else if (expression instanceof UnaryExpr)
+		{
+			final UnaryExpr unaryExpr = (UnaryExpr)expression;
+			expressions.add(unaryExpr.getExpr());
+		}
+		else if (expression instanceof VariableDeclarationExpr)
+		{
+			final VariableDeclarationExpr variableDeclarationExpr = (VariableDeclarationExpr)expression;
+			if (variableDeclarationExpr.getAnnotations() != null)
+				expressions.addAll(variableDeclarationExpr.getAnnotations());
+		}
+
+		return expressions;
+	}
 }
\ No newline at end of file
@@ -59,7 +59,7 @@ public class Foreach extends Loop
 		final int modifiersVariable = variableDeclarationExpr.getModifiers();
 		final Type typeVariable = variableDeclarationExpr.getType();
 		final String nameVariable = variableDeclarationExpr.getVars().get(0).getId().getName();
-		this.variable = Variable.createVariable(modifiersVariable, typeVariable, nameVariable, 0);
+		this.variable = Variable.createVariable(this.variableTable, modifiersVariable, typeVariable, nameVariable, 0);
 
 		final String indexName = "index";
 		final String iterableName = "iterable";
@@ -69,11 +69,11 @@ public class Foreach extends Loop
 
 		// Iterable variable (Object iterable)
 		final ClassOrInterfaceType objectType = new ClassOrInterfaceType("Object");
-		this.iterableVariable = Variable.createVariable(finalModifier, objectType, iterableName, 0);
+		this.iterableVariable = Variable.createVariable(this.variableTable, finalModifier, objectType, iterableName, 0);
 
 		// Index variable (int index)
 		final PrimitiveType integerType = new PrimitiveType(PrimitiveType.Primitive.Int);
-		this.indexVariable = Variable.createVariable(finalModifier, integerType, indexName, 0);
+		this.indexVariable = Variable.createVariable(this.variableTable, finalModifier, integerType, indexName, 0);
 
 		// Iterator variable (Iterator<Type> iterator)
 		final ClassOrInterfaceType classType = new ClassOrInterfaceType();
@@ -2,8 +2,10 @@ package iter2rec.transformation.loop;
 
 import iter2rec.transformation.Method;
 import iter2rec.transformation.Sentence;
+import iter2rec.transformation.variable.DefUseIndex;
 import iter2rec.transformation.variable.LoopVariables;
 import iter2rec.transformation.variable.Variable;
+import iter2rec.transformation.variable.VariableTable;
 import japa.parser.ast.CompilationUnit;
 import japa.parser.ast.ImportDeclaration;
 import japa.parser.ast.body.*;
@@ -50,6 +52,7 @@ public abstract class Loop
 	protected final String name;
 	protected LoopVariables loopVariables;
 	protected Variable result;
+	protected VariableTable variableTable = new VariableTable();
 
 	protected Loop(Method method, List<Statement> path, Statement loop)
 	{
@@ -75,10 +78,19 @@ public abstract class Loop
 	}
 	protected void setLoopVariables(List<Variable> loopVariables)
 	{
-		this.loopVariables = new LoopVariables(loopVariables);
+		this.loopVariables = new LoopVariables(this.variableTable, loopVariables);
 		this.result = this.loopVariables.getResult();
 	}
 
+	public VariableTable getVariableTable()
+	{
+		return this.variableTable;
+	}
+	public Statement getStatement()
+	{
+		return this.loop;
+	}
+
 	protected boolean isContained(Statement statement)
 	{
 		return (this.loop == statement || this.path.contains(statement));
@@ -93,46 +105,60 @@ public abstract class Loop
 	/****************************/
 	public List<Variable> getUsedVariables(MethodDeclaration method)
 	{
-		Variable.clearVariables();
-		final List<Variable> declaredVariables = this.getDeclaredVariablesBeforeLoop(method);
-		final List<Variable> usedVariables = this.getUsedVariables();
+		return this.getUsedVariables(new DefUseIndex(method));
+	}
+	public List<Variable> getUsedVariables(DefUseIndex index)
+	{
+		return this.getUsedVariables(index, new VariableTable());
+	}
+	// The variables created afterwards for the loop (see setLoopVariables) come from the same table
+	public List<Variable> getUsedVariables(DefUseIndex index, VariableTable variableTable)
+	{
+		this.variableTable = variableTable;
+		final List<Variable> declaredVariables = this.getDeclaredVariablesBeforeLoop(index);
+		final List<Variable> loopVariables = new LinkedList<Variable>();
+		this.addVariables(loopVariables, this.getLoopVariables());
+
+		// The declarations inside the loop are created too, so the table holds the same variables as the statements
+		final DefUseIndex.Uses uses = index.getUses(this.loop);
+		for (VariableDeclarationExpr declaration : uses.getDeclarations())
+			this.getVariables(declaration);
 
-		return this.getVariablesIntersection(declaredVariables, usedVariables);
+		final Iterator<Variable> iterator = declaredVariables.iterator();
+		while (iterator.hasNext())
+		{
+			final Variable variable = iterator.next();
+			if (!uses.uses(variable.getName()) && !this.isUsed(variable, loopVariables))
+				iterator.remove();
+		}
+
+		return declaredVariables;
+	}
+	protected boolean isUsed(Variable variable, List<Variable> usedVariables)
+	{
+		for (Variable usedVariable : usedVariables)
+			if (usedVariable.sameVariable(variable))
+				return true;
+		return false;
 	}
-	protected List<Variable> getDeclaredVariablesBeforeLoop(MethodDeclaration method)
+	protected List<Variable> getDeclaredVariablesBeforeLoop(DefUseIndex index)
 	{
 		final List<Variable> variableDeclarations = new LinkedList<Variable>();
 
 		// Parameters of the method
-		final List<Parameter> parameters = method.getParameters();
-		if (parameters != null)
-			for (Parameter parameter : parameters)
-			{
-				final VariableDeclaratorId variableDeclaratorId = parameter.getId();
-				// FIXME: if a parameter is varargs, add 1 dimension of array to the type
-				if (parameter.isVarArgs())
-					variableDeclarations.add(Variable.createVariable(parameter.getModifiers(), parameter.getType(), variableDeclaratorId.getName(), variableDeclaratorId.getArrayCount() + 1));
-				else
-					variableDeclarations.add(Variable.createVariable(parameter.getModifiers(), parameter.getType(), variableDeclaratorId.getName(), variableDeclaratorId.getArrayCount()));
-			}
+		for (Parameter parameter : index.getParameters())
+		{
+			final VariableDeclaratorId variableDeclaratorId = parameter.getId();
+			// FIXME: if a parameter is varargs, add 1 dimension of array to the type
+			if (parameter.isVarArgs())
+				variableDeclarations.add(Variable.createVariable(this.variableTable, parameter.getModifiers(), parameter.getType(), variableDeclaratorId.getName(), variableDeclaratorId.getArrayCount() + 1));
+			else
+				variableDeclarations.add(Variable.createVariable(this.variableTable, parameter.getModifiers(), parameter.getType(), variableDeclaratorId.getName(), variableDeclaratorId.getArrayCount()));
+		}
 
 		// Body of the method
-		final BlockStmt methodBody = method.getBody();
-		List<Statement> statements = methodBody.getStmts();
-
-		//JJJ: Este codigo ha sido modificado para LTD
-//		while (statements.size() > 0)
-//			for (Statement statement : statements)
-//			{
-//				this.addVariableDeclarations(variableDeclarations, statement);
-//				statements = statement == this.loop ? new LinkedList<Statement>() : this.getStatements(statement);
-//			}
-		//CGJ: LTD
-		Deque<Statement> pathToLoop = new ArrayDeque<Statement>();
-		if (!findLoop(statements, pathToLoop))
-			throw new RuntimeException("Can't find the loop!");
-		findVarsBeforeLoop(statements, pathToLoop, variableDeclarations);
-
+		for (VariableDeclarationExpr declaration : index.getDeclarationsBefore(this.loop))
+			variableDeclarations.addAll(this.getVariables(declaration));
 
 		// Loop declarations
 		final List<Expression> declaredVariables = this.getLoopDeclaredVariables();
@@ -141,131 +167,6 @@ public abstract class Loop
 		return variableDeclarations;
 	}
 
-	protected void findVarsBeforeLoop(List<Statement> statements, Deque<Statement> deque, List<Variable> vars) {
-		for (Statement s : statements) {
-			// Go to inner statements
-			if (s == deque.peekLast()) {
-				deque.removeLast();
-				if (s == loop)
-					return;
-				if (s instanceof BlockStmt) {
-					findVarsBeforeLoop(((BlockStmt) s).getStmts(), deque, vars);
-					return;
-				}
-				if (s instanceof TryStmt) {
-					if (((TryStmt) s).getTryBlock() == deque.peekLast()) {
-						findVarsBeforeLoop(((TryStmt) s).getTryBlock().getStmts(), deque, vars);
-						return;
-					}
-					if (((TryStmt) s).getCatchs() != null)
-						for (CatchClause cc : ((TryStmt) s).getCatchs())
-							if (cc.getCatchBlock() == deque.peekLast()) {
-								findVarsBeforeLoop(cc.getCatchBlock().getStmts(), deque, vars);
-								return;
-							}
-					if (((TryStmt) s).getFinallyBlock() == deque.peekLast()) {
-						findVarsBeforeLoop(((TryStmt) s).getFinallyBlock().getStmts(), deque, vars);
-						return;
-					}
-					throw new RuntimeException("Can't find path through TryStmt");
-				}
-				if (s instanceof IfStmt) {
-					if (((IfStmt) s).getThenStmt() == deque.peekLast()) {
-						findVarsBeforeLoop(Collections.singletonList(((IfStmt) s).getThenStmt()), deque, vars);
-						return;
-					}
-					if (((IfStmt) s).getElseStmt() == deque.peekLast()) {
-						findVarsBeforeLoop(Collections.singletonList(((IfStmt) s).getElseStmt()), deque, vars);
-						return;
-					}
-					throw new RuntimeException("Can't find path through IfStmt");
-				}
-				if (s instanceof SwitchStmt) {
-					if (((SwitchStmt) s).getEntries() != null)
-						for (SwitchEntryStmt entry : ((SwitchStmt) s).getEntries())
-							if (entry == deque.peekLast()) {
-								findVarsBeforeLoop(entry.getStmts(), deque, vars);
-								return;
-							}
-					throw new RuntimeException("Can't find path through SwitchStmt");
-				}
-				if (s instanceof LabeledStmt) {
-					findVarsBeforeLoop(Collections.singletonList(((LabeledStmt) s).getStmt()), deque, vars);
-					return;
-				}
-			}
-			// Read only variable declarations
-			addVariableDeclarations(vars, s);
-		}
-	}
-
-	protected boolean findLoop(List<Statement> statements, Deque<Statement> deque) {
-		if (statements == null) return false;
-		for (Statement s : statements) {
-			if (s == loop) {
-				deque.push(s);
-				return true;
-			}
-			// If block statement, recurse inside each part
-			if (s instanceof BlockStmt) {
-				deque.push(s);
-				if (findLoop(((BlockStmt) s).getStmts(), deque))
-					return true;
-				deque.pop();
-			} else if (s instanceof TryStmt) {
-				deque.push(s);
-				if (((TryStmt) s).getTryBlock() != null) {
-					deque.push(((TryStmt) s).getTryBlock());
-					if (findLoop(((TryStmt) s).getTryBlock().getStmts(), deque))
-						return true;
-					deque.pop();
-				}
-				if (((TryStmt) s).getCatchs() != null)
-					for (CatchClause cc : ((TryStmt) s).getCatchs())
-						if (cc.getCatchBlock() != null && cc.getCatchBlock().getStmts() != null) {
-							deque.push(cc.getCatchBlock());
-							if (findLoop(cc.getCatchBlock().getStmts(), deque))
-								return true;
-							deque.pop();
-						}
-				if (((TryStmt) s).getFinallyBlock() != null) {
-					deque.push(((TryStmt) s).getFinallyBlock());
-					if (findLoop(((TryStmt) s).getFinallyBlock().getStmts(), deque))
-						return true;
-					deque.pop();
-				}
-				deque.pop();
-			} else if (s instanceof IfStmt) {
-				deque.push(s);
-				if (((IfStmt) s).getThenStmt() != null) {
-					if (findLoop(Collections.singletonList(((IfStmt) s).getThenStmt()), deque))
-						return true;
-				}
-				if (((IfStmt) s).getElseStmt() != null) {
-					if (findLoop(Collections.singletonList(((IfStmt) s).getElseStmt()), deque))
-						return true;
-				}
-				deque.pop();
-			} else if (s instanceof SwitchStmt) {
-				deque.push(s);
-				if (((SwitchStmt) s).getEntries() != null)
-					for (SwitchEntryStmt entry : ((SwitchStmt) s).getEntries()) {
-						deque.push(entry);
-						if (entry.getStmts() != null && findLoop(entry.getStmts(), deque))
-							return true;
-						deque.pop();
-					}
-				deque.pop();
-			} else if (s instanceof LabeledStmt) {
-				deque.push(s);
-				if (((LabeledStmt) s).getStmt() != null && findLoop(Collections.singletonList(((LabeledStmt) s).getStmt()), deque))
-					return true;
-				deque.pop();
-			}
-		}
-		return false;
-	}
-
 	protected List<Statement> getStatements(Statement statement)
 	{
 		final List<Statement> statements = Sentence.getStatements(statement);
@@ -282,76 +183,6 @@ public abstract class Loop
 
 		return bifurcationStatements;
 	}
-	protected List<Variable> getUsedVariables()
-	{
-		int numHijoAVisitar = 0;
-		final LinkedList<Statement> path = new LinkedList<Statement>();
-		final List<Integer> bifurcaciones = new LinkedList<Integer>();
-
-		final List<Variable> usedVariables = new LinkedList<Variable>();
-		this.addVariables(usedVariables, this.getLoopVariables());
-		Statement root = this.loop;
-		Statement statement = root;
-
-		do
-		{
-			final List<Statement> statements = Sentence.getAllStatements(statement);
-			int numeroDeHijos = statements.size();
-
-			// Evaluar nodo
-			if (numHijoAVisitar == 0)
-			{
-				final List<Expression> expressions = this.getExpressions(statement);
-				this.addVariables(usedVariables, expressions);
-			}
-
-			if (numHijoAVisitar == numeroDeHijos)
-			{
-				// Ir al padre
-				// Si es la raiz terminar directamente
-				if (statement == root)
-					break;
-				else
-				{
-					// Si no, volver al padre
-					statement = path.removeLast();
-					numHijoAVisitar = bifurcaciones.remove(bifurcaciones.size() - 1);
-				}
-			}
-			else
-			{
-				// Ir al hijo
-				path.add(statement);
-				statement = statements.get(numHijoAVisitar);
-				bifurcaciones.add(numHijoAVisitar + 1);
-				numHijoAVisitar = 0;
-			}
-		}
-		while (true);
-
-		return usedVariables;
-	}
-	protected List<Variable> getVariablesIntersection(List<Variable> variables1, List<Variable> variables2)
-	{
-		final Iterator<Variable> iterator = variables1.iterator();
-
-		while (iterator.hasNext())
-		{
-			boolean found = false;
-			final Variable variable = iterator.next();
-
-			for (Variable usedVariable : variables2)
-				if (usedVariable.sameVariable(variable))
-				{
-					found = true;
-					break;
-				}
-			if (!found)
-				iterator.remove();
-		}
-
-		return variables1;
-	}
 	protected void addVariableDeclarations(List<Variable> variableDeclarations, Statement statement)
 	{
 		if (!(statement instanceof ExpressionStmt))
@@ -382,7 +213,7 @@ public abstract class Loop
 				if (insideExpression instanceof NameExpr)
 				{
 					final String name = ((NameExpr)insideExpression).getName();
-					final Variable newVariable = Variable.createVariable(0, name);
+					final Variable newVariable = Variable.createVariable(this.variableTable, 0, name);
 					if (!variables.contains(newVariable))
 						variables.add(newVariable);
 				}
@@ -402,7 +233,7 @@ public abstract class Loop
 		for (VariableDeclarator variableDeclarator : variableDeclarationExpr.getVars())
 		{
 			final VariableDeclaratorId variableDeclaratorId = variableDeclarator.getId();
-			variables.add(Variable.createVariable(modifiers, type, variableDeclaratorId.getName(), variableDeclaratorId.getArrayCount()));
+			variables.add(Variable.createVariable(this.variableTable, modifiers, type, variableDeclaratorId.getName(), variableDeclaratorId.getArrayCount()));
 		}
 
 		return variables;
@@ -413,218 +244,11 @@ public abstract class Loop
 	/****************************/
 	protected List<Expression> getExpressions(Statement statement)
 	{
-		final List<Expression> expressions = new LinkedList<Expression>();
-
-		if (statement instanceof AssertStmt)
-		{
-			final AssertStmt assertStmt = (AssertStmt)statement;
-			expressions.add(assertStmt.getCheck());
-			expressions.add(assertStmt.getMessage());
-		}
-		else if (statement instanceof BlockStmt) ;
-		else if (statement instanceof BreakStmt) ;
-		else if (statement instanceof ContinueStmt) ;
-		else if (statement instanceof DoStmt)
-		{
-			final DoStmt doStmt = (DoStmt)statement;
-			expressions.add(doStmt.getCondition());
-		}
-		else if (statement instanceof EmptyStmt) ;
-		else if (statement instanceof ExplicitConstructorInvocationStmt)
-		{
-			final ExplicitConstructorInvocationStmt emptyStmt = (ExplicitConstructorInvocationStmt)statement;
-			expressions.add(emptyStmt.getExpr());
-		}
-		else if (statement instanceof ExpressionStmt)
-		{
-			final ExpressionStmt expressionStmt = (ExpressionStmt)statement;
-			expressions.add(expressionStmt.getExpression());
-		}
-		else if (statement instanceof ForeachStmt)
-		{
-			final ForeachStmt foreachStmt = (ForeachStmt)statement;
-			expressions.add(foreachStmt.getIterable());
-		}
-		else if (statement instanceof ForStmt)
-		{
-			List<Expression> forExpressions;
-			final ForStmt forStmt = (ForStmt)statement;
-			forExpressions = forStmt.getInit();
-			if (forExpressions != null)
-				expressions.addAll(forExpressions);
-			expressions.add(forStmt.getCompare());
-			forExpressions = forStmt.getUpdate();
-			if (forExpressions != null)
-				expressions.addAll(forExpressions);
-		}
-		else if (statement instanceof IfStmt)
-		{
-			final IfStmt ifStmt = (IfStmt)statement;
-			expressions.add(ifStmt.getCondition());
-		}
-		else if (statement instanceof LabeledStmt) ;
-		else if (statement instanceof ReturnStmt)
-		{
-			final ReturnStmt returnStmt = (ReturnStmt)statement;
-			expressions.add(returnStmt.getExpr());
-		}
-		else if (statement instanceof SwitchEntryStmt)
-		{
-			final SwitchEntryStmt switchEntryStmt = (SwitchEntryStmt)statement;
-			expressions.add(switchEntryStmt.getLabel());
-		}
-		else if (statement instanceof SwitchStmt)
-		{
-			final SwitchStmt switchStmt = (SwitchStmt)statement;
-			expressions.add(switchStmt.getSelector());
-		}
-		else if (statement instanceof SynchronizedStmt)
-		{
-			final SynchronizedStmt synchronizedStmt = (SynchronizedStmt)statement;
-			expressions.add(synchronizedStmt.getExpr());
-		}
-		else if (statement instanceof ThrowStmt)
-		{
-			final ThrowStmt throwStmt = (ThrowStmt)statement;
-			expressions.add(throwStmt.getExpr());
-		}
-		else if (statement instanceof TryStmt) ;
-		else if (statement instanceof ThrowStmt) ;
-		else if (statement instanceof WhileStmt)
-		{
-			final WhileStmt whileStmt = (WhileStmt)statement;
-			expressions.add(whileStmt.getCondition());
-		}
-
-		return expressions;
+		return Sentence.getExpressions(statement);
 	}
 	protected List<Expression> getExpressions(Expression expression)
 	{
-		final List<Expression> expressions = new LinkedList<Expression>();
-
-		if (expression instanceof AnnotationExpr)
-		{
-			final AnnotationExpr annotationExpr = (AnnotationExpr)expression;
-			expressions.add(annotationExpr.getName());
-		}
-		else if (expression instanceof ArrayAccessExpr)
-		{
-			final ArrayAccessExpr arrayAccessExpr = (ArrayAccessExpr)expression;
-			expressions.add(arrayAccessExpr.getName());
-			expressions.add(arrayAccessExpr.getIndex());
-		}
-		else if (expression instanceof ArrayCreationExpr)
-		{
-			final ArrayCreationExpr arrayCreationExpr = (ArrayCreationExpr)expression;
-			expressions.add(arrayCreationExpr.getInitializer());
-			expressions.addAll(arrayCreationExpr.getDimensions());
-		}
-		else if (expression instanceof ArrayInitializerExpr)
-		{
-			final ArrayInitializerExpr arrayCreationExpr = (ArrayInitializerExpr)expression;
-			expressions.addAll(arrayCreationExpr.getValues());
-		}
-		else if (expression instanceof AssignExpr)
-		{
-			final AssignExpr assignExpr = (AssignExpr)expression;
-			expressions.add(assignExpr.getTarget());
-			expressions.add(assignExpr.getValue());
-		}
-		else if (expression instanceof BinaryExpr)
-		{
-			final BinaryExpr binaryExpr = (BinaryExpr)expression;
-			expressions.add(binaryExpr.getLeft());
-			expressions.add(binaryExpr.getRight());
-		}
-		else if (expression instanceof CastExpr)
-		{
-			final CastExpr castExpr = (CastExpr)expression;
-			expressions.add(castExpr.getExpr());
-		}
-		else if (expression instanceof ClassExpr) ;
-		else if (expression instanceof ConditionalExpr)
-		{
-			final ConditionalExpr conditionalExpr = (ConditionalExpr)expression;
-			expressions.add(conditionalExpr.getCondition());
-			expressions.add(conditionalExpr.getThenExpr());
-			expressions.add(conditionalExpr.getElseExpr());
-		}
-		else if (expression instanceof EnclosedExpr)
-		{
-			final EnclosedExpr enclosedExpr = (EnclosedExpr)expression;
-			expressions.add(enclosedExpr.getInner());
-		}
-		else if (expression instanceof FieldAccessExpr)
-		{
-			final FieldAccessExpr fieldAccessExpr = (FieldAccessExpr)expression;
-			expressions.add(fieldAccessExpr.getScope());
-		}
-		else if (expression instanceof InstanceOfExpr)
-		{
-			final InstanceOfExpr instanceOfExpr = (InstanceOfExpr)expression;
-			expressions.add(instanceOfExpr.getExpr());
-		}
-		else if (expression instanceof LiteralExpr) ;
-		else if (expression instanceof MarkerAnnotationExpr)
-		{
-			final MarkerAnnotationExpr markerAnnotationExpr = (MarkerAnnotationExpr)expression;
-			expressions.add(markerAnnotationExpr.getName());
-		}
-		else if (expression instanceof MethodCallExpr)
-		{
-			final MethodCallExpr methodCallExpr = (MethodCallExpr)expression;
-			expressions.add(methodCallExpr.getScope());
-			List<Expression> args = methodCallExpr.getArgs();
-			if (args != null)
-				expressions.addAll(args);
-		}
-		else if (expression instanceof NameExpr) ;
-		else if (expression instanceof NormalAnnotationExpr)
-		{
-			final NormalAnnotationExpr normalAnnotationExpr = (NormalAnnotationExpr)expression;
-			expressions.add(normalAnnotationExpr.getName());
-		}
-		else if (expression instanceof ObjectCreationExpr)
-		{
-			final ObjectCreationExpr objectCreationExpr = (ObjectCreationExpr)expression;
-			expressions.add(objectCreationExpr.getScope());
-			// FIXME: the argument list may be null!!!
-			if (objectCreationExpr.getArgs() != null)
-				expressions.addAll(objectCreationExpr.getArgs());
-		}
-		else if (expression instanceof QualifiedNameExpr)
-		{
-			final QualifiedNameExpr qualifiedNameExpr = (QualifiedNameExpr)expression;
-			expressions.add(qualifiedNameExpr.getQualifier());
-		}
-		else if (expression instanceof SingleMemberAnnotationExpr)
-		{
-			final SingleMemberAnnotationExpr singleMemberAnnotationExpr = (SingleMemberAnnotationExpr)expression;
-			expressions.add(singleMemberAnnotationExpr.getMemberValue());
-			expressions.add(singleMemberAnnotationExpr.getName());
-		}
-		else if (expression instanceof SuperExpr)
-		{
-			final SuperExpr superExpr = (SuperExpr)expression;
-			expressions.add(superExpr.getClassExpr());
-		}
-		else if (expression instanceof ThisExpr)
-		{
-			final ThisExpr thisExpr = (ThisExpr)expression;
-			expressions.add(thisExpr.getClassExpr());
-		}
-		else if (expression instanceof UnaryExpr)
-		{
-			final UnaryExpr unaryExpr = (UnaryExpr)expression;
-			expressions.add(unaryExpr.getExpr());
-		}
-		else if (expression instanceof VariableDeclarationExpr)
-		{
-			final VariableDeclarationExpr variableDeclarationExpr = (VariableDeclarationExpr)expression;
-			expressions.addAll(variableDeclarationExpr.getAnnotations());
-		}
-
-		return expressions;
+		return Sentence.getExpressions(expression);
 	}
 
 	/****************************/
@@ -636,10 +260,9 @@ public abstract class Loop
 	public List<Method> transformLoop()
 	{
 		// Information of the loop
-		final MethodDeclaration method = this.method.getMethod();
 		final CompilationUnit cu = this.method.getCompilationUnit();
 		final TypeDeclaration type = this.method.getType();
-		final List<Variable> loopVariables = this.getUsedVariables(method);
+		final List<Variable> loopVariables = this.getUsedVariables(this.method.getDefUseIndex());
 		final int modifiers = this.getModifiers();
 		final String typeName = ModifierSet.hasModifier(modifiers, ModifierSet.STATIC) ? type.getName() : null;
 
@@ -7,20 +7,9 @@ public class DeclaredVariable extends Variable
 	/********************************************************/
 	/************************ Static ************************/
 	/********************************************************/
-	public static Variable createVariable(int modifiers, Type type, String name, int arrayCount)
+	public static Variable createVariable(VariableTable variables, int modifiers, Type type, String name, int arrayCount)
 	{
-		final Variable variable;
-		final String id = type.toString() + " " + name;
-
-		if (Variable.variables.containsKey(id))
-			variable = Variable.variables.get(id);
-		else
-		{
-			variable = new DeclaredVariable(modifiers, type, name, arrayCount);
-			Variable.variables.put(id, variable);
-		}
-
-		return variable;
+		return variables.getDeclaredVariable(modifiers, type, name, arrayCount);
 	}
 
 	/********************************************************/
@@ -0,0 +1,507 @@
+package iter2rec.transformation.variable;
+
+import iter2rec.transformation.Sentence;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import japa.parser.ast.body.MethodDeclaration;
+import japa.parser.ast.body.Parameter;
+import japa.parser.ast.body.VariableDeclarator;
+import japa.parser.ast.expr.AssignExpr;
+import japa.parser.ast.expr.Expression;
+import japa.parser.ast.expr.NameExpr;
+import japa.parser.ast.expr.UnaryExpr;
+import japa.parser.ast.expr.VariableDeclarationExpr;
+import japa.parser.ast.stmt.BlockStmt;
+import japa.parser.ast.stmt.CatchClause;
+import japa.parser.ast.stmt.DoStmt;
+import japa.parser.ast.stmt.ExpressionStmt;
+import japa.parser.ast.stmt.ForStmt;
+import japa.parser.ast.stmt.ForeachStmt;
+import japa.parser.ast.stmt.IfStmt;
+import japa.parser.ast.stmt.LabeledStmt;
+import japa.parser.ast.stmt.Statement;
+import japa.parser.ast.stmt.SwitchEntryStmt;
+import japa.parser.ast.stmt.SwitchStmt;
+import japa.parser.ast.stmt.TryStmt;
+import japa.parser.ast.stmt.WhileStmt;
+
+/**
+ * The declarations and uses of variables of a method, computed once and shared by all its loops.
+ *
+ * The index records, for every statement that can be reached from the body of the method, the declarations
+ * visible before it (see {@link #getDeclarationsBefore(Statement)}), and computes on demand the names used in every
+ * statement subtree (see {@link #getUses(Statement)}). Both are kept by statement identity. It also finds the names
+ * that are still read after a statement (see {@link #getLiveAfter(Statement)}).
+ *
+ * The index describes the method as it was when it was built. Transforming a loop only replaces that loop, so the
+ * entries of the other loops are still valid; a statement that is not in the index makes it scan the method again.
+ */
+public class DefUseIndex
+{
+	/********************************************************/
+	/************************ Static ************************/
+	/********************************************************/
+	/** A declaration and the declarations before it, innermost first. */
+	private static class Scope
+	{
+		final Scope outer;
+		final VariableDeclarationExpr declaration;
+
+		Scope(Scope outer, VariableDeclarationExpr declaration)
+		{
+			this.outer = outer;
+			this.declaration = declaration;
+		}
+	}
+	/**
+	 * The names used in a statement subtree, and its declarations in the order they are found. The uses are also
+	 * split in reads and writes: a name is written when it is the target of an assignment or an increment, and read
+	 * anywhere else, including the compound assignments, the increments and the initializers of the declarations.
+	 */
+	public static class Uses
+	{
+		private final Set<String> names = new HashSet<String>();
+		private final List<VariableDeclarationExpr> declarations = new ArrayList<VariableDeclarationExpr>();
+		private final Set<String> reads = new HashSet<String>();
+		private final Set<String> writes = new HashSet<String>();
+
+		public boolean uses(String name)
+		{
+			return this.names.contains(name);
+		}
+		public boolean reads(String name)
+		{
+			return this.reads.contains(name);
+		}
+		public boolean writes(String name)
+		{
+			return this.writes.contains(name);
+		}
+		public Set<String> getReads()
+		{
+			return Collections.unmodifiableSet(this.reads);
+		}
+		public Set<String> getWrites()
+		{
+			return Collections.unmodifiableSet(this.writes);
+		}
+		public Set<String> getDeclaredNames()
+		{
+			final Set<String> declaredNames = new HashSet<String>();
+
+			for (VariableDeclarationExpr declaration : this.declarations)
+				for (VariableDeclarator variableDeclarator : declaration.getVars())
+					declaredNames.add(variableDeclarator.getId().getName());
+
+			return declaredNames;
+		}
+		public Set<String> getNames()
+		{
+			return Collections.unmodifiableSet(this.names);
+		}
+		public List<VariableDeclarationExpr> getDeclarations()
+		{
+			return Collections.unmodifiableList(this.declarations);
+		}
+
+		private void add(Uses uses)
+		{
+			this.names.addAll(uses.names);
+			this.declarations.addAll(uses.declarations);
+			this.reads.addAll(uses.reads);
+			this.writes.addAll(uses.writes);
+		}
+		private void add(List<Expression> expressions)
+		{
+			this.addEffects(expressions);
+
+			List<Expression> newExpressions = expressions;
+			do
+			{
+				expressions = newExpressions;
+				newExpressions = new LinkedList<Expression>();
+				for (Expression insideExpression : expressions)
+					if (insideExpression instanceof NameExpr)
+						this.names.add(((NameExpr)insideExpression).getName());
+					else if (insideExpression instanceof VariableDeclarationExpr)
+					{
+						final VariableDeclarationExpr declaration = (VariableDeclarationExpr)insideExpression;
+						this.declarations.add(declaration);
+						for (VariableDeclarator variableDeclarator : declaration.getVars())
+							this.names.add(variableDeclarator.getId().getName());
+					}
+					else
+						newExpressions.addAll(Sentence.getExpressions(insideExpression));
+			}
+			while (newExpressions.size() > 0);
+		}
+		private void addEffects(List<Expression> expressions)
+		{
+			List<Expression> newExpressions = expressions;
+			do
+			{
+				expressions = newExpressions;
+				newExpressions = new LinkedList<Expression>();
+				for (Expression insideExpression : expressions)
+					if (insideExpression instanceof NameExpr)
+						this.reads.add(((NameExpr)insideExpression).getName());
+					else if (insideExpression instanceof AssignExpr)
+					{
+						final AssignExpr assignExpr = (AssignExpr)insideExpression;
+						if (assignExpr.getTarget() instanceof NameExpr)
+						{
+							final String name = ((NameExpr)assignExpr.getTarget()).getName();
+							this.writes.add(name);
+							if (assignExpr.getOperator() != AssignExpr.Operator.assign)
+								this.reads.add(name);
+						}
+						else
+							newExpressions.add(assignExpr.getTarget());
+						newExpressions.add(assignExpr.getValue());
+					}
+					else if (insideExpression instanceof UnaryExpr && DefUseIndex.isIncrement((UnaryExpr)insideExpression))
+					{
+						final UnaryExpr unaryExpr = (UnaryExpr)insideExpression;
+						if (unaryExpr.getExpr() instanceof NameExpr)
+						{
+							final String name = ((NameExpr)unaryExpr.getExpr()).getName();
+							this.reads.add(name);
+							this.writes.add(name);
+						}
+						else
+							newExpressions.add(unaryExpr.getExpr());
+					}
+					else if (insideExpression instanceof VariableDeclarationExpr)
+					{
+						for (VariableDeclarator variableDeclarator : ((VariableDeclarationExpr)insideExpression).getVars())
+							if (variableDeclarator.getInit() != null)
+								newExpressions.add(variableDeclarator.getInit());
+					}
+					else
+						newExpressions.addAll(Sentence.getExpressions(insideExpression));
+			}
+			while (newExpressions.size() > 0);
+		}
+	}
+	private static boolean isIncrement(UnaryExpr unaryExpr)
+	{
+		switch (unaryExpr.getOperator())
+		{
+			case preIncrement:
+			case preDecrement:
+			case posIncrement:
+			case posDecrement:
+				return true;
+			default:
+				return false;
+		}
+	}
+	/**
+	 * Returns the names used in an expression. Unlike {@link #getUses(Statement)}, the result is not kept.
+	 * @param expression The expression.
+	 * @return The uses.
+	 */
+	public static Uses getUses(Expression expression)
+	{
+		final Uses uses = new Uses();
+
+		uses.add(Collections.singletonList(expression));
+
+		return uses;
+	}
+
+	/********************************************************/
+	/************************ Object ************************/
+	/********************************************************/
+	private final MethodDeclaration method;
+	private final Map<Statement, Scope> scopes = new IdentityHashMap<Statement, Scope>();
+	private final Map<Statement, Uses> uses = new IdentityHashMap<Statement, Uses>();
+	private final Map<Statement, Statement> parents = new IdentityHashMap<Statement, Statement>();
+
+	public DefUseIndex(MethodDeclaration method)
+	{
+		this.method = method;
+		this.build();
+	}
+
+	public MethodDeclaration getMethod()
+	{
+		return this.method;
+	}
+	public List<Parameter> getParameters()
+	{
+		final List<Parameter> parameters = this.method.getParameters();
+
+		return parameters == null ? Collections.<Parameter>emptyList() : parameters;
+	}
+	/**
+	 * Returns the declarations of the method that are visible before a statement, in the order they are written.
+	 * The parameters are not included.
+	 * @param statement A statement of the method.
+	 * @return The declarations.
+	 */
+	public List<VariableDeclarationExpr> getDeclarationsBefore(Statement statement)
+	{
+		// The statement may have been added to the method after the index was built
+		if (!this.scopes.containsKey(statement))
+			this.build();
+		if (!this.scopes.containsKey(statement))
+			throw new RuntimeException("Can't find the loop!");
+
+		final LinkedList<VariableDeclarationExpr> declarations = new LinkedList<VariableDeclarationExpr>();
+		for (Scope scope = this.scopes.get(statement); scope != null; scope = scope.outer)
+			declarations.addFirst(scope.declaration);
+
+		return declarations;
+	}
+	/**
+	 * Returns the names used in a statement and all the statements nested in it.
+	 * @param statement The statement.
+	 * @return The uses.
+	 */
+	public Uses getUses(Statement statement)
+	{
+		Uses uses = this.uses.get(statement);
+
+		if (uses == null)
+		{
+			uses = new Uses();
+			uses.add(Sentence.getExpressions(statement));
+			for (Statement child : Sentence.getAllStatements(statement))
+				uses.add(this.getUses(child));
+			this.uses.put(statement, uses);
+		}
+
+		return uses;
+	}
+	/**
+	 * Returns the names that a sequence of statements may read before assigning them. A name is assigned by a
+	 * statement {@code name = value;} of the sequence itself: the ones nested in other statements may not run.
+	 * @param statements The statements, in the order they run.
+	 * @return The names read before they are assigned.
+	 */
+	public Set<String> getExposedReads(List<Statement> statements)
+	{
+		final Set<String> exposed = new HashSet<String>();
+		final Set<String> assigned = new HashSet<String>();
+
+		for (Statement statement : statements)
+		{
+			for (String name : this.getUses(statement).getReads())
+				if (!assigned.contains(name))
+					exposed.add(name);
+			if (statement instanceof ExpressionStmt && ((ExpressionStmt)statement).getExpression() instanceof AssignExpr)
+			{
+				final AssignExpr assignExpr = (AssignExpr)((ExpressionStmt)statement).getExpression();
+				if (assignExpr.getOperator() == AssignExpr.Operator.assign && assignExpr.getTarget() instanceof NameExpr)
+					assigned.add(((NameExpr)assignExpr.getTarget()).getName());
+			}
+		}
+
+		return exposed;
+	}
+	/**
+	 * Returns the names that may be read after a statement runs, before the method returns: the ones read by the
+	 * statements after it, by the loops around it, and by the catch and finally blocks that may run after it.
+	 * A name declared in that code is not the variable visible in the statement, so its reads are left out.
+	 * @param statement A statement of the method.
+	 * @return The names live after the statement.
+	 */
+	public Set<String> getLiveAfter(Statement statement)
+	{
+		// The statement may have been added to the method after the index was built
+		if (!this.parents.containsKey(statement))
+			this.build();
+		if (!this.parents.containsKey(statement))
+			throw new RuntimeException("Can't find the loop!");
+
+		final Set<String> live = new HashSet<String>();
+		final Set<String> redeclared = new HashSet<String>();
+		Statement child = statement;
+		for (Statement parent = this.parents.get(child); parent != null; child = parent, parent = this.parents.get(parent))
+			if (parent instanceof BlockStmt)
+				this.addLive(DefUseIndex.getFollowing(((BlockStmt)parent).getStmts(), child), live, redeclared);
+			else if (parent instanceof SwitchEntryStmt)
+				this.addLive(DefUseIndex.getFollowing(((SwitchEntryStmt)parent).getStmts(), child), live, redeclared);
+			else if (parent instanceof SwitchStmt)
+				this.addLive(DefUseIndex.getFollowing(((SwitchStmt)parent).getEntries(), child), live, redeclared);
+			else if (parent instanceof TryStmt)
+			{
+				final TryStmt tryStmt = (TryStmt)parent;
+				final List<Statement> handlers = new LinkedList<Statement>();
+				if (child == tryStmt.getTryBlock() && tryStmt.getCatchs() != null)
+					for (CatchClause catchClause : tryStmt.getCatchs())
+						handlers.add(catchClause.getCatchBlock());
+				if (child != tryStmt.getFinallyBlock())
+					handlers.add(tryStmt.getFinallyBlock());
+				this.addLive(handlers, live, redeclared);
+			}
+			// The next iteration of an enclosing loop may read anything the loop reads
+			else if (parent instanceof ForStmt || parent instanceof ForeachStmt || parent instanceof WhileStmt || parent instanceof DoStmt)
+				this.addLive(Collections.singletonList(parent), live, redeclared);
+
+		return live;
+	}
+	private void addLive(List<? extends Statement> statements, Set<String> live, Set<String> redeclared)
+	{
+		for (Statement statement : statements)
+		{
+			if (statement == null)
+				continue;
+			final Uses uses = this.getUses(statement);
+			redeclared.addAll(uses.getDeclaredNames());
+			for (String name : uses.getReads())
+				if (!redeclared.contains(name))
+					live.add(name);
+		}
+	}
+	private static List<? extends Statement> getFollowing(List<? extends Statement> statements, Statement statement)
+	{
+		if (statements == null)
+			return Collections.emptyList();
+		for (int index = 0; index < statements.size(); index++)
+			if (statements.get(index) == statement)
+				return statements.subList(index + 1, statements.size());
+		return Collections.emptyList();
+	}
+
+	/****************************/
+	/********** Scopes **********/
+	/****************************/
+	private void build()
+	{
+		this.scopes.clear();
+		this.parents.clear();
+
+		final BlockStmt body = this.method.getBody();
+		if (body != null)
+		{
+			this.addStatements(body.getStmts(), null);
+			this.addParents(body, null);
+		}
+	}
+	private void addParents(Statement statement, Statement parent)
+	{
+		this.parents.put(statement, parent);
+		for (Statement child : Sentence.getAllStatements(statement))
+			if (child != null)
+				this.addParents(child, statement);
+	}
+	// Every declaration of the list is visible from the statements before it
+	private void addStatements(List<Statement> statements, Scope scope)
+	{
+		if (statements == null)
+			return;
+
+		for (Statement statement : statements)
+		{
+			this.addStatement(statement, scope);
+			scope = this.addDeclaration(statement, scope);
+		}
+	}
+	// Every declaration of the list is visible from all its statements, even the ones written before it
+	private void addWholeBlock(List<Statement> statements, Scope scope)
+	{
+		if (statements == null)
+			return;
+
+		for (Statement statement : statements)
+			scope = this.addDeclaration(statement, scope);
+		for (Statement statement : statements)
+			this.addStatement(statement, scope, true);
+	}
+	private void addStatement(Statement statement, Scope scope)
+	{
+		this.addStatement(statement, scope, false);
+	}
+	private void addStatement(Statement statement, Scope scope, boolean wholeBlock)
+	{
+		this.scopes.put(statement, scope);
+
+		// The declarations of try blocks and switch entries are taken as a whole, wherever the statement is
+		if (statement instanceof BlockStmt)
+			this.addNested(((BlockStmt)statement).getStmts(), scope, wholeBlock);
+		else if (statement instanceof TryStmt)
+		{
+			final TryStmt tryStmt = (TryStmt)statement;
+			if (tryStmt.getTryBlock() != null)
+				this.addNestedBlock(tryStmt.getTryBlock().getStmts(), scope, wholeBlock);
+			if (tryStmt.getCatchs() != null)
+				for (CatchClause catchClause : tryStmt.getCatchs())
+					if (catchClause.getCatchBlock() != null)
+						this.addNestedBlock(catchClause.getCatchBlock().getStmts(), scope, wholeBlock);
+			if (tryStmt.getFinallyBlock() != null)
+				this.addNestedBlock(tryStmt.getFinallyBlock().getStmts(), scope, wholeBlock);
+		}
+		else if (statement instanceof IfStmt)
+		{
+			final IfStmt ifStmt = (IfStmt)statement;
+			if (ifStmt.getThenStmt() != null)
+				this.addNested(Collections.singletonList(ifStmt.getThenStmt()), scope, wholeBlock);
+			if (ifStmt.getElseStmt() != null)
+				this.addNested(Collections.singletonList(ifStmt.getElseStmt()), scope, wholeBlock);
+		}
+		else if (statement instanceof SwitchStmt)
+		{
+			final SwitchStmt switchStmt = (SwitchStmt)statement;
+			if (switchStmt.getEntries() != null)
+				for (SwitchEntryStmt entry : switchStmt.getEntries())
+					this.addNestedBlock(entry.getStmts(), scope, wholeBlock);
+		}
+		else if (statement instanceof LabeledStmt)
+			this.addNested(Collections.singletonList(((LabeledStmt)statement).getStmt()), scope, wholeBlock);
+		// The body of a loop is the body of its recursive method: it sees the declarations of the loop, and
+		// its own ones from the statements after them
+		else if (statement instanceof ForStmt)
+		{
+			final ForStmt forStmt = (ForStmt)statement;
+			Scope bodyScope = scope;
+			if (forStmt.getInit() != null)
+				for (Expression init : forStmt.getInit())
+					if (init instanceof VariableDeclarationExpr)
+						bodyScope = new Scope(bodyScope, (VariableDeclarationExpr)init);
+			this.addStatements(Collections.singletonList(forStmt.getBody()), bodyScope);
+		}
+		else if (statement instanceof ForeachStmt)
+		{
+			final ForeachStmt foreachStmt = (ForeachStmt)statement;
+			this.addStatements(Collections.singletonList(foreachStmt.getBody()), new Scope(scope, foreachStmt.getVariable()));
+		}
+		else if (statement instanceof WhileStmt)
+			this.addStatements(Collections.singletonList(((WhileStmt)statement).getBody()), scope);
+		else if (statement instanceof DoStmt)
+			this.addStatements(Collections.singletonList(((DoStmt)statement).getBody()), scope);
+	}
+	private void addNested(List<Statement> statements, Scope scope, boolean wholeBlock)
+	{
+		if (wholeBlock)
+		{
+			if (statements != null)
+				for (Statement statement : statements)
+					this.addStatement(statement, scope, true);
+		}
+		else
+			this.addStatements(statements, scope);
+	}
+	private void addNestedBlock(List<Statement> statements, Scope scope, boolean wholeBlock)
+	{
+		if (wholeBlock)
+			this.addNested(statements, scope, true);
+		else
+			this.addWholeBlock(statements, scope);
+	}
+	private Scope addDeclaration(Statement statement, Scope scope)
+	{
+		if (statement instanceof ExpressionStmt && ((ExpressionStmt)statement).getExpression() instanceof VariableDeclarationExpr)
+			return new Scope(scope, (VariableDeclarationExpr)((ExpressionStmt)statement).getExpression());
+		return scope;
+	}
+}
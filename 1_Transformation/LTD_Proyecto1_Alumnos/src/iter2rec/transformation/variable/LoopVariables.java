@@ -17,11 +17,21 @@ import java.util.List;
 
 public class LoopVariables
 {
+	final VariableTable table;
 	final List<Variable> variables;
 	final List<Variable> returnVariables;
 
 	public LoopVariables(Variable... variables)
 	{
+		this(new VariableTable(), variables);
+	}
+	public LoopVariables(List<Variable> variables)
+	{
+		this(new VariableTable(), variables);
+	}
+	public LoopVariables(VariableTable table, Variable... variables)
+	{
+		this.table = table;
 		this.variables = new LinkedList<Variable>();
 		for (Variable variable : variables)
 			this.variables.add(variable);
@@ -31,8 +41,9 @@ public class LoopVariables
 			if (!variable.isFinal())
 				this.returnVariables.add(variable);
 	}
-	public LoopVariables(List<Variable> variables)
+	public LoopVariables(VariableTable table, List<Variable> variables)
 	{
+		this.table = table;
 		this.variables = new LinkedList<Variable>();
 		for (Variable variable : variables)
 			this.variables.add(variable);
@@ -59,7 +70,7 @@ public class LoopVariables
 	public Variable getResult()
 	{
 		if (this.returnVariables.size() > 1)
-			return Variable.createVariable(0, this.getReturnType(), "result", 0);
+			return Variable.createVariable(this.table, 0, this.getReturnType(), "result", 0);
 		if (this.returnVariables.size() == 1)
 			return this.returnVariables.get(0);
 		return null;
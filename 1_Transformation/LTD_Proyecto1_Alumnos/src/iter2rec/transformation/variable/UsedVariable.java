@@ -5,20 +5,9 @@ public class UsedVariable extends Variable
 	/********************************************************/
 	/************************ Static ************************/
 	/********************************************************/
-	public static Variable createVariable(int modifiers, String name)
+	public static Variable createVariable(VariableTable variables, int modifiers, String name)
 	{
-		final Variable variable;
-		final String id = name;
-
-		if (Variable.variables.containsKey(id))
-			variable = Variable.variables.get(id);
-		else
-		{
-			variable = new UsedVariable(modifiers, name);
-			Variable.variables.put(id, variable);
-		}
-
-		return variable;
+		return variables.getUsedVariable(modifiers, name);
 	}
 
 	/********************************************************/
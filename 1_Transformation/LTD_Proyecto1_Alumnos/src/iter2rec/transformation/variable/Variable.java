@@ -1,6 +1,5 @@
 package iter2rec.transformation.variable;
 
-import java.util.Hashtable;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -26,19 +25,13 @@ public abstract class Variable
 	/********************************************************/
 	/************************ Static ************************/
 	/********************************************************/
-	protected static Hashtable<String, Variable> variables = new Hashtable<String, Variable>();
-
-	public static void clearVariables()
-	{
-		Variable.variables.clear();
-	}
-	public static Variable createVariable(int modifiers, String name)
+	public static Variable createVariable(VariableTable variables, int modifiers, String name)
 	{
-		return UsedVariable.createVariable(modifiers, name);
+		return UsedVariable.createVariable(variables, modifiers, name);
 	}
-	public static Variable createVariable(int modifiers, Type type, String name, int arrayCount)
+	public static Variable createVariable(VariableTable variables, int modifiers, Type type, String name, int arrayCount)
 	{
-		return DeclaredVariable.createVariable(modifiers, type, name, arrayCount);
+		return DeclaredVariable.createVariable(variables, modifiers, type, name, arrayCount);
 	}
 
 	/********************************************************/
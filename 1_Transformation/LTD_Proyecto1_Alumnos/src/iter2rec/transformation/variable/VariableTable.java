@@ -0,0 +1,52 @@
+package iter2rec.transformation.variable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import japa.parser.ast.type.Type;
+
+/**
+ * The variables seen by one analysis of a loop. Every variable is created once per table, so the same
+ * declaration or name always gives the same {@link Variable} object while the table is in use.
+ * A table belongs to a single analysis (a method or a loop) and is not synchronised: analyses that run
+ * at the same time must use their own tables.
+ */
+public class VariableTable
+{
+	private final Map<String, Variable> variables = new HashMap<String, Variable>();
+
+	public Variable getDeclaredVariable(int modifiers, Type type, String name, int arrayCount)
+	{
+		final String id = type.toString() + " " + name;
+		Variable variable = this.variables.get(id);
+
+		if (variable == null)
+		{
+			variable = new DeclaredVariable(modifiers, type, name, arrayCount);
+			this.variables.put(id, variable);
+		}
+
+		return variable;
+	}
+	public Variable getUsedVariable(int modifiers, String name)
+	{
+		Variable variable = this.variables.get(name);
+
+		if (variable == null)
+		{
+			variable = new UsedVariable(modifiers, name);
+			this.variables.put(name, variable);
+		}
+
+		return variable;
+	}
+
+	public int size()
+	{
+		return this.variables.size();
+	}
+	public void clear()
+	{
+		this.variables.clear();
+	}
+}
@@ -119,10 +119,26 @@ import java.util.List;
 final class ASTParser implements ASTParserConstants {
 
     void reset(InputStream in, String encoding) {
+        if (jj_input_stream == null) {
+            // Built with a token manager, see reset(JavaCharStream)
+            try {
+                jj_input_stream = new JavaCharStream(in, encoding, 1, 1);
+            } catch (java.io.UnsupportedEncodingException e) {
+                throw new RuntimeException(e);
+            }
+            reset(jj_input_stream);
+            return;
+        }
         ReInit(in, encoding);
         token_source.clearComments();
     }
 
+    void reset(JavaCharStream stream) {
+        token_source.ReInit(stream);
+        ReInit(token_source);
+        token_source.clearComments();
+    }
+
     private List add(List list, Object obj) {
         if (list == null) {
             list = new LinkedList();
@@ -409,6 +409,11 @@ public class JavaCharStream
        bufpos += bufsize;
   }
 
+/** Constructor for subclasses that do not read through the buffers. */
+  protected JavaCharStream()
+  {
+  }
+
 /** Constructor. */
   public JavaCharStream(java.io.Reader dstream,
                  int startline, int startcolumn, int buffersize)
@@ -24,24 +24,26 @@ package japa.parser;
 import japa.parser.ast.CompilationUnit;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * <p>This class was generated automatically by javacc, do not edit.</p>
  * <p>Parse Java 1.5 source code and creates Abstract Syntax Tree classes.</p>
- * <p><b>Note:</b> To use this parser asynchronously, disable de parser cache
- * by calling the method {@link setCacheParser} with <code>false</code>
- * as argument.</p>
+ * <p>The parse methods are thread-safe: every call borrows a parser from a
+ * shared {@link ParserPool}, so concurrent calls never share a parser.
+ * Several files can be parsed in parallel with {@link #parseAll(Collection)}.</p>
  *
  * @author Jlio Vilmar Gesser
  */
 public final class JavaParser {
 
-    private static ASTParser parser;
+    private static final ParserPool pool = new ParserPool();
 
-    private static boolean cacheParser = true;
+    private static volatile boolean cacheParser = true;
 
     private JavaParser() {
         // hide the constructor
@@ -49,18 +51,14 @@ public final class JavaParser {
 
     /**
      * Changes the way that the parser acts when starts to parse. If the 
-     * parser cache is enabled, only one insance of this object will be 
-     * used in every call to parse methods.
-     * If this parser is intend to be used asynchonously, the cache must 
-     * be disabled setting this flag to <code>false</code>.
+     * parser cache is enabled, the parsers are reused through a
+     * {@link ParserPool}; otherwise a new parser is created in every call.
+     * Both modes are thread-safe.
      * By default, the cache is enabled.
      * @param value <code>false</code> to disable the parser instance cache. 
      */
     public static void setCacheParser(boolean value) {
         cacheParser = value;
-        if (!value) {
-            parser = null;
-        }
     }
 
     /**
@@ -73,12 +71,7 @@ public final class JavaParser {
      */
     public static CompilationUnit parse(InputStream in, String encoding) throws ParseException {
         if (cacheParser) {
-            if (parser == null) {
-                parser = new ASTParser(in, encoding);
-            } else {
-                parser.reset(in, encoding);
-            }
-            return parser.CompilationUnit();
+            return pool.parse(in, encoding);
         }
         return new ASTParser(in, encoding).CompilationUnit();
     }
@@ -104,12 +97,10 @@ public final class JavaParser {
      * @throws IOException 
      */
     public static CompilationUnit parse(File file, String encoding) throws ParseException, IOException {
-        FileInputStream in = new FileInputStream(file);
-        try {
-            return parse(in, encoding);
-        } finally {
-            in.close();
+        if (cacheParser) {
+            return pool.parse(file.toPath(), encoding);
         }
+        return new ASTParser(new ASTParserTokenManager(MappedJavaCharStream.open(file.toPath(), encoding))).CompilationUnit();
     }
 
     /**
@@ -123,4 +114,28 @@ public final class JavaParser {
     public static CompilationUnit parse(File file) throws ParseException, IOException {
         return parse(file, null);
     }
+
+    /**
+     * Parses several files in parallel, using one worker per available
+     * processor, and returns the result of each one in the same order.
+     * A file that cannot be read or parsed does not stop the others: its
+     * error is kept in its {@link ParseResult}.
+     * @param files files containing Java source code
+     * @param encoding encoding of the source code
+     * @return the {@link ParseResult} of every file
+     */
+    public static List<ParseResult> parseAll(Collection<Path> files, String encoding) {
+        return pool.parseAll(files, encoding);
+    }
+
+    /**
+     * Parses several files in parallel, using one worker per available
+     * processor, and returns the result of each one in the same order.
+     * @param files files containing Java source code
+     * @return the {@link ParseResult} of every file
+     * @see #parseAll(Collection, String)
+     */
+    public static List<ParseResult> parseAll(Collection<Path> files) {
+        return parseAll(files, null);
+    }
 }
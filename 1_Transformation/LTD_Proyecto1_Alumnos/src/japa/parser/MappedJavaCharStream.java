@@ -0,0 +1,511 @@
+package japa.parser;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.UnsupportedCharsetException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * <p>A {@link JavaCharStream} over a whole source file held in memory. The file is mapped read-only and
+ * decoded once into a char array, and the unicode escapes (<code>\\uXXXX</code>) are translated in a single
+ * pass before lexing. Files without escapes, the usual case, are lexed straight from the decoded array.</p>
+ * <p>Unlike {@link JavaCharStream}, this stream does not keep a line and a column per buffered character.
+ * Line and column numbers are computed on demand from a table with the offset where every line starts,
+ * built the first time a position is asked for. The numbers are the same ones {@link JavaCharStream}
+ * reports: they refer to the raw text (an escape counts as all its characters) and a tab advances the column
+ * to the next multiple of 8.</p>
+ * <p>{@link #adjustBeginLineColumn(int, int)} moves the positions from the start of the current token on, as
+ * {@link JavaCharStream} does. The stream can not be reinitialised: the <code>ReInit</code> methods throw an
+ * {@link IllegalStateException}; create a new stream instead.</p>
+ */
+public final class MappedJavaCharStream extends JavaCharStream {
+
+    private static final int TAB_SIZE = 8;
+
+    /** Raw text of the file, after decoding the charset. */
+    private final char[] raw;
+
+    private final int rawLength;
+
+    /** Text after translating the unicode escapes. It is <code>raw</code> if there are no escapes. */
+    private final char[] chars;
+
+    private final int length;
+
+    /** Offset in <code>raw</code> of every character of <code>chars</code>, or <code>null</code> if there are no escapes. */
+    private final int[] rawOffsets;
+
+    /** Index of the last character read, or <code>length</code> once the end of the input is reached. */
+    private int pos = -1;
+
+    private int begin = 0;
+
+    /** Offsets where each line starts, built lazily. */
+    private int[] lineStarts;
+
+    private int lineCount;
+
+    /** Line of the last position asked for. Positions are mostly asked in order, so it is usually the next one. */
+    private int currentLine;
+
+    private boolean hasTabs;
+
+    /* Last column computed, to go on from it when the next one is in the same line. */
+    private int lastLine = -1;
+
+    private int lastOffset;
+
+    private int lastColumn;
+
+    /*
+     * Positions moved by adjustBeginLineColumn: from each raw offset on, the lines are moved by the same amount,
+     * and so are the columns of the rest of the line of the offset. Offsets are increasing.
+     */
+    private int adjustments;
+
+    private int[] adjustedOffsets;
+
+    private int[] lineShifts;
+
+    private int[] columnShifts;
+
+    /**
+     * Creates a stream over the first <code>length</code> characters of <code>source</code>, which must
+     * not be modified afterwards.
+     * @param source the Java source code
+     * @param length number of characters of the source code
+     */
+    public MappedJavaCharStream(char[] source, int length) {
+        super();
+        this.raw = source;
+        this.rawLength = length;
+
+        int firstEscape = nextEscape(source, 0, length);
+        if (firstEscape < 0) {
+            this.chars = source;
+            this.length = length;
+            this.rawOffsets = null;
+        } else {
+            this.chars = new char[length];
+            this.rawOffsets = new int[length];
+            this.length = translateEscapes(firstEscape);
+        }
+    }
+
+    /**
+     * Creates a stream over a file.
+     * @param file the file containing Java source code
+     * @param encoding encoding of the source code, or <code>null</code> for the platform default
+     * @return the stream
+     * @throws IOException if the file cannot be read or the encoding is not supported
+     */
+    public static MappedJavaCharStream open(Path file, String encoding) throws IOException {
+        Charset charset;
+        try {
+            charset = encoding == null ? Charset.defaultCharset() : Charset.forName(encoding);
+        } catch (IllegalCharsetNameException e) {
+            throw new UnsupportedEncodingException(encoding);
+        } catch (UnsupportedCharsetException e) {
+            throw new UnsupportedEncodingException(encoding);
+        }
+
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            // Malformed input is replaced, as the InputStreamReader of JavaCharStream does.
+            CharBuffer decoded = charset.decode(bytes);
+            return new MappedJavaCharStream(decoded.array(), decoded.limit());
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Returns the index of the next backslash at or after <code>from</code> that starts a unicode escape:
+     * it is followed by an <code>u</code> and preceded by an even number of backslashes. Returns -1 if there is none.
+     */
+    private static int nextEscape(char[] source, int from, int length) {
+        int backslashes = 0;
+        for (int i = from; i < length; i++) {
+            char c = source[i];
+            if (c == '\\') {
+                backslashes++;
+            } else {
+                if (c == 'u' && (backslashes & 1) == 1) {
+                    return i - 1;
+                }
+                backslashes = 0;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Fills <code>chars</code> and <code>rawOffsets</code> from <code>raw</code>, translating the escapes.
+     * @return the number of translated characters
+     */
+    private int translateEscapes(int escape) {
+        int n = 0;
+        int i = 0;
+        while (escape >= 0) {
+            for (; i < escape; i++, n++) {
+                chars[n] = raw[i];
+                rawOffsets[n] = i;
+            }
+
+            // Skip the backslash and every 'u', then read the four hex digits.
+            int j = escape + 1;
+            while (j < rawLength && raw[j] == 'u') {
+                j++;
+            }
+            try {
+                if (j + 4 > rawLength) {
+                    throw new IOException();
+                }
+                chars[n] = (char) (hexval(raw[j]) << 12 | hexval(raw[j + 1]) << 8 | hexval(raw[j + 2]) << 4 | hexval(raw[j + 3]));
+            } catch (IOException e) {
+                throw new Error("Invalid escape character at line " + lineOf(j - 1) + " column " + columnOf(j - 1) + ".");
+            }
+            rawOffsets[n++] = escape;
+            i = j + 4;
+
+            // The translated character never starts another escape, so the backslash count restarts here.
+            escape = nextEscape(raw, i, rawLength);
+        }
+        for (; i < rawLength; i++, n++) {
+            chars[n] = raw[i];
+            rawOffsets[n] = i;
+        }
+        return n;
+    }
+
+    /** @return starting character for token. */
+    @Override
+    public char BeginToken() throws IOException {
+        if (pos + 1 >= length) {
+            // The end of file token is placed at the last character, as JavaCharStream does.
+            begin = pos = length;
+            throw new IOException();
+        }
+        begin = ++pos;
+        return chars[pos];
+    }
+
+    /** Read a character. */
+    @Override
+    public char readChar() throws IOException {
+        if (pos + 1 >= length) {
+            throw new IOException();
+        }
+        return chars[++pos];
+    }
+
+    /** Retreat. */
+    @Override
+    public void backup(int amount) {
+        pos -= amount;
+    }
+
+    /** @return token image as String */
+    @Override
+    public String GetImage() {
+        return new String(chars, begin, pos - begin + 1);
+    }
+
+    /** @return suffix */
+    @Override
+    public char[] GetSuffix(int len) {
+        char[] ret = new char[len];
+        System.arraycopy(chars, pos - len + 1, ret, 0, len);
+        return ret;
+    }
+
+    /** Get end column. */
+    @Override
+    public int getEndColumn() {
+        return columnOf(rawOffset(pos));
+    }
+
+    /** Get end line. */
+    @Override
+    public int getEndLine() {
+        return lineOf(rawOffset(pos));
+    }
+
+    /** @return column of token start */
+    @Override
+    public int getBeginColumn() {
+        return columnOf(rawOffset(begin));
+    }
+
+    /** @return line number of token start */
+    @Override
+    public int getBeginLine() {
+        return lineOf(rawOffset(begin));
+    }
+
+    /**
+     * @deprecated
+     * @see #getEndColumn
+     */
+    @Deprecated
+    @Override
+    public int getColumn() {
+        return getEndColumn();
+    }
+
+    /**
+     * @deprecated
+     * @see #getEndLine
+     */
+    @Deprecated
+    @Override
+    public int getLine() {
+        return getEndLine();
+    }
+
+    /**
+     * Moves the start of the current token to a line and a column. The positions after it keep their distance to
+     * it: the lines are moved by the same amount, and so are the columns up to the end of its line. This is what
+     * {@link JavaCharStream} does for a token in a single line without tabs; for other tokens it renumbers the
+     * characters it has buffered in its own way.
+     */
+    @Override
+    public void adjustBeginLineColumn(int newLine, int newCol) {
+        int offset = rawOffset(begin);
+        if (offset < 0) {
+            return;
+        }
+        int line = lineIndex(offset);
+        int column = rawColumnOf(offset, line, lineStarts[line]);
+
+        // The adjustments from this offset on no longer apply.
+        while (adjustments > 0 && adjustedOffsets[adjustments - 1] >= offset) {
+            adjustments--;
+        }
+        if (adjustedOffsets == null) {
+            adjustedOffsets = new int[4];
+            lineShifts = new int[4];
+            columnShifts = new int[4];
+        } else if (adjustments == adjustedOffsets.length) {
+            adjustedOffsets = Arrays.copyOf(adjustedOffsets, adjustments * 2);
+            lineShifts = Arrays.copyOf(lineShifts, adjustments * 2);
+            columnShifts = Arrays.copyOf(columnShifts, adjustments * 2);
+        }
+        adjustedOffsets[adjustments] = offset;
+        lineShifts[adjustments] = newLine - (line + 1);
+        columnShifts[adjustments] = newCol - column;
+        adjustments++;
+    }
+
+    /**
+     * Not supported: the stream is built from a whole text.
+     * @throws IllegalStateException always
+     */
+    @Override
+    public void ReInit(java.io.Reader dstream, int startline, int startcolumn, int buffersize) {
+        throw reInitNotSupported();
+    }
+
+    /**
+     * Not supported: the stream is built from a whole text.
+     * @throws IllegalStateException always
+     */
+    @Override
+    public void ReInit(java.io.Reader dstream, int startline, int startcolumn) {
+        throw reInitNotSupported();
+    }
+
+    /**
+     * Not supported: the stream is built from a whole text.
+     * @throws IllegalStateException always
+     */
+    @Override
+    public void ReInit(java.io.Reader dstream) {
+        throw reInitNotSupported();
+    }
+
+    /**
+     * Not supported: the stream is built from a whole text.
+     * @throws IllegalStateException always
+     */
+    @Override
+    public void ReInit(java.io.InputStream dstream, String encoding, int startline, int startcolumn, int buffersize) {
+        throw reInitNotSupported();
+    }
+
+    /**
+     * Not supported: the stream is built from a whole text.
+     * @throws IllegalStateException always
+     */
+    @Override
+    public void ReInit(java.io.InputStream dstream, int startline, int startcolumn, int buffersize) {
+        throw reInitNotSupported();
+    }
+
+    /**
+     * Not supported: the stream is built from a whole text.
+     * @throws IllegalStateException always
+     */
+    @Override
+    public void ReInit(java.io.InputStream dstream, String encoding, int startline, int startcolumn) {
+        throw reInitNotSupported();
+    }
+
+    /**
+     * Not supported: the stream is built from a whole text.
+     * @throws IllegalStateException always
+     */
+    @Override
+    public void ReInit(java.io.InputStream dstream, int startline, int startcolumn) {
+        throw reInitNotSupported();
+    }
+
+    /**
+     * Not supported: the stream is built from a whole text.
+     * @throws IllegalStateException always
+     */
+    @Override
+    public void ReInit(java.io.InputStream dstream, String encoding) {
+        throw reInitNotSupported();
+    }
+
+    /**
+     * Not supported: the stream is built from a whole text.
+     * @throws IllegalStateException always
+     */
+    @Override
+    public void ReInit(java.io.InputStream dstream) {
+        throw reInitNotSupported();
+    }
+
+    private static IllegalStateException reInitNotSupported() {
+        return new IllegalStateException("A MappedJavaCharStream can not be reinitialised, create a new one with the new text");
+    }
+
+    /** Nothing to release, the text is kept until the stream is discarded. */
+    @Override
+    public void Done() {
+    }
+
+    /**
+     * Returns the offset in the raw text of a character. Past the end of the input it returns the last
+     * character, or -1 for an empty input.
+     */
+    private int rawOffset(int index) {
+        if (index >= length) {
+            return rawLength - 1;
+        }
+        return rawOffsets == null ? index : rawOffsets[index];
+    }
+
+    private int lineOf(int offset) {
+        if (offset < 0) {
+            return 1;
+        }
+        int adjustment = adjustmentOf(offset);
+        return lineIndex(offset) + 1 + (adjustment < 0 ? 0 : lineShifts[adjustment]);
+    }
+
+    private int columnOf(int offset) {
+        if (offset < 0) {
+            return 0;
+        }
+        int line = lineIndex(offset);
+        int start = lineStarts[line];
+        int adjustment = adjustmentOf(offset);
+        int shift = adjustment >= 0 && adjustedOffsets[adjustment] >= start ? columnShifts[adjustment] : 0;
+        return rawColumnOf(offset, line, start) + shift;
+    }
+
+    /** Returns the column of a raw offset in the text, without the adjustments. */
+    private int rawColumnOf(int offset, int line, int start) {
+        if (!hasTabs) {
+            return offset - start + 1;
+        }
+
+        int column;
+        int from;
+        if (line == lastLine && offset >= lastOffset) {
+            column = lastColumn;
+            from = lastOffset + 1;
+        } else {
+            column = 0;
+            from = start;
+        }
+        for (int i = from; i <= offset; i++) {
+            if (raw[i] == '\t') {
+                column += TAB_SIZE - (column % TAB_SIZE);
+            } else {
+                column++;
+            }
+        }
+        lastLine = line;
+        lastOffset = offset;
+        lastColumn = column;
+        return column;
+    }
+
+    /** Returns the index of the last adjustment at or before a raw offset, or -1 if there is none. */
+    private int adjustmentOf(int offset) {
+        int i = adjustments - 1;
+        while (i >= 0 && adjustedOffsets[i] > offset) {
+            i--;
+        }
+        return i;
+    }
+
+    /** Returns the zero-based line of a raw offset. */
+    private int lineIndex(int offset) {
+        if (lineStarts == null) {
+            buildLineStarts();
+        }
+        int line = currentLine;
+        if (offset >= lineStarts[line]) {
+            // Same line or one of the next two, else search from here.
+            for (int last = Math.min(line + 2, lineCount - 1); line < last && offset >= lineStarts[line + 1]; line++) {
+            }
+            if (line + 1 < lineCount && offset >= lineStarts[line + 1]) {
+                line = search(line + 1, lineCount, offset);
+            }
+        } else {
+            line = search(0, line, offset);
+        }
+        currentLine = line;
+        return line;
+    }
+
+    private int search(int from, int to, int offset) {
+        int i = Arrays.binarySearch(lineStarts, from, to, offset);
+        return i >= 0 ? i : -i - 2;
+    }
+
+    /** A line ends after a '\n', a "\r\n" or a '\r' that is not followed by '\n'. */
+    private void buildLineStarts() {
+        int[] starts = new int[Math.max(16, rawLength / 32)];
+        int count = 0;
+        starts[count++] = 0;
+        boolean tabs = false;
+        for (int i = 0; i < rawLength; i++) {
+            char c = raw[i];
+            if (c == '\n' || (c == '\r' && (i + 1 == rawLength || raw[i + 1] != '\n'))) {
+                if (count == starts.length) {
+                    starts = Arrays.copyOf(starts, count * 2);
+                }
+                starts[count++] = i + 1;
+            } else if (c == '\t') {
+                tabs = true;
+            }
+        }
+        lineStarts = starts;
+        lineCount = count;
+        hasTabs = tabs;
+    }
+}
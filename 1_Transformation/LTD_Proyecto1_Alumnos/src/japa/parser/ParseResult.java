@@ -0,0 +1,63 @@
+package japa.parser;
+
+import japa.parser.ast.CompilationUnit;
+
+import java.nio.file.Path;
+
+/**
+ * The outcome of parsing one file in a batch: either its {@link CompilationUnit} or the error that
+ * prevented building it.
+ *
+ * @see ParserPool#parseAll(java.util.Collection, String)
+ */
+public final class ParseResult {
+
+    private final Path file;
+
+    private final CompilationUnit compilationUnit;
+
+    private final Throwable error;
+
+    ParseResult(Path file, CompilationUnit compilationUnit, Throwable error) {
+        this.file = file;
+        this.compilationUnit = compilationUnit;
+        this.error = error;
+    }
+
+    /**
+     * Return the parsed file.
+     *
+     * @return the parsed file
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Return the compilation unit, or <code>null</code> if the file could not be parsed.
+     *
+     * @return the compilation unit of the file
+     */
+    public CompilationUnit getCompilationUnit() {
+        return compilationUnit;
+    }
+
+    /**
+     * Return the error found while reading or parsing the file: a {@link ParseException}, an
+     * {@link java.io.IOException} or a {@link TokenMgrError}. It is <code>null</code> on success.
+     *
+     * @return the error, if any
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    /**
+     * Return whether the file was parsed.
+     *
+     * @return <code>true</code> if there is a compilation unit
+     */
+    public boolean isSuccessful() {
+        return error == null;
+    }
+}
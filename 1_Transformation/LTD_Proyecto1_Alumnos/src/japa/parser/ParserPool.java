@@ -0,0 +1,152 @@
+package japa.parser;
+
+import japa.parser.ast.CompilationUnit;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * <p>A bounded pool of reusable parsers. Every call to {@link #parse(InputStream, String)} borrows an idle
+ * parser (or builds a new one if there is none) and gives it back when the parse ends, so concurrent callers
+ * never share a parser while sequential callers keep reusing the same instances and their tables.</p>
+ * <p>At most <code>capacity</code> idle parsers are kept; parsers returned to a full pool are discarded.
+ * Instances of this class are thread-safe.</p>
+ */
+public final class ParserPool {
+
+    private final int capacity;
+
+    private final BlockingQueue<ASTParser> idle;
+
+    /**
+     * Creates a pool that keeps one parser per available processor.
+     */
+    public ParserPool() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a pool that keeps up to <code>capacity</code> idle parsers.
+     * @param capacity maximum number of idle parsers, usually the number of workers
+     */
+    public ParserPool(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.idle = new ArrayBlockingQueue<ASTParser>(capacity);
+    }
+
+    /**
+     * Returns the maximum number of idle parsers kept by this pool.
+     * @return the capacity of the pool
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Parses the Java code contained in the {@link InputStream} with a parser of this pool.
+     * @param in {@link InputStream} containing Java source code
+     * @param encoding encoding of the source code, or <code>null</code> for the platform default
+     * @return CompilationUnit representing the Java source code
+     * @throws ParseException if the source code has parser errors
+     */
+    public CompilationUnit parse(InputStream in, String encoding) throws ParseException {
+        ASTParser parser = idle.poll();
+        if (parser == null) {
+            parser = new ASTParser(in, encoding);
+        } else {
+            parser.reset(in, encoding);
+        }
+        try {
+            return parser.CompilationUnit();
+        } finally {
+            idle.offer(parser);
+        }
+    }
+
+    /**
+     * Parses the Java code read from a {@link JavaCharStream} with a parser of this pool.
+     * @param stream stream of Java source code, such as a {@link MappedJavaCharStream}
+     * @return CompilationUnit representing the Java source code
+     * @throws ParseException if the source code has parser errors
+     */
+    public CompilationUnit parse(JavaCharStream stream) throws ParseException {
+        ASTParser parser = idle.poll();
+        if (parser == null) {
+            parser = new ASTParser(new ASTParserTokenManager(stream));
+        } else {
+            parser.reset(stream);
+        }
+        try {
+            return parser.CompilationUnit();
+        } finally {
+            idle.offer(parser);
+        }
+    }
+
+    /**
+     * Parses a file with a parser of this pool. The file is read through a {@link MappedJavaCharStream}.
+     * @param file file containing Java source code
+     * @param encoding encoding of the source code, or <code>null</code> for the platform default
+     * @return CompilationUnit representing the Java source code
+     * @throws ParseException if the source code has parser errors
+     * @throws IOException if the file cannot be read
+     */
+    public CompilationUnit parse(Path file, String encoding) throws ParseException, IOException {
+        return parse(MappedJavaCharStream.open(file, encoding));
+    }
+
+    /**
+     * Parses every file in parallel, using as many workers as the capacity of this pool.
+     * @param files the files to parse
+     * @param encoding encoding of the source code, or <code>null</code> for the platform default
+     * @return one {@link ParseResult} per file, in the iteration order of <code>files</code>
+     */
+    public List<ParseResult> parseAll(Collection<Path> files, final String encoding) {
+        List<Callable<ParseResult>> tasks = new ArrayList<Callable<ParseResult>>(files.size());
+        for (final Path file : files) {
+            tasks.add(new Callable<ParseResult>() {
+                public ParseResult call() {
+                    try {
+                        return new ParseResult(file, parse(file, encoding), null);
+                    } catch (ParseException e) {
+                        return new ParseResult(file, null, e);
+                    } catch (IOException e) {
+                        return new ParseResult(file, null, e);
+                    } catch (TokenMgrError e) {
+                        return new ParseResult(file, null, e);
+                    }
+                }
+            });
+        }
+
+        ForkJoinPool workers = new ForkJoinPool(capacity);
+        try {
+            List<ParseResult> results = new ArrayList<ParseResult>(files.size());
+            for (Future<ParseResult> future : workers.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while parsing", e);
+        } catch (ExecutionException e) {
+            // Every task catches its own parse errors, so this is a bug (e.g. a RuntimeException in the parser).
+            throw new IllegalStateException("Unexpected error while parsing", e.getCause());
+        } finally {
+            workers.shutdown();
+        }
+    }
+}
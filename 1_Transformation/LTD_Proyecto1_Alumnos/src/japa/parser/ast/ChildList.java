@@ -0,0 +1,121 @@
+package japa.parser.ast;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+
+/**
+ * A view of a list of children of a node. The nodes added to it get the node as their parent, and every
+ * change invalidates the hash code of the node. Reads go straight to the list, which keeps its order and
+ * its cost of access.
+ *
+ * @param <E> the type of the children
+ */
+final class ChildList<E extends Node> extends AbstractList<E> {
+
+    private final Node owner;
+
+    private final List<E> elements;
+
+    ChildList(Node owner, List<E> elements) {
+        this.owner = owner;
+        this.elements = elements;
+    }
+
+    Node getOwner() {
+        return owner;
+    }
+
+    @Override
+    public E get(int index) {
+        return elements.get(index);
+    }
+
+    @Override
+    public int size() {
+        return elements.size();
+    }
+
+    @Override
+    public E set(int index, E element) {
+        E old = elements.set(index, element);
+        owner.setAsParentNodeOf(element);
+        return old;
+    }
+
+    @Override
+    public void add(int index, E element) {
+        elements.add(index, element);
+        modCount++;
+        owner.setAsParentNodeOf(element);
+    }
+
+    @Override
+    public E remove(int index) {
+        E old = elements.remove(index);
+        modCount++;
+        owner.invalidateHashCode();
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        elements.clear();
+        modCount++;
+        owner.invalidateHashCode();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return listIterator(0);
+    }
+
+    @Override
+    public ListIterator<E> listIterator(final int index) {
+        final ListIterator<E> iterator = elements.listIterator(index);
+        return new ListIterator<E>() {
+
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            public E next() {
+                return iterator.next();
+            }
+
+            public boolean hasPrevious() {
+                return iterator.hasPrevious();
+            }
+
+            public E previous() {
+                return iterator.previous();
+            }
+
+            public int nextIndex() {
+                return iterator.nextIndex();
+            }
+
+            public int previousIndex() {
+                return iterator.previousIndex();
+            }
+
+            public void remove() {
+                iterator.remove();
+                modCount++;
+                owner.invalidateHashCode();
+            }
+
+            public void set(E element) {
+                iterator.set(element);
+                owner.setAsParentNodeOf(element);
+            }
+
+            public void add(E element) {
+                iterator.add(element);
+                modCount++;
+                owner.setAsParentNodeOf(element);
+            }
+        };
+    }
+}
@@ -64,5 +64,6 @@ public abstract class Comment extends Node {
      */
     public void setContent(String content) {
         this.content = content;
+        invalidateHashCode();
     }
 }
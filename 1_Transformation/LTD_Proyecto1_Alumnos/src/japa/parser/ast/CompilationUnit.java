@@ -69,17 +69,19 @@ public final class CompilationUnit extends Node {
 
     public CompilationUnit(PackageDeclaration pakage, List<ImportDeclaration> imports, List<TypeDeclaration> types, List<Comment> comments) {
         this.pakage = pakage;
-        this.imports = imports;
-        this.types = types;
-        this.comments = comments;
+        setAsParentNodeOf(pakage);
+        this.imports = childList(imports);
+        this.types = childList(types);
+        this.comments = childList(comments);
     }
 
     public CompilationUnit(int beginLine, int beginColumn, int endLine, int endColumn, PackageDeclaration pakage, List<ImportDeclaration> imports, List<TypeDeclaration> types, List<Comment> comments) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.pakage = pakage;
-        this.imports = imports;
-        this.types = types;
-        this.comments = comments;
+        setAsParentNodeOf(pakage);
+        this.imports = childList(imports);
+        this.types = childList(types);
+        this.comments = childList(comments);
     }
 
     @Override
@@ -150,7 +152,7 @@ public final class CompilationUnit extends Node {
      *            the list of comments
      */
     public void setComments(List<Comment> comments) {
-        this.comments = comments;
+        this.comments = childList(comments);
     }
 
     /**
@@ -161,7 +163,7 @@ public final class CompilationUnit extends Node {
      *            the list of imports
      */
     public void setImports(List<ImportDeclaration> imports) {
-        this.imports = imports;
+        this.imports = childList(imports);
     }
 
     /**
@@ -173,6 +175,7 @@ public final class CompilationUnit extends Node {
      */
     public void setPackage(PackageDeclaration pakage) {
         this.pakage = pakage;
+        setAsParentNodeOf(pakage);
     }
 
     /**
@@ -182,7 +185,7 @@ public final class CompilationUnit extends Node {
      *            the lis of types
      */
     public void setTypes(List<TypeDeclaration> types) {
-        this.types = types;
+        this.types = childList(types);
     }
 
 }
@@ -58,6 +58,7 @@ public final class ImportDeclaration extends Node {
 
     public ImportDeclaration(NameExpr name, boolean isStatic, boolean isAsterisk) {
         this.name = name;
+        setAsParentNodeOf(name);
         this.static_ = isStatic;
         this.asterisk = isAsterisk;
     }
@@ -65,6 +66,7 @@ public final class ImportDeclaration extends Node {
     public ImportDeclaration(int beginLine, int beginColumn, int endLine, int endColumn, NameExpr name, boolean isStatic, boolean isAsterisk) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.name = name;
+        setAsParentNodeOf(name);
         this.static_ = isStatic;
         this.asterisk = isAsterisk;
     }
@@ -116,6 +118,7 @@ public final class ImportDeclaration extends Node {
      */
     public void setAsterisk(boolean asterisk) {
         this.asterisk = asterisk;
+        invalidateHashCode();
     }
 
     /**
@@ -126,6 +129,7 @@ public final class ImportDeclaration extends Node {
      */
     public void setName(NameExpr name) {
         this.name = name;
+        setAsParentNodeOf(name);
     }
 
     /**
@@ -136,6 +140,7 @@ public final class ImportDeclaration extends Node {
      */
     public void setStatic(boolean static_) {
         this.static_ = static_;
+        invalidateHashCode();
     }
 
 }
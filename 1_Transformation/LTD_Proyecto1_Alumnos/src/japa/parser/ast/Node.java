@@ -24,36 +24,104 @@ package japa.parser.ast;
 import japa.parser.ast.visitor.DumpVisitor;
 import japa.parser.ast.visitor.EqualsVisitor;
 import japa.parser.ast.visitor.GenericVisitor;
+import japa.parser.ast.visitor.HashCodeVisitor;
 import japa.parser.ast.visitor.VoidVisitor;
 
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Abstract class for all nodes of the AST.
+ * <p>
+ * The source positions are packed in a single <code>long</code>: 20 bits for
+ * each line and 11 bits for each column, so lines up to 1048575 and columns up
+ * to 2047 take no extra space. A node with a position out of those ranges keeps
+ * its four positions in a side table instead. The data associated with
+ * {@link #setData(Object)} is kept in a side table too, since few nodes have any.
+ * <p>
+ * The structural hash code is computed bottom-up and cached in each node. The
+ * setters and the child lists invalidate it along the parent chain; a node that
+ * is a child of several nodes invalidates every cached hash code instead. A list
+ * given to a node must be changed through the node afterwards.
  * 
  * @author Julio Vilmar Gesser
  */
 public abstract class Node {
 
-    private int beginLine;
+    private static final int LINE_BITS = 20;
 
-    private int beginColumn;
+    private static final int COLUMN_BITS = 11;
 
-    private int endLine;
+    private static final int MAX_LINE = (1 << LINE_BITS) - 1;
 
-    private int endColumn;
+    private static final int MAX_COLUMN = (1 << COLUMN_BITS) - 1;
 
-    /**
-     * This attribute can store additional information from semantic analysis.
-     */
-    private Object data;
+    private static final int BEGIN_LINE_SHIFT = COLUMN_BITS + LINE_BITS + COLUMN_BITS;
+
+    private static final int BEGIN_COLUMN_SHIFT = LINE_BITS + COLUMN_BITS;
+
+    private static final int END_LINE_SHIFT = COLUMN_BITS;
+
+    private static final int END_COLUMN_SHIFT = 0;
+
+    /** Set when the positions are in {@link #wideNodes}. It is the sign bit, so those nodes are the negative ones. */
+    private static final long WIDE = Long.MIN_VALUE;
+
+    /** Positions (begin line, begin column, end line, end column) of the nodes that do not fit in {@link #positions}. */
+    private static final NodeTable<int[]> wideNodes = new NodeTable<int[]>();
+
+    /** Additional information from semantic analysis, see {@link #setData(Object)}. */
+    private static final NodeTable<Object> dataTable = new NodeTable<Object>();
+
+    /** Incremented by two when a node with several parents changes, so it is always odd and a valid {@link #hashCache} is never 0. */
+    private static final AtomicInteger sharedModifications = new AtomicInteger(1);
+
+    private long positions;
+
+    /** The node that holds this one, this node itself if there are several, or <code>null</code>. */
+    private Node parentNode;
+
+    /** The hash code in the low half and the value of {@link #sharedModifications} it was computed with in the high half, or 0. */
+    private long hashCache;
 
     public Node() {
     }
 
     public Node(int beginLine, int beginColumn, int endLine, int endColumn) {
-        this.beginLine = beginLine;
-        this.beginColumn = beginColumn;
-        this.endLine = endLine;
-        this.endColumn = endColumn;
+        if (fits(beginLine, MAX_LINE) && fits(beginColumn, MAX_COLUMN) && fits(endLine, MAX_LINE) && fits(endColumn, MAX_COLUMN)) {
+            this.positions = (long) beginLine << BEGIN_LINE_SHIFT | (long) beginColumn << BEGIN_COLUMN_SHIFT
+                    | (long) endLine << END_LINE_SHIFT | (long) endColumn << END_COLUMN_SHIFT;
+        } else {
+            this.positions = WIDE;
+            wideNodes.put(this, new int[] { beginLine, beginColumn, endLine, endColumn });
+        }
+    }
+
+    private static boolean fits(int value, int max) {
+        return value >= 0 && value <= max;
+    }
+
+    private int getPosition(int index, int shift, int max) {
+        if (positions < 0) {
+            return wideNodes.get(this)[index];
+        }
+        return (int) (positions >>> shift) & max;
+    }
+
+    private void setPosition(int index, int shift, int max, int value) {
+        if (positions >= 0 && fits(value, max)) {
+            positions = positions & ~((long) max << shift) | (long) value << shift;
+            return;
+        }
+        int[] wide;
+        if (positions < 0) {
+            wide = wideNodes.get(this);
+        } else {
+            wide = new int[] { getBeginLine(), getBeginColumn(), getEndLine(), getEndColumn() };
+            positions = WIDE;
+            wideNodes.put(this, wide);
+        }
+        wide[index] = value;
     }
 
     /**
@@ -89,7 +157,7 @@ public abstract class Node {
      * @return the begin column of this node
      */
     public final int getBeginColumn() {
-        return beginColumn;
+        return getPosition(1, BEGIN_COLUMN_SHIFT, MAX_COLUMN);
     }
 
     /**
@@ -98,14 +166,14 @@ public abstract class Node {
      * @return the begin line of this node
      */
     public final int getBeginLine() {
-        return beginLine;
+        return getPosition(0, BEGIN_LINE_SHIFT, MAX_LINE);
     }
 
     /**
      * Use this to retrieve additional information associated to this node.
      */
     public final Object getData() {
-        return data;
+        return dataTable.get(this);
     }
 
     /**
@@ -114,7 +182,7 @@ public abstract class Node {
      * @return the end column of this node
      */
     public final int getEndColumn() {
-        return endColumn;
+        return getPosition(3, END_COLUMN_SHIFT, MAX_COLUMN);
     }
 
     /**
@@ -123,7 +191,7 @@ public abstract class Node {
      * @return the end line of this node
      */
     public final int getEndLine() {
-        return endLine;
+        return getPosition(2, END_LINE_SHIFT, MAX_LINE);
     }
 
     /**
@@ -133,7 +201,7 @@ public abstract class Node {
      *            the begin column of this node
      */
     public final void setBeginColumn(int beginColumn) {
-        this.beginColumn = beginColumn;
+        setPosition(1, BEGIN_COLUMN_SHIFT, MAX_COLUMN, beginColumn);
     }
 
     /**
@@ -143,14 +211,14 @@ public abstract class Node {
      *            the begin line of this node
      */
     public final void setBeginLine(int beginLine) {
-        this.beginLine = beginLine;
+        setPosition(0, BEGIN_LINE_SHIFT, MAX_LINE, beginLine);
     }
 
     /**
      * Use this to store additional information to this node.
      */
     public final void setData(Object data) {
-        this.data = data;
+        dataTable.put(this, data);
     }
 
     /**
@@ -160,7 +228,7 @@ public abstract class Node {
      *            the end column of this node
      */
     public final void setEndColumn(int endColumn) {
-        this.endColumn = endColumn;
+        setPosition(3, END_COLUMN_SHIFT, MAX_COLUMN, endColumn);
     }
 
     /**
@@ -170,7 +238,7 @@ public abstract class Node {
      *            the end line of this node
      */
     public final void setEndLine(int endLine) {
-        this.endLine = endLine;
+        setPosition(2, END_LINE_SHIFT, MAX_LINE, endLine);
     }
 
     /**
@@ -185,9 +253,85 @@ public abstract class Node {
         return visitor.getSource();
     }
 
+    /**
+     * Makes this node the parent of a child, and invalidates the hash code of
+     * this node.
+     * 
+     * @param child
+     *            the child, can be <code>null</code>
+     */
+    protected final void setAsParentNodeOf(Node child) {
+        if (child != null) {
+            adopt(child);
+        }
+        invalidateHashCode();
+    }
+
+    /**
+     * Makes this node the parent of the nodes of a list, and invalidates the
+     * hash code of this node.
+     * 
+     * @param children
+     *            the list, can be <code>null</code>
+     * @return a view of the list that makes this node the parent of the nodes
+     *         added to it and invalidates the hash code of this node when it
+     *         changes
+     */
+    protected final <T extends Node> List<T> childList(List<T> children) {
+        invalidateHashCode();
+        if (children == null) {
+            return null;
+        }
+        for (T child : children) {
+            adopt(child);
+        }
+        if (children instanceof ChildList<?> && ((ChildList<?>) children).getOwner() == this) {
+            return children;
+        }
+        return new ChildList<T>(this, children);
+    }
+
+    private void adopt(Node child) {
+        if (child.parentNode == null) {
+            child.parentNode = this;
+        } else if (child.parentNode != this) {
+            child.parentNode = child;
+        }
+    }
+
+    /**
+     * Invalidates the cached hash code of this node and of its ancestors. A
+     * node without a cached hash code stops the walk: its ancestors have none
+     * either, since a hash code is computed from the ones of the children.
+     */
+    protected final void invalidateHashCode() {
+        for (Node n = this; n != null && n.hashCache != 0;) {
+            n.hashCache = 0;
+            if (n.parentNode == n) {
+                sharedModifications.addAndGet(2);
+                return;
+            }
+            n = n.parentNode;
+        }
+    }
+
+    /**
+     * Return the structural hash code of this node, consistent with
+     * {@link #equals(Object)}. It is cached, so only the nodes changed since
+     * the last call are visited again.
+     * 
+     * @return the hash code of this node
+     */
     @Override
     public final int hashCode() {
-        return toString().hashCode();
+        long cache = hashCache;
+        int modifications = sharedModifications.get();
+        if ((int) (cache >>> 32) == modifications) {
+            return (int) cache;
+        }
+        int hash = HashCodeVisitor.hashCode(this);
+        hashCache = (long) modifications << 32 | hash & 0xFFFFFFFFL;
+        return hash;
     }
 
     @Override
@@ -0,0 +1,151 @@
+package japa.parser.ast;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+
+/**
+ * A side table that associates values to nodes without storing them in the nodes. The nodes are compared by
+ * identity (not with {@link Node#equals(Object)}) and referenced weakly, so an entry goes away with its node.
+ * Instances of this class are thread-safe: the nodes are spread over segments with a lock each, so the threads
+ * that parse or transform different files seldom wait for each other.
+ *
+ * @param <V> the type of the values
+ */
+final class NodeTable<V> {
+
+    /** The segments are chosen with the highest bits of the mixed hash, so there are <code>2^SEGMENT_BITS</code>. */
+    private static final int SEGMENT_BITS = 5;
+
+    private static final class Entry extends WeakReference<Node> {
+
+        final int hash;
+
+        Object value;
+
+        Entry next;
+
+        Entry(Node node, int hash, Object value, Entry next, ReferenceQueue<Node> queue) {
+            super(node, queue);
+            this.hash = hash;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    /** A hash table with its own lock, for the nodes whose hash selects it. */
+    private static final class Segment {
+
+        private final ReferenceQueue<Node> queue = new ReferenceQueue<Node>();
+
+        private Entry[] table = new Entry[4];
+
+        private int size;
+
+        synchronized Object get(Node node, int hash) {
+            expunge();
+            for (Entry e = table[hash & (table.length - 1)]; e != null; e = e.next) {
+                if (e.hash == hash && e.get() == node) {
+                    return e.value;
+                }
+            }
+            return null;
+        }
+
+        synchronized void put(Node node, int hash, Object value) {
+            expunge();
+            int i = hash & (table.length - 1);
+            Entry prev = null;
+            for (Entry e = table[i]; e != null; prev = e, e = e.next) {
+                if (e.hash == hash && e.get() == node) {
+                    if (value != null) {
+                        e.value = value;
+                    } else {
+                        unlink(i, prev, e);
+                    }
+                    return;
+                }
+            }
+            if (value != null) {
+                table[i] = new Entry(node, hash, value, table[i], queue);
+                if (++size > table.length * 3 / 4) {
+                    resize();
+                }
+            }
+        }
+
+        private void unlink(int i, Entry prev, Entry e) {
+            if (prev == null) {
+                table[i] = e.next;
+            } else {
+                prev.next = e.next;
+            }
+            e.value = null;
+            size--;
+        }
+
+        private void resize() {
+            Entry[] old = table;
+            table = new Entry[old.length * 2];
+            for (Entry head : old) {
+                for (Entry e = head; e != null;) {
+                    Entry next = e.next;
+                    int i = e.hash & (table.length - 1);
+                    e.next = table[i];
+                    table[i] = e;
+                    e = next;
+                }
+            }
+        }
+
+        /** Removes the entries of the nodes that have been collected. */
+        private void expunge() {
+            for (Object ref; (ref = queue.poll()) != null;) {
+                Entry stale = (Entry) ref;
+                int i = stale.hash & (table.length - 1);
+                Entry prev = null;
+                for (Entry e = table[i]; e != null; prev = e, e = e.next) {
+                    if (e == stale) {
+                        unlink(i, prev, e);
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private final Segment[] segments = new Segment[1 << SEGMENT_BITS];
+
+    NodeTable() {
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * Return the value associated to a node.
+     *
+     * @param node the node
+     * @return the value, or <code>null</code> if there is none
+     */
+    @SuppressWarnings("unchecked")
+    V get(Node node) {
+        int hash = System.identityHashCode(node);
+        return (V) segmentFor(hash).get(node, hash);
+    }
+
+    /**
+     * Associates a value to a node, or removes the association if the value is <code>null</code>.
+     *
+     * @param node the node
+     * @param value the value
+     */
+    void put(Node node, V value) {
+        int hash = System.identityHashCode(node);
+        segmentFor(hash).put(node, hash, value);
+    }
+
+    /** The buckets of a segment are chosen with the lowest bits of the hash, so the segment is chosen with the highest ones. */
+    private Segment segmentFor(int hash) {
+        return segments[(hash * 0x9E3779B9) >>> (32 - SEGMENT_BITS)];
+    }
+}
@@ -59,17 +59,20 @@ public final class PackageDeclaration extends Node {
 
     public PackageDeclaration(NameExpr name) {
         this.name = name;
+        setAsParentNodeOf(name);
     }
 
     public PackageDeclaration(List<AnnotationExpr> annotations, NameExpr name) {
-        this.annotations = annotations;
+        this.annotations = childList(annotations);
         this.name = name;
+        setAsParentNodeOf(name);
     }
 
     public PackageDeclaration(int beginLine, int beginColumn, int endLine, int endColumn, List<AnnotationExpr> annotations, NameExpr name) {
         super(beginLine, beginColumn, endLine, endColumn);
-        this.annotations = annotations;
+        this.annotations = childList(annotations);
         this.name = name;
+        setAsParentNodeOf(name);
     }
 
     @Override
@@ -106,7 +109,7 @@ public final class PackageDeclaration extends Node {
      *            the annotations to set
      */
     public void setAnnotations(List<AnnotationExpr> annotations) {
-        this.annotations = annotations;
+        this.annotations = childList(annotations);
     }
 
     /**
@@ -117,6 +120,7 @@ public final class PackageDeclaration extends Node {
      */
     public void setName(NameExpr name) {
         this.name = name;
+        setAsParentNodeOf(name);
     }
 
 }
@@ -57,13 +57,13 @@ public final class TypeParameter extends Node {
 
     public TypeParameter(String name, List<ClassOrInterfaceType> typeBound) {
         this.name = name;
-        this.typeBound = typeBound;
+        this.typeBound = childList(typeBound);
     }
 
     public TypeParameter(int beginLine, int beginColumn, int endLine, int endColumn, String name, List<ClassOrInterfaceType> typeBound) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.name = name;
-        this.typeBound = typeBound;
+        this.typeBound = childList(typeBound);
     }
 
     @Override
@@ -103,6 +103,7 @@ public final class TypeParameter extends Node {
      */
     public void setName(String name) {
         this.name = name;
+        invalidateHashCode();
     }
 
     /**
@@ -112,7 +113,7 @@ public final class TypeParameter extends Node {
      *            the typeBound to set
      */
     public void setTypeBound(List<ClassOrInterfaceType> typeBound) {
-        this.typeBound = typeBound;
+        this.typeBound = childList(typeBound);
     }
 
 }
@@ -48,24 +48,30 @@ public final class AnnotationMemberDeclaration extends BodyDeclaration {
     public AnnotationMemberDeclaration(int modifiers, Type type, String name, Expression defaultValue) {
         this.modifiers = modifiers;
         this.type = type;
+        setAsParentNodeOf(type);
         this.name = name;
         this.defaultValue = defaultValue;
+        setAsParentNodeOf(defaultValue);
     }
 
     public AnnotationMemberDeclaration(JavadocComment javaDoc, int modifiers, List<AnnotationExpr> annotations, Type type, String name, Expression defaultValue) {
         super(annotations, javaDoc);
         this.modifiers = modifiers;
         this.type = type;
+        setAsParentNodeOf(type);
         this.name = name;
         this.defaultValue = defaultValue;
+        setAsParentNodeOf(defaultValue);
     }
 
     public AnnotationMemberDeclaration(int beginLine, int beginColumn, int endLine, int endColumn, JavadocComment javaDoc, int modifiers, List<AnnotationExpr> annotations, Type type, String name, Expression defaultValue) {
         super(beginLine, beginColumn, endLine, endColumn, annotations, javaDoc);
         this.modifiers = modifiers;
         this.type = type;
+        setAsParentNodeOf(type);
         this.name = name;
         this.defaultValue = defaultValue;
+        setAsParentNodeOf(defaultValue);
     }
 
     @Override
@@ -102,17 +108,21 @@ public final class AnnotationMemberDeclaration extends BodyDeclaration {
 
     public void setDefaultValue(Expression defaultValue) {
         this.defaultValue = defaultValue;
+        setAsParentNodeOf(defaultValue);
     }
 
     public void setModifiers(int modifiers) {
         this.modifiers = modifiers;
+        invalidateHashCode();
     }
 
     public void setName(String name) {
         this.name = name;
+        invalidateHashCode();
     }
 
     public void setType(Type type) {
         this.type = type;
+        setAsParentNodeOf(type);
     }
 }
@@ -40,13 +40,15 @@ public abstract class BodyDeclaration extends Node {
 
     public BodyDeclaration(List<AnnotationExpr> annotations, JavadocComment javaDoc) {
         this.javaDoc = javaDoc;
-        this.annotations = annotations;
+        setAsParentNodeOf(javaDoc);
+        this.annotations = childList(annotations);
     }
 
     public BodyDeclaration(int beginLine, int beginColumn, int endLine, int endColumn, List<AnnotationExpr> annotations, JavadocComment javaDoc) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.javaDoc = javaDoc;
-        this.annotations = annotations;
+        setAsParentNodeOf(javaDoc);
+        this.annotations = childList(annotations);
     }
 
     public final JavadocComment getJavaDoc() {
@@ -59,10 +61,11 @@ public abstract class BodyDeclaration extends Node {
 
     public final void setJavaDoc(JavadocComment javaDoc) {
         this.javaDoc = javaDoc;
+        setAsParentNodeOf(javaDoc);
     }
 
     public final void setAnnotations(List<AnnotationExpr> annotations) {
-        this.annotations = annotations;
+        this.annotations = childList(annotations);
     }
 
 }
@@ -53,17 +53,17 @@ public final class ClassOrInterfaceDeclaration extends TypeDeclaration {
     public ClassOrInterfaceDeclaration(JavadocComment javaDoc, int modifiers, List<AnnotationExpr> annotations, boolean isInterface, String name, List<TypeParameter> typeParameters, List<ClassOrInterfaceType> extendsList, List<ClassOrInterfaceType> implementsList, List<BodyDeclaration> members) {
         super(annotations, javaDoc, modifiers, name, members);
         this.interface_ = isInterface;
-        this.typeParameters = typeParameters;
-        this.extendsList = extendsList;
-        this.implementsList = implementsList;
+        this.typeParameters = childList(typeParameters);
+        this.extendsList = childList(extendsList);
+        this.implementsList = childList(implementsList);
     }
 
     public ClassOrInterfaceDeclaration(int beginLine, int beginColumn, int endLine, int endColumn, JavadocComment javaDoc, int modifiers, List<AnnotationExpr> annotations, boolean isInterface, String name, List<TypeParameter> typeParameters, List<ClassOrInterfaceType> extendsList, List<ClassOrInterfaceType> implementsList, List<BodyDeclaration> members) {
         super(beginLine, beginColumn, endLine, endColumn, annotations, javaDoc, modifiers, name, members);
         this.interface_ = isInterface;
-        this.typeParameters = typeParameters;
-        this.extendsList = extendsList;
-        this.implementsList = implementsList;
+        this.typeParameters = childList(typeParameters);
+        this.extendsList = childList(extendsList);
+        this.implementsList = childList(implementsList);
     }
 
     @Override
@@ -93,18 +93,19 @@ public final class ClassOrInterfaceDeclaration extends TypeDeclaration {
     }
 
     public void setExtends(List<ClassOrInterfaceType> extendsList) {
-        this.extendsList = extendsList;
+        this.extendsList = childList(extendsList);
     }
 
     public void setImplements(List<ClassOrInterfaceType> implementsList) {
-        this.implementsList = implementsList;
+        this.implementsList = childList(implementsList);
     }
 
     public void setInterface(boolean interface_) {
         this.interface_ = interface_;
+        invalidateHashCode();
     }
 
     public void setTypeParameters(List<TypeParameter> typeParameters) {
-        this.typeParameters = typeParameters;
+        this.typeParameters = childList(typeParameters);
     }
 }
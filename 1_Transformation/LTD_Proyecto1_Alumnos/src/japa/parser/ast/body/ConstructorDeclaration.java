@@ -58,21 +58,23 @@ public final class ConstructorDeclaration extends BodyDeclaration {
     public ConstructorDeclaration(JavadocComment javaDoc, int modifiers, List<AnnotationExpr> annotations, List<TypeParameter> typeParameters, String name, List<Parameter> parameters, List<NameExpr> throws_, BlockStmt block) {
         super(annotations, javaDoc);
         this.modifiers = modifiers;
-        this.typeParameters = typeParameters;
+        this.typeParameters = childList(typeParameters);
         this.name = name;
-        this.parameters = parameters;
-        this.throws_ = throws_;
+        this.parameters = childList(parameters);
+        this.throws_ = childList(throws_);
         this.block = block;
+        setAsParentNodeOf(block);
     }
 
     public ConstructorDeclaration(int beginLine, int beginColumn, int endLine, int endColumn, JavadocComment javaDoc, int modifiers, List<AnnotationExpr> annotations, List<TypeParameter> typeParameters, String name, List<Parameter> parameters, List<NameExpr> throws_, BlockStmt block) {
         super(beginLine, beginColumn, endLine, endColumn, annotations, javaDoc);
         this.modifiers = modifiers;
-        this.typeParameters = typeParameters;
+        this.typeParameters = childList(typeParameters);
         this.name = name;
-        this.parameters = parameters;
-        this.throws_ = throws_;
+        this.parameters = childList(parameters);
+        this.throws_ = childList(throws_);
         this.block = block;
+        setAsParentNodeOf(block);
     }
 
     @Override
@@ -117,25 +119,28 @@ public final class ConstructorDeclaration extends BodyDeclaration {
 
     public void setBlock(BlockStmt block) {
         this.block = block;
+        setAsParentNodeOf(block);
     }
 
     public void setModifiers(int modifiers) {
         this.modifiers = modifiers;
+        invalidateHashCode();
     }
 
     public void setName(String name) {
         this.name = name;
+        invalidateHashCode();
     }
 
     public void setParameters(List<Parameter> parameters) {
-        this.parameters = parameters;
+        this.parameters = childList(parameters);
     }
 
     public void setThrows(List<NameExpr> throws_) {
-        this.throws_ = throws_;
+        this.throws_ = childList(throws_);
     }
 
     public void setTypeParameters(List<TypeParameter> typeParameters) {
-        this.typeParameters = typeParameters;
+        this.typeParameters = childList(typeParameters);
     }
 }
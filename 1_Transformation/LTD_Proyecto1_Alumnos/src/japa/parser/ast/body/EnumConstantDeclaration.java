@@ -49,15 +49,15 @@ public final class EnumConstantDeclaration extends BodyDeclaration {
     public EnumConstantDeclaration(JavadocComment javaDoc, List<AnnotationExpr> annotations, String name, List<Expression> args, List<BodyDeclaration> classBody) {
         super(annotations, javaDoc);
         this.name = name;
-        this.args = args;
-        this.classBody = classBody;
+        this.args = childList(args);
+        this.classBody = childList(classBody);
     }
 
     public EnumConstantDeclaration(int beginLine, int beginColumn, int endLine, int endColumn, JavadocComment javaDoc, List<AnnotationExpr> annotations, String name, List<Expression> args, List<BodyDeclaration> classBody) {
         super(beginLine, beginColumn, endLine, endColumn, annotations, javaDoc);
         this.name = name;
-        this.args = args;
-        this.classBody = classBody;
+        this.args = childList(args);
+        this.classBody = childList(classBody);
     }
 
     @Override
@@ -83,14 +83,15 @@ public final class EnumConstantDeclaration extends BodyDeclaration {
     }
 
     public void setArgs(List<Expression> args) {
-        this.args = args;
+        this.args = childList(args);
     }
 
     public void setClassBody(List<BodyDeclaration> classBody) {
-        this.classBody = classBody;
+        this.classBody = childList(classBody);
     }
 
     public void setName(String name) {
         this.name = name;
+        invalidateHashCode();
     }
 }
@@ -46,14 +46,14 @@ public final class EnumDeclaration extends TypeDeclaration {
 
     public EnumDeclaration(JavadocComment javaDoc, int modifiers, List<AnnotationExpr> annotations, String name, List<ClassOrInterfaceType> implementsList, List<EnumConstantDeclaration> entries, List<BodyDeclaration> members) {
         super(annotations, javaDoc, modifiers, name, members);
-        this.implementsList = implementsList;
-        this.entries = entries;
+        this.implementsList = childList(implementsList);
+        this.entries = childList(entries);
     }
 
     public EnumDeclaration(int beginLine, int beginColumn, int endLine, int endColumn, JavadocComment javaDoc, int modifiers, List<AnnotationExpr> annotations, String name, List<ClassOrInterfaceType> implementsList, List<EnumConstantDeclaration> entries, List<BodyDeclaration> members) {
         super(beginLine, beginColumn, endLine, endColumn, annotations, javaDoc, modifiers, name, members);
-        this.implementsList = implementsList;
-        this.entries = entries;
+        this.implementsList = childList(implementsList);
+        this.entries = childList(entries);
     }
 
     @Override
@@ -75,10 +75,10 @@ public final class EnumDeclaration extends TypeDeclaration {
     }
 
     public void setEntries(List<EnumConstantDeclaration> entries) {
-        this.entries = entries;
+        this.entries = childList(entries);
     }
 
     public void setImplements(List<ClassOrInterfaceType> implementsList) {
-        this.implementsList = implementsList;
+        this.implementsList = childList(implementsList);
     }
 }
@@ -46,28 +46,32 @@ public final class FieldDeclaration extends BodyDeclaration {
     public FieldDeclaration(int modifiers, Type type, VariableDeclarator variable) {
         this.modifiers = modifiers;
         this.type = type;
-        this.variables = new ArrayList<VariableDeclarator>();
+        setAsParentNodeOf(type);
+        this.variables = childList(new ArrayList<VariableDeclarator>());
         this.variables.add(variable);
     }
 
     public FieldDeclaration(int modifiers, Type type, List<VariableDeclarator> variables) {
         this.modifiers = modifiers;
         this.type = type;
-        this.variables = variables;
+        setAsParentNodeOf(type);
+        this.variables = childList(variables);
     }
 
     public FieldDeclaration(JavadocComment javaDoc, int modifiers, List<AnnotationExpr> annotations, Type type, List<VariableDeclarator> variables) {
         super(annotations, javaDoc);
         this.modifiers = modifiers;
         this.type = type;
-        this.variables = variables;
+        setAsParentNodeOf(type);
+        this.variables = childList(variables);
     }
 
     public FieldDeclaration(int beginLine, int beginColumn, int endLine, int endColumn, JavadocComment javaDoc, int modifiers, List<AnnotationExpr> annotations, Type type, List<VariableDeclarator> variables) {
         super(beginLine, beginColumn, endLine, endColumn, annotations, javaDoc);
         this.modifiers = modifiers;
         this.type = type;
-        this.variables = variables;
+        setAsParentNodeOf(type);
+        this.variables = childList(variables);
     }
 
     @Override
@@ -100,13 +104,15 @@ public final class FieldDeclaration extends BodyDeclaration {
 
     public void setModifiers(int modifiers) {
         this.modifiers = modifiers;
+        invalidateHashCode();
     }
 
     public void setType(Type type) {
         this.type = type;
+        setAsParentNodeOf(type);
     }
 
     public void setVariables(List<VariableDeclarator> variables) {
-        this.variables = variables;
+        this.variables = childList(variables);
     }
 }
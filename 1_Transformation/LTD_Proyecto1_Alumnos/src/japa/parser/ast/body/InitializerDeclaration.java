@@ -40,18 +40,21 @@ public final class InitializerDeclaration extends BodyDeclaration {
     public InitializerDeclaration(boolean isStatic, BlockStmt block) {
         this.isStatic = isStatic;
         this.block = block;
+        setAsParentNodeOf(block);
     }
 
     public InitializerDeclaration(JavadocComment javaDoc, boolean isStatic, BlockStmt block) {
         super(null, javaDoc);
         this.isStatic = isStatic;
         this.block = block;
+        setAsParentNodeOf(block);
     }
 
     public InitializerDeclaration(int beginLine, int beginColumn, int endLine, int endColumn, JavadocComment javaDoc, boolean isStatic, BlockStmt block) {
         super(beginLine, beginColumn, endLine, endColumn, null, javaDoc);
         this.isStatic = isStatic;
         this.block = block;
+        setAsParentNodeOf(block);
     }
 
     @Override
@@ -74,9 +77,11 @@ public final class InitializerDeclaration extends BodyDeclaration {
 
     public void setBlock(BlockStmt block) {
         this.block = block;
+        setAsParentNodeOf(block);
     }
 
     public void setStatic(boolean isStatic) {
         this.isStatic = isStatic;
+        invalidateHashCode();
     }
 }
@@ -58,38 +58,44 @@ public final class MethodDeclaration extends BodyDeclaration {
     public MethodDeclaration(int modifiers, Type type, String name) {
         this.modifiers = modifiers;
         this.type = type;
+        setAsParentNodeOf(type);
         this.name = name;
     }
 
     public MethodDeclaration(int modifiers, Type type, String name, List<Parameter> parameters) {
         this.modifiers = modifiers;
         this.type = type;
+        setAsParentNodeOf(type);
         this.name = name;
-        this.parameters = parameters;
+        this.parameters = childList(parameters);
     }
 
     public MethodDeclaration(JavadocComment javaDoc, int modifiers, List<AnnotationExpr> annotations, List<TypeParameter> typeParameters, Type type, String name, List<Parameter> parameters, int arrayCount, List<NameExpr> throws_, BlockStmt block) {
         super(annotations, javaDoc);
         this.modifiers = modifiers;
-        this.typeParameters = typeParameters;
+        this.typeParameters = childList(typeParameters);
         this.type = type;
+        setAsParentNodeOf(type);
         this.name = name;
-        this.parameters = parameters;
+        this.parameters = childList(parameters);
         this.arrayCount = arrayCount;
-        this.throws_ = throws_;
+        this.throws_ = childList(throws_);
         this.body = block;
+        setAsParentNodeOf(block);
     }
 
     public MethodDeclaration(int beginLine, int beginColumn, int endLine, int endColumn, JavadocComment javaDoc, int modifiers, List<AnnotationExpr> annotations, List<TypeParameter> typeParameters, Type type, String name, List<Parameter> parameters, int arrayCount, List<NameExpr> throws_, BlockStmt block) {
         super(beginLine, beginColumn, endLine, endColumn, annotations, javaDoc);
         this.modifiers = modifiers;
-        this.typeParameters = typeParameters;
+        this.typeParameters = childList(typeParameters);
         this.type = type;
+        setAsParentNodeOf(type);
         this.name = name;
-        this.parameters = parameters;
+        this.parameters = childList(parameters);
         this.arrayCount = arrayCount;
-        this.throws_ = throws_;
+        this.throws_ = childList(throws_);
         this.body = block;
+        setAsParentNodeOf(block);
     }
 
     @Override
@@ -142,33 +148,38 @@ public final class MethodDeclaration extends BodyDeclaration {
 
     public void setArrayCount(int arrayCount) {
         this.arrayCount = arrayCount;
+        invalidateHashCode();
     }
 
     public void setBody(BlockStmt body) {
         this.body = body;
+        setAsParentNodeOf(body);
     }
 
     public void setModifiers(int modifiers) {
         this.modifiers = modifiers;
+        invalidateHashCode();
     }
 
     public void setName(String name) {
         this.name = name;
+        invalidateHashCode();
     }
 
     public void setParameters(List<Parameter> parameters) {
-        this.parameters = parameters;
+        this.parameters = childList(parameters);
     }
 
     public void setThrows(List<NameExpr> throws_) {
-        this.throws_ = throws_;
+        this.throws_ = childList(throws_);
     }
 
     public void setType(Type type) {
         this.type = type;
+        setAsParentNodeOf(type);
     }
 
     public void setTypeParameters(List<TypeParameter> typeParameters) {
-        this.typeParameters = typeParameters;
+        this.typeParameters = childList(typeParameters);
     }
 }
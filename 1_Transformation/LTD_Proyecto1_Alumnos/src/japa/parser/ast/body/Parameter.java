@@ -49,22 +49,28 @@ public final class Parameter extends Node {
 
     public Parameter(Type type, VariableDeclaratorId id) {
         this.type = type;
+        setAsParentNodeOf(type);
         this.id = id;
+        setAsParentNodeOf(id);
     }
 
     public Parameter(int modifiers, Type type, VariableDeclaratorId id) {
         this.modifiers = modifiers;
         this.type = type;
+        setAsParentNodeOf(type);
         this.id = id;
+        setAsParentNodeOf(id);
     }
 
     public Parameter(int beginLine, int beginColumn, int endLine, int endColumn, int modifiers, List<AnnotationExpr> annotations, Type type, boolean isVarArgs, VariableDeclaratorId id) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.modifiers = modifiers;
-        this.annotations = annotations;
+        this.annotations = childList(annotations);
         this.type = type;
+        setAsParentNodeOf(type);
         this.isVarArgs = isVarArgs;
         this.id = id;
+        setAsParentNodeOf(id);
     }
 
     @Override
@@ -104,22 +110,26 @@ public final class Parameter extends Node {
     }
 
     public void setAnnotations(List<AnnotationExpr> annotations) {
-        this.annotations = annotations;
+        this.annotations = childList(annotations);
     }
 
     public void setId(VariableDeclaratorId id) {
         this.id = id;
+        setAsParentNodeOf(id);
     }
 
     public void setModifiers(int modifiers) {
         this.modifiers = modifiers;
+        invalidateHashCode();
     }
 
     public void setType(Type type) {
         this.type = type;
+        setAsParentNodeOf(type);
     }
 
     public void setVarArgs(boolean isVarArgs) {
         this.isVarArgs = isVarArgs;
+        invalidateHashCode();
     }
 }
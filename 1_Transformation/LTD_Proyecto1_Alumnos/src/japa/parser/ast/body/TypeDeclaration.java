@@ -48,14 +48,14 @@ public abstract class TypeDeclaration extends BodyDeclaration {
         super(annotations, javaDoc);
         this.name = name;
         this.modifiers = modifiers;
-        this.members = members;
+        this.members = childList(members);
     }
 
     public TypeDeclaration(int beginLine, int beginColumn, int endLine, int endColumn, List<AnnotationExpr> annotations, JavadocComment javaDoc, int modifiers, String name, List<BodyDeclaration> members) {
         super(beginLine, beginColumn, endLine, endColumn, annotations, javaDoc);
         this.name = name;
         this.modifiers = modifiers;
-        this.members = members;
+        this.members = childList(members);
     }
 
     public final List<BodyDeclaration> getMembers() {
@@ -77,14 +77,16 @@ public abstract class TypeDeclaration extends BodyDeclaration {
     }
 
     public void setMembers(List<BodyDeclaration> members) {
-        this.members = members;
+        this.members = childList(members);
     }
 
     public final void setModifiers(int modifiers) {
         this.modifiers = modifiers;
+        invalidateHashCode();
     }
 
     public final void setName(String name) {
         this.name = name;
+        invalidateHashCode();
     }
 }
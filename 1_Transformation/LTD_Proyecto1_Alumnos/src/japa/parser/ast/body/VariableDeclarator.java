@@ -40,17 +40,22 @@ public final class VariableDeclarator extends Node {
 
     public VariableDeclarator(VariableDeclaratorId id) {
         this.id = id;
+        setAsParentNodeOf(id);
     }
 
     public VariableDeclarator(VariableDeclaratorId id, Expression init) {
         this.id = id;
+        setAsParentNodeOf(id);
         this.init = init;
+        setAsParentNodeOf(init);
     }
 
     public VariableDeclarator(int beginLine, int beginColumn, int endLine, int endColumn, VariableDeclaratorId id, Expression init) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.id = id;
+        setAsParentNodeOf(id);
         this.init = init;
+        setAsParentNodeOf(init);
     }
 
     @Override
@@ -73,10 +78,12 @@ public final class VariableDeclarator extends Node {
 
     public void setId(VariableDeclaratorId id) {
         this.id = id;
+        setAsParentNodeOf(id);
     }
 
     public void setInit(Expression init) {
         this.init = init;
+        setAsParentNodeOf(init);
     }
 
 }
@@ -41,6 +41,7 @@ public abstract class AnnotationExpr extends Expression {
 
     public void setName(NameExpr name) {
         this.name = name;
+        setAsParentNodeOf(name);
     }
 
 }
@@ -38,13 +38,17 @@ public final class ArrayAccessExpr extends Expression {
 
     public ArrayAccessExpr(Expression name, Expression index) {
         this.name = name;
+        setAsParentNodeOf(name);
         this.index = index;
+        setAsParentNodeOf(index);
     }
 
     public ArrayAccessExpr(int beginLine, int beginColumn, int endLine, int endColumn, Expression name, Expression index) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.name = name;
+        setAsParentNodeOf(name);
         this.index = index;
+        setAsParentNodeOf(index);
     }
 
     @Override
@@ -67,10 +71,12 @@ public final class ArrayAccessExpr extends Expression {
 
     public void setIndex(Expression index) {
         this.index = index;
+        setAsParentNodeOf(index);
     }
 
     public void setName(Expression name) {
         this.name = name;
+        setAsParentNodeOf(name);
     }
 
 }
@@ -45,31 +45,37 @@ public final class ArrayCreationExpr extends Expression {
 
     public ArrayCreationExpr(Type type, int arrayCount, ArrayInitializerExpr initializer) {
         this.type = type;
+        setAsParentNodeOf(type);
         this.arrayCount = arrayCount;
         this.initializer = initializer;
+        setAsParentNodeOf(initializer);
         this.dimensions = null;
     }
 
     public ArrayCreationExpr(int beginLine, int beginColumn, int endLine, int endColumn, Type type, int arrayCount, ArrayInitializerExpr initializer) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.type = type;
+        setAsParentNodeOf(type);
         this.arrayCount = arrayCount;
         this.initializer = initializer;
+        setAsParentNodeOf(initializer);
         this.dimensions = null;
     }
 
     public ArrayCreationExpr(Type type, List<Expression> dimensions, int arrayCount) {
         this.type = type;
+        setAsParentNodeOf(type);
         this.arrayCount = arrayCount;
-        this.dimensions = dimensions;
+        this.dimensions = childList(dimensions);
         this.initializer = null;
     }
 
     public ArrayCreationExpr(int beginLine, int beginColumn, int endLine, int endColumn, Type type, List<Expression> dimensions, int arrayCount) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.type = type;
+        setAsParentNodeOf(type);
         this.arrayCount = arrayCount;
-        this.dimensions = dimensions;
+        this.dimensions = childList(dimensions);
         this.initializer = null;
     }
 
@@ -101,18 +107,21 @@ public final class ArrayCreationExpr extends Expression {
 
     public void setArrayCount(int arrayCount) {
         this.arrayCount = arrayCount;
+        invalidateHashCode();
     }
 
     public void setDimensions(List<Expression> dimensions) {
-        this.dimensions = dimensions;
+        this.dimensions = childList(dimensions);
     }
 
     public void setInitializer(ArrayInitializerExpr initializer) {
         this.initializer = initializer;
+        setAsParentNodeOf(initializer);
     }
 
     public void setType(Type type) {
         this.type = type;
+        setAsParentNodeOf(type);
     }
 
 }
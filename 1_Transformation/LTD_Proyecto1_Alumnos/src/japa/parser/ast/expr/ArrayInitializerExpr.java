@@ -37,12 +37,12 @@ public final class ArrayInitializerExpr extends Expression {
     }
 
     public ArrayInitializerExpr(List<Expression> values) {
-        this.values = values;
+        this.values = childList(values);
     }
 
     public ArrayInitializerExpr(int beginLine, int beginColumn, int endLine, int endColumn, List<Expression> values) {
         super(beginLine, beginColumn, endLine, endColumn);
-        this.values = values;
+        this.values = childList(values);
     }
 
     @Override
@@ -60,7 +60,7 @@ public final class ArrayInitializerExpr extends Expression {
     }
 
     public void setValues(List<Expression> values) {
-        this.values = values;
+        this.values = childList(values);
     }
 
 }
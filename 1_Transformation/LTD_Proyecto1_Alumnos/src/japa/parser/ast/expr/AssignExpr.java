@@ -55,14 +55,18 @@ public final class AssignExpr extends Expression {
 
     public AssignExpr(Expression target, Expression value, Operator op) {
         this.target = target;
+        setAsParentNodeOf(target);
         this.value = value;
+        setAsParentNodeOf(value);
         this.op = op;
     }
 
     public AssignExpr(int beginLine, int beginColumn, int endLine, int endColumn, Expression target, Expression value, Operator op) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.target = target;
+        setAsParentNodeOf(target);
         this.value = value;
+        setAsParentNodeOf(value);
         this.op = op;
     }
 
@@ -90,14 +94,17 @@ public final class AssignExpr extends Expression {
 
     public void setOperator(Operator op) {
         this.op = op;
+        invalidateHashCode();
     }
 
     public void setTarget(Expression target) {
         this.target = target;
+        setAsParentNodeOf(target);
     }
 
     public void setValue(Expression value) {
         this.value = value;
+        setAsParentNodeOf(value);
     }
 
 }
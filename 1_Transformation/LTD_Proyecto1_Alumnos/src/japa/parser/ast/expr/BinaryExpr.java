@@ -62,14 +62,18 @@ public final class BinaryExpr extends Expression {
 
     public BinaryExpr(Expression left, Expression right, Operator op) {
         this.left = left;
+        setAsParentNodeOf(left);
         this.right = right;
+        setAsParentNodeOf(right);
         this.op = op;
     }
 
     public BinaryExpr(int beginLine, int beginColumn, int endLine, int endColumn, Expression left, Expression right, Operator op) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.left = left;
+        setAsParentNodeOf(left);
         this.right = right;
+        setAsParentNodeOf(right);
         this.op = op;
     }
 
@@ -97,14 +101,17 @@ public final class BinaryExpr extends Expression {
 
     public void setLeft(Expression left) {
         this.left = left;
+        setAsParentNodeOf(left);
     }
 
     public void setOperator(Operator op) {
         this.op = op;
+        invalidateHashCode();
     }
 
     public void setRight(Expression right) {
         this.right = right;
+        setAsParentNodeOf(right);
     }
 
 }
@@ -59,5 +59,6 @@ public final class BooleanLiteralExpr extends LiteralExpr {
 
     public void setValue(boolean value) {
         this.value = value;
+        invalidateHashCode();
     }
 }
@@ -39,13 +39,17 @@ public final class CastExpr extends Expression {
 
     public CastExpr(Type type, Expression expr) {
         this.type = type;
+        setAsParentNodeOf(type);
         this.expr = expr;
+        setAsParentNodeOf(expr);
     }
 
     public CastExpr(int beginLine, int beginColumn, int endLine, int endColumn, Type type, Expression expr) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.type = type;
+        setAsParentNodeOf(type);
         this.expr = expr;
+        setAsParentNodeOf(expr);
     }
 
     @Override
@@ -68,10 +72,12 @@ public final class CastExpr extends Expression {
 
     public void setExpr(Expression expr) {
         this.expr = expr;
+        setAsParentNodeOf(expr);
     }
 
     public void setType(Type type) {
         this.type = type;
+        setAsParentNodeOf(type);
     }
 
 }
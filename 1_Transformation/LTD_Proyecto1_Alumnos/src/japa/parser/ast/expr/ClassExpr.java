@@ -37,11 +37,13 @@ public final class ClassExpr extends Expression {
 
     public ClassExpr(Type type) {
         this.type = type;
+        setAsParentNodeOf(type);
     }
 
     public ClassExpr(int beginLine, int beginColumn, int endLine, int endColumn, Type type) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.type = type;
+        setAsParentNodeOf(type);
     }
 
     @Override
@@ -60,6 +62,7 @@ public final class ClassExpr extends Expression {
 
     public void setType(Type type) {
         this.type = type;
+        setAsParentNodeOf(type);
     }
 
 }
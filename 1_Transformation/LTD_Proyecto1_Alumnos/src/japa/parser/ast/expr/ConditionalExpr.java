@@ -40,15 +40,21 @@ public final class ConditionalExpr extends Expression {
 
     public ConditionalExpr(Expression condition, Expression thenExpr, Expression elseExpr) {
         this.condition = condition;
+        setAsParentNodeOf(condition);
         this.thenExpr = thenExpr;
+        setAsParentNodeOf(thenExpr);
         this.elseExpr = elseExpr;
+        setAsParentNodeOf(elseExpr);
     }
 
     public ConditionalExpr(int beginLine, int beginColumn, int endLine, int endColumn, Expression condition, Expression thenExpr, Expression elseExpr) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.condition = condition;
+        setAsParentNodeOf(condition);
         this.thenExpr = thenExpr;
+        setAsParentNodeOf(thenExpr);
         this.elseExpr = elseExpr;
+        setAsParentNodeOf(elseExpr);
     }
 
     @Override
@@ -75,14 +81,17 @@ public final class ConditionalExpr extends Expression {
 
     public void setCondition(Expression condition) {
         this.condition = condition;
+        setAsParentNodeOf(condition);
     }
 
     public void setElseExpr(Expression elseExpr) {
         this.elseExpr = elseExpr;
+        setAsParentNodeOf(elseExpr);
     }
 
     public void setThenExpr(Expression thenExpr) {
         this.thenExpr = thenExpr;
+        setAsParentNodeOf(thenExpr);
     }
 
 }
@@ -36,11 +36,13 @@ public final class EnclosedExpr extends Expression {
 
     public EnclosedExpr(Expression inner) {
         this.inner = inner;
+        setAsParentNodeOf(inner);
     }
 
     public EnclosedExpr(int beginLine, int beginColumn, int endLine, int endColumn, Expression inner) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.inner = inner;
+        setAsParentNodeOf(inner);
     }
 
     @Override
@@ -59,6 +61,7 @@ public final class EnclosedExpr extends Expression {
 
     public void setInner(Expression inner) {
         this.inner = inner;
+        setAsParentNodeOf(inner);
     }
 
 }
@@ -43,13 +43,15 @@ public final class FieldAccessExpr extends Expression {
 
     public FieldAccessExpr(Expression scope, String field) {
         this.scope = scope;
+        setAsParentNodeOf(scope);
         this.field = field;
     }
 
     public FieldAccessExpr(int beginLine, int beginColumn, int endLine, int endColumn, Expression scope, List<Type> typeArgs, String field) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.scope = scope;
-        this.typeArgs = typeArgs;
+        setAsParentNodeOf(scope);
+        this.typeArgs = childList(typeArgs);
         this.field = field;
     }
 
@@ -77,14 +79,16 @@ public final class FieldAccessExpr extends Expression {
 
     public void setField(String field) {
         this.field = field;
+        invalidateHashCode();
     }
 
     public void setScope(Expression scope) {
         this.scope = scope;
+        setAsParentNodeOf(scope);
     }
 
     public void setTypeArgs(List<Type> typeArgs) {
-        this.typeArgs = typeArgs;
+        this.typeArgs = childList(typeArgs);
     }
 
 }
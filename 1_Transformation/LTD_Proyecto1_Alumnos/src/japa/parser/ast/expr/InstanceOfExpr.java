@@ -39,13 +39,17 @@ public final class InstanceOfExpr extends Expression {
 
     public InstanceOfExpr(Expression expr, Type type) {
         this.expr = expr;
+        setAsParentNodeOf(expr);
         this.type = type;
+        setAsParentNodeOf(type);
     }
 
     public InstanceOfExpr(int beginLine, int beginColumn, int endLine, int endColumn, Expression expr, Type type) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.expr = expr;
+        setAsParentNodeOf(expr);
         this.type = type;
+        setAsParentNodeOf(type);
     }
 
     @Override
@@ -68,10 +72,12 @@ public final class InstanceOfExpr extends Expression {
 
     public void setExpr(Expression expr) {
         this.expr = expr;
+        setAsParentNodeOf(expr);
     }
 
     public void setType(Type type) {
         this.type = type;
+        setAsParentNodeOf(type);
     }
 
 }
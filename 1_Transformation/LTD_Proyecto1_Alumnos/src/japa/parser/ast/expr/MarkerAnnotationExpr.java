@@ -34,11 +34,13 @@ public final class MarkerAnnotationExpr extends AnnotationExpr {
 
     public MarkerAnnotationExpr(NameExpr name) {
         this.name = name;
+        setAsParentNodeOf(name);
     }
 
     public MarkerAnnotationExpr(int beginLine, int beginColumn, int endLine, int endColumn, NameExpr name) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.name = name;
+        setAsParentNodeOf(name);
     }
 
     @Override
@@ -40,12 +40,14 @@ public final class MemberValuePair extends Node {
     public MemberValuePair(String name, Expression value) {
         this.name = name;
         this.value = value;
+        setAsParentNodeOf(value);
     }
 
     public MemberValuePair(int beginLine, int beginColumn, int endLine, int endColumn, String name, Expression value) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.name = name;
         this.value = value;
+        setAsParentNodeOf(value);
     }
 
     @Override
@@ -68,10 +70,12 @@ public final class MemberValuePair extends Node {
 
     public void setName(String name) {
         this.name = name;
+        invalidateHashCode();
     }
 
     public void setValue(Expression value) {
         this.value = value;
+        setAsParentNodeOf(value);
     }
 
 }
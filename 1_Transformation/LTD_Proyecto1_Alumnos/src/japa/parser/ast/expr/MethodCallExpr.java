@@ -45,21 +45,24 @@ public final class MethodCallExpr extends Expression {
 
     public MethodCallExpr(Expression scope, String name) {
         this.scope = scope;
+        setAsParentNodeOf(scope);
         this.name = name;
     }
 
     public MethodCallExpr(Expression scope, String name, List<Expression> args) {
         this.scope = scope;
+        setAsParentNodeOf(scope);
         this.name = name;
-        this.args = args;
+        this.args = childList(args);
     }
 
     public MethodCallExpr(int beginLine, int beginColumn, int endLine, int endColumn, Expression scope, List<Type> typeArgs, String name, List<Expression> args) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.scope = scope;
-        this.typeArgs = typeArgs;
+        setAsParentNodeOf(scope);
+        this.typeArgs = childList(typeArgs);
         this.name = name;
-        this.args = args;
+        this.args = childList(args);
     }
 
     @Override
@@ -89,19 +92,21 @@ public final class MethodCallExpr extends Expression {
     }
 
     public void setArgs(List<Expression> args) {
-        this.args = args;
+        this.args = childList(args);
     }
 
     public void setName(String name) {
         this.name = name;
+        invalidateHashCode();
     }
 
     public void setScope(Expression scope) {
         this.scope = scope;
+        setAsParentNodeOf(scope);
     }
 
     public void setTypeArgs(List<Type> typeArgs) {
-        this.typeArgs = typeArgs;
+        this.typeArgs = childList(typeArgs);
     }
 
 }
@@ -59,6 +59,7 @@ public class NameExpr extends Expression {
 
     public final void setName(String name) {
         this.name = name;
+        invalidateHashCode();
     }
 
 }
@@ -38,13 +38,15 @@ public final class NormalAnnotationExpr extends AnnotationExpr {
 
     public NormalAnnotationExpr(NameExpr name, List<MemberValuePair> pairs) {
         this.name = name;
-        this.pairs = pairs;
+        setAsParentNodeOf(name);
+        this.pairs = childList(pairs);
     }
 
     public NormalAnnotationExpr(int beginLine, int beginColumn, int endLine, int endColumn, NameExpr name, List<MemberValuePair> pairs) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.name = name;
-        this.pairs = pairs;
+        setAsParentNodeOf(name);
+        this.pairs = childList(pairs);
     }
 
     @Override
@@ -62,7 +64,7 @@ public final class NormalAnnotationExpr extends AnnotationExpr {
     }
 
     public void setPairs(List<MemberValuePair> pairs) {
-        this.pairs = pairs;
+        this.pairs = childList(pairs);
     }
 
 }
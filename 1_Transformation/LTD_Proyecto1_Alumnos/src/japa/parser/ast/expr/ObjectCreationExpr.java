@@ -49,17 +49,21 @@ public final class ObjectCreationExpr extends Expression {
 
     public ObjectCreationExpr(Expression scope, ClassOrInterfaceType type, List<Expression> args) {
         this.scope = scope;
+        setAsParentNodeOf(scope);
         this.type = type;
-        this.args = args;
+        setAsParentNodeOf(type);
+        this.args = childList(args);
     }
 
     public ObjectCreationExpr(int beginLine, int beginColumn, int endLine, int endColumn, Expression scope, ClassOrInterfaceType type, List<Type> typeArgs, List<Expression> args, List<BodyDeclaration> anonymousBody) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.scope = scope;
+        setAsParentNodeOf(scope);
         this.type = type;
-        this.typeArgs = typeArgs;
-        this.args = args;
-        this.anonymousClassBody = anonymousBody;
+        setAsParentNodeOf(type);
+        this.typeArgs = childList(typeArgs);
+        this.args = childList(args);
+        this.anonymousClassBody = childList(anonymousBody);
     }
 
     @Override
@@ -93,23 +97,25 @@ public final class ObjectCreationExpr extends Expression {
     }
 
     public void setAnonymousClassBody(List<BodyDeclaration> anonymousClassBody) {
-        this.anonymousClassBody = anonymousClassBody;
+        this.anonymousClassBody = childList(anonymousClassBody);
     }
 
     public void setArgs(List<Expression> args) {
-        this.args = args;
+        this.args = childList(args);
     }
 
     public void setScope(Expression scope) {
         this.scope = scope;
+        setAsParentNodeOf(scope);
     }
 
     public void setType(ClassOrInterfaceType type) {
         this.type = type;
+        setAsParentNodeOf(type);
     }
 
     public void setTypeArgs(List<Type> typeArgs) {
-        this.typeArgs = typeArgs;
+        this.typeArgs = childList(typeArgs);
     }
 
 }
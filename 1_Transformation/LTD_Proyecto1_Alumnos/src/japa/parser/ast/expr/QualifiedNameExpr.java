@@ -37,11 +37,13 @@ public final class QualifiedNameExpr extends NameExpr {
     public QualifiedNameExpr(NameExpr scope, String name) {
         super(name);
         this.qualifier = scope;
+        setAsParentNodeOf(scope);
     }
 
     public QualifiedNameExpr(int beginLine, int beginColumn, int endLine, int endColumn, NameExpr scope, String name) {
         super(beginLine, beginColumn, endLine, endColumn, name);
         this.qualifier = scope;
+        setAsParentNodeOf(scope);
     }
 
     @Override
@@ -60,6 +62,7 @@ public final class QualifiedNameExpr extends NameExpr {
 
     public void setQualifier(NameExpr qualifier) {
         this.qualifier = qualifier;
+        setAsParentNodeOf(qualifier);
     }
 
 }
@@ -36,13 +36,17 @@ public final class SingleMemberAnnotationExpr extends AnnotationExpr {
 
     public SingleMemberAnnotationExpr(NameExpr name, Expression memberValue) {
         this.name = name;
+        setAsParentNodeOf(name);
         this.memberValue = memberValue;
+        setAsParentNodeOf(memberValue);
     }
 
     public SingleMemberAnnotationExpr(int beginLine, int beginColumn, int endLine, int endColumn, NameExpr name, Expression memberValue) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.name = name;
+        setAsParentNodeOf(name);
         this.memberValue = memberValue;
+        setAsParentNodeOf(memberValue);
     }
 
     @Override
@@ -61,6 +65,7 @@ public final class SingleMemberAnnotationExpr extends AnnotationExpr {
 
     public void setMemberValue(Expression memberValue) {
         this.memberValue = memberValue;
+        setAsParentNodeOf(memberValue);
     }
 
 }
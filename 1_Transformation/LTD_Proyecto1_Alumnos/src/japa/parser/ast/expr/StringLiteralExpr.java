@@ -59,5 +59,6 @@ public class StringLiteralExpr extends LiteralExpr {
 
     public final void setValue(String value) {
         this.value = value;
+        invalidateHashCode();
     }
 }
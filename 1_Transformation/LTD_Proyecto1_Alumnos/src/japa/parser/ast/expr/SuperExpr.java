@@ -36,11 +36,13 @@ public final class SuperExpr extends Expression {
 
     public SuperExpr(Expression classExpr) {
         this.classExpr = classExpr;
+        setAsParentNodeOf(classExpr);
     }
 
     public SuperExpr(int beginLine, int beginColumn, int endLine, int endColumn, Expression classExpr) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.classExpr = classExpr;
+        setAsParentNodeOf(classExpr);
     }
 
     @Override
@@ -59,6 +61,7 @@ public final class SuperExpr extends Expression {
 
     public void setClassExpr(Expression classExpr) {
         this.classExpr = classExpr;
+        setAsParentNodeOf(classExpr);
     }
 
 }
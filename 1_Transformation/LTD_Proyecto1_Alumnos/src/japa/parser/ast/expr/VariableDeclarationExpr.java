@@ -47,21 +47,24 @@ public final class VariableDeclarationExpr extends Expression {
 
     public VariableDeclarationExpr(Type type, List<VariableDeclarator> vars) {
         this.type = type;
-        this.vars = vars;
+        setAsParentNodeOf(type);
+        this.vars = childList(vars);
     }
 
     public VariableDeclarationExpr(int modifiers, Type type, List<VariableDeclarator> vars) {
         this.modifiers = modifiers;
         this.type = type;
-        this.vars = vars;
+        setAsParentNodeOf(type);
+        this.vars = childList(vars);
     }
 
     public VariableDeclarationExpr(int beginLine, int beginColumn, int endLine, int endColumn, int modifiers, List<AnnotationExpr> annotations, Type type, List<VariableDeclarator> vars) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.modifiers = modifiers;
-        this.annotations = annotations;
+        this.annotations = childList(annotations);
         this.type = type;
-        this.vars = vars;
+        setAsParentNodeOf(type);
+        this.vars = childList(vars);
     }
 
     @Override
@@ -97,18 +100,20 @@ public final class VariableDeclarationExpr extends Expression {
     }
 
     public void setAnnotations(List<AnnotationExpr> annotations) {
-        this.annotations = annotations;
+        this.annotations = childList(annotations);
     }
 
     public void setModifiers(int modifiers) {
         this.modifiers = modifiers;
+        invalidateHashCode();
     }
 
     public void setType(Type type) {
         this.type = type;
+        setAsParentNodeOf(type);
     }
 
     public void setVars(List<VariableDeclarator> vars) {
-        this.vars = vars;
+        this.vars = childList(vars);
     }
 }
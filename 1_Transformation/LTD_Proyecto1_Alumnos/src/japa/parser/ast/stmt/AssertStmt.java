@@ -39,17 +39,22 @@ public final class AssertStmt extends Statement {
 
     public AssertStmt(Expression check) {
         this.check = check;
+        setAsParentNodeOf(check);
     }
 
     public AssertStmt(Expression check, Expression msg) {
         this.check = check;
+        setAsParentNodeOf(check);
         this.msg = msg;
+        setAsParentNodeOf(msg);
     }
 
     public AssertStmt(int beginLine, int beginColumn, int endLine, int endColumn, Expression check, Expression msg) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.check = check;
+        setAsParentNodeOf(check);
         this.msg = msg;
+        setAsParentNodeOf(msg);
     }
 
     @Override
@@ -72,9 +77,11 @@ public final class AssertStmt extends Statement {
 
     public void setCheck(Expression check) {
         this.check = check;
+        setAsParentNodeOf(check);
     }
 
     public void setMessage(Expression msg) {
         this.msg = msg;
+        setAsParentNodeOf(msg);
     }
 }
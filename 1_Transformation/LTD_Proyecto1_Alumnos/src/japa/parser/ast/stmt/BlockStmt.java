@@ -37,12 +37,12 @@ public final class BlockStmt extends Statement {
     }
 
     public BlockStmt(List<Statement> stmts) {
-        this.stmts = stmts;
+        this.stmts = childList(stmts);
     }
 
     public BlockStmt(int beginLine, int beginColumn, int endLine, int endColumn, List<Statement> stmts) {
         super(beginLine, beginColumn, endLine, endColumn);
-        this.stmts = stmts;
+        this.stmts = childList(stmts);
     }
 
     @Override
@@ -60,6 +60,6 @@ public final class BlockStmt extends Statement {
     }
 
     public void setStmts(List<Statement> stmts) {
-        this.stmts = stmts;
+        this.stmts = childList(stmts);
     }
 }
@@ -59,5 +59,6 @@ public final class BreakStmt extends Statement {
 
     public void setId(String id) {
         this.id = id;
+        invalidateHashCode();
     }
 }
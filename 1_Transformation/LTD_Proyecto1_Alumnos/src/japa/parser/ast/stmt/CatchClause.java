@@ -40,13 +40,17 @@ public final class CatchClause extends Node {
 
     public CatchClause(Parameter except, BlockStmt catchBlock) {
         this.except = except;
+        setAsParentNodeOf(except);
         this.catchBlock = catchBlock;
+        setAsParentNodeOf(catchBlock);
     }
 
     public CatchClause(int beginLine, int beginColumn, int endLine, int endColumn, Parameter except, BlockStmt catchBlock) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.except = except;
+        setAsParentNodeOf(except);
         this.catchBlock = catchBlock;
+        setAsParentNodeOf(catchBlock);
     }
 
     @Override
@@ -69,9 +73,11 @@ public final class CatchClause extends Node {
 
     public void setCatchBlock(BlockStmt catchBlock) {
         this.catchBlock = catchBlock;
+        setAsParentNodeOf(catchBlock);
     }
 
     public void setExcept(Parameter except) {
         this.except = except;
+        setAsParentNodeOf(except);
     }
 }
@@ -39,13 +39,17 @@ public final class DoStmt extends Statement {
 
     public DoStmt(Statement body, Expression condition) {
         this.body = body;
+        setAsParentNodeOf(body);
         this.condition = condition;
+        setAsParentNodeOf(condition);
     }
 
     public DoStmt(int beginLine, int beginColumn, int endLine, int endColumn, Statement body, Expression condition) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.body = body;
+        setAsParentNodeOf(body);
         this.condition = condition;
+        setAsParentNodeOf(condition);
     }
 
     @Override
@@ -68,9 +72,11 @@ public final class DoStmt extends Statement {
 
     public void setBody(Statement body) {
         this.body = body;
+        setAsParentNodeOf(body);
     }
 
     public void setCondition(Expression condition) {
         this.condition = condition;
+        setAsParentNodeOf(condition);
     }
 }
@@ -47,15 +47,17 @@ public final class ExplicitConstructorInvocationStmt extends Statement {
     public ExplicitConstructorInvocationStmt(boolean isThis, Expression expr, List<Expression> args) {
         this.isThis = isThis;
         this.expr = expr;
-        this.args = args;
+        setAsParentNodeOf(expr);
+        this.args = childList(args);
     }
 
     public ExplicitConstructorInvocationStmt(int beginLine, int beginColumn, int endLine, int endColumn, List<Type> typeArgs, boolean isThis, Expression expr, List<Expression> args) {
         super(beginLine, beginColumn, endLine, endColumn);
-        this.typeArgs = typeArgs;
+        this.typeArgs = childList(typeArgs);
         this.isThis = isThis;
         this.expr = expr;
-        this.args = args;
+        setAsParentNodeOf(expr);
+        this.args = childList(args);
     }
 
     @Override
@@ -85,18 +87,20 @@ public final class ExplicitConstructorInvocationStmt extends Statement {
     }
 
     public void setArgs(List<Expression> args) {
-        this.args = args;
+        this.args = childList(args);
     }
 
     public void setExpr(Expression expr) {
         this.expr = expr;
+        setAsParentNodeOf(expr);
     }
 
     public void setThis(boolean isThis) {
         this.isThis = isThis;
+        invalidateHashCode();
     }
 
     public void setTypeArgs(List<Type> typeArgs) {
-        this.typeArgs = typeArgs;
+        this.typeArgs = childList(typeArgs);
     }
 }
@@ -37,11 +37,13 @@ public final class ExpressionStmt extends Statement {
 
     public ExpressionStmt(Expression expr) {
         this.expr = expr;
+        setAsParentNodeOf(expr);
     }
 
     public ExpressionStmt(int beginLine, int beginColumn, int endLine, int endColumn, Expression expr) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.expr = expr;
+        setAsParentNodeOf(expr);
     }
 
     @Override
@@ -60,5 +62,6 @@ public final class ExpressionStmt extends Statement {
 
     public void setExpression(Expression expr) {
         this.expr = expr;
+        setAsParentNodeOf(expr);
     }
 }
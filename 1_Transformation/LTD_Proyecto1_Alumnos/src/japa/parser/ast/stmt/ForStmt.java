@@ -45,17 +45,21 @@ public final class ForStmt extends Statement {
 
     public ForStmt(List<Expression> init, Expression compare, List<Expression> update, Statement body) {
         this.compare = compare;
-        this.init = init;
-        this.update = update;
+        setAsParentNodeOf(compare);
+        this.init = childList(init);
+        this.update = childList(update);
         this.body = body;
+        setAsParentNodeOf(body);
     }
 
     public ForStmt(int beginLine, int beginColumn, int endLine, int endColumn, List<Expression> init, Expression compare, List<Expression> update, Statement body) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.compare = compare;
-        this.init = init;
-        this.update = update;
+        setAsParentNodeOf(compare);
+        this.init = childList(init);
+        this.update = childList(update);
         this.body = body;
+        setAsParentNodeOf(body);
     }
 
     @Override
@@ -86,17 +90,19 @@ public final class ForStmt extends Statement {
 
     public void setBody(Statement body) {
         this.body = body;
+        setAsParentNodeOf(body);
     }
 
     public void setCompare(Expression compare) {
         this.compare = compare;
+        setAsParentNodeOf(compare);
     }
 
     public void setInit(List<Expression> init) {
-        this.init = init;
+        this.init = childList(init);
     }
 
     public void setUpdate(List<Expression> update) {
-        this.update = update;
+        this.update = childList(update);
     }
 }
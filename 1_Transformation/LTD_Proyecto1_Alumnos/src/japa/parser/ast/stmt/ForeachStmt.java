@@ -42,15 +42,21 @@ public final class ForeachStmt extends Statement {
 
     public ForeachStmt(VariableDeclarationExpr var, Expression iterable, Statement body) {
         this.var = var;
+        setAsParentNodeOf(var);
         this.iterable = iterable;
+        setAsParentNodeOf(iterable);
         this.body = body;
+        setAsParentNodeOf(body);
     }
 
     public ForeachStmt(int beginLine, int beginColumn, int endLine, int endColumn, VariableDeclarationExpr var, Expression iterable, Statement body) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.var = var;
+        setAsParentNodeOf(var);
         this.iterable = iterable;
+        setAsParentNodeOf(iterable);
         this.body = body;
+        setAsParentNodeOf(body);
     }
 
     @Override
@@ -77,13 +83,16 @@ public final class ForeachStmt extends Statement {
 
     public void setBody(Statement body) {
         this.body = body;
+        setAsParentNodeOf(body);
     }
 
     public void setIterable(Expression iterable) {
         this.iterable = iterable;
+        setAsParentNodeOf(iterable);
     }
 
     public void setVariable(VariableDeclarationExpr var) {
         this.var = var;
+        setAsParentNodeOf(var);
     }
 }
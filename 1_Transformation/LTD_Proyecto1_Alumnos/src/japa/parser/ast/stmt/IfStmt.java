@@ -41,15 +41,21 @@ public final class IfStmt extends Statement {
 
     public IfStmt(Expression condition, Statement thenStmt, Statement elseStmt) {
         this.condition = condition;
+        setAsParentNodeOf(condition);
         this.thenStmt = thenStmt;
+        setAsParentNodeOf(thenStmt);
         this.elseStmt = elseStmt;
+        setAsParentNodeOf(elseStmt);
     }
 
     public IfStmt(int beginLine, int beginColumn, int endLine, int endColumn, Expression condition, Statement thenStmt, Statement elseStmt) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.condition = condition;
+        setAsParentNodeOf(condition);
         this.thenStmt = thenStmt;
+        setAsParentNodeOf(thenStmt);
         this.elseStmt = elseStmt;
+        setAsParentNodeOf(elseStmt);
     }
 
     @Override
@@ -76,13 +82,16 @@ public final class IfStmt extends Statement {
 
     public void setCondition(Expression condition) {
         this.condition = condition;
+        setAsParentNodeOf(condition);
     }
 
     public void setElseStmt(Statement elseStmt) {
         this.elseStmt = elseStmt;
+        setAsParentNodeOf(elseStmt);
     }
 
     public void setThenStmt(Statement thenStmt) {
         this.thenStmt = thenStmt;
+        setAsParentNodeOf(thenStmt);
     }
 }
@@ -39,12 +39,14 @@ public final class LabeledStmt extends Statement {
     public LabeledStmt(String label, Statement stmt) {
         this.label = label;
         this.stmt = stmt;
+        setAsParentNodeOf(stmt);
     }
 
     public LabeledStmt(int beginLine, int beginColumn, int endLine, int endColumn, String label, Statement stmt) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.label = label;
         this.stmt = stmt;
+        setAsParentNodeOf(stmt);
     }
 
     @Override
@@ -67,9 +69,11 @@ public final class LabeledStmt extends Statement {
 
     public void setLabel(String label) {
         this.label = label;
+        invalidateHashCode();
     }
 
     public void setStmt(Statement stmt) {
         this.stmt = stmt;
+        setAsParentNodeOf(stmt);
     }
 }
@@ -37,11 +37,13 @@ public final class ReturnStmt extends Statement {
 
     public ReturnStmt(Expression expr) {
         this.expr = expr;
+        setAsParentNodeOf(expr);
     }
 
     public ReturnStmt(int beginLine, int beginColumn, int endLine, int endColumn, Expression expr) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.expr = expr;
+        setAsParentNodeOf(expr);
     }
 
     @Override
@@ -60,5 +62,6 @@ public final class ReturnStmt extends Statement {
 
     public void setExpr(Expression expr) {
         this.expr = expr;
+        setAsParentNodeOf(expr);
     }
 }
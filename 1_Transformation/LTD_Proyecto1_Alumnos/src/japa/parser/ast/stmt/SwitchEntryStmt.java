@@ -41,13 +41,15 @@ public final class SwitchEntryStmt extends Statement {
 
     public SwitchEntryStmt(Expression label, List<Statement> stmts) {
         this.label = label;
-        this.stmts = stmts;
+        setAsParentNodeOf(label);
+        this.stmts = childList(stmts);
     }
 
     public SwitchEntryStmt(int beginLine, int beginColumn, int endLine, int endColumn, Expression label, List<Statement> stmts) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.label = label;
-        this.stmts = stmts;
+        setAsParentNodeOf(label);
+        this.stmts = childList(stmts);
     }
 
     @Override
@@ -70,9 +72,10 @@ public final class SwitchEntryStmt extends Statement {
 
     public void setLabel(Expression label) {
         this.label = label;
+        setAsParentNodeOf(label);
     }
 
     public void setStmts(List<Statement> stmts) {
-        this.stmts = stmts;
+        this.stmts = childList(stmts);
     }
 }
@@ -41,13 +41,15 @@ public final class SwitchStmt extends Statement {
 
     public SwitchStmt(Expression selector, List<SwitchEntryStmt> entries) {
         this.selector = selector;
-        this.entries = entries;
+        setAsParentNodeOf(selector);
+        this.entries = childList(entries);
     }
 
     public SwitchStmt(int beginLine, int beginColumn, int endLine, int endColumn, Expression selector, List<SwitchEntryStmt> entries) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.selector = selector;
-        this.entries = entries;
+        setAsParentNodeOf(selector);
+        this.entries = childList(entries);
     }
 
     @Override
@@ -69,10 +71,11 @@ public final class SwitchStmt extends Statement {
     }
 
     public void setEntries(List<SwitchEntryStmt> entries) {
-        this.entries = entries;
+        this.entries = childList(entries);
     }
 
     public void setSelector(Expression selector) {
         this.selector = selector;
+        setAsParentNodeOf(selector);
     }
 }
@@ -39,13 +39,17 @@ public final class SynchronizedStmt extends Statement {
 
     public SynchronizedStmt(Expression expr, BlockStmt block) {
         this.expr = expr;
+        setAsParentNodeOf(expr);
         this.block = block;
+        setAsParentNodeOf(block);
     }
 
     public SynchronizedStmt(int beginLine, int beginColumn, int endLine, int endColumn, Expression expr, BlockStmt block) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.expr = expr;
+        setAsParentNodeOf(expr);
         this.block = block;
+        setAsParentNodeOf(block);
     }
 
     @Override
@@ -68,10 +72,12 @@ public final class SynchronizedStmt extends Statement {
 
     public void setBlock(BlockStmt block) {
         this.block = block;
+        setAsParentNodeOf(block);
     }
 
     public void setExpr(Expression expr) {
         this.expr = expr;
+        setAsParentNodeOf(expr);
     }
 
 }
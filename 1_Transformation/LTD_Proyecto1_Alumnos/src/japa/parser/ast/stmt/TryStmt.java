@@ -42,15 +42,19 @@ public final class TryStmt extends Statement {
 
     public TryStmt(BlockStmt tryBlock, List<CatchClause> catchs, BlockStmt finallyBlock) {
         this.tryBlock = tryBlock;
-        this.catchs = catchs;
+        setAsParentNodeOf(tryBlock);
+        this.catchs = childList(catchs);
         this.finallyBlock = finallyBlock;
+        setAsParentNodeOf(finallyBlock);
     }
 
     public TryStmt(int beginLine, int beginColumn, int endLine, int endColumn, BlockStmt tryBlock, List<CatchClause> catchs, BlockStmt finallyBlock) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.tryBlock = tryBlock;
-        this.catchs = catchs;
+        setAsParentNodeOf(tryBlock);
+        this.catchs = childList(catchs);
         this.finallyBlock = finallyBlock;
+        setAsParentNodeOf(finallyBlock);
     }
 
     @Override
@@ -76,14 +80,16 @@ public final class TryStmt extends Statement {
     }
 
     public void setCatchs(List<CatchClause> catchs) {
-        this.catchs = catchs;
+        this.catchs = childList(catchs);
     }
 
     public void setFinallyBlock(BlockStmt finallyBlock) {
         this.finallyBlock = finallyBlock;
+        setAsParentNodeOf(finallyBlock);
     }
 
     public void setTryBlock(BlockStmt tryBlock) {
         this.tryBlock = tryBlock;
+        setAsParentNodeOf(tryBlock);
     }
 }
@@ -37,11 +37,13 @@ public final class TypeDeclarationStmt extends Statement {
 
     public TypeDeclarationStmt(TypeDeclaration typeDecl) {
         this.typeDecl = typeDecl;
+        setAsParentNodeOf(typeDecl);
     }
 
     public TypeDeclarationStmt(int beginLine, int beginColumn, int endLine, int endColumn, TypeDeclaration typeDecl) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.typeDecl = typeDecl;
+        setAsParentNodeOf(typeDecl);
     }
 
     @Override
@@ -60,5 +62,6 @@ public final class TypeDeclarationStmt extends Statement {
 
     public void setTypeDeclaration(TypeDeclaration typeDecl) {
         this.typeDecl = typeDecl;
+        setAsParentNodeOf(typeDecl);
     }
 }
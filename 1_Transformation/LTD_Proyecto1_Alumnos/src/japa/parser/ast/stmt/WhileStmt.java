@@ -39,13 +39,17 @@ public final class WhileStmt extends Statement {
 
     public WhileStmt(Expression condition, Statement body) {
         this.condition = condition;
+        setAsParentNodeOf(condition);
         this.body = body;
+        setAsParentNodeOf(body);
     }
 
     public WhileStmt(int beginLine, int beginColumn, int endLine, int endColumn, Expression condition, Statement body) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.condition = condition;
+        setAsParentNodeOf(condition);
         this.body = body;
+        setAsParentNodeOf(body);
     }
 
     @Override
@@ -68,9 +72,11 @@ public final class WhileStmt extends Statement {
 
     public void setBody(Statement body) {
         this.body = body;
+        setAsParentNodeOf(body);
     }
 
     public void setCondition(Expression condition) {
         this.condition = condition;
+        setAsParentNodeOf(condition);
     }
 }
@@ -46,14 +46,16 @@ public final class ClassOrInterfaceType extends Type {
 
     public ClassOrInterfaceType(ClassOrInterfaceType scope, String name) {
         this.scope = scope;
+        setAsParentNodeOf(scope);
         this.name = name;
     }
 
     public ClassOrInterfaceType(int beginLine, int beginColumn, int endLine, int endColumn, ClassOrInterfaceType scope, String name, List<Type> typeArgs) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.scope = scope;
+        setAsParentNodeOf(scope);
         this.name = name;
-        this.typeArgs = typeArgs;
+        this.typeArgs = childList(typeArgs);
     }
 
     @Override
@@ -80,13 +82,15 @@ public final class ClassOrInterfaceType extends Type {
 
     public void setName(String name) {
         this.name = name;
+        invalidateHashCode();
     }
 
     public void setScope(ClassOrInterfaceType scope) {
         this.scope = scope;
+        setAsParentNodeOf(scope);
     }
 
     public void setTypeArgs(List<Type> typeArgs) {
-        this.typeArgs = typeArgs;
+        this.typeArgs = childList(typeArgs);
     }
 }
@@ -63,6 +63,7 @@ public final class PrimitiveType extends Type {
 
     public void setType(Primitive type) {
         this.type = type;
+        invalidateHashCode();
     }
 
 }
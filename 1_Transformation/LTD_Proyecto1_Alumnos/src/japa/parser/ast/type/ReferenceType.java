@@ -38,16 +38,19 @@ public final class ReferenceType extends Type {
 
     public ReferenceType(Type type) {
         this.type = type;
+        setAsParentNodeOf(type);
     }
 
     public ReferenceType(Type type, int arrayCount) {
         this.type = type;
+        setAsParentNodeOf(type);
         this.arrayCount = arrayCount;
     }
 
     public ReferenceType(int beginLine, int beginColumn, int endLine, int endColumn, Type type, int arrayCount) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.type = type;
+        setAsParentNodeOf(type);
         this.arrayCount = arrayCount;
     }
 
@@ -71,10 +74,12 @@ public final class ReferenceType extends Type {
 
     public void setArrayCount(int arrayCount) {
         this.arrayCount = arrayCount;
+        invalidateHashCode();
     }
 
     public void setType(Type type) {
         this.type = type;
+        setAsParentNodeOf(type);
     }
 
 }
@@ -38,17 +38,22 @@ public final class WildcardType extends Type {
 
     public WildcardType(ReferenceType ext) {
         this.ext = ext;
+        setAsParentNodeOf(ext);
     }
 
     public WildcardType(ReferenceType ext, ReferenceType sup) {
         this.ext = ext;
+        setAsParentNodeOf(ext);
         this.sup = sup;
+        setAsParentNodeOf(sup);
     }
 
     public WildcardType(int beginLine, int beginColumn, int endLine, int endColumn, ReferenceType ext, ReferenceType sup) {
         super(beginLine, beginColumn, endLine, endColumn);
         this.ext = ext;
+        setAsParentNodeOf(ext);
         this.sup = sup;
+        setAsParentNodeOf(sup);
     }
 
     @Override
@@ -71,10 +76,12 @@ public final class WildcardType extends Type {
 
     public void setExtends(ReferenceType ext) {
         this.ext = ext;
+        setAsParentNodeOf(ext);
     }
 
     public void setSuper(ReferenceType sup) {
         this.sup = sup;
+        setAsParentNodeOf(sup);
     }
 
 }
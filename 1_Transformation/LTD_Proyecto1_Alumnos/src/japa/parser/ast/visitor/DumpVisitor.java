@@ -108,10 +108,21 @@ import japa.parser.ast.type.Type;
 import japa.parser.ast.type.VoidType;
 import japa.parser.ast.type.WildcardType;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Iterator;
 import java.util.List;
 
 /**
+ * Prints the source code of a node. By default the code is kept in memory and
+ * returned by {@link #getSource()}; built with an {@link Appendable}, such as a
+ * {@link java.io.Writer}, the code is written to it as it is printed, so a
+ * whole file is never held in memory. An {@link IOException} of the
+ * {@link Appendable} is thrown as an {@link UncheckedIOException}.
+ * <p>
+ * A visitor can print several nodes: {@link #reset()} or
+ * {@link #reset(Appendable)} it between them.
+ * 
  * @author Julio Vilmar Gesser
  */
 
@@ -119,11 +130,33 @@ public final class DumpVisitor implements VoidVisitor<Object> {
 
     private static class SourcePrinter {
 
+        private static final String INDENT = "    ";
+
+        /** INDENTS[i] is the indentation of level i. */
+        private static final String[] INDENTS = new String[16];
+
+        static {
+            INDENTS[0] = "";
+            for (int i = 1; i < INDENTS.length; i++) {
+                INDENTS[i] = INDENTS[i - 1] + INDENT;
+            }
+        }
+
         private int level = 0;
 
         private boolean indented = false;
 
-        private final StringBuilder buf = new StringBuilder();
+        private Appendable buf;
+
+        public SourcePrinter(Appendable buf) {
+            this.buf = buf;
+        }
+
+        public void reset(Appendable buf) {
+            this.buf = buf;
+            level = 0;
+            indented = false;
+        }
 
         public void indent() {
             level++;
@@ -134,8 +167,18 @@ public final class DumpVisitor implements VoidVisitor<Object> {
         }
 
         private void makeIndent() {
-            for (int i = 0; i < level; i++) {
-                buf.append("    ");
+            int i = level;
+            for (; i >= INDENTS.length; i -= INDENTS.length - 1) {
+                append(INDENTS[INDENTS.length - 1]);
+            }
+            append(INDENTS[i]);
+        }
+
+        private void append(String arg) {
+            try {
+                buf.append(arg);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
         }
 
@@ -144,7 +187,7 @@ public final class DumpVisitor implements VoidVisitor<Object> {
                 makeIndent();
                 indented = true;
             }
-            buf.append(arg);
+            append(arg);
         }
 
         public void printLn(String arg) {
@@ -153,7 +196,7 @@ public final class DumpVisitor implements VoidVisitor<Object> {
         }
 
         public void printLn() {
-            buf.append("\n");
+            append("\n");
             indented = false;
         }
 
@@ -167,12 +210,52 @@ public final class DumpVisitor implements VoidVisitor<Object> {
         }
     }
 
-    private final SourcePrinter printer = new SourcePrinter();
+    private final SourcePrinter printer;
 
+    /**
+     * Creates a visitor that keeps the printed code in memory.
+     */
+    public DumpVisitor() {
+        this(new StringBuilder());
+    }
+
+    /**
+     * Creates a visitor that writes the printed code to <code>out</code>.
+     * 
+     * @param out
+     *            where the code is written
+     */
+    public DumpVisitor(Appendable out) {
+        printer = new SourcePrinter(out);
+    }
+
+    /**
+     * Return the printed code. If the visitor was built with an
+     * {@link Appendable}, this is its <code>toString()</code>.
+     * 
+     * @return the printed code
+     */
     public String getSource() {
         return printer.getSource();
     }
 
+    /**
+     * Forgets the printed code, so the visitor can print another node.
+     */
+    public void reset() {
+        reset(new StringBuilder());
+    }
+
+    /**
+     * Prepares the visitor to write another node to <code>out</code>.
+     * 
+     * @param out
+     *            where the code is written
+     */
+    public void reset(Appendable out) {
+        printer.reset(out);
+    }
+
     private void printModifiers(int modifiers) {
         if (ModifierSet.isPrivate(modifiers)) {
             printer.print("private ");
@@ -136,6 +136,10 @@ public class EqualsVisitor implements GenericVisitor<Boolean, Node> {
         if (n1.getClass() != n2.getClass()) {
             return false;
         }
+        // The hash codes are cached, so this rejects different subtrees without visiting them
+        if (n1.hashCode() != n2.hashCode()) {
+            return false;
+        }
         return n1.accept(this, n2).booleanValue();
     }
 
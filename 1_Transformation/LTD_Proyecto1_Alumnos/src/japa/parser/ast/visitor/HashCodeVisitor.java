@@ -0,0 +1,580 @@
+/*
+ * Created on 18/10/2026
+ */
+package japa.parser.ast.visitor;
+
+import japa.parser.ast.BlockComment;
+import japa.parser.ast.CompilationUnit;
+import japa.parser.ast.ImportDeclaration;
+import japa.parser.ast.LineComment;
+import japa.parser.ast.Node;
+import japa.parser.ast.PackageDeclaration;
+import japa.parser.ast.TypeParameter;
+import japa.parser.ast.body.AnnotationDeclaration;
+import japa.parser.ast.body.AnnotationMemberDeclaration;
+import japa.parser.ast.body.ClassOrInterfaceDeclaration;
+import japa.parser.ast.body.ConstructorDeclaration;
+import japa.parser.ast.body.EmptyMemberDeclaration;
+import japa.parser.ast.body.EmptyTypeDeclaration;
+import japa.parser.ast.body.EnumConstantDeclaration;
+import japa.parser.ast.body.EnumDeclaration;
+import japa.parser.ast.body.FieldDeclaration;
+import japa.parser.ast.body.InitializerDeclaration;
+import japa.parser.ast.body.JavadocComment;
+import japa.parser.ast.body.MethodDeclaration;
+import japa.parser.ast.body.Parameter;
+import japa.parser.ast.body.VariableDeclarator;
+import japa.parser.ast.body.VariableDeclaratorId;
+import japa.parser.ast.expr.ArrayAccessExpr;
+import japa.parser.ast.expr.ArrayCreationExpr;
+import japa.parser.ast.expr.ArrayInitializerExpr;
+import japa.parser.ast.expr.AssignExpr;
+import japa.parser.ast.expr.BinaryExpr;
+import japa.parser.ast.expr.BooleanLiteralExpr;
+import japa.parser.ast.expr.CastExpr;
+import japa.parser.ast.expr.CharLiteralExpr;
+import japa.parser.ast.expr.ClassExpr;
+import japa.parser.ast.expr.ConditionalExpr;
+import japa.parser.ast.expr.DoubleLiteralExpr;
+import japa.parser.ast.expr.EnclosedExpr;
+import japa.parser.ast.expr.FieldAccessExpr;
+import japa.parser.ast.expr.InstanceOfExpr;
+import japa.parser.ast.expr.IntegerLiteralExpr;
+import japa.parser.ast.expr.IntegerLiteralMinValueExpr;
+import japa.parser.ast.expr.LongLiteralExpr;
+import japa.parser.ast.expr.LongLiteralMinValueExpr;
+import japa.parser.ast.expr.MarkerAnnotationExpr;
+import japa.parser.ast.expr.MemberValuePair;
+import japa.parser.ast.expr.MethodCallExpr;
+import japa.parser.ast.expr.NameExpr;
+import japa.parser.ast.expr.NormalAnnotationExpr;
+import japa.parser.ast.expr.NullLiteralExpr;
+import japa.parser.ast.expr.ObjectCreationExpr;
+import japa.parser.ast.expr.QualifiedNameExpr;
+import japa.parser.ast.expr.SingleMemberAnnotationExpr;
+import japa.parser.ast.expr.StringLiteralExpr;
+import japa.parser.ast.expr.SuperExpr;
+import japa.parser.ast.expr.ThisExpr;
+import japa.parser.ast.expr.UnaryExpr;
+import japa.parser.ast.expr.VariableDeclarationExpr;
+import japa.parser.ast.stmt.AssertStmt;
+import japa.parser.ast.stmt.BlockStmt;
+import japa.parser.ast.stmt.BreakStmt;
+import japa.parser.ast.stmt.CatchClause;
+import japa.parser.ast.stmt.ContinueStmt;
+import japa.parser.ast.stmt.DoStmt;
+import japa.parser.ast.stmt.EmptyStmt;
+import japa.parser.ast.stmt.ExplicitConstructorInvocationStmt;
+import japa.parser.ast.stmt.ExpressionStmt;
+import japa.parser.ast.stmt.ForStmt;
+import japa.parser.ast.stmt.ForeachStmt;
+import japa.parser.ast.stmt.IfStmt;
+import japa.parser.ast.stmt.LabeledStmt;
+import japa.parser.ast.stmt.ReturnStmt;
+import japa.parser.ast.stmt.SwitchEntryStmt;
+import japa.parser.ast.stmt.SwitchStmt;
+import japa.parser.ast.stmt.SynchronizedStmt;
+import japa.parser.ast.stmt.ThrowStmt;
+import japa.parser.ast.stmt.TryStmt;
+import japa.parser.ast.stmt.TypeDeclarationStmt;
+import japa.parser.ast.stmt.WhileStmt;
+import japa.parser.ast.type.ClassOrInterfaceType;
+import japa.parser.ast.type.PrimitiveType;
+import japa.parser.ast.type.ReferenceType;
+import japa.parser.ast.type.VoidType;
+import japa.parser.ast.type.WildcardType;
+
+import java.util.List;
+
+/**
+ * Computes a structural hash code of a node, consistent with {@link EqualsVisitor}: it combines the
+ * same children and attributes that {@link EqualsVisitor} compares, so equal nodes have the same hash
+ * code. Unlike hashing the {@link DumpVisitor} output, it does not build any string.
+ */
+public final class HashCodeVisitor implements VoidVisitor<Object> {
+
+    /**
+     * Return the structural hash code of a node, combining its attributes with the hash codes of its
+     * children. The children are hashed with {@link Node#hashCode()}, which caches their hash codes.
+     * 
+     * @param n
+     *            the node, can be <code>null</code>
+     * @return the hash code
+     */
+    public static int hashCode(Node n) {
+        if (n == null) {
+            return 0;
+        }
+        HashCodeVisitor visitor = new HashCodeVisitor();
+        // The class name instead of the class, so the hash codes are the same in every run
+        visitor.hash = n.getClass().getName().hashCode();
+        n.accept(visitor, null);
+        return visitor.hash;
+    }
+
+    private int hash;
+
+    private HashCodeVisitor() {
+        // hide constructor
+    }
+
+    private void combine(int value) {
+        hash = 31 * hash + value;
+    }
+
+    private void nodeHash(Node n) {
+        combine(n == null ? 0 : n.hashCode());
+    }
+
+    private <T extends Node> void nodesHash(List<T> nodes) {
+        if (nodes == null) {
+            combine(0);
+            return;
+        }
+        combine(nodes.size() + 1);
+        for (T n : nodes) {
+            nodeHash(n);
+        }
+    }
+
+    private void objHash(Object obj) {
+        combine(obj == null ? 0 : obj.hashCode());
+    }
+
+    private void valueHash(int value) {
+        combine(value);
+    }
+
+    private void valueHash(boolean value) {
+        combine(value ? 1231 : 1237);
+    }
+
+    private void valueHash(Enum<?> value) {
+        combine(value == null ? 0 : value.ordinal() + 1);
+    }
+
+    public void visit(CompilationUnit n, Object arg) {
+        nodeHash(n.getPackage());
+        nodesHash(n.getImports());
+        nodesHash(n.getTypes());
+        nodesHash(n.getComments());
+    }
+
+    public void visit(PackageDeclaration n, Object arg) {
+        nodeHash(n.getName());
+        nodesHash(n.getAnnotations());
+    }
+
+    public void visit(ImportDeclaration n, Object arg) {
+        nodeHash(n.getName());
+    }
+
+    public void visit(TypeParameter n, Object arg) {
+        objHash(n.getName());
+        nodesHash(n.getTypeBound());
+    }
+
+    public void visit(LineComment n, Object arg) {
+        objHash(n.getContent());
+    }
+
+    public void visit(BlockComment n, Object arg) {
+        objHash(n.getContent());
+    }
+
+    public void visit(ClassOrInterfaceDeclaration n, Object arg) {
+        // javadoc are hashed at CompilationUnit
+        valueHash(n.getModifiers());
+        valueHash(n.isInterface());
+        objHash(n.getName());
+        nodesHash(n.getAnnotations());
+        nodesHash(n.getTypeParameters());
+        nodesHash(n.getExtends());
+        nodesHash(n.getImplements());
+        nodesHash(n.getMembers());
+    }
+
+    public void visit(EnumDeclaration n, Object arg) {
+        // javadoc are hashed at CompilationUnit
+        valueHash(n.getModifiers());
+        objHash(n.getName());
+        nodesHash(n.getAnnotations());
+        nodesHash(n.getImplements());
+        nodesHash(n.getEntries());
+        nodesHash(n.getMembers());
+    }
+
+    public void visit(EmptyTypeDeclaration n, Object arg) {
+        // no attributes
+    }
+
+    public void visit(EnumConstantDeclaration n, Object arg) {
+        // javadoc are hashed at CompilationUnit
+        objHash(n.getName());
+        nodesHash(n.getAnnotations());
+        nodesHash(n.getArgs());
+        nodesHash(n.getClassBody());
+    }
+
+    public void visit(AnnotationDeclaration n, Object arg) {
+        // javadoc are hashed at CompilationUnit
+        valueHash(n.getModifiers());
+        objHash(n.getName());
+        nodesHash(n.getAnnotations());
+        nodesHash(n.getMembers());
+    }
+
+    public void visit(AnnotationMemberDeclaration n, Object arg) {
+        // javadoc are hashed at CompilationUnit
+        valueHash(n.getModifiers());
+        objHash(n.getName());
+        nodesHash(n.getAnnotations());
+        nodeHash(n.getDefaultValue());
+        nodeHash(n.getType());
+    }
+
+    public void visit(FieldDeclaration n, Object arg) {
+        // javadoc are hashed at CompilationUnit
+        valueHash(n.getModifiers());
+        nodesHash(n.getAnnotations());
+        nodeHash(n.getType());
+        nodesHash(n.getVariables());
+    }
+
+    public void visit(VariableDeclarator n, Object arg) {
+        nodeHash(n.getId());
+        nodeHash(n.getInit());
+    }
+
+    public void visit(VariableDeclaratorId n, Object arg) {
+        valueHash(n.getArrayCount());
+        objHash(n.getName());
+    }
+
+    public void visit(ConstructorDeclaration n, Object arg) {
+        // javadoc are hashed at CompilationUnit
+        valueHash(n.getModifiers());
+        objHash(n.getName());
+        nodesHash(n.getAnnotations());
+        nodeHash(n.getBlock());
+        nodesHash(n.getParameters());
+        nodesHash(n.getThrows());
+        nodesHash(n.getTypeParameters());
+    }
+
+    public void visit(MethodDeclaration n, Object arg) {
+        // javadoc are hashed at CompilationUnit
+        valueHash(n.getModifiers());
+        valueHash(n.getArrayCount());
+        objHash(n.getName());
+        nodeHash(n.getType());
+        nodesHash(n.getAnnotations());
+        nodeHash(n.getBody());
+        nodesHash(n.getParameters());
+        nodesHash(n.getThrows());
+        nodesHash(n.getTypeParameters());
+    }
+
+    public void visit(Parameter n, Object arg) {
+        valueHash(n.getModifiers());
+        nodeHash(n.getId());
+        nodeHash(n.getType());
+        nodesHash(n.getAnnotations());
+    }
+
+    public void visit(EmptyMemberDeclaration n, Object arg) {
+        // no attributes
+    }
+
+    public void visit(InitializerDeclaration n, Object arg) {
+        nodeHash(n.getBlock());
+        nodesHash(n.getAnnotations());
+    }
+
+    public void visit(JavadocComment n, Object arg) {
+        objHash(n.getContent());
+    }
+
+    public void visit(ClassOrInterfaceType n, Object arg) {
+        objHash(n.getName());
+        nodeHash(n.getScope());
+        nodesHash(n.getTypeArgs());
+    }
+
+    public void visit(PrimitiveType n, Object arg) {
+        valueHash(n.getType());
+    }
+
+    public void visit(ReferenceType n, Object arg) {
+        valueHash(n.getArrayCount());
+        nodeHash(n.getType());
+    }
+
+    public void visit(VoidType n, Object arg) {
+        // no attributes
+    }
+
+    public void visit(WildcardType n, Object arg) {
+        nodeHash(n.getExtends());
+        nodeHash(n.getSuper());
+    }
+
+    public void visit(ArrayAccessExpr n, Object arg) {
+        nodeHash(n.getName());
+        nodeHash(n.getIndex());
+    }
+
+    public void visit(ArrayCreationExpr n, Object arg) {
+        valueHash(n.getArrayCount());
+        nodeHash(n.getType());
+        nodeHash(n.getInitializer());
+        nodesHash(n.getDimensions());
+    }
+
+    public void visit(ArrayInitializerExpr n, Object arg) {
+        nodesHash(n.getValues());
+    }
+
+    public void visit(AssignExpr n, Object arg) {
+        valueHash(n.getOperator());
+        nodeHash(n.getTarget());
+        nodeHash(n.getValue());
+    }
+
+    public void visit(BinaryExpr n, Object arg) {
+        valueHash(n.getOperator());
+        nodeHash(n.getLeft());
+        nodeHash(n.getRight());
+    }
+
+    public void visit(CastExpr n, Object arg) {
+        nodeHash(n.getType());
+        nodeHash(n.getExpr());
+    }
+
+    public void visit(ClassExpr n, Object arg) {
+        nodeHash(n.getType());
+    }
+
+    public void visit(ConditionalExpr n, Object arg) {
+        nodeHash(n.getCondition());
+        nodeHash(n.getThenExpr());
+        nodeHash(n.getElseExpr());
+    }
+
+    public void visit(EnclosedExpr n, Object arg) {
+        nodeHash(n.getInner());
+    }
+
+    public void visit(FieldAccessExpr n, Object arg) {
+        nodeHash(n.getScope());
+        objHash(n.getField());
+        nodesHash(n.getTypeArgs());
+    }
+
+    public void visit(InstanceOfExpr n, Object arg) {
+        nodeHash(n.getExpr());
+        nodeHash(n.getType());
+    }
+
+    public void visit(StringLiteralExpr n, Object arg) {
+        objHash(n.getValue());
+    }
+
+    public void visit(IntegerLiteralExpr n, Object arg) {
+        objHash(n.getValue());
+    }
+
+    public void visit(LongLiteralExpr n, Object arg) {
+        objHash(n.getValue());
+    }
+
+    public void visit(IntegerLiteralMinValueExpr n, Object arg) {
+        objHash(n.getValue());
+    }
+
+    public void visit(LongLiteralMinValueExpr n, Object arg) {
+        objHash(n.getValue());
+    }
+
+    public void visit(CharLiteralExpr n, Object arg) {
+        objHash(n.getValue());
+    }
+
+    public void visit(DoubleLiteralExpr n, Object arg) {
+        objHash(n.getValue());
+    }
+
+    public void visit(BooleanLiteralExpr n, Object arg) {
+        valueHash(n.getValue());
+    }
+
+    public void visit(NullLiteralExpr n, Object arg) {
+        // no attributes
+    }
+
+    public void visit(MethodCallExpr n, Object arg) {
+        nodeHash(n.getScope());
+        objHash(n.getName());
+        nodesHash(n.getArgs());
+        nodesHash(n.getTypeArgs());
+    }
+
+    public void visit(NameExpr n, Object arg) {
+        objHash(n.getName());
+    }
+
+    public void visit(ObjectCreationExpr n, Object arg) {
+        nodeHash(n.getScope());
+        nodeHash(n.getType());
+        nodesHash(n.getAnonymousClassBody());
+        nodesHash(n.getArgs());
+        nodesHash(n.getTypeArgs());
+    }
+
+    public void visit(QualifiedNameExpr n, Object arg) {
+        nodeHash(n.getQualifier());
+        objHash(n.getName());
+    }
+
+    public void visit(ThisExpr n, Object arg) {
+        nodeHash(n.getClassExpr());
+    }
+
+    public void visit(SuperExpr n, Object arg) {
+        nodeHash(n.getClassExpr());
+    }
+
+    public void visit(UnaryExpr n, Object arg) {
+        valueHash(n.getOperator());
+        nodeHash(n.getExpr());
+    }
+
+    public void visit(VariableDeclarationExpr n, Object arg) {
+        valueHash(n.getModifiers());
+        nodesHash(n.getAnnotations());
+        nodeHash(n.getType());
+        nodesHash(n.getVars());
+    }
+
+    public void visit(MarkerAnnotationExpr n, Object arg) {
+        nodeHash(n.getName());
+    }
+
+    public void visit(SingleMemberAnnotationExpr n, Object arg) {
+        nodeHash(n.getName());
+        nodeHash(n.getMemberValue());
+    }
+
+    public void visit(NormalAnnotationExpr n, Object arg) {
+        nodeHash(n.getName());
+        nodesHash(n.getPairs());
+    }
+
+    public void visit(MemberValuePair n, Object arg) {
+        objHash(n.getName());
+        nodeHash(n.getValue());
+    }
+
+    public void visit(ExplicitConstructorInvocationStmt n, Object arg) {
+        nodeHash(n.getExpr());
+        nodesHash(n.getArgs());
+        nodesHash(n.getTypeArgs());
+    }
+
+    public void visit(TypeDeclarationStmt n, Object arg) {
+        nodeHash(n.getTypeDeclaration());
+    }
+
+    public void visit(AssertStmt n, Object arg) {
+        nodeHash(n.getCheck());
+        nodeHash(n.getMessage());
+    }
+
+    public void visit(BlockStmt n, Object arg) {
+        nodesHash(n.getStmts());
+    }
+
+    public void visit(LabeledStmt n, Object arg) {
+        nodeHash(n.getStmt());
+    }
+
+    public void visit(EmptyStmt n, Object arg) {
+        // no attributes
+    }
+
+    public void visit(ExpressionStmt n, Object arg) {
+        nodeHash(n.getExpression());
+    }
+
+    public void visit(SwitchStmt n, Object arg) {
+        nodeHash(n.getSelector());
+        nodesHash(n.getEntries());
+    }
+
+    public void visit(SwitchEntryStmt n, Object arg) {
+        nodeHash(n.getLabel());
+        nodesHash(n.getStmts());
+    }
+
+    public void visit(BreakStmt n, Object arg) {
+        objHash(n.getId());
+    }
+
+    public void visit(ReturnStmt n, Object arg) {
+        nodeHash(n.getExpr());
+    }
+
+    public void visit(IfStmt n, Object arg) {
+        nodeHash(n.getCondition());
+        nodeHash(n.getThenStmt());
+        nodeHash(n.getElseStmt());
+    }
+
+    public void visit(WhileStmt n, Object arg) {
+        nodeHash(n.getCondition());
+        nodeHash(n.getBody());
+    }
+
+    public void visit(ContinueStmt n, Object arg) {
+        objHash(n.getId());
+    }
+
+    public void visit(DoStmt n, Object arg) {
+        nodeHash(n.getBody());
+        nodeHash(n.getCondition());
+    }
+
+    public void visit(ForeachStmt n, Object arg) {
+        nodeHash(n.getVariable());
+        nodeHash(n.getIterable());
+        nodeHash(n.getBody());
+    }
+
+    public void visit(ForStmt n, Object arg) {
+        nodesHash(n.getInit());
+        nodeHash(n.getCompare());
+        nodesHash(n.getUpdate());
+        nodeHash(n.getBody());
+    }
+
+    public void visit(ThrowStmt n, Object arg) {
+        nodeHash(n.getExpr());
+    }
+
+    public void visit(SynchronizedStmt n, Object arg) {
+        nodeHash(n.getExpr());
+        nodeHash(n.getBlock());
+    }
+
+    public void visit(TryStmt n, Object arg) {
+        nodeHash(n.getTryBlock());
+        nodesHash(n.getCatchs());
+        nodeHash(n.getFinallyBlock());
+    }
+
+    public void visit(CatchClause n, Object arg) {
+        nodeHash(n.getExcept());
+        nodeHash(n.getCatchBlock());
+    }
+}
@@ -0,0 +1,701 @@
+package transformador;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+import iter2rec.transformation.Sentence;
+import iter2rec.transformation.variable.Variable;
+import japa.parser.ast.body.BodyDeclaration;
+import japa.parser.ast.body.ClassOrInterfaceDeclaration;
+import japa.parser.ast.body.ConstructorDeclaration;
+import japa.parser.ast.body.FieldDeclaration;
+import japa.parser.ast.body.MethodDeclaration;
+import japa.parser.ast.body.ModifierSet;
+import japa.parser.ast.body.Parameter;
+import japa.parser.ast.body.VariableDeclarator;
+import japa.parser.ast.body.VariableDeclaratorId;
+import japa.parser.ast.expr.ArrayAccessExpr;
+import japa.parser.ast.expr.AssignExpr;
+import japa.parser.ast.expr.BinaryExpr;
+import japa.parser.ast.expr.BooleanLiteralExpr;
+import japa.parser.ast.expr.EnclosedExpr;
+import japa.parser.ast.expr.Expression;
+import japa.parser.ast.expr.FieldAccessExpr;
+import japa.parser.ast.expr.IntegerLiteralExpr;
+import japa.parser.ast.expr.LongLiteralExpr;
+import japa.parser.ast.expr.MethodCallExpr;
+import japa.parser.ast.expr.NameExpr;
+import japa.parser.ast.expr.ObjectCreationExpr;
+import japa.parser.ast.expr.StringLiteralExpr;
+import japa.parser.ast.expr.ThisExpr;
+import japa.parser.ast.expr.UnaryExpr;
+import japa.parser.ast.expr.VariableDeclarationExpr;
+import japa.parser.ast.stmt.BlockStmt;
+import japa.parser.ast.stmt.BreakStmt;
+import japa.parser.ast.stmt.ContinueStmt;
+import japa.parser.ast.stmt.DoStmt;
+import japa.parser.ast.stmt.ExpressionStmt;
+import japa.parser.ast.stmt.ForStmt;
+import japa.parser.ast.stmt.ForeachStmt;
+import japa.parser.ast.stmt.IfStmt;
+import japa.parser.ast.stmt.LabeledStmt;
+import japa.parser.ast.stmt.ReturnStmt;
+import japa.parser.ast.stmt.Statement;
+import japa.parser.ast.stmt.SwitchStmt;
+import japa.parser.ast.stmt.SynchronizedStmt;
+import japa.parser.ast.stmt.ThrowStmt;
+import japa.parser.ast.stmt.TypeDeclarationStmt;
+import japa.parser.ast.stmt.WhileStmt;
+import japa.parser.ast.type.ClassOrInterfaceType;
+import japa.parser.ast.type.PrimitiveType;
+import japa.parser.ast.type.PrimitiveType.Primitive;
+import japa.parser.ast.type.ReferenceType;
+import japa.parser.ast.type.Type;
+import japa.parser.ast.type.VoidType;
+
+/**
+ * The divide-and-conquer form of a counted loop (see {@link TransformOptions#isDivideAndConquer()}).
+ *
+ * The loop runs its body for every value of an index between two bounds. The recursive method gets an inclusive
+ * range of the index: with one value it runs the body once, otherwise it calls itself for each half of the range.
+ * The halves run in the same order as the iterations of the loop, so the effects on the heap happen in the same order.
+ * The variables of the caller written by the body must be reductions: each call returns the partial result of its
+ * range, and the caller combines them.
+ * <pre>
+ * private static int metodo(int[] a, int from_1, int to_2) {
+ *     if (from_1 == to_2) {
+ *         int i = from_1;
+ *         int sum = 0;
+ *         sum += a[i];
+ *         return sum;
+ *     }
+ *     int middle_3 = from_1 + ((to_2 - from_1) >>> 1);
+ *     return metodo(a, from_1, middle_3) + metodo(a, middle_3 + 1, to_2);
+ * }
+ * </pre>
+ * With fork/join, a {@code RecursiveTask} splits the range the same way, forking the left half, until it is small
+ * enough for the sequential method.
+ */
+class DivideAndConquer {
+
+	/** A variable of the caller updated by the body with an associative operator. */
+	private static class Reduction {
+		final Variable variable;
+		final AssignExpr.Operator operator;
+
+		Reduction(Variable variable, AssignExpr.Operator operator) {
+			this.variable = variable;
+			this.operator = operator;
+		}
+
+		/** The value of the reduction for an empty range. */
+		Expression getIdentity() {
+			Type type = variable.getType();
+			boolean isLong = type instanceof PrimitiveType && ((PrimitiveType) type).getType() == Primitive.Long;
+			boolean isBoolean = type instanceof PrimitiveType && ((PrimitiveType) type).getType() == Primitive.Boolean;
+
+			if (!(type instanceof PrimitiveType))
+				return new StringLiteralExpr("");
+			if (isBoolean)
+				return new BooleanLiteralExpr(operator == AssignExpr.Operator.and);
+			String value = operator == AssignExpr.Operator.star ? "1" : operator == AssignExpr.Operator.and ? "-1" : "0";
+			return isLong ? new LongLiteralExpr(value + "L") : new IntegerLiteralExpr(value);
+		}
+
+		/** Combines the partial results of two consecutive ranges. */
+		Expression combine(Expression left, Expression right) {
+			BinaryExpr.Operator binaryOperator;
+			switch (operator)
+			{
+				case star:
+					binaryOperator = BinaryExpr.Operator.times;
+					break;
+				case or:
+					binaryOperator = BinaryExpr.Operator.binOr;
+					break;
+				case and:
+					binaryOperator = BinaryExpr.Operator.binAnd;
+					break;
+				case xor:
+					binaryOperator = BinaryExpr.Operator.xor;
+					break;
+				default:
+					binaryOperator = BinaryExpr.Operator.plus;
+			}
+			return new BinaryExpr(left, right, binaryOperator);
+		}
+
+		/** The assignment of the caller that adds the result of the whole range to the variable. */
+		Statement update(Expression result) {
+			return new ExpressionStmt(new AssignExpr(new NameExpr(variable.getName()), result, operator));
+		}
+	}
+
+	/** The effects of the body of a loop, found by {@link #scan(Statement, boolean, boolean)}. */
+	private final Map<String, Integer> reads = new HashMap<String, Integer>();
+	private final Map<String, Set<AssignExpr.Operator>> updates = new HashMap<String, Set<AssignExpr.Operator>>();
+	private final Set<String> assigned = new HashSet<String>();
+	private final Set<String> declared = new HashSet<String>();
+	private final Set<String> numericUpdates = new HashSet<String>();
+	private final Set<String> arraysWritten = new HashSet<String>();
+	private boolean isUnsupported;
+	private boolean hasSharedEffects;
+	private boolean readsOtherElements;
+
+	private final String indexName;
+	private final Type indexType;
+	private final List<Statement> body;
+	private final List<Variable> parameters = new ArrayList<Variable>();
+	private final List<Reduction> reductions = new ArrayList<Reduction>();
+	private boolean parallel;
+
+	private DivideAndConquer(String indexName, Type indexType, List<Statement> body) {
+		this.indexName = indexName;
+		this.indexType = indexType;
+		this.body = body;
+	}
+
+	/**
+	 * Checks if a counted loop can be transformed to a divide-and-conquer method.
+	 * @param indexName The index of the loop, declared by the loop and incremented by 1 after every iteration.
+	 * @param indexType The type of the index.
+	 * @param bound The bound of the index, which must not change in the loop.
+	 * @param body The statements of an iteration, without the increment of the index.
+	 * @param usedVariables The variables declared before the loop and used in it.
+	 * @param forkJoin Whether a fork/join task is wanted, if the iterations can run in parallel.
+	 * @return The divide-and-conquer form, or {@code null} if the iterations depend on each other.
+	 */
+	static DivideAndConquer analyse(String indexName, Type indexType, Expression bound, List<Statement> body, List<Variable> usedVariables, boolean forkJoin) {
+		if (!(indexType instanceof PrimitiveType))
+			return null;
+		Primitive primitive = ((PrimitiveType) indexType).getType();
+		if (primitive != Primitive.Int && primitive != Primitive.Long)
+			return null;
+
+		DivideAndConquer loop = new DivideAndConquer(indexName, indexType, body);
+		for (Statement statement : body)
+			loop.scan(statement, false, false);
+		if (loop.isUnsupported || loop.isWritten(indexName))
+			return null;
+
+		Map<String, Variable> locals = new HashMap<String, Variable>();
+		for (Variable variable : usedVariables)
+			locals.put(variable.getName(), variable);
+
+		// The bound is evaluated once, so it may only read local variables that the body does not write
+		DivideAndConquer boundEffects = new DivideAndConquer(indexName, indexType, body);
+		boundEffects.scan(bound);
+		if (boundEffects.hasSharedEffects || !boundEffects.updates.isEmpty() || !boundEffects.assigned.isEmpty())
+			return null;
+		for (String name : boundEffects.reads.keySet())
+			if (!locals.containsKey(name) || loop.isWritten(name))
+				return null;
+
+		for (Variable variable : usedVariables)
+		{
+			String name = variable.getName();
+			if (name.equals(indexName) || loop.declared.contains(name))
+				continue;
+			if (!loop.isWritten(name))
+			{
+				if (loop.reads.containsKey(name))
+					loop.parameters.add(variable);
+				continue;
+			}
+			Reduction reduction = loop.getReduction(variable);
+			if (reduction == null)
+				return null;
+			loop.reductions.add(reduction);
+		}
+
+		// Any other name written is a field, shared by the iterations
+		Set<String> written = new HashSet<String>(loop.assigned);
+		written.addAll(loop.updates.keySet());
+		written.removeAll(loop.declared);
+		written.removeAll(locals.keySet());
+		if (!written.isEmpty())
+			loop.hasSharedEffects = true;
+
+		loop.parallel = forkJoin && !loop.hasSharedEffects && (loop.arraysWritten.isEmpty() || !loop.readsOtherElements);
+
+		return loop;
+	}
+
+	/**
+	 * The number of parameters of the recursive method: the variables it reads and both ends of the range.
+	 */
+	int getParameterCount() {
+		return parameters.size() + 2;
+	}
+
+	/**
+	 * The number of values returned by the recursive method, one for every reduction.
+	 */
+	int getResultWidth() {
+		return reductions.size();
+	}
+
+	/**
+	 * Whether the iterations can run in parallel: they do not call methods (except the ones of {@code Math}), and
+	 * they only write the elements of the arrays at the index, without reading any other element.
+	 */
+	boolean isParallel() {
+		return parallel;
+	}
+
+	/**
+	 * Builds the recursive method, and the classes it needs, and adds them to a class.
+	 * @param methodName The name of the recursive method.
+	 * @param newName Gives a new name for a local variable from a prefix.
+	 * @param isStatic Whether the method with the loop is static.
+	 * @param holderModifiers The modifiers of the class of the results, if there are several reductions.
+	 * @param threshold The number of iterations below which a fork/join task calls the sequential method, or 0.
+	 * @param throws_ The exceptions of the method with the loop, which the body may throw.
+	 * @param members The members of the class, where the method and its classes are added.
+	 * @param first The first value of the index.
+	 * @param last The last value of the index, which must not be less than the first one.
+	 * @return The statements of the caller that run the iterations and update the reductions.
+	 */
+	List<Statement> build(String methodName, UnaryOperator<String> newName, boolean isStatic, int holderModifiers, int threshold,
+			List<NameExpr> throws_, List<BodyDeclaration> members, Expression first, Expression last) {
+		String from = newName.apply("from");
+		String to = newName.apply("to");
+		String middle = newName.apply("middle");
+		String left = newName.apply("left");
+		String right = newName.apply("right");
+		String result = newName.apply("result");
+
+		List<Variable> reductionVariables = new ArrayList<Variable>();
+		for (Reduction reduction : reductions)
+			reductionVariables.add(reduction.variable);
+		ResultCarrier resultCarrier = new ResultCarrier(methodName, parameters, reductionVariables, false, holderModifiers);
+
+		List<Parameter> methodParameters = new ArrayList<Parameter>();
+		for (Variable parameter : parameters)
+			methodParameters.add(parameter.getParameter());
+		methodParameters.add(new Parameter(indexType, new VariableDeclaratorId(from)));
+		methodParameters.add(new Parameter(indexType, new VariableDeclaratorId(to)));
+
+		// One iteration: the body with the index and the reductions of this range
+		List<Statement> leaf = new ArrayList<Statement>();
+		leaf.add(declare(indexType, indexName, new NameExpr(from)));
+		for (Reduction reduction : reductions)
+			leaf.add(declare(reduction.variable.getType(), reduction.variable.getName(), reduction.getIdentity()));
+		leaf.addAll(body);
+		leaf.add(resultCarrier.buildReturn(false));
+
+		// Several iterations: both halves, in order
+		List<Statement> methodBody = new ArrayList<Statement>();
+		methodBody.add(new IfStmt(new BinaryExpr(new NameExpr(from), new NameExpr(to), BinaryExpr.Operator.equals), new BlockStmt(leaf), null));
+		methodBody.add(declare(indexType, middle, getMiddle(from, to)));
+		methodBody.addAll(combine(resultCarrier, left, right,
+				call(isStatic, methodName, new NameExpr(from), new NameExpr(middle)),
+				call(isStatic, methodName, getNext(middle), new NameExpr(to))));
+
+		int modifiers = ModifierSet.PRIVATE | (isStatic ? ModifierSet.STATIC : 0);
+		MethodDeclaration method = new MethodDeclaration(modifiers, resultCarrier.getReturnType(), methodName, methodParameters);
+		method.setBody(new BlockStmt(methodBody));
+		if (!parallel && throws_ != null && !throws_.isEmpty())
+			method.setThrows(throws_);
+		members.add(method);
+		if (resultCarrier.getHolder() != null)
+			members.add(resultCarrier.getHolder());
+
+		List<Expression> arguments = getArguments(first, last);
+		Expression range;
+		if (threshold > 0 && parallel)
+		{
+			ClassOrInterfaceDeclaration task = buildTask(methodName, newName, isStatic, threshold, resultCarrier, from, to, middle, left, right);
+			members.add(task);
+			range = new MethodCallExpr(new ObjectCreationExpr(null, new ClassOrInterfaceType(task.getName()), arguments), "invoke");
+		}
+		else
+			range = new MethodCallExpr(isStatic ? null : new ThisExpr(), methodName, arguments);
+
+		List<Statement> statements = new ArrayList<Statement>();
+		if (reductions.isEmpty())
+			statements.add(new ExpressionStmt(range));
+		else if (reductions.size() == 1)
+			statements.add(reductions.get(0).update(range));
+		else
+		{
+			statements.add(declare(resultCarrier.getReturnType(), result, range));
+			for (Reduction reduction : reductions)
+				statements.add(reduction.update(new FieldAccessExpr(new NameExpr(result), reduction.variable.getName())));
+		}
+
+		return statements;
+	}
+
+	/**
+	 * Builds the fork/join task of the loop. It splits its range like the recursive method, forking the left half,
+	 * until the range is below the threshold and it calls the recursive method.
+	 * <pre>
+	 * private static final class Metodo_1Task extends java.util.concurrent.RecursiveTask&lt;Integer&gt; {
+	 *     ...
+	 *     protected Integer compute() {
+	 *         if (to_2 - from_1 &lt; 1024) {
+	 *             return metodo_1(a, from_1, to_2);
+	 *         }
+	 *         int middle_3 = from_1 + ((to_2 - from_1) &gt;&gt;&gt; 1);
+	 *         Metodo_1Task left_4 = new Metodo_1Task(a, from_1, middle_3);
+	 *         left_4.fork();
+	 *         Integer right_5 = new Metodo_1Task(a, middle_3 + 1, to_2).compute();
+	 *         return left_4.join() + right_5;
+	 *     }
+	 * }
+	 * </pre>
+	 */
+	private ClassOrInterfaceDeclaration buildTask(String methodName, UnaryOperator<String> newName, boolean isStatic, int threshold,
+			ResultCarrier resultCarrier, String from, String to, String middle, String left, String right) {
+		String name = Character.toUpperCase(methodName.charAt(0)) + methodName.substring(1) + "Task";
+		String leftTask = newName.apply("task");
+
+		// The result of the task: none, the only reduction, or the holder of all of them
+		ClassOrInterfaceType superclass;
+		Type resultType;
+		if (reductions.isEmpty())
+		{
+			superclass = new ClassOrInterfaceType("java.util.concurrent.RecursiveAction");
+			resultType = new VoidType();
+		}
+		else
+		{
+			resultType = reductions.size() == 1 ? Visitador.getWrapper(reductions.get(0).variable.getType()) : resultCarrier.getReturnType();
+			superclass = new ClassOrInterfaceType("java.util.concurrent.RecursiveTask");
+			superclass.setTypeArgs(Arrays.asList(resultType));
+		}
+
+		List<Variable> fields = new ArrayList<Variable>(parameters);
+		List<BodyDeclaration> members = new ArrayList<BodyDeclaration>();
+		List<Parameter> constructorParameters = new ArrayList<Parameter>();
+		List<Statement> assignments = new ArrayList<Statement>();
+		List<Type> types = new ArrayList<Type>();
+		List<String> names = new ArrayList<String>();
+		for (Variable field : fields)
+		{
+			types.add(field.getType());
+			names.add(field.getName());
+		}
+		types.add(indexType);
+		names.add(from);
+		types.add(indexType);
+		names.add(to);
+		for (int i = 0; i < names.size(); i++)
+		{
+			members.add(new FieldDeclaration(ModifierSet.FINAL, types.get(i), new VariableDeclarator(new VariableDeclaratorId(names.get(i)))));
+			constructorParameters.add(new Parameter(types.get(i), new VariableDeclaratorId(names.get(i))));
+			assignments.add(new ExpressionStmt(new AssignExpr(new FieldAccessExpr(new ThisExpr(), names.get(i)), new NameExpr(names.get(i)), AssignExpr.Operator.assign)));
+		}
+		ConstructorDeclaration constructor = new ConstructorDeclaration(0, name);
+		constructor.setParameters(constructorParameters);
+		constructor.setBlock(new BlockStmt(assignments));
+		members.add(constructor);
+
+		// Small ranges run sequentially
+		List<Statement> sequential = new ArrayList<Statement>();
+		MethodCallExpr sequentialCall = new MethodCallExpr(null, methodName, getArguments(new NameExpr(from), new NameExpr(to)));
+		if (reductions.isEmpty())
+		{
+			sequential.add(new ExpressionStmt(sequentialCall));
+			sequential.add(new ReturnStmt());
+		}
+		else
+			sequential.add(new ReturnStmt(sequentialCall));
+		BinaryExpr size = new BinaryExpr(new NameExpr(to), new NameExpr(from), BinaryExpr.Operator.minus);
+		BinaryExpr isSmall = new BinaryExpr(size, new IntegerLiteralExpr(String.valueOf(threshold)), BinaryExpr.Operator.less);
+
+		List<Statement> compute = new ArrayList<Statement>();
+		compute.add(new IfStmt(isSmall, new BlockStmt(sequential), null));
+		compute.add(declare(indexType, middle, getMiddle(from, to)));
+		ClassOrInterfaceType taskType = new ClassOrInterfaceType(name);
+		compute.add(declare(taskType, leftTask, new ObjectCreationExpr(null, taskType, getArguments(new NameExpr(from), new NameExpr(middle)))));
+		compute.add(new ExpressionStmt(new MethodCallExpr(new NameExpr(leftTask), "fork")));
+		Expression rightTask = new MethodCallExpr(new ObjectCreationExpr(null, taskType, getArguments(getNext(middle), new NameExpr(to))), "compute");
+		if (reductions.isEmpty())
+		{
+			compute.add(new ExpressionStmt(rightTask));
+			compute.add(new ExpressionStmt(new MethodCallExpr(new NameExpr(leftTask), "join")));
+		}
+		else
+		{
+			compute.add(declare(resultType, right, rightTask));
+			compute.addAll(combine(resultCarrier, left, null, new MethodCallExpr(new NameExpr(leftTask), "join"), new NameExpr(right)));
+		}
+
+		MethodDeclaration computeMethod = new MethodDeclaration(ModifierSet.PROTECTED, resultType, "compute");
+		computeMethod.setBody(new BlockStmt(compute));
+		members.add(computeMethod);
+
+		int modifiers = ModifierSet.PRIVATE | ModifierSet.FINAL | (isStatic ? ModifierSet.STATIC : 0);
+		ClassOrInterfaceDeclaration task = new ClassOrInterfaceDeclaration(modifiers, false, name);
+		task.setExtends(Arrays.asList(superclass));
+		task.setMembers(members);
+
+		return task;
+	}
+
+	/**
+	 * Builds the statements that combine the results of two consecutive ranges and return them.
+	 * @param leftName The name of the variable for the holder of the left range, if there are several reductions.
+	 * @param rightName The name of the variable for the holder of the right range, or {@code null} if the right
+	 *                  value is already a variable.
+	 */
+	private List<Statement> combine(ResultCarrier resultCarrier, String leftName, String rightName, Expression leftValue, Expression rightValue) {
+		List<Statement> statements = new ArrayList<Statement>();
+
+		if (reductions.isEmpty())
+		{
+			statements.add(new ExpressionStmt(leftValue));
+			statements.add(new ExpressionStmt(rightValue));
+		}
+		else if (reductions.size() == 1)
+			statements.add(new ReturnStmt(reductions.get(0).combine(leftValue, rightValue)));
+		else
+		{
+			Type holderType = resultCarrier.getReturnType();
+			statements.add(declare(holderType, leftName, leftValue));
+			Expression right = rightValue;
+			if (rightName != null)
+			{
+				statements.add(declare(holderType, rightName, rightValue));
+				right = new NameExpr(rightName);
+			}
+			List<Expression> values = new ArrayList<Expression>();
+			for (Reduction reduction : reductions)
+			{
+				String field = reduction.variable.getName();
+				values.add(reduction.combine(new FieldAccessExpr(new NameExpr(leftName), field), new FieldAccessExpr(right, field)));
+			}
+			statements.add(new ReturnStmt(new ObjectCreationExpr(null, (ClassOrInterfaceType) holderType, values)));
+		}
+
+		return statements;
+	}
+
+	private MethodCallExpr call(boolean isStatic, String methodName, Expression first, Expression last) {
+		return new MethodCallExpr(isStatic ? null : new ThisExpr(), methodName, getArguments(first, last));
+	}
+
+	private List<Expression> getArguments(Expression first, Expression last) {
+		List<Expression> arguments = new ArrayList<Expression>();
+		for (Variable parameter : parameters)
+			arguments.add(new NameExpr(parameter.getName()));
+		arguments.add(first);
+		arguments.add(last);
+		return arguments;
+	}
+
+	// from + ((to - from) >>> 1), which does not overflow
+	private static Expression getMiddle(String from, String to) {
+		BinaryExpr size = new BinaryExpr(new NameExpr(to), new NameExpr(from), BinaryExpr.Operator.minus);
+		BinaryExpr half = new BinaryExpr(new EnclosedExpr(size), new IntegerLiteralExpr("1"), BinaryExpr.Operator.rUnsignedShift);
+		return new BinaryExpr(new NameExpr(from), new EnclosedExpr(half), BinaryExpr.Operator.plus);
+	}
+
+	private static Expression getNext(String middle) {
+		return new BinaryExpr(new NameExpr(middle), new IntegerLiteralExpr("1"), BinaryExpr.Operator.plus);
+	}
+
+	private static Statement declare(Type type, String name, Expression value) {
+		VariableDeclarator declarator = new VariableDeclarator(new VariableDeclaratorId(name), value);
+		return new ExpressionStmt(new VariableDeclarationExpr(type, Arrays.asList(declarator)));
+	}
+
+	private boolean isWritten(String name) {
+		return assigned.contains(name) || updates.containsKey(name);
+	}
+
+	/**
+	 * Checks that a variable is only written with one associative operator, and never read otherwise.
+	 */
+	private Reduction getReduction(Variable variable) {
+		String name = variable.getName();
+		Set<AssignExpr.Operator> operators = updates.get(name);
+		if (assigned.contains(name) || reads.containsKey(name) || operators == null || operators.size() != 1)
+			return null;
+		AssignExpr.Operator operator = operators.iterator().next();
+
+		Type type = variable.getType();
+		if (type instanceof PrimitiveType)
+		{
+			Primitive primitive = ((PrimitiveType) type).getType();
+			boolean isInteger = primitive == Primitive.Int || primitive == Primitive.Long;
+			boolean isBoolean = primitive == Primitive.Boolean;
+			boolean isBitwise = operator == AssignExpr.Operator.or || operator == AssignExpr.Operator.and || operator == AssignExpr.Operator.xor;
+			if (isInteger || (isBoolean && isBitwise))
+				return new Reduction(variable, operator);
+		}
+		// Concatenation keeps the order, since the partial results are combined from left to right
+		else if (isString(type) && !numericUpdates.contains(name))
+			return new Reduction(variable, operator);
+
+		return null;
+	}
+
+	// The parser wraps the class of a reference type, String, in a ReferenceType without dimensions
+	private static boolean isString(Type type) {
+		if (type instanceof ReferenceType && ((ReferenceType) type).getArrayCount() == 0)
+			type = ((ReferenceType) type).getType();
+		return type instanceof ClassOrInterfaceType && ((ClassOrInterfaceType) type).getName().equals("String");
+	}
+
+	// The jumps out of the iteration, and the code that is not analysed, are not supported
+	private void scan(Statement statement, boolean inLoop, boolean inSwitch) {
+		if (statement == null)
+			return;
+
+		if (statement instanceof ReturnStmt || statement instanceof ThrowStmt || statement instanceof LabeledStmt
+				|| statement instanceof SynchronizedStmt || statement instanceof TypeDeclarationStmt)
+			isUnsupported = true;
+		else if (statement instanceof BreakStmt)
+			isUnsupported |= ((BreakStmt) statement).getId() != null || (!inLoop && !inSwitch);
+		else if (statement instanceof ContinueStmt)
+			isUnsupported |= ((ContinueStmt) statement).getId() != null || !inLoop;
+
+		for (Expression expression : Sentence.getExpressions(statement))
+			scan(expression);
+
+		boolean isLoop = statement instanceof ForStmt || statement instanceof ForeachStmt || statement instanceof WhileStmt || statement instanceof DoStmt;
+		for (Statement child : Sentence.getAllStatements(statement))
+			scan(child, inLoop || isLoop, inSwitch || statement instanceof SwitchStmt);
+	}
+
+	private void scan(Expression expression) {
+		if (expression == null)
+			return;
+
+		if (expression instanceof NameExpr)
+			count(((NameExpr) expression).getName());
+		else if (expression instanceof AssignExpr)
+		{
+			AssignExpr assignExpr = (AssignExpr) expression;
+			if (assignExpr.getTarget() instanceof NameExpr)
+				update(((NameExpr) assignExpr.getTarget()).getName(), assignExpr.getOperator());
+			else
+			{
+				write(assignExpr.getTarget());
+				scan(assignExpr.getTarget());
+			}
+			scan(assignExpr.getValue());
+		}
+		else if (expression instanceof UnaryExpr && isIncrement((UnaryExpr) expression))
+		{
+			UnaryExpr unaryExpr = (UnaryExpr) expression;
+			if (unaryExpr.getExpr() instanceof NameExpr)
+			{
+				// An increment is a += 1 or a -= 1
+				String name = ((NameExpr) unaryExpr.getExpr()).getName();
+				update(name, AssignExpr.Operator.plus);
+				numericUpdates.add(name);
+			}
+			else
+			{
+				write(unaryExpr.getExpr());
+				scan(unaryExpr.getExpr());
+			}
+		}
+		else if (expression instanceof ArrayAccessExpr)
+		{
+			ArrayAccessExpr arrayAccessExpr = (ArrayAccessExpr) expression;
+			if (!isIndex(arrayAccessExpr.getIndex()))
+				readsOtherElements = true;
+			scan(arrayAccessExpr.getName());
+			scan(arrayAccessExpr.getIndex());
+		}
+		else if (expression instanceof MethodCallExpr)
+		{
+			MethodCallExpr methodCallExpr = (MethodCallExpr) expression;
+			boolean isMath = methodCallExpr.getScope() instanceof NameExpr && ((NameExpr) methodCallExpr.getScope()).getName().equals("Math");
+			if (!isMath)
+				hasSharedEffects = true;
+			for (Expression child : Sentence.getExpressions(expression))
+				if (!isMath || child != methodCallExpr.getScope())
+					scan(child);
+		}
+		else if (expression instanceof ObjectCreationExpr)
+		{
+			ObjectCreationExpr objectCreationExpr = (ObjectCreationExpr) expression;
+			hasSharedEffects = true;
+			// The body of an anonymous class is not analysed
+			if (objectCreationExpr.getAnonymousClassBody() != null)
+				isUnsupported = true;
+			for (Expression child : Sentence.getExpressions(expression))
+				scan(child);
+		}
+		else if (expression instanceof VariableDeclarationExpr)
+		{
+			for (VariableDeclarator variableDeclarator : ((VariableDeclarationExpr) expression).getVars())
+			{
+				declared.add(variableDeclarator.getId().getName());
+				scan(variableDeclarator.getInit());
+			}
+		}
+		else
+			for (Expression child : Sentence.getExpressions(expression))
+				scan(child);
+	}
+
+	private void count(String name) {
+		Integer count = reads.get(name);
+		reads.put(name, count == null ? 1 : count + 1);
+	}
+
+	private void update(String name, AssignExpr.Operator operator) {
+		switch (operator)
+		{
+			case minus:
+				// The partial results of a -= are added
+				numericUpdates.add(name);
+				operator = AssignExpr.Operator.plus;
+				break;
+			case plus:
+			case star:
+			case or:
+			case and:
+			case xor:
+				break;
+			default:
+				assigned.add(name);
+				return;
+		}
+		Set<AssignExpr.Operator> operators = updates.get(name);
+		if (operators == null)
+		{
+			operators = new HashSet<AssignExpr.Operator>();
+			updates.put(name, operators);
+		}
+		operators.add(operator);
+	}
+
+	/** Records a write to the heap: an element of an array at the index is the only one that can run in parallel. */
+	private void write(Expression target) {
+		if (target instanceof ArrayAccessExpr && ((ArrayAccessExpr) target).getName() instanceof NameExpr && isIndex(((ArrayAccessExpr) target).getIndex()))
+			arraysWritten.add(((NameExpr) ((ArrayAccessExpr) target).getName()).getName());
+		else
+			hasSharedEffects = true;
+	}
+
+	private boolean isIndex(Expression expression) {
+		return expression instanceof NameExpr && ((NameExpr) expression).getName().equals(indexName);
+	}
+
+	private static boolean isIncrement(UnaryExpr unaryExpr) {
+		switch (unaryExpr.getOperator())
+		{
+			case preIncrement:
+			case preDecrement:
+			case posIncrement:
+			case posDecrement:
+				return true;
+			default:
+				return false;
+		}
+	}
+}
@@ -0,0 +1,202 @@
+package transformador;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.JavaFileObject.Kind;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+
+/**
+ * Compiles Java source files with the compiler of the running JDK, keeping the class files in memory. Nothing is
+ * written to disk, and the classes of every compilation are loaded by their own class loader (see
+ * {@link Compilation#newClassLoader()}), so two versions of the same class can be compiled and run side by side.
+ *
+ * The sources are compiled without class path or source path, so they can only use the classes of the JDK and the
+ * ones compiled with them. The compiler can be shared between threads.
+ */
+public class MemoryCompiler {
+
+	private final JavaCompiler compiler;
+
+	public MemoryCompiler() {
+		compiler = ToolProvider.getSystemJavaCompiler();
+		if (compiler == null)
+			throw new IllegalStateException("There is no Java compiler available, the JVM must be a JDK");
+	}
+
+	/** The outcome of a compilation: the class files generated, or the errors of the compiler. */
+	public static class Compilation {
+		private final boolean success;
+		private final Map<String, byte[]> classes;
+		private final String diagnostics;
+
+		private Compilation(boolean success, Map<String, byte[]> classes, String diagnostics) {
+			this.success = success;
+			this.classes = classes;
+			this.diagnostics = diagnostics;
+		}
+
+		public boolean isSuccess() {
+			return success;
+		}
+
+		/** The binary names of the classes generated. */
+		public Set<String> getClassNames() {
+			return Collections.unmodifiableSet(classes.keySet());
+		}
+
+		/** The errors and warnings of the compiler, one per line. */
+		public String getDiagnostics() {
+			return diagnostics;
+		}
+
+		/**
+		 * Creates a class loader with the classes of this compilation. Its parent is the parent of the system class
+		 * loader, so the classes of the application (the transformer, JUnit...) are not visible to the program.
+		 * Every call returns a new loader, with its own copy of the static state of the classes.
+		 */
+		public ClassLoader newClassLoader() {
+			return new MemoryClassLoader(classes, ClassLoader.getSystemClassLoader().getParent());
+		}
+	}
+
+	/**
+	 * Compiles the given files together.
+	 * @param sources The Java source files, read with the default encoding like {@code javac} does.
+	 * @return The classes generated or the errors found.
+	 */
+	public Compilation compile(File... sources) {
+		// The errors of the standard file manager, like the characters that cannot be read, go to the same collector.
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+		StandardJavaFileManager standardManager = compiler.getStandardFileManager(diagnostics, null, null);
+		return compile(standardManager, standardManager.getJavaFileObjects(sources), diagnostics);
+	}
+
+	/**
+	 * Compiles a source file kept in memory.
+	 * @param className The binary name of the public class of the source, which gives the name of the file.
+	 * @param source The source code.
+	 * @return The classes generated or the errors found.
+	 */
+	public Compilation compile(String className, String source) {
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+		StandardJavaFileManager standardManager = compiler.getStandardFileManager(diagnostics, null, null);
+		return compile(standardManager, Collections.singletonList(new SourceFile(className, source)), diagnostics);
+	}
+
+	private Compilation compile(StandardJavaFileManager standardManager, Iterable<? extends JavaFileObject> units, DiagnosticCollector<JavaFileObject> diagnostics) {
+		MemoryFileManager fileManager = new MemoryFileManager(standardManager);
+		boolean success;
+		try {
+			List<File> none = Collections.emptyList();
+			standardManager.setLocation(StandardLocation.CLASS_PATH, none);
+			standardManager.setLocation(StandardLocation.SOURCE_PATH, none);
+			success = compiler.getTask(null, fileManager, diagnostics, Arrays.asList("-proc:none"), null, units).call();
+		} catch (IOException e) {
+			throw new IllegalStateException("Cannot set up the compiler for " + units, e);
+		} finally {
+			try {
+				fileManager.close();
+			} catch (IOException e) {
+				// Nothing was written to disk, there is nothing to release.
+			}
+		}
+
+		// Some errors, like the characters that cannot be read with the encoding, do not make the task fail.
+		StringBuilder messages = new StringBuilder();
+		for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+			messages.append(diagnostic).append('\n');
+			if (diagnostic.getKind() == Diagnostic.Kind.ERROR)
+				success = false;
+		}
+
+		Map<String, byte[]> classes = new HashMap<String, byte[]>();
+		for (Map.Entry<String, ClassFile> entry : fileManager.classFiles.entrySet())
+			classes.put(entry.getKey(), entry.getValue().bytes.toByteArray());
+
+		return new Compilation(success, classes, messages.toString());
+	}
+
+	/** A source file kept in memory. */
+	private static class SourceFile extends SimpleJavaFileObject {
+		private final String source;
+
+		SourceFile(String className, String source) {
+			super(URI.create("mem:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+			this.source = source;
+		}
+
+		@Override
+		public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+			return source;
+		}
+	}
+
+	/** A class file generated by the compiler, kept in memory. */
+	private static class ClassFile extends SimpleJavaFileObject {
+		private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		ClassFile(String className) {
+			super(URI.create("mem:///" + className.replace('.', '/') + Kind.CLASS.extension), Kind.CLASS);
+		}
+
+		@Override
+		public OutputStream openOutputStream() {
+			return bytes;
+		}
+	}
+
+	/** Reads the sources like the standard file manager, but keeps the class files generated in memory. */
+	private static class MemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+		private final Map<String, ClassFile> classFiles = new HashMap<String, ClassFile>();
+
+		MemoryFileManager(StandardJavaFileManager fileManager) {
+			super(fileManager);
+		}
+
+		@Override
+		public JavaFileObject getJavaFileForOutput(Location location, String className, Kind kind, FileObject sibling) throws IOException {
+			if (kind != Kind.CLASS)
+				return super.getJavaFileForOutput(location, className, kind, sibling);
+			ClassFile classFile = new ClassFile(className);
+			classFiles.put(className, classFile);
+			return classFile;
+		}
+	}
+
+	/** Defines the classes of a compilation from their bytes. */
+	private static class MemoryClassLoader extends ClassLoader {
+		private final Map<String, byte[]> classes;
+
+		MemoryClassLoader(Map<String, byte[]> classes, ClassLoader parent) {
+			super(parent);
+			this.classes = classes;
+		}
+
+		@Override
+		protected Class<?> findClass(String name) throws ClassNotFoundException {
+			byte[] bytes = classes.get(name);
+			if (bytes == null)
+				throw new ClassNotFoundException(name);
+			return defineClass(name, bytes, 0, bytes.length);
+		}
+	}
+}
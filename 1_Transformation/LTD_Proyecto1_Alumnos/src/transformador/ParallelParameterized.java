@@ -0,0 +1,40 @@
+package transformador;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.runners.Parameterized;
+import org.junit.runners.model.RunnerScheduler;
+
+/**
+ * A {@link Parameterized} runner that runs the cases of the test in parallel. The number of threads is the number of
+ * processors, unless the system property {@code tests.threads} says otherwise. The test must be safe to run in
+ * parallel with other cases of itself.
+ */
+public class ParallelParameterized extends Parameterized {
+
+	public ParallelParameterized(Class<?> klass) throws Throwable {
+		super(klass);
+		final int threads = Integer.getInteger("tests.threads", Runtime.getRuntime().availableProcessors());
+		setScheduler(new RunnerScheduler() {
+			private final ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+			@Override
+			public void schedule(Runnable childStatement) {
+				pool.submit(childStatement);
+			}
+
+			@Override
+			public void finished() {
+				pool.shutdown();
+				try {
+					pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+				} catch (InterruptedException e) {
+					pool.shutdownNow();
+					Thread.currentThread().interrupt();
+				}
+			}
+		});
+	}
+}
@@ -0,0 +1,245 @@
+package transformador;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs the {@code main} method of programs compiled by {@link MemoryCompiler} inside the current JVM, as if they were
+ * run with {@code java}: every run has a new class loader, its own standard output and error, and a time limit.
+ * Several programs can run at the same time.
+ *
+ * The output is captured by replacing {@link System#out} and {@link System#err} once, with streams that write to the
+ * buffers of the run of the current thread (and of the threads it starts), or to the original streams for any other
+ * thread. An exception thrown by {@code main} is printed like the JVM does and gives the exit status 1.
+ *
+ * Only the threads started by the run, directly or not, inherit its streams. The threads that already existed write to
+ * the original streams, and their output is not part of the run. The main case are the workers of
+ * {@link java.util.concurrent.ForkJoinPool#commonPool()}, which run the halves forked by the tasks that
+ * {@code -forkjoin} generates; those tasks print nothing, since their iterations cannot call methods (see
+ * {@link DivideAndConquer#isParallel()}), so the comparison of the outputs is not affected.
+ *
+ * There are some differences with a real JVM: the run ends when {@code main} returns, without waiting for the
+ * threads it started; a program that calls {@link System#exit(int)} stops the whole JVM; and a program that is out of
+ * time is interrupted, but its thread can only be abandoned if it ignores the interruption.
+ */
+public class ProgramRunner {
+
+	private static final InheritableThreadLocal<OutputStream> OUT = new InheritableThreadLocal<OutputStream>();
+	private static final InheritableThreadLocal<OutputStream> ERR = new InheritableThreadLocal<OutputStream>();
+	private static boolean installed;
+
+	private final long timeoutMillis;
+	private final ExecutorService executor;
+
+	/**
+	 * @param timeoutMillis The maximum time a program may run.
+	 * @param stackSize The stack size of the thread of {@code main}, as in {@link Thread#Thread(ThreadGroup, Runnable,
+	 *                  String, long)}; 0 for the default of the JVM, like the main thread of {@code java}.
+	 */
+	public ProgramRunner(long timeoutMillis, final long stackSize) {
+		this.timeoutMillis = timeoutMillis;
+		this.executor = Executors.newCachedThreadPool(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(null, r, "main", stackSize);
+				// A program that does not stop must not keep the JVM alive.
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		install();
+	}
+
+	public ProgramRunner(long timeoutMillis) {
+		this(timeoutMillis, 0);
+	}
+
+	/** The outcome of a run. */
+	public static class Execution {
+		private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+		private volatile int status;
+		private volatile boolean timedOut;
+		private volatile long nanos;
+
+		/** The standard output of the program. */
+		public String getOut() {
+			synchronized (out) {
+				return out.toString();
+			}
+		}
+
+		/** The standard error of the program, with the stack trace of the exception that stopped it, if any. */
+		public String getErr() {
+			synchronized (err) {
+				return err.toString();
+			}
+		}
+
+		/** The exit status: 0 if {@code main} returned, 1 if it threw an exception. */
+		public int getStatus() {
+			return status;
+		}
+
+		/** Whether the program was stopped because it ran out of time. */
+		public boolean isTimedOut() {
+			return timedOut;
+		}
+
+		/** The time the program ran, in nanoseconds. */
+		public long getNanos() {
+			return nanos;
+		}
+	}
+
+	/**
+	 * Runs a program and waits until it ends or runs out of time.
+	 * @param program The classes of the program.
+	 * @param mainClass The binary name of the class with the {@code main} method.
+	 * @param args The arguments of {@code main}.
+	 * @return The output and status of the run.
+	 * @throws ClassNotFoundException If there is no such class in the program.
+	 * @throws NoSuchMethodException If the class has no {@code main} method.
+	 */
+	public Execution run(MemoryCompiler.Compilation program, String mainClass, String... args) throws ClassNotFoundException, NoSuchMethodException, InterruptedException {
+		ClassLoader loader = program.newClassLoader();
+		final Method main = Class.forName(mainClass, false, loader).getMethod("main", String[].class);
+		final Object[] arguments = new Object[] { args };
+		final Execution execution = new Execution();
+		final Synchronized out = new Synchronized(execution.out);
+		final Synchronized err = new Synchronized(execution.err);
+
+		Future<?> future = executor.submit(new Callable<Void>() {
+			@Override
+			public Void call() throws IllegalAccessException {
+				OUT.set(out);
+				ERR.set(err);
+				long start = System.nanoTime();
+				try {
+					main.invoke(null, arguments);
+					execution.status = 0;
+				} catch (InvocationTargetException e) {
+					System.err.print("Exception in thread \"" + Thread.currentThread().getName() + "\" ");
+					e.getCause().printStackTrace();
+					execution.status = 1;
+				} catch (ExceptionInInitializerError e) {
+					// The static initializer of the main class failed before main was called.
+					System.err.print("Exception in thread \"" + Thread.currentThread().getName() + "\" ");
+					e.printStackTrace();
+					execution.status = 1;
+				} finally {
+					execution.nanos = System.nanoTime() - start;
+					System.out.flush();
+					System.err.flush();
+					OUT.remove();
+					ERR.remove();
+				}
+				return null;
+			}
+		});
+
+		try {
+			future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			future.cancel(true);
+			out.close();
+			err.close();
+			execution.timedOut = true;
+			execution.nanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Cannot run " + mainClass, e.getCause());
+		}
+		return execution;
+	}
+
+	/** Stops the idle threads. The threads of the programs that ran out of time are left as they are. */
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	/** Replaces the standard streams with the ones that send the output of every run to its buffers. */
+	private static synchronized void install() {
+		if (installed)
+			return;
+		System.setOut(new PrintStream(new Routing(System.out, OUT), true));
+		System.setErr(new PrintStream(new Routing(System.err, ERR), true));
+		installed = true;
+	}
+
+	/** Writes to the stream of the run of the current thread, or to the original stream outside of any run. */
+	private static class Routing extends OutputStream {
+		private final OutputStream original;
+		private final ThreadLocal<OutputStream> target;
+
+		Routing(OutputStream original, ThreadLocal<OutputStream> target) {
+			this.original = original;
+			this.target = target;
+		}
+
+		private OutputStream stream() {
+			OutputStream stream = target.get();
+			return stream != null ? stream : original;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			stream().write(b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			stream().write(b, off, len);
+		}
+
+		@Override
+		public void flush() throws IOException {
+			stream().flush();
+		}
+	}
+
+	/**
+	 * Lets the threads of a program write to the same buffer while it is being read. Once closed, the output is
+	 * discarded, so a program that ran out of time cannot fill the memory.
+	 */
+	private static class Synchronized extends OutputStream {
+		private final ByteArrayOutputStream buffer;
+		private volatile boolean closed;
+
+		Synchronized(ByteArrayOutputStream buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public void write(int b) {
+			synchronized (buffer) {
+				if (!closed)
+					buffer.write(b);
+			}
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			synchronized (buffer) {
+				if (!closed)
+					buffer.write(b, off, len);
+			}
+		}
+
+		@Override
+		public void close() {
+			closed = true;
+		}
+	}
+}
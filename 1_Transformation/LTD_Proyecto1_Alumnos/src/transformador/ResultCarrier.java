@@ -0,0 +1,271 @@
+package transformador;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import iter2rec.transformation.variable.Variable;
+import japa.parser.ast.body.BodyDeclaration;
+import japa.parser.ast.body.ClassOrInterfaceDeclaration;
+import japa.parser.ast.body.ConstructorDeclaration;
+import japa.parser.ast.body.FieldDeclaration;
+import japa.parser.ast.body.ModifierSet;
+import japa.parser.ast.body.Parameter;
+import japa.parser.ast.body.VariableDeclarator;
+import japa.parser.ast.body.VariableDeclaratorId;
+import japa.parser.ast.expr.AssignExpr;
+import japa.parser.ast.expr.AssignExpr.Operator;
+import japa.parser.ast.expr.BooleanLiteralExpr;
+import japa.parser.ast.expr.Expression;
+import japa.parser.ast.expr.FieldAccessExpr;
+import japa.parser.ast.expr.MethodCallExpr;
+import japa.parser.ast.expr.NameExpr;
+import japa.parser.ast.expr.ObjectCreationExpr;
+import japa.parser.ast.expr.ThisExpr;
+import japa.parser.ast.expr.VariableDeclarationExpr;
+import japa.parser.ast.stmt.BlockStmt;
+import japa.parser.ast.stmt.ExpressionStmt;
+import japa.parser.ast.stmt.ReturnStmt;
+import japa.parser.ast.stmt.Statement;
+import japa.parser.ast.stmt.WhileStmt;
+import japa.parser.ast.type.ClassOrInterfaceType;
+import japa.parser.ast.type.PrimitiveType;
+import japa.parser.ast.type.PrimitiveType.Primitive;
+import japa.parser.ast.type.Type;
+import japa.parser.ast.type.VoidType;
+
+/**
+ * The value returned by a recursive method built by {@link Visitador}, and the code that reads it in the caller.
+ *
+ * The values are returned with their own types, without boxing them in an {@code Object[]}:
+ * <ul>
+ * <li>If the loop modifies no variable, the method returns nothing.</li>
+ * <li>If it modifies one variable, the method returns its value.</li>
+ * <li>Otherwise the method returns a holder, a small class with a field for every modified variable.</li>
+ * </ul>
+ * A trampolined method (see {@link TransformOptions#isTrampolined()}) always returns a holder, with a field for every
+ * parameter so the caller can call it again, and a flag that tells whether to go on.
+ */
+class ResultCarrier {
+
+	private final String methodName;
+	private final List<Variable> fields;
+	private final List<Variable> modifiedVariables;
+	private final boolean trampolined;
+	private final ClassOrInterfaceDeclaration holder;
+	private final String nextFieldName;
+
+	/**
+	 * @param methodName The name of the recursive method.
+	 * @param parameters The parameters of the recursive method.
+	 * @param modifiedVariables The variables of the caller modified by the loop.
+	 * @param trampolined Whether the method is trampolined.
+	 * @param holderModifiers The modifiers of the holder class, if there is one.
+	 */
+	ResultCarrier(String methodName, List<Variable> parameters, List<Variable> modifiedVariables, boolean trampolined, int holderModifiers) {
+		this.methodName = methodName;
+		this.modifiedVariables = modifiedVariables;
+		this.trampolined = trampolined;
+		this.fields = trampolined ? parameters : modifiedVariables;
+
+		if (trampolined || modifiedVariables.size() > 1)
+		{
+			this.nextFieldName = trampolined ? getNextFieldName(parameters) : null;
+			this.holder = buildHolder(holderModifiers);
+		}
+		else
+		{
+			this.nextFieldName = null;
+			this.holder = null;
+		}
+	}
+
+	/**
+	 * The class that holds the values returned, or {@code null} if the method returns them directly.
+	 */
+	ClassOrInterfaceDeclaration getHolder() {
+		return holder;
+	}
+
+	/**
+	 * The number of values returned by the recursive method, with the continuation flag of a trampolined one.
+	 */
+	int getWidth() {
+		if (holder == null)
+			return modifiedVariables.isEmpty() ? 0 : 1;
+		return fields.size() + (trampolined ? 1 : 0);
+	}
+
+	/**
+	 * The return type of the recursive method.
+	 */
+	Type getReturnType() {
+		if (holder != null)
+			return new ClassOrInterfaceType(holder.getName());
+		if (modifiedVariables.isEmpty())
+			return new VoidType();
+		return modifiedVariables.get(0).getType();
+	}
+
+	/**
+	 * Builds the statement that returns the current values from the recursive method.
+	 * @param next ({@link TransformOptions#isTrampolined()} only) Whether the caller should run another iteration.
+	 * @return The return statement.
+	 */
+	ReturnStmt buildReturn(boolean next) {
+		if (holder == null)
+			return modifiedVariables.isEmpty() ? new ReturnStmt() : new ReturnStmt(new NameExpr(modifiedVariables.get(0).getName()));
+
+		List<Expression> values = new ArrayList<Expression>();
+		for (Variable field : fields)
+			values.add(new NameExpr(field.getName()));
+		if (trampolined)
+			values.add(new BooleanLiteralExpr(next));
+
+		return new ReturnStmt(new ObjectCreationExpr(null, new ClassOrInterfaceType(holder.getName()), values));
+	}
+
+	/**
+	 * Builds the statements that run the next iteration with a recursive call and return its result. A method that
+	 * returns nothing makes the call and then returns.
+	 * @param recursiveMethodCall The recursive call.
+	 * @return The statements.
+	 */
+	List<Statement> buildRecursion(MethodCallExpr recursiveMethodCall) {
+		List<Statement> statements = new ArrayList<Statement>();
+
+		if (holder == null && modifiedVariables.isEmpty())
+		{
+			statements.add(new ExpressionStmt(recursiveMethodCall));
+			statements.add(new ReturnStmt());
+		}
+		else
+			statements.add(new ReturnStmt(recursiveMethodCall));
+
+		return statements;
+	}
+
+	/**
+	 * Builds the statements of the caller that call the recursive method and copy the values it returns back to the
+	 * modified variables.
+	 * <pre>
+	 * x = metodo_1(x);                  // one variable
+	 * Metodo_1Result result_1 = metodo_1(x, y);
+	 * x = result_1.x;                   // several variables
+	 * y = result_1.y;
+	 * </pre>
+	 * A trampolined method is called again while it asks for it:
+	 * <pre>
+	 * Metodo_1Result result_1 = metodo_1(x, y);
+	 * while (result_1.next) {
+	 *     result_1 = metodo_1(result_1.x, result_1.y);
+	 * }
+	 * </pre>
+	 * @param resultName The name of the variable with the holder returned.
+	 * @param methodCallScope The scope of the method call, {@code this} or none.
+	 * @param methodCallExpr The first call to the recursive method.
+	 * @return The statements.
+	 */
+	List<Statement> buildCall(String resultName, Expression methodCallScope, MethodCallExpr methodCallExpr) {
+		List<Statement> statements = new ArrayList<Statement>();
+
+		if (holder == null)
+		{
+			if (modifiedVariables.isEmpty())
+				statements.add(new ExpressionStmt(methodCallExpr));
+			else
+				statements.add(assign(new NameExpr(modifiedVariables.get(0).getName()), methodCallExpr));
+			return statements;
+		}
+
+		VariableDeclarator resultDeclarator = new VariableDeclarator(new VariableDeclaratorId(resultName), methodCallExpr);
+		statements.add(new ExpressionStmt(new VariableDeclarationExpr(getReturnType(), Arrays.asList(resultDeclarator))));
+
+		if (trampolined)
+		{
+			List<Expression> arguments = new ArrayList<Expression>();
+			for (Variable field : fields)
+				arguments.add(new FieldAccessExpr(new NameExpr(resultName), field.getName()));
+
+			MethodCallExpr call = new MethodCallExpr(methodCallScope, methodName, arguments);
+			List<Statement> driverBody = new ArrayList<Statement>();
+			driverBody.add(assign(new NameExpr(resultName), call));
+
+			statements.add(new WhileStmt(new FieldAccessExpr(new NameExpr(resultName), nextFieldName), new BlockStmt(driverBody)));
+		}
+
+		for (Variable variable : modifiedVariables)
+			statements.add(assign(new NameExpr(variable.getName()), new FieldAccessExpr(new NameExpr(resultName), variable.getName())));
+
+		return statements;
+	}
+
+	/**
+	 * Builds the holder class, with a field and a constructor parameter for every value.
+	 * <pre>
+	 * private static final class Metodo_1Result {
+	 *     final int x;
+	 *     final long y;
+	 *     Metodo_1Result(int x, long y) { this.x = x; this.y = y; }
+	 * }
+	 * </pre>
+	 */
+	private ClassOrInterfaceDeclaration buildHolder(int modifiers) {
+		String name = Character.toUpperCase(methodName.charAt(0)) + methodName.substring(1) + "Result";
+
+		List<Variable> values = new ArrayList<Variable>(fields);
+		List<Type> types = new ArrayList<Type>();
+		List<String> names = new ArrayList<String>();
+		for (Variable value : values)
+		{
+			types.add(value.getType());
+			names.add(value.getName());
+		}
+		if (trampolined)
+		{
+			types.add(new PrimitiveType(Primitive.Boolean));
+			names.add(nextFieldName);
+		}
+
+		List<BodyDeclaration> members = new ArrayList<BodyDeclaration>();
+		List<Parameter> parameters = new ArrayList<Parameter>();
+		List<Statement> assignments = new ArrayList<Statement>();
+		for (int i = 0; i < names.size(); i++)
+		{
+			members.add(new FieldDeclaration(ModifierSet.FINAL, types.get(i), new VariableDeclarator(new VariableDeclaratorId(names.get(i)))));
+			parameters.add(new Parameter(types.get(i), new VariableDeclaratorId(names.get(i))));
+			assignments.add(assign(new FieldAccessExpr(new ThisExpr(), names.get(i)), new NameExpr(names.get(i))));
+		}
+
+		ConstructorDeclaration constructor = new ConstructorDeclaration(0, name);
+		constructor.setParameters(parameters);
+		constructor.setBlock(new BlockStmt(assignments));
+		members.add(constructor);
+
+		ClassOrInterfaceDeclaration holder = new ClassOrInterfaceDeclaration(modifiers, false, name);
+		holder.setMembers(members);
+
+		return holder;
+	}
+
+	/**
+	 * The name of the continuation flag of a trampolined holder, which must not clash with the parameters.
+	 */
+	private static String getNextFieldName(List<Variable> parameters) {
+		Set<String> names = new HashSet<String>();
+		for (Variable parameter : parameters)
+			names.add(parameter.getName());
+
+		String name = "next";
+		while (names.contains(name))
+			name = name + "_";
+
+		return name;
+	}
+
+	private static Statement assign(Expression target, Expression value) {
+		return new ExpressionStmt(new AssignExpr(target, value, Operator.assign));
+	}
+}
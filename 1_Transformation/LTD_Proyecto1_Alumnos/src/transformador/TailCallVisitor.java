@@ -0,0 +1,771 @@
+package transformador;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import iter2rec.transformation.Sentence;
+import iter2rec.transformation.variable.DefUseIndex;
+import japa.parser.ast.CompilationUnit;
+import japa.parser.ast.Node;
+import japa.parser.ast.body.BodyDeclaration;
+import japa.parser.ast.body.ClassOrInterfaceDeclaration;
+import japa.parser.ast.body.EnumDeclaration;
+import japa.parser.ast.body.MethodDeclaration;
+import japa.parser.ast.body.ModifierSet;
+import japa.parser.ast.body.Parameter;
+import japa.parser.ast.body.VariableDeclarator;
+import japa.parser.ast.body.VariableDeclaratorId;
+import japa.parser.ast.expr.ArrayCreationExpr;
+import japa.parser.ast.expr.AssignExpr;
+import japa.parser.ast.expr.AssignExpr.Operator;
+import japa.parser.ast.expr.BooleanLiteralExpr;
+import japa.parser.ast.expr.ConditionalExpr;
+import japa.parser.ast.expr.EnclosedExpr;
+import japa.parser.ast.expr.Expression;
+import japa.parser.ast.expr.MethodCallExpr;
+import japa.parser.ast.expr.NameExpr;
+import japa.parser.ast.expr.ObjectCreationExpr;
+import japa.parser.ast.expr.ThisExpr;
+import japa.parser.ast.expr.UnaryExpr;
+import japa.parser.ast.expr.VariableDeclarationExpr;
+import japa.parser.ast.stmt.BlockStmt;
+import japa.parser.ast.stmt.BreakStmt;
+import japa.parser.ast.stmt.CatchClause;
+import japa.parser.ast.stmt.ContinueStmt;
+import japa.parser.ast.stmt.DoStmt;
+import japa.parser.ast.stmt.ExpressionStmt;
+import japa.parser.ast.stmt.ForStmt;
+import japa.parser.ast.stmt.ForeachStmt;
+import japa.parser.ast.stmt.IfStmt;
+import japa.parser.ast.stmt.LabeledStmt;
+import japa.parser.ast.stmt.ReturnStmt;
+import japa.parser.ast.stmt.Statement;
+import japa.parser.ast.stmt.SwitchEntryStmt;
+import japa.parser.ast.stmt.SwitchStmt;
+import japa.parser.ast.stmt.SynchronizedStmt;
+import japa.parser.ast.stmt.ThrowStmt;
+import japa.parser.ast.stmt.TryStmt;
+import japa.parser.ast.stmt.TypeDeclarationStmt;
+import japa.parser.ast.stmt.WhileStmt;
+import japa.parser.ast.type.ClassOrInterfaceType;
+import japa.parser.ast.type.VoidType;
+import japa.parser.ast.visitor.ModifierVisitorAdapter;
+import japa.parser.ast.visitor.VoidVisitorAdapter;
+
+/**
+ * Turns the self tail calls of the methods back into loops, the inverse of {@link Visitador}.
+ *
+ * A self tail call calls the same method on the same object and returns its result right away: {@code return f(x);},
+ * or in a method that returns nothing, {@code f(x); return;} and a call at the end of the method. The body of a method
+ * with such calls is put in a loop, and every tail call assigns its arguments to the parameters and starts the next
+ * iteration:
+ * <pre>
+ * int f(int n, int acc) {            int f(int n, int acc) {
+ *     if (n == 0)                        while (true) {
+ *         return acc;                        if (n == 0)
+ *     return f(n - 1, acc * n);                  return acc;
+ * }                                          acc = acc * n;
+ *                                            n = n - 1;
+ *                                            continue;
+ *                                        }
+ *                                    }
+ * </pre>
+ * The methods generated by {@link Visitador} have this shape, whether they return a value, a holder or nothing. Only the
+ * methods that cannot be overridden (static, private or final, or in a final class) are rewritten, since the call of any
+ * other one may run the method of a subclass; the generated ones are private. The trampolined ones already run in a
+ * loop of the caller and are left as they are. So are the tail calls inside a try
+ * statement, and the methods with anonymous or local classes, which may capture the parameters.
+ */
+public class TailCallVisitor extends ModifierVisitorAdapter<Object>
+{
+	// The methods of java.lang.Object that a class can call without a scope, by name and number of parameters.
+	private static final Set<String> OBJECT_METHODS = new HashSet<String>(Arrays.asList("clone/0", "equals/1", "finalize/0",
+			"getClass/0", "hashCode/0", "notify/0", "notifyAll/0", "toString/0", "wait/0", "wait/1", "wait/2"));
+
+	// The classes and interfaces declared in the compilation unit, by name, to find the methods they inherit.
+	private final Map<String, List<ClassOrInterfaceDeclaration>> types = new HashMap<String, List<ClassOrInterfaceDeclaration>>();
+	// The class that declares the methods visited, or null in enums and anonymous classes.
+	private ClassOrInterfaceDeclaration classDeclaration;
+	// The number of methods turned into loops.
+	private int transformedMethods;
+
+	public Node visit(CompilationUnit compilationUnit, Object args)
+	{
+		types.clear();
+		compilationUnit.accept(new VoidVisitorAdapter<Object>() {
+			@Override
+			public void visit(ClassOrInterfaceDeclaration n, Object arg) {
+				List<ClassOrInterfaceDeclaration> declarations = types.get(n.getName());
+				if (declarations == null)
+					types.put(n.getName(), declarations = new ArrayList<ClassOrInterfaceDeclaration>());
+				declarations.add(n);
+				super.visit(n, arg);
+			}
+		}, null);
+
+		return super.visit(compilationUnit, args);
+	}
+
+	public Node visit(ClassOrInterfaceDeclaration classDeclaration, Object args)
+	{
+		ClassOrInterfaceDeclaration previousClassDeclaration = this.classDeclaration;
+		this.classDeclaration = classDeclaration;
+
+		Node result = super.visit(classDeclaration, args);
+
+		this.classDeclaration = previousClassDeclaration;
+
+		return result;
+	}
+
+	public Node visit(EnumDeclaration enumDeclaration, Object args)
+	{
+		ClassOrInterfaceDeclaration previousClassDeclaration = this.classDeclaration;
+		this.classDeclaration = null;
+
+		Node result = super.visit(enumDeclaration, args);
+
+		this.classDeclaration = previousClassDeclaration;
+
+		return result;
+	}
+
+	public Node visit(ObjectCreationExpr objectCreationExpr, Object args)
+	{
+		ClassOrInterfaceDeclaration previousClassDeclaration = this.classDeclaration;
+		if (objectCreationExpr.getAnonymousClassBody() != null)
+			this.classDeclaration = null;
+
+		Node result = super.visit(objectCreationExpr, args);
+
+		this.classDeclaration = previousClassDeclaration;
+
+		return result;
+	}
+
+	public Node visit(MethodDeclaration methodDeclaration, Object args)
+	{
+		if (methodDeclaration.getBody() != null
+				&& isTransformable(methodDeclaration)
+				&& new TailCalls(methodDeclaration).rewrite())
+		{
+			transformedMethods++;
+		}
+
+		return methodDeclaration;
+	}
+
+	/**
+	 * The number of methods turned into loops so far.
+	 */
+	public int getTransformedMethods() {
+		return transformedMethods;
+	}
+
+	/**
+	 * Checks that the calls with the name of a method can only call it, and that its parameters can be assigned.
+	 */
+	private boolean isTransformable(MethodDeclaration methodDeclaration)
+	{
+		if (this.classDeclaration == null)
+			return false;
+
+		// The call of a method that can be overridden may run the method of a subclass instead.
+		int modifiers = methodDeclaration.getModifiers();
+		if (!ModifierSet.isStatic(modifiers) && !ModifierSet.isPrivate(modifiers) && !ModifierSet.isFinal(modifiers)
+				&& !ModifierSet.isFinal(this.classDeclaration.getModifiers()))
+			return false;
+
+		List<Parameter> parameters = getParameters(methodDeclaration);
+		for (Parameter parameter : parameters)
+			if (parameter.isVarArgs())
+				return false;
+
+		// An overload with the same number of parameters, declared or inherited, could be the one called.
+		if (hasOverload(this.classDeclaration, methodDeclaration, parameters.size(), new HashSet<ClassOrInterfaceDeclaration>()))
+			return false;
+
+		final boolean[] hasClasses = { false };
+		methodDeclaration.getBody().accept(new VoidVisitorAdapter<Object>() {
+			@Override
+			public void visit(ObjectCreationExpr n, Object arg) {
+				if (n.getAnonymousClassBody() != null)
+					hasClasses[0] = true;
+				super.visit(n, arg);
+			}
+			@Override
+			public void visit(TypeDeclarationStmt n, Object arg) {
+				hasClasses[0] = true;
+			}
+		}, null);
+
+		return !hasClasses[0];
+	}
+
+	/**
+	 * Checks if a type or its supertypes declare another method with the name and the number of parameters of a method.
+	 * The supertypes that are not declared in the compilation unit cannot be checked, so they may have one.
+	 */
+	private boolean hasOverload(ClassOrInterfaceDeclaration type, MethodDeclaration methodDeclaration, int parameterCount,
+			Set<ClassOrInterfaceDeclaration> visited)
+	{
+		if (!visited.add(type))
+			return false;
+
+		if (type.getMembers() != null)
+			for (BodyDeclaration member : type.getMembers())
+				if (member != methodDeclaration
+						&& member instanceof MethodDeclaration
+						&& ((MethodDeclaration) member).getName().equals(methodDeclaration.getName())
+						&& getParameters((MethodDeclaration) member).size() == parameterCount)
+					return true;
+
+		List<ClassOrInterfaceType> supertypes = new ArrayList<ClassOrInterfaceType>();
+		if (type.getExtends() != null)
+			supertypes.addAll(type.getExtends());
+		else if (!type.isInterface() && OBJECT_METHODS.contains(methodDeclaration.getName() + "/" + parameterCount))
+			return true;
+		// A class that is not abstract implements the methods of its interfaces, so they are checked in it or its superclasses.
+		if (type.getImplements() != null && ModifierSet.isAbstract(type.getModifiers()))
+			supertypes.addAll(type.getImplements());
+
+		for (ClassOrInterfaceType supertype : supertypes)
+		{
+			List<ClassOrInterfaceDeclaration> declarations = this.types.get(supertype.getName());
+			if (declarations == null)
+				return true;
+			for (ClassOrInterfaceDeclaration declaration : declarations)
+				if (hasOverload(declaration, methodDeclaration, parameterCount, visited))
+					return true;
+		}
+
+		return false;
+	}
+
+	private static List<Parameter> getParameters(MethodDeclaration methodDeclaration)
+	{
+		List<Parameter> parameters = methodDeclaration.getParameters();
+		return parameters == null ? new ArrayList<Parameter>() : parameters;
+	}
+
+	/**
+	 * The tail calls of a method. The statements are first walked to count them, and then again to rewrite them, so
+	 * the methods without tail calls are not modified.
+	 */
+	private class TailCalls
+	{
+		private final MethodDeclaration method;
+		private final List<Parameter> parameters;
+		private final boolean isVoid;
+		private final boolean isStatic;
+		// The names used in the method, which the temporary variables must not hide.
+		private final Set<String> names = new HashSet<String>();
+		private final String label;
+
+		private boolean apply;
+		private int count;
+		private boolean isLabelled;
+
+		TailCalls(MethodDeclaration method)
+		{
+			this.method = method;
+			this.parameters = getParameters(method);
+			this.isVoid = method.getType() instanceof VoidType;
+			this.isStatic = (method.getModifiers() & ModifierSet.STATIC) != 0;
+
+			final Set<String> labels = new HashSet<String>();
+			method.getBody().accept(new VoidVisitorAdapter<Object>() {
+				@Override
+				public void visit(NameExpr n, Object arg) {
+					names.add(n.getName());
+				}
+				@Override
+				public void visit(VariableDeclaratorId n, Object arg) {
+					names.add(n.getName());
+				}
+				@Override
+				public void visit(LabeledStmt n, Object arg) {
+					labels.add(n.getLabel());
+					super.visit(n, arg);
+				}
+			}, null);
+			for (Parameter parameter : this.parameters)
+				names.add(parameter.getId().getName());
+
+			String label = "tailCall";
+			while (labels.contains(label))
+				label = label + "_";
+			this.label = label;
+		}
+
+		/**
+		 * Rewrites the method as a loop if it has tail calls.
+		 * @return Whether the method had tail calls.
+		 */
+		boolean rewrite()
+		{
+			BlockStmt body = method.getBody();
+			if (body.getStmts() == null)
+				return false;
+
+			rewriteBlock(body.getStmts(), true, 0);
+			if (count == 0)
+				return false;
+
+			apply = true;
+			List<Statement> loopStatements = rewriteBlock(body.getStmts(), true, 0);
+
+			// A method that returns nothing ends when its body does. A jump at the end of the body needs no continue.
+			Statement lastStatement = loopStatements.get(loopStatements.size() - 1);
+			if (lastStatement instanceof ContinueStmt && ((ContinueStmt) lastStatement).getId() == null)
+				loopStatements.remove(loopStatements.size() - 1);
+			else if (isVoid && canCompleteNormally(loopStatements))
+				loopStatements.add(new ReturnStmt());
+
+			Statement loop = new WhileStmt(new BooleanLiteralExpr(true), new BlockStmt(loopStatements));
+			if (isLabelled)
+				loop = new LabeledStmt(label, loop);
+
+			List<Statement> methodStatements = new ArrayList<Statement>();
+			methodStatements.add(loop);
+			body.setStmts(methodStatements);
+
+			// The parameters are assigned by the tail calls.
+			for (Parameter parameter : parameters)
+				parameter.setModifiers(parameter.getModifiers() & ~ModifierSet.FINAL);
+
+			return true;
+		}
+
+		/**
+		 * Rewrites the tail calls of a list of statements.
+		 * @param statements The statements.
+		 * @param tail Whether the method ends after the last statement.
+		 * @param loops The number of loops of the method around the statements.
+		 * @return The statements rewritten.
+		 */
+		private List<Statement> rewriteBlock(List<Statement> statements, boolean tail, int loops)
+		{
+			List<Statement> result = new ArrayList<Statement>();
+
+			for (int i = 0; i < statements.size(); i++)
+			{
+				Statement statement = statements.get(i);
+				boolean isLast = i == statements.size() - 1;
+
+				// f(x); return;
+				if (isVoid && statement instanceof ExpressionStmt && isSelfCall(((ExpressionStmt) statement).getExpression()))
+				{
+					boolean isFollowedByReturn = !isLast
+							&& statements.get(i + 1) instanceof ReturnStmt
+							&& ((ReturnStmt) statements.get(i + 1)).getExpr() == null;
+
+					if (isFollowedByReturn || (isLast && tail))
+					{
+						result.addAll(jump((MethodCallExpr) ((ExpressionStmt) statement).getExpression(), loops, statement, isFollowedByReturn ? statements.get(++i) : null));
+						continue;
+					}
+				}
+
+				Statement rewritten = rewriteStatement(statement, tail && isLast, loops);
+				if (apply && statement instanceof ReturnStmt && rewritten instanceof BlockStmt)
+				{
+					// return f(x); is replaced with the statements of the jump in the same block.
+					result.addAll(((BlockStmt) rewritten).getStmts());
+				}
+				else
+				{
+					result.add(rewritten);
+				}
+			}
+
+			return result;
+		}
+
+		private Statement rewriteStatement(Statement statement, boolean tail, int loops)
+		{
+			if (statement instanceof ReturnStmt)
+			{
+				Expression expression = unwrap(((ReturnStmt) statement).getExpr());
+				if (expression != null && isSelfCall(expression))
+					return block(jump((MethodCallExpr) expression, loops, statement, null));
+
+				// return c ? x : f(y); is the same as if (c) return x; else return f(y);
+				if (expression instanceof ConditionalExpr && hasSelfCall((ConditionalExpr) expression))
+				{
+					ConditionalExpr conditionalExpr = (ConditionalExpr) expression;
+					if (!apply)
+					{
+						count++;
+						return statement;
+					}
+					return new IfStmt(conditionalExpr.getCondition(),
+							rewriteStatement(new ReturnStmt(conditionalExpr.getThenExpr()), tail, loops),
+							rewriteStatement(new ReturnStmt(conditionalExpr.getElseExpr()), tail, loops));
+				}
+			}
+			else if (statement instanceof ExpressionStmt)
+			{
+				if (isVoid && tail && isSelfCall(((ExpressionStmt) statement).getExpression()))
+					return block(jump((MethodCallExpr) ((ExpressionStmt) statement).getExpression(), loops, statement, null));
+			}
+			else if (statement instanceof BlockStmt)
+			{
+				BlockStmt blockStmt = (BlockStmt) statement;
+				if (blockStmt.getStmts() != null)
+					blockStmt.setStmts(rewriteBlock(blockStmt.getStmts(), tail, loops));
+			}
+			else if (statement instanceof IfStmt)
+			{
+				IfStmt ifStmt = (IfStmt) statement;
+				ifStmt.setThenStmt(rewriteStatement(ifStmt.getThenStmt(), tail, loops));
+				if (ifStmt.getElseStmt() != null)
+					ifStmt.setElseStmt(rewriteStatement(ifStmt.getElseStmt(), tail, loops));
+			}
+			else if (statement instanceof LabeledStmt)
+			{
+				LabeledStmt labeledStmt = (LabeledStmt) statement;
+				labeledStmt.setStmt(rewriteStatement(labeledStmt.getStmt(), tail, loops));
+			}
+			else if (statement instanceof WhileStmt)
+			{
+				WhileStmt whileStmt = (WhileStmt) statement;
+				whileStmt.setBody(rewriteStatement(whileStmt.getBody(), false, loops + 1));
+			}
+			else if (statement instanceof DoStmt)
+			{
+				DoStmt doStmt = (DoStmt) statement;
+				doStmt.setBody(rewriteStatement(doStmt.getBody(), false, loops + 1));
+			}
+			else if (statement instanceof ForStmt)
+			{
+				ForStmt forStmt = (ForStmt) statement;
+				forStmt.setBody(rewriteStatement(forStmt.getBody(), false, loops + 1));
+			}
+			else if (statement instanceof ForeachStmt)
+			{
+				ForeachStmt foreachStmt = (ForeachStmt) statement;
+				foreachStmt.setBody(rewriteStatement(foreachStmt.getBody(), false, loops + 1));
+			}
+			else if (statement instanceof SwitchStmt)
+			{
+				SwitchStmt switchStmt = (SwitchStmt) statement;
+				if (switchStmt.getEntries() != null)
+					for (SwitchEntryStmt entry : switchStmt.getEntries())
+						if (entry.getStmts() != null)
+							entry.setStmts(rewriteBlock(entry.getStmts(), false, loops));
+			}
+			else if (statement instanceof SynchronizedStmt)
+			{
+				SynchronizedStmt synchronizedStmt = (SynchronizedStmt) statement;
+				synchronizedStmt.setBlock((BlockStmt) rewriteStatement(synchronizedStmt.getBlock(), false, loops));
+			}
+			// The calls in a try statement are not tail calls: the exceptions they throw may be caught.
+
+			return statement;
+		}
+
+		/**
+		 * Builds the statements that replace a tail call: the assignments of the arguments to the parameters, and the
+		 * continue statement to the next iteration. While counting the tail calls, the original statements are kept.
+		 */
+		private List<Statement> jump(MethodCallExpr call, int loops, Statement statement, Statement followingReturn)
+		{
+			count++;
+
+			List<Statement> statements = new ArrayList<Statement>();
+			if (!apply)
+			{
+				statements.add(statement);
+				if (followingReturn != null)
+					statements.add(followingReturn);
+				return statements;
+			}
+
+			List<Parameter> pending = new LinkedList<Parameter>();
+			List<Expression> values = new LinkedList<Expression>();
+			boolean hasSideEffects = false;
+			for (int i = 0; i < parameters.size(); i++)
+			{
+				Expression argument = call.getArgs().get(i);
+				Parameter parameter = parameters.get(i);
+				if (argument instanceof NameExpr && ((NameExpr) argument).getName().equals(parameter.getId().getName()))
+					continue;
+
+				pending.add(parameter);
+				values.add(argument);
+				hasSideEffects |= hasSideEffects(argument);
+			}
+
+			// An argument is assigned right away when no other argument reads its parameter. The other ones are saved
+			// first in a temporary variable and assigned at the end. The arguments with side effects are all saved, to
+			// keep the order in which they are evaluated.
+			List<Statement> deferred = new ArrayList<Statement>();
+			while (!pending.isEmpty())
+			{
+				int next = hasSideEffects && pending.size() > 1 ? -1 : getUnread(pending, values);
+				if (next >= 0)
+				{
+					statements.add(assign(pending.remove(next).getId().getName(), values.remove(next)));
+				}
+				else
+				{
+					Parameter parameter = pending.remove(0);
+					String temporaryName = getTemporaryName(parameter.getId().getName());
+					VariableDeclaratorId temporaryId = new VariableDeclaratorId(temporaryName);
+					temporaryId.setArrayCount(parameter.getId().getArrayCount());
+					List<VariableDeclarator> declarators = new ArrayList<VariableDeclarator>();
+					declarators.add(new VariableDeclarator(temporaryId, values.remove(0)));
+					statements.add(new ExpressionStmt(new VariableDeclarationExpr(parameter.getType(), declarators)));
+					deferred.add(assign(parameter.getId().getName(), new NameExpr(temporaryName)));
+				}
+			}
+			statements.addAll(deferred);
+
+			// Inside another loop, the continue statement must name the loop of the method.
+			if (loops > 0)
+				isLabelled = true;
+			statements.add(new ContinueStmt(loops > 0 ? label : null));
+
+			return statements;
+		}
+
+		/**
+		 * The index of a pending parameter that no other pending argument reads, or -1 if there is none.
+		 */
+		private int getUnread(List<Parameter> pending, List<Expression> values)
+		{
+			for (int i = 0; i < pending.size(); i++)
+			{
+				String name = pending.get(i).getId().getName();
+				boolean isRead = false;
+				for (int j = 0; j < values.size() && !isRead; j++)
+					isRead = j != i && DefUseIndex.getUses(values.get(j)).reads(name);
+				if (!isRead)
+					return i;
+			}
+			return -1;
+		}
+
+		private String getTemporaryName(String parameterName)
+		{
+			String name = parameterName + "_next";
+			while (names.contains(name))
+				name = name + "_";
+			names.add(name);
+			return name;
+		}
+
+		/**
+		 * Checks if an expression calls this method on the same object, with the arguments of its parameters.
+		 */
+		private boolean isSelfCall(Expression expression)
+		{
+			if (!(expression instanceof MethodCallExpr))
+				return false;
+
+			MethodCallExpr call = (MethodCallExpr) expression;
+			if (!call.getName().equals(method.getName()))
+				return false;
+
+			int arguments = call.getArgs() == null ? 0 : call.getArgs().size();
+			if (arguments != parameters.size())
+				return false;
+
+			Expression scope = call.getScope();
+			if (scope == null)
+				return true;
+			if (isStatic)
+				return scope instanceof NameExpr && ((NameExpr) scope).getName().equals(classDeclaration.getName());
+			return scope instanceof ThisExpr && ((ThisExpr) scope).getClassExpr() == null;
+		}
+
+		private boolean hasSelfCall(ConditionalExpr conditionalExpr)
+		{
+			for (Expression branch : new Expression[] { unwrap(conditionalExpr.getThenExpr()), unwrap(conditionalExpr.getElseExpr()) })
+				if (isSelfCall(branch) || (branch instanceof ConditionalExpr && hasSelfCall((ConditionalExpr) branch)))
+					return true;
+			return false;
+		}
+
+		private Statement block(List<Statement> statements)
+		{
+			return statements.size() == 1 ? statements.get(0) : new BlockStmt(statements);
+		}
+	}
+
+	private static Expression unwrap(Expression expression)
+	{
+		while (expression instanceof EnclosedExpr)
+			expression = ((EnclosedExpr) expression).getInner();
+		return expression;
+	}
+
+	private static Statement assign(String name, Expression value)
+	{
+		return new ExpressionStmt(new AssignExpr(new NameExpr(name), value, Operator.assign));
+	}
+
+	private static boolean hasSideEffects(Expression expression)
+	{
+		final boolean[] hasSideEffects = { false };
+
+		expression.accept(new VoidVisitorAdapter<Object>() {
+			@Override
+			public void visit(MethodCallExpr n, Object arg) {
+				hasSideEffects[0] = true;
+			}
+			@Override
+			public void visit(ObjectCreationExpr n, Object arg) {
+				hasSideEffects[0] = true;
+			}
+			@Override
+			public void visit(ArrayCreationExpr n, Object arg) {
+				hasSideEffects[0] = true;
+			}
+			@Override
+			public void visit(AssignExpr n, Object arg) {
+				hasSideEffects[0] = true;
+			}
+			@Override
+			public void visit(UnaryExpr n, Object arg) {
+				switch (n.getOperator())
+				{
+				case preIncrement:
+				case preDecrement:
+				case posIncrement:
+				case posDecrement:
+					hasSideEffects[0] = true;
+					break;
+				default:
+					super.visit(n, arg);
+				}
+			}
+		}, null);
+
+		return hasSideEffects[0];
+	}
+
+	/**
+	 * Checks if the execution can go on after a list of statements, as the compiler does. The loops whose condition
+	 * is not a constant are assumed to end.
+	 */
+	private static boolean canCompleteNormally(List<Statement> statements)
+	{
+		return statements.isEmpty() || canCompleteNormally(statements.get(statements.size() - 1));
+	}
+
+	private static boolean canCompleteNormally(Statement statement)
+	{
+		if (statement == null)
+			return true;
+		if (statement instanceof ReturnStmt
+				|| statement instanceof ThrowStmt
+				|| statement instanceof BreakStmt
+				|| statement instanceof ContinueStmt)
+			return false;
+		if (statement instanceof BlockStmt)
+			return ((BlockStmt) statement).getStmts() == null || canCompleteNormally(((BlockStmt) statement).getStmts());
+		if (statement instanceof IfStmt)
+		{
+			IfStmt ifStmt = (IfStmt) statement;
+			return ifStmt.getElseStmt() == null || canCompleteNormally(ifStmt.getThenStmt()) || canCompleteNormally(ifStmt.getElseStmt());
+		}
+		if (statement instanceof LabeledStmt)
+		{
+			LabeledStmt labeledStmt = (LabeledStmt) statement;
+			return canCompleteNormally(labeledStmt.getStmt()) || hasBreak(labeledStmt.getStmt(), labeledStmt.getLabel());
+		}
+		if (statement instanceof SynchronizedStmt)
+			return canCompleteNormally(((SynchronizedStmt) statement).getBlock());
+		if (statement instanceof TryStmt)
+		{
+			TryStmt tryStmt = (TryStmt) statement;
+			boolean canComplete = canCompleteNormally(tryStmt.getTryBlock());
+			if (tryStmt.getCatchs() != null)
+				for (CatchClause catchClause : tryStmt.getCatchs())
+					canComplete |= canCompleteNormally(catchClause.getCatchBlock());
+			return canComplete && (tryStmt.getFinallyBlock() == null || canCompleteNormally(tryStmt.getFinallyBlock()));
+		}
+		if (statement instanceof WhileStmt)
+			return !isTrue(((WhileStmt) statement).getCondition()) || hasBreak(((WhileStmt) statement).getBody(), null);
+		if (statement instanceof DoStmt)
+			return !isTrue(((DoStmt) statement).getCondition()) || hasBreak(((DoStmt) statement).getBody(), null);
+		if (statement instanceof ForStmt)
+		{
+			ForStmt forStmt = (ForStmt) statement;
+			return (forStmt.getCompare() != null && !isTrue(forStmt.getCompare())) || hasBreak(forStmt.getBody(), null);
+		}
+		if (statement instanceof SwitchStmt)
+		{
+			SwitchStmt switchStmt = (SwitchStmt) statement;
+			List<SwitchEntryStmt> entries = switchStmt.getEntries();
+			if (entries == null || entries.isEmpty())
+				return true;
+
+			boolean hasDefault = false;
+			for (SwitchEntryStmt entry : entries)
+			{
+				hasDefault |= entry.getLabel() == null;
+				if (entry.getStmts() != null)
+					for (Statement s : entry.getStmts())
+						if (hasBreak(s, null))
+							return true;
+			}
+
+			List<Statement> lastStatements = entries.get(entries.size() - 1).getStmts();
+			return !hasDefault || lastStatements == null || canCompleteNormally(lastStatements);
+		}
+		return true;
+	}
+
+	private static boolean isTrue(Expression expression)
+	{
+		expression = unwrap(expression);
+		return expression instanceof BooleanLiteralExpr && ((BooleanLiteralExpr) expression).getValue();
+	}
+
+	/**
+	 * Checks if a statement breaks out of its enclosing statement.
+	 * @param statement The statement.
+	 * @param label The label of the enclosing statement, or {@code null} to look for the unlabelled breaks, which
+	 * break out of the innermost loop or switch.
+	 */
+	private static boolean hasBreak(Statement statement, String label)
+	{
+		if (statement == null)
+			return false;
+		if (statement instanceof BreakStmt)
+			return label == null ? ((BreakStmt) statement).getId() == null : label.equals(((BreakStmt) statement).getId());
+		if (label == null
+				&& (statement instanceof WhileStmt
+				|| statement instanceof DoStmt
+				|| statement instanceof ForStmt
+				|| statement instanceof ForeachStmt
+				|| statement instanceof SwitchStmt))
+			return false;
+		if (statement instanceof SynchronizedStmt)
+			return hasBreak(((SynchronizedStmt) statement).getBlock(), label);
+		if (statement instanceof TryStmt)
+		{
+			TryStmt tryStmt = (TryStmt) statement;
+			boolean hasCatchBreak = false;
+			if (tryStmt.getCatchs() != null)
+				for (CatchClause catchClause : tryStmt.getCatchs())
+					hasCatchBreak |= hasBreak(catchClause.getCatchBlock(), label);
+			return hasCatchBreak || hasBreak(tryStmt.getTryBlock(), label) || hasBreak(tryStmt.getFinallyBlock(), label);
+		}
+
+		for (Statement child : Sentence.getAllStatements(statement))
+			if (hasBreak(child, label))
+				return true;
+
+		return false;
+	}
+}
@@ -1,11 +1,9 @@
 package transformador;
 
 import japa.parser.JavaParser;
-import japa.parser.ParseException;
 import japa.parser.ast.CompilationUnit;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.junit.runners.Parameterized;
 import org.junit.runners.Parameterized.Parameters;
 //import transformador.Transformador;
 
@@ -13,19 +11,54 @@ import java.io.*;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.FutureTask;
 
-@RunWith(Parameterized.class)
+/**
+ * Checks that every example behaves the same before and after the transformation, with each of the options in
+ * {@link #OPTIONS}. The programs are compiled and run inside this JVM (see {@link MemoryCompiler} and
+ * {@link ProgramRunner}), and the examples are checked in parallel (see {@link ParallelParameterized}). The original
+ * of every example is compiled and run once, and compared with all its transformations.
+ */
+@RunWith(ParallelParameterized.class)
 public class TestJavaFile {
 	private static final String DOT_JAVA = ".java";
+	/** The maximum time each program may run. */
+	private static final long TIMEOUT_MILLIS = Long.getLong("tests.timeout", 5000);
+	private static final MemoryCompiler compiler = new MemoryCompiler();
+	private static final ProgramRunner runner = new ProgramRunner(TIMEOUT_MILLIS);
+	/** The command line options of every transformation checked; the first one is the default transformation. */
+	private static final String[][] OPTIONS = {
+		{},
+		{ "-divide" },
+		{ "-divide", "-forkjoin=2" },
+		{ "-unroll=2" },
+		{ "-unroll=3" },
+		{ "-trampoline" },
+		{ "-trampoline", "-unroll=2" },
+	};
+	/** The compilation and the run of the original of every example. */
+	private static final ConcurrentMap<File, FutureTask<Original>> originals = new ConcurrentHashMap<File, FutureTask<Original>>();
 	private final File file;
+	private final TransformOptions options;
 
-	public TestJavaFile(File file) {
+	public TestJavaFile(File file, TransformOptions options) {
 		this.file = file;
+		this.options = options;
 	}
 
-	@Parameters(name="{index}: {0}")
-	public static Collection<File> paramGen() {
-		return findJavaPrograms(new File("src/Ejemplos"));
+	@Parameters(name="{index}: {0} {1}")
+	public static Collection<Object[]> paramGen() {
+		List<Object[]> res = new ArrayList<Object[]>();
+		for (String[] arguments : OPTIONS) {
+			TransformOptions options = new TransformOptions();
+			for (String argument : arguments)
+				options.parse(argument);
+			for (File file : findJavaPrograms(new File("src/Ejemplos")))
+				res.add(new Object[] { file, options });
+		}
+		return res;
 	}
 
 	/**
@@ -47,83 +80,71 @@ public class TestJavaFile {
 
 	/**
 	 * Transforms a java file, then compiles the original and the transformed program and runs them.
-	 * Fails when the transformation fails, the compilation fails, or the output and exit codes of the
-	 * executions are different.
+	 * Fails when the transformation fails, the compilation fails, a program runs out of time, or the
+	 * output and exit codes of the executions are different.
 	 */
 	@Test
-	public void TestFile() throws IOException, InterruptedException, ParseException {
-		System.out.println("Begin test for " + file);
-		File out = new File("test" + File.separator + file.getPath());
+	public void TestFile() throws Exception {
+		System.out.println("Begin test for " + file + " " + options);
+		// The default transformations go to test/, and the other ones to a folder of test/ named after their options
+		File out = new File("test" + File.separator + (options.getKey().isEmpty() ? "" : options.getKey() + File.separator) + file.getPath());
 		if (out.exists()) out.delete();
 		if (!out.getParentFile().exists()) out.getParentFile().mkdirs();
-		Transformador.transformFile(file, out);
-		CompilationUnit cu = JavaParser.parse(file);
+		Transformador.transformFile(file, out, options);
 		assert out.exists();
 
 		// Compilamos el programa original y el transformado
-		new File("bin").mkdirs();
-		new File("test/bin").mkdirs();
-		Process compOrig = Runtime.getRuntime().exec("javac -d bin " + file.getPath());
-		Process compNew  = Runtime.getRuntime().exec("javac -d test/bin " + out.getPath());
-		compOrig.waitFor();
-		compNew.waitFor();
-		assert compOrig.exitValue() == 0 : "Ha fallado la compilación de la versión original de " + this.file;
-		assert compNew.exitValue() == 0 : "Ha fallado la compilación de la versión transformada de " + this.file;
+		Original original = getOriginal(file);
+		MemoryCompiler.Compilation compOrig = original.compilation;
+		MemoryCompiler.Compilation compNew = compiler.compile(out);
+		assert compOrig.isSuccess() : "Ha fallado la compilación de la versión original de " + this.file + "\n" + compOrig.getDiagnostics();
+		assert compNew.isSuccess() : "Ha fallado la compilación de la versión transformada de " + this.file + "\n" + compNew.getDiagnostics();
 		// Ejecutamos ambos programas y comparamos el output
-		String canonicalName = cu.getPackage().getName() + "." + file.getName().substring(0, file.getName().lastIndexOf(DOT_JAVA));
-		ProcessBuilder runOriB = new ProcessBuilder("java", "-cp", "bin", canonicalName);
-		ProcessBuilder runNewB = new ProcessBuilder("java", "-cp", "test/bin", canonicalName);
-		final Process runOri = runOriB.start();
-		final Process runNew = runNewB.start();
-		final boolean[] killed = new boolean[] { false };
-		new Thread(new Runnable() {
-			@Override
-			public void run() {
-				try {
-					// TODO: if the first one doesn't end, then the second doesn't have to end
-					// TODO: if the first one ends, the second must end
-					Thread.sleep(5000);
-					runOri.destroy();
-					runNew.destroy();
-					killed[0] = true;
-				} catch (InterruptedException e) {
-					e.printStackTrace();
-				}
-			}
-		}).start();
-		runOri.waitFor();
-		runNew.waitFor();
-		assert !killed[0] : "Maximum runtime exceeded";
-		diffLines(runOri.getInputStream(), runNew.getInputStream());
-		diffLines(runOri.getErrorStream(), runNew.getErrorStream());
-		assert runOri.exitValue() == runNew.exitValue() : "The return codes did not match: original is " + runOri.exitValue() +
-				" and transformed is " + runNew.exitValue();
-		System.out.println("Test para " + this.file + " OK");
+		ProgramRunner.Execution runOri = original.execution;
+		assert !runOri.isTimedOut() : "Maximum runtime exceeded by the original program";
+		ProgramRunner.Execution runNew = runner.run(compNew, original.canonicalName);
+		assert !runNew.isTimedOut() : "Maximum runtime exceeded by the transformed program";
+		diffLines(runOri.getOut(), runNew.getOut());
+		diffLines(runOri.getErr(), runNew.getErr());
+		assert runOri.getStatus() == runNew.getStatus() : "The return codes did not match: original is " + runOri.getStatus() +
+				" and transformed is " + runNew.getStatus();
+		System.out.println("Test para " + this.file + " " + options + " OK");
 	}
 
-	/** Checks if two InputStream objects match */
-	private void diffLines(InputStream original, InputStream transformed) throws IOException {
-		String resOrig = stream2string(original);
-		String resTran = stream2string(transformed);
+	/** The original of an example, compiled, and run if it compiles. */
+	private static class Original {
+		MemoryCompiler.Compilation compilation;
+		String canonicalName;
+		ProgramRunner.Execution execution;
+	}
 
-		if (!resOrig.equals(resTran)) {
-			System.out.println("Salida del programa iterativo:");
-			System.out.println(resOrig);
-			System.out.println("Salida del programa recursivo:");
-			System.out.println(resTran);
-			assert false : "La salida de los programas no coincide";
+	/**
+	 * Compiles and runs the original of an example the first time it is needed. The other cases of the example wait
+	 * for it, so a program that runs out of time is only left running once.
+	 */
+	private static Original getOriginal(final File file) throws Exception {
+		FutureTask<Original> task = new FutureTask<Original>(() -> {
+			Original original = new Original();
+			CompilationUnit cu = JavaParser.parse(file);
+			original.compilation = compiler.compile(file);
+			original.canonicalName = cu.getPackage().getName() + "." + file.getName().substring(0, file.getName().lastIndexOf(DOT_JAVA));
+			if (original.compilation.isSuccess())
+				original.execution = runner.run(original.compilation, original.canonicalName);
+			return original;
+		});
+		FutureTask<Original> previous = originals.putIfAbsent(file, task);
+		if (previous == null) {
+			task.run();
+			previous = task;
 		}
+		return previous.get();
 	}
 
-	/** Reads an InputStream until it closes, and returns the whole input as a string. */
-	private String stream2string(InputStream stream) throws IOException {
-		StringBuilder builder = new StringBuilder();
-		String buffer;
-		BufferedReader reader = new BufferedReader(new InputStreamReader(stream));
-		// When the stream closes and there is no more content to read, reader.readLine() will be null
-		while ((buffer = reader.readLine()) != null) {
-			builder.append(buffer).append('\n');
+	/** Checks if the outputs of two programs match */
+	private void diffLines(String resOrig, String resTran) {
+		if (!resOrig.equals(resTran)) {
+			System.out.println("Salida del programa iterativo:\n" + resOrig + "\nSalida del programa recursivo:\n" + resTran);
+			assert false : "La salida de los programas no coincide";
 		}
-		return builder.toString();
 	}
-}
\ No newline at end of file
+}
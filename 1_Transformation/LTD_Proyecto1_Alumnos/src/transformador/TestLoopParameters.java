@@ -0,0 +1,109 @@
+package transformador;
+
+import static org.junit.Assert.assertEquals;
+
+import japa.parser.JavaParser;
+import japa.parser.ast.CompilationUnit;
+import japa.parser.ast.body.BodyDeclaration;
+import japa.parser.ast.body.MethodDeclaration;
+import japa.parser.ast.body.TypeDeclaration;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+
+/**
+ * Checks the parameters and the local variables of the recursive methods generated for nested loops.
+ */
+public class TestLoopParameters {
+
+	/** A variable only written in the inner loop is declared by the method of the inner loop, and not by the outer one. */
+	@Test
+	public void TestVariableWrittenInNestedLoop() throws Exception {
+		CompilationUnit cu = transform(
+				"public class Nested {\n"
+				+ "	static int f(int a, int b) {\n"
+				+ "		int z = 0;\n"
+				+ "		while (a < b) {\n"
+				+ "			int q = a;\n"
+				+ "			while (q < b) {\n"
+				+ "				z = q;\n"
+				+ "				q++;\n"
+				+ "			}\n"
+				+ "			a++;\n"
+				+ "		}\n"
+				+ "		return a;\n"
+				+ "	}\n"
+				+ "}\n");
+
+		assertEquals("private static int metodo(int a, int b) {\n"
+				+ "    int q = a;\n"
+				+ "    if (q < b) {\n"
+				+ "        metodo_1(b, q);\n"
+				+ "    }\n"
+				+ "    a++;\n"
+				+ "    if (a < b) {\n"
+				+ "        return metodo(a, b);\n"
+				+ "    }\n"
+				+ "    return a;\n"
+				+ "}", getMethod(cu, "metodo").toString());
+		assertEquals("private static void metodo_1(int b, int q) {\n"
+				+ "    int z;\n"
+				+ "    z = q;\n"
+				+ "    q++;\n"
+				+ "    if (q < b) {\n"
+				+ "        metodo_1(b, q);\n"
+				+ "        return;\n"
+				+ "    }\n"
+				+ "    return;\n"
+				+ "}", getMethod(cu, "metodo_1").toString());
+	}
+
+	/** A variable written in the outer loop is still declared by its method. */
+	@Test
+	public void TestVariableWrittenInBothLoops() throws Exception {
+		CompilationUnit cu = transform(
+				"public class Nested {\n"
+				+ "	static int f(int a, int b) {\n"
+				+ "		int z = 0;\n"
+				+ "		while (a < b) {\n"
+				+ "			z = a;\n"
+				+ "			int q = z;\n"
+				+ "			while (q < b) {\n"
+				+ "				z = q;\n"
+				+ "				q++;\n"
+				+ "			}\n"
+				+ "			a++;\n"
+				+ "		}\n"
+				+ "		return a;\n"
+				+ "	}\n"
+				+ "}\n");
+
+		assertEquals("private static int metodo(int a, int b) {\n"
+				+ "    int z;\n"
+				+ "    z = a;\n"
+				+ "    int q = z;\n"
+				+ "    if (q < b) {\n"
+				+ "        metodo_1(b, q);\n"
+				+ "    }\n"
+				+ "    a++;\n"
+				+ "    if (a < b) {\n"
+				+ "        return metodo(a, b);\n"
+				+ "    }\n"
+				+ "    return a;\n"
+				+ "}", getMethod(cu, "metodo").toString());
+	}
+
+	private static CompilationUnit transform(String source) throws Exception {
+		CompilationUnit cu = JavaParser.parse(new ByteArrayInputStream(source.getBytes("UTF-8")), "UTF-8");
+		Transformador.transform(cu, new TransformOptions());
+		return cu;
+	}
+
+	private static MethodDeclaration getMethod(CompilationUnit cu, String name) {
+		for (TypeDeclaration type : cu.getTypes())
+			for (BodyDeclaration member : type.getMembers())
+				if (member instanceof MethodDeclaration && ((MethodDeclaration) member).getName().equals(name))
+					return (MethodDeclaration) member;
+		throw new AssertionError("No method " + name);
+	}
+}
@@ -0,0 +1,134 @@
+package transformador;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import japa.parser.JavaParser;
+import japa.parser.ast.CompilationUnit;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+
+/**
+ * Checks which tail calls {@link TailCallVisitor} turns into loops: the calls that can only run the method itself are
+ * rewritten, and the ones that may run an override or an inherited overload are left as they are. Every program must
+ * print the same before and after the transformation.
+ */
+public class TestTailCalls {
+	private static final MemoryCompiler compiler = new MemoryCompiler();
+	private static final ProgramRunner runner = new ProgramRunner(Long.getLong("tests.timeout", 5000));
+
+	/** A subclass overrides the method, so the call in the superclass may run the override. */
+	@Test
+	public void TestOverriddenMethod() throws Exception {
+		check("Virt", 0,
+				"public class Virt {\n"
+				+ "	int count(int n) {\n"
+				+ "		if (n == 0)\n"
+				+ "			return 0;\n"
+				+ "		return count(n - 1);\n"
+				+ "	}\n"
+				+ "	int countThis(int n) {\n"
+				+ "		if (n == 0)\n"
+				+ "			return 0;\n"
+				+ "		return this.countThis(n - 1);\n"
+				+ "	}\n"
+				+ "	public static void main(String[] args) {\n"
+				+ "		System.out.println(new Sub().count(5));\n"
+				+ "		System.out.println(new Sub().countThis(5));\n"
+				+ "	}\n"
+				+ "}\n"
+				+ "class Sub extends Virt {\n"
+				+ "	int count(int n) {\n"
+				+ "		if (n == 3)\n"
+				+ "			return 42;\n"
+				+ "		return super.count(n);\n"
+				+ "	}\n"
+				+ "	int countThis(int n) {\n"
+				+ "		return n == 3 ? 42 : super.countThis(n);\n"
+				+ "	}\n"
+				+ "}\n");
+	}
+
+	/** The superclass has an overload with the same number of parameters, which is the one called. */
+	@Test
+	public void TestInheritedOverload() throws Exception {
+		check("Over", 0,
+				"public class Over extends Base {\n"
+				+ "	private static int count(int n) {\n"
+				+ "		if (n == 0)\n"
+				+ "			return 0;\n"
+				+ "		return count((long) n - 1);\n"
+				+ "	}\n"
+				+ "	public static void main(String[] args) {\n"
+				+ "		System.out.println(count(5));\n"
+				+ "	}\n"
+				+ "}\n"
+				+ "class Base {\n"
+				+ "	static int count(long n) {\n"
+				+ "		return 7;\n"
+				+ "	}\n"
+				+ "}\n");
+	}
+
+	/** The methods that cannot be overridden are rewritten: static, private, final, and in a final class. */
+	@Test
+	public void TestMethodsThatCannotBeOverridden() throws Exception {
+		check("Fixed", 4,
+				"public class Fixed {\n"
+				+ "	static int sum(int n, int acc) {\n"
+				+ "		if (n == 0)\n"
+				+ "			return acc;\n"
+				+ "		return sum(n - 1, acc + n);\n"
+				+ "	}\n"
+				+ "	private int product(int n, int acc) {\n"
+				+ "		if (n == 0)\n"
+				+ "			return acc;\n"
+				+ "		return product(n - 1, acc * n);\n"
+				+ "	}\n"
+				+ "	final int count(int n) {\n"
+				+ "		if (n == 0)\n"
+				+ "			return 0;\n"
+				+ "		return this.count(n - 1);\n"
+				+ "	}\n"
+				+ "	public static void main(String[] args) {\n"
+				+ "		System.out.println(sum(10, 0));\n"
+				+ "		System.out.println(new Fixed().product(5, 1));\n"
+				+ "		System.out.println(new Fixed().count(5));\n"
+				+ "		System.out.println(new Leaf().countdown(5));\n"
+				+ "	}\n"
+				+ "}\n"
+				+ "final class Leaf {\n"
+				+ "	int countdown(int n) {\n"
+				+ "		if (n == 0)\n"
+				+ "			return -1;\n"
+				+ "		return countdown(n - 1);\n"
+				+ "	}\n"
+				+ "}\n");
+	}
+
+	/**
+	 * Turns the tail calls of a program into loops, checks how many methods were rewritten, and runs the program
+	 * before and after the transformation.
+	 */
+	private static void check(String mainClass, int transformedMethods, String source) throws Exception {
+		CompilationUnit cu = JavaParser.parse(new ByteArrayInputStream(source.getBytes("UTF-8")), "UTF-8");
+		TailCallVisitor tailCallVisitor = new TailCallVisitor();
+		tailCallVisitor.visit(cu, null);
+		String transformed = cu.toString();
+
+		assertEquals(transformed, transformedMethods, tailCallVisitor.getTransformedMethods());
+
+		MemoryCompiler.Compilation compOrig = compiler.compile(mainClass, source);
+		MemoryCompiler.Compilation compNew = compiler.compile(mainClass, transformed);
+		assertTrue(compOrig.getDiagnostics(), compOrig.isSuccess());
+		assertTrue(transformed + compNew.getDiagnostics(), compNew.isSuccess());
+
+		ProgramRunner.Execution runOri = runner.run(compOrig, mainClass);
+		ProgramRunner.Execution runNew = runner.run(compNew, mainClass);
+		assertFalse("Maximum runtime exceeded by the transformed program", runNew.isTimedOut());
+		assertEquals(transformed, runOri.getOut(), runNew.getOut());
+		assertEquals(transformed, runOri.getErr(), runNew.getErr());
+	}
+}
@@ -0,0 +1,226 @@
+package transformador;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Index of the files already transformed in an output folder, so {@link Transformador#transformFolder}
+ * does not transform again the files that have not changed.
+ *
+ * The index is kept in the file {@value #INDEX_NAME} of the output folder. For every output file it
+ * stores the SHA-256 of the input it was transformed from and of the output written. A file is up to
+ * date when its input has the same hash and its output is still the one written. The index also stores
+ * a version stamp of the transformer (a hash of its compiled classes): when the transformer changes,
+ * the whole index is discarded.
+ */
+public class TransformCache {
+	/** Name of the index file, in the root of the output folder. */
+	public static final String INDEX_NAME = ".transformador-cache";
+
+	private static final String HEADER = "# transformador cache ";
+
+	private static String stamp;
+
+	private final File root;
+	private final File index;
+	private final String version;
+	/** Entries read from the index: output path --> input hash and output hash. */
+	private final Map<String, Entry> previous = new ConcurrentHashMap<>();
+	/** Entries of this run, written back by {@link #save()}. */
+	private final Map<String, Entry> current = new ConcurrentHashMap<>();
+	private final AtomicInteger hits = new AtomicInteger();
+	private final AtomicInteger misses = new AtomicInteger();
+
+	private static class Entry {
+		final String input;
+		final String output;
+
+		Entry(String input, String output) {
+			this.input = input;
+			this.output = output;
+		}
+	}
+
+	private TransformCache(File root, String version) {
+		this.root = root;
+		this.index = new File(root, INDEX_NAME);
+		this.version = version;
+	}
+
+	/**
+	 * Opens the cache of an output folder, reading its index if it was written by this version of the transformer.
+	 * @param root The output folder.
+	 * @return The cache.
+	 */
+	public static TransformCache open(File root) {
+		return open(root, "");
+	}
+
+	/**
+	 * Opens the cache of an output folder for the files transformed with some options. The index is only used if it
+	 * was written by this version of the transformer with the same options.
+	 * @param root The output folder.
+	 * @param options The key of the options, see {@link TransformOptions#getKey()}.
+	 * @return The cache.
+	 */
+	public static TransformCache open(File root, String options) {
+		String version = versionStamp();
+		if (version != null && !options.isEmpty())
+			version += " " + options;
+		TransformCache cache = new TransformCache(root, version);
+		cache.load();
+		return cache;
+	}
+
+	private void load() {
+		if (version == null || !index.isFile())
+			return;
+		try (BufferedReader reader = Files.newBufferedReader(index.toPath(), StandardCharsets.UTF_8)) {
+			String line = reader.readLine();
+			if (line == null || !line.equals(HEADER + version))
+				return;
+			while ((line = reader.readLine()) != null) {
+				String[] fields = line.split(" ", 3);
+				if (fields.length == 3)
+					previous.put(fields[2], new Entry(fields[0], fields[1]));
+			}
+		} catch (IOException e) {
+			// A broken index is the same as no index.
+			previous.clear();
+		}
+	}
+
+	/**
+	 * Checks if an output file is up to date with its input. Counts a hit or a miss.
+	 * @param fIn The input file.
+	 * @param fOut The output file, inside the folder of this cache.
+	 * @return The hash of the input if the output must be transformed again, or {@code null} if it is up to date.
+	 */
+	public String check(File fIn, File fOut) throws IOException {
+		String key = key(fOut);
+		String input = hash(fIn);
+		Entry entry = previous.get(key);
+		if (entry != null && entry.input.equals(input) && fOut.isFile() && entry.output.equals(hash(fOut))) {
+			current.put(key, entry);
+			hits.incrementAndGet();
+			return null;
+		}
+		misses.incrementAndGet();
+		return input;
+	}
+
+	/**
+	 * Records an output file just transformed.
+	 * @param fOut The output file.
+	 * @param input The hash of its input, as returned by {@link #check}.
+	 */
+	public void put(File fOut, String input) throws IOException {
+		current.put(key(fOut), new Entry(input, hash(fOut)));
+	}
+
+	/**
+	 * Writes the index with the files checked or transformed in this run. The files that have not been seen
+	 * (removed inputs, failed transformations) are left out.
+	 */
+	public void save() throws IOException {
+		if (version == null)
+			return;
+		try (BufferedWriter writer = Files.newBufferedWriter(index.toPath(), StandardCharsets.UTF_8)) {
+			writer.write(HEADER + version);
+			writer.newLine();
+			// Sorted, so the index does not depend on the order the files were transformed.
+			for (Map.Entry<String, Entry> e : new TreeMap<>(current).entrySet()) {
+				writer.write(e.getValue().input + " " + e.getValue().output + " " + e.getKey());
+				writer.newLine();
+			}
+		}
+	}
+
+	public int getHits() {
+		return hits.get();
+	}
+
+	public int getMisses() {
+		return misses.get();
+	}
+
+	private String key(File fOut) {
+		return root.toPath().relativize(fOut.toPath()).toString().replace(File.separatorChar, '/');
+	}
+
+	private static String hash(File file) throws IOException {
+		MessageDigest digest = newDigest();
+		return toHex(digest.digest(Files.readAllBytes(file.toPath())));
+	}
+
+	/**
+	 * The version stamp of the transformer: a hash of the classes in the same folder or jar as this class.
+	 * It is {@code null} (the cache is disabled) if they cannot be read.
+	 */
+	static synchronized String versionStamp() {
+		if (stamp == null)
+			stamp = computeVersionStamp();
+		return stamp;
+	}
+
+	private static String computeVersionStamp() {
+		CodeSource source = TransformCache.class.getProtectionDomain().getCodeSource();
+		if (source == null)
+			return null;
+		try {
+			URL location = source.getLocation();
+			Path path = Paths.get(location.toURI());
+			MessageDigest digest = newDigest();
+			if (Files.isDirectory(path)) {
+				try (Stream<Path> files = Files.walk(path)) {
+					for (Path file : files.filter(f -> f.toString().endsWith(".class")).sorted().collect(Collectors.toList())) {
+						digest.update(path.relativize(file).toString().getBytes(StandardCharsets.UTF_8));
+						digest.update(Files.readAllBytes(file));
+					}
+				}
+			} else {
+				try (InputStream in = Files.newInputStream(path)) {
+					byte[] buffer = new byte[8192];
+					for (int n; (n = in.read(buffer)) > 0;)
+						digest.update(buffer, 0, n);
+				}
+			}
+			return toHex(digest.digest());
+		} catch (IOException | URISyntaxException | IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+		StringBuilder sb = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes)
+			sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+		return sb.toString();
+	}
+}
@@ -0,0 +1,165 @@
+package transformador;
+
+/**
+ * Options of the code generated by {@link Visitador}. With the default options every loop becomes a tail-recursive
+ * method.
+ */
+public class TransformOptions {
+
+	/** The number of iterations below which a fork/join task runs its range in the calling thread. */
+	public static final int DEFAULT_FORK_JOIN_THRESHOLD = 1024;
+
+	/** The number of iterations run by every recursive call with {@code -unroll}. */
+	public static final int DEFAULT_UNROLL_FACTOR = 4;
+
+	private boolean trampolined;
+	private boolean divideAndConquer;
+	private int forkJoinThreshold;
+	private int unrollFactor = 1;
+	private boolean tailCallElimination;
+
+	/**
+	 * Whether the generated methods are trampolined: every call runs one iteration and returns, and a driver loop in
+	 * the caller calls the method again while the loop goes on. The transformed program then runs in constant stack
+	 * space, whatever the number of iterations.
+	 */
+	public boolean isTrampolined() {
+		return trampolined;
+	}
+
+	public TransformOptions setTrampolined(boolean trampolined) {
+		this.trampolined = trampolined;
+		return this;
+	}
+
+	/**
+	 * Whether the counted loops without dependences between their iterations become divide-and-conquer methods,
+	 * which split the range of the index in halves, so the depth of the recursion is logarithmic. The iterations
+	 * may only share reductions: variables updated with an associative operator, such as {@code sum += a[i]}. The
+	 * other loops are transformed as usual.
+	 */
+	public boolean isDivideAndConquer() {
+		return divideAndConquer;
+	}
+
+	public TransformOptions setDivideAndConquer(boolean divideAndConquer) {
+		this.divideAndConquer = divideAndConquer;
+		return this;
+	}
+
+	/**
+	 * Whether the divide-and-conquer loops that only write their own elements of the arrays also get a
+	 * {@code RecursiveTask}, so the halves run in parallel in a {@code ForkJoinPool}.
+	 */
+	public boolean isForkJoin() {
+		return forkJoinThreshold > 0;
+	}
+
+	/**
+	 * The number of iterations below which a fork/join task calls the sequential method, or 0 without fork/join.
+	 */
+	public int getForkJoinThreshold() {
+		return forkJoinThreshold;
+	}
+
+	/**
+	 * Sets the threshold of the fork/join tasks. A threshold greater than 0 also enables the divide-and-conquer
+	 * methods.
+	 */
+	public TransformOptions setForkJoinThreshold(int forkJoinThreshold) {
+		this.forkJoinThreshold = forkJoinThreshold;
+		if (forkJoinThreshold > 0)
+			divideAndConquer = true;
+		return this;
+	}
+
+	/**
+	 * The number of iterations of the loop run by every call to a recursive method, 1 by default. The condition of
+	 * the loop is checked again between the iterations, so the recursion is this number of times shallower.
+	 */
+	public int getUnrollFactor() {
+		return unrollFactor;
+	}
+
+	public TransformOptions setUnrollFactor(int unrollFactor) {
+		if (unrollFactor < 1)
+			throw new IllegalArgumentException("Invalid unroll factor: " + unrollFactor);
+		this.unrollFactor = unrollFactor;
+		return this;
+	}
+
+	/**
+	 * Whether the transformation goes the other way round: the self tail calls of the methods become loops (see
+	 * {@link TailCallVisitor}), and the loops are left as they are.
+	 */
+	public boolean isTailCallElimination() {
+		return tailCallElimination;
+	}
+
+	public TransformOptions setTailCallElimination(boolean tailCallElimination) {
+		this.tailCallElimination = tailCallElimination;
+		return this;
+	}
+
+	/**
+	 * Sets an option from the command line.
+	 * @param option The option: {@code -trampoline}, {@code -divide}, {@code -forkjoin[=threshold]} or
+	 * {@code -unroll[=factor]}, or {@code -rec2iter} to turn the tail calls into loops.
+	 * @throws IllegalArgumentException If the option is unknown.
+	 */
+	public void parse(String option) {
+		if (option.equals("-trampoline"))
+			setTrampolined(true);
+		else if (option.equals("-divide"))
+			setDivideAndConquer(true);
+		else if (option.equals("-forkjoin"))
+			setForkJoinThreshold(DEFAULT_FORK_JOIN_THRESHOLD);
+		else if (option.startsWith("-forkjoin=")) {
+			int threshold;
+			try {
+				threshold = Integer.parseInt(option.substring("-forkjoin=".length()));
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("Invalid fork/join threshold: " + option);
+			}
+			if (threshold <= 0)
+				throw new IllegalArgumentException("Invalid fork/join threshold: " + option);
+			setForkJoinThreshold(threshold);
+		}
+		else if (option.equals("-rec2iter"))
+			setTailCallElimination(true);
+		else if (option.equals("-unroll"))
+			setUnrollFactor(DEFAULT_UNROLL_FACTOR);
+		else if (option.startsWith("-unroll=")) {
+			try {
+				setUnrollFactor(Integer.parseInt(option.substring("-unroll=".length())));
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("Invalid unroll factor: " + option);
+			}
+		}
+		else
+			throw new IllegalArgumentException("Unknown option: " + option);
+	}
+
+	/**
+	 * A short text that identifies the options that change the generated code. It is empty for the default options.
+	 */
+	public String getKey() {
+		StringBuilder key = new StringBuilder();
+		if (trampolined)
+			key.append("trampoline");
+		if (divideAndConquer)
+			key.append(key.length() > 0 ? "," : "").append("divide");
+		if (isForkJoin())
+			key.append(",forkjoin=").append(forkJoinThreshold);
+		if (unrollFactor > 1)
+			key.append(key.length() > 0 ? "," : "").append("unroll=").append(unrollFactor);
+		if (tailCallElimination)
+			key.append(key.length() > 0 ? "," : "").append("rec2iter");
+		return key.toString();
+	}
+
+	@Override
+	public String toString() {
+		return getKey().isEmpty() ? "default" : getKey();
+	}
+}
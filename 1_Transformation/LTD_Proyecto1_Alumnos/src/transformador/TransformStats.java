@@ -0,0 +1,280 @@
+package transformador;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The time spent in every phase of the transformation of a file, and what the transformation generated. The
+ * transformer fills one for every file it transforms, and {@link #writeReport} writes them, with their totals, as
+ * CSV or JSON.
+ *
+ * The output is printed while it is written (see {@link Transformador}), so the time of {@link Phase#WRITE} is the
+ * time spent in the file writer, and the time of {@link Phase#PRINT} the rest.
+ */
+public class TransformStats {
+
+	/** The phases of the transformation of a file, in the order they run. */
+	public enum Phase {
+		/** Reading and parsing the input. */
+		PARSE,
+		/** Collecting the method names already used ({@link MethodVisitor}). */
+		NAMES,
+		/** Transforming the compilation unit ({@link Visitador} or {@link TailCallVisitor}). */
+		TRANSFORM,
+		/** Printing the compilation unit. */
+		PRINT,
+		/** Writing the output file. */
+		WRITE,
+	}
+
+	/** The file has been transformed. */
+	public static final String OK = "ok";
+	/** The file could not be transformed. */
+	public static final String FAILED = "failed";
+	/** The file was not transformed because its output was up to date (see {@link TransformCache}). */
+	public static final String UP_TO_DATE = "up-to-date";
+
+	/** The columns of the report, in the order of {@link #getValues()}. */
+	private static final String[] COLUMNS = { "file", "status", "parse_ms", "names_ms", "transform_ms", "print_ms", "write_ms", "total_ms",
+			"while_loops", "do_while_loops", "for_loops", "foreach_loops", "divided_loops", "tail_call_methods",
+			"methods", "parameters", "result_width", "max_result_width", "bytes_in", "bytes_out" };
+
+	private final String file;
+	private String status = OK;
+	private final long[] nanos = new long[Phase.values().length];
+	private final int[] loops = new int[Visitador.LoopType.values().length];
+	private int dividedLoops;
+	private int tailCallMethods;
+	private int methods;
+	private int parameters;
+	private int resultWidth;
+	private int maxResultWidth;
+	private long bytesIn;
+	private long bytesOut;
+
+	/**
+	 * @param file The name of the input file, or of the row of the totals.
+	 */
+	public TransformStats(String file) {
+		this.file = file;
+	}
+
+	public String getFile() {
+		return file;
+	}
+
+	public String getStatus() {
+		return status;
+	}
+
+	void setStatus(String status) {
+		this.status = status;
+	}
+
+	/** The nanoseconds spent in a phase. */
+	public long getNanos(Phase phase) {
+		return nanos[phase.ordinal()];
+	}
+
+	void addNanos(Phase phase, long nanos) {
+		this.nanos[phase.ordinal()] += nanos;
+	}
+
+	/** The nanoseconds spent in all the phases. */
+	public long getTotalNanos() {
+		long total = 0;
+		for (long phaseNanos : nanos)
+			total += phaseNanos;
+		return total;
+	}
+
+	/**
+	 * Records a loop turned into a recursive method.
+	 * @param loopType The kind of loop.
+	 * @param divided Whether the method is a divide-and-conquer one.
+	 * @param parameters The parameters of the method.
+	 * @param resultWidth The number of values the method returns.
+	 */
+	void loopTransformed(Visitador.LoopType loopType, boolean divided, int parameters, int resultWidth) {
+		loops[loopType.ordinal()]++;
+		if (divided)
+			dividedLoops++;
+		methods++;
+		this.parameters += parameters;
+		this.resultWidth += resultWidth;
+		maxResultWidth = Math.max(maxResultWidth, resultWidth);
+	}
+
+	/** Records the methods whose tail calls were turned into loops. */
+	void tailCallsTransformed(int methods) {
+		tailCallMethods += methods;
+	}
+
+	void setBytes(long bytesIn, long bytesOut) {
+		this.bytesIn = bytesIn;
+		this.bytesOut = bytesOut;
+	}
+
+	/** The number of loops of a kind turned into recursive methods. */
+	public int getLoops(Visitador.LoopType loopType) {
+		return loops[loopType.ordinal()];
+	}
+
+	/** The number of recursive methods generated. */
+	public int getMethods() {
+		return methods;
+	}
+
+	/** The number of parameters of all the recursive methods generated. */
+	public int getParameters() {
+		return parameters;
+	}
+
+	/** The number of values returned by all the recursive methods generated. */
+	public int getResultWidth() {
+		return resultWidth;
+	}
+
+	public long getBytesIn() {
+		return bytesIn;
+	}
+
+	public long getBytesOut() {
+		return bytesOut;
+	}
+
+	/** Adds the times and counters of another file to these ones. */
+	public void add(TransformStats other) {
+		for (int i = 0; i < nanos.length; i++)
+			nanos[i] += other.nanos[i];
+		for (int i = 0; i < loops.length; i++)
+			loops[i] += other.loops[i];
+		dividedLoops += other.dividedLoops;
+		tailCallMethods += other.tailCallMethods;
+		methods += other.methods;
+		parameters += other.parameters;
+		resultWidth += other.resultWidth;
+		maxResultWidth = Math.max(maxResultWidth, other.maxResultWidth);
+		bytesIn += other.bytesIn;
+		bytesOut += other.bytesOut;
+		if (other.status.equals(FAILED))
+			status = FAILED;
+	}
+
+	/** Adds up the stats of several files, in a row named {@code total}. */
+	public static TransformStats total(List<TransformStats> files) {
+		TransformStats total = new TransformStats("total");
+		for (TransformStats stats : files)
+			total.add(stats);
+		return total;
+	}
+
+	/**
+	 * The values of the row, with the times in milliseconds; the first two are text. The files that were up to date
+	 * were not transformed in this run, so their times and counters are unknown and left {@code null}.
+	 */
+	private String[] getValues() {
+		String[] values = new String[COLUMNS.length];
+		int i = 0;
+		values[i++] = file;
+		values[i++] = status;
+		if (status.equals(UP_TO_DATE))
+			return values;
+		for (Phase phase : Phase.values())
+			values[i++] = String.format(Locale.ROOT, "%.3f", getNanos(phase) / 1e6);
+		values[i++] = String.format(Locale.ROOT, "%.3f", getTotalNanos() / 1e6);
+		for (Visitador.LoopType loopType : Visitador.LoopType.values())
+			values[i++] = String.valueOf(getLoops(loopType));
+		values[i++] = String.valueOf(dividedLoops);
+		values[i++] = String.valueOf(tailCallMethods);
+		values[i++] = String.valueOf(methods);
+		values[i++] = String.valueOf(parameters);
+		values[i++] = String.valueOf(resultWidth);
+		values[i++] = String.valueOf(maxResultWidth);
+		values[i++] = String.valueOf(bytesIn);
+		values[i++] = String.valueOf(bytesOut);
+		return values;
+	}
+
+	/**
+	 * Writes a row for every file and one with the totals. The format is JSON if the name of the report ends with
+	 * {@code .json}, CSV otherwise. The rows of the files that were up to date only have the file and the status (the
+	 * other values are empty in CSV and {@code null} in JSON), and the totals only add up the files transformed.
+	 * @param report The file of the report.
+	 * @param files The stats of every file, in the order of the rows.
+	 */
+	public static void writeReport(File report, List<TransformStats> files) throws IOException {
+		TransformStats total = total(files);
+		PrintWriter writer = new PrintWriter(new FileWriter(report));
+		try {
+			if (report.getName().endsWith(".json"))
+				writeJson(writer, files, total);
+			else
+				writeCsv(writer, files, total);
+		} finally {
+			writer.close();
+		}
+	}
+
+	private static void writeCsv(PrintWriter writer, List<TransformStats> files, TransformStats total) {
+		writer.println(String.join(",", COLUMNS));
+		for (TransformStats stats : files)
+			writeCsvRow(writer, stats);
+		writeCsvRow(writer, total);
+	}
+
+	private static void writeCsvRow(PrintWriter writer, TransformStats stats) {
+		String[] values = stats.getValues();
+		// The names of the files are the only values that can have commas or quotes.
+		if (values[0].contains(",") || values[0].contains("\""))
+			values[0] = "\"" + values[0].replace("\"", "\"\"") + "\"";
+		for (int i = 2; i < values.length; i++)
+			if (values[i] == null)
+				values[i] = "";
+		writer.println(String.join(",", values));
+	}
+
+	private static void writeJson(PrintWriter writer, List<TransformStats> files, TransformStats total) {
+		writer.println("{");
+		writer.println("  \"files\": [");
+		for (int i = 0; i < files.size(); i++)
+			writer.println("    " + files.get(i).toJson() + (i < files.size() - 1 ? "," : ""));
+		writer.println("  ],");
+		writer.println("  \"total\": " + total.toJson());
+		writer.println("}");
+	}
+
+	private String toJson() {
+		String[] values = getValues();
+		StringBuilder json = new StringBuilder("{");
+		for (int i = 0; i < COLUMNS.length; i++) {
+			if (i > 0)
+				json.append(", ");
+			json.append('"').append(COLUMNS[i]).append("\": ");
+			if (values[i] == null)
+				json.append("null");
+			else if (i < 2)
+				json.append('"').append(values[i].replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+			else
+				json.append(values[i]);
+		}
+		return json.append('}').toString();
+	}
+
+	/** A line with the time of every phase, to print after a run. */
+	public String getPhaseSummary() {
+		StringBuilder summary = new StringBuilder();
+		long total = Math.max(1, getTotalNanos());
+		for (Phase phase : Phase.values()) {
+			if (summary.length() > 0)
+				summary.append(", ");
+			summary.append(String.format(Locale.ROOT, "%s %.1f ms (%.0f%%)", phase.name().toLowerCase(Locale.ROOT),
+					getNanos(phase) / 1e6, getNanos(phase) * 100.0 / total));
+		}
+		return summary.toString();
+	}
+}
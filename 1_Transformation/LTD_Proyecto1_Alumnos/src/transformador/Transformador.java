@@ -2,57 +2,374 @@ package transformador;
 
 import japa.parser.JavaParser;
 import japa.parser.ast.CompilationUnit;
+import japa.parser.ast.visitor.DumpVisitor;
 
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class Transformador {
 
+	/**
+	 * Usage: {@code Transformador [options] <input> <output> [workers]}. The number of workers is only used to
+	 * transform folders. The options are the ones of {@link TransformOptions#parse(String)},
+	 * {@code -report=<file>} to write the times and counters of every file of a folder (see {@link TransformStats}),
+	 * and {@code -cache} to skip the files of a folder whose output is up to date (see {@link TransformCache}).
+	 */
 	public static void main(String[] args) {
-		File in = new File(args[0]);
-		File out = new File(args[1]);
+		TransformOptions options = new TransformOptions();
+		File report = null;
+		boolean useCache = false;
+		List<String> arguments = new ArrayList<>();
+		for (String arg : args) {
+			if (arg.startsWith("-report="))
+				report = new File(arg.substring("-report=".length()));
+			else if (arg.equals("-cache"))
+				useCache = true;
+			else if (arg.startsWith("-"))
+				options.parse(arg);
+			else
+				arguments.add(arg);
+		}
+		File in = new File(arguments.get(0));
+		File out = new File(arguments.get(1));
+		int workers = arguments.size() > 2 ? Integer.parseInt(arguments.get(2)) : 1;
 		if (in.isDirectory() && (!out.exists() || out.isDirectory()))
-			transformFolder(in, out);
+			transformFolder(in, out, useCache, workers, options, report);
 		else if (!in.isDirectory() && !out.isDirectory())
-			transformFile(in, out);
+			transformFile(in, out, options);
 	}
 
-	public static boolean transformFile(File fIn, File fOut) {
-		try {
-			CompilationUnit cu = JavaParser.parse(fIn);
-			
+	/**
+	 * Transforms a compilation unit in place, without reading or writing any file.
+	 * @param cu The compilation unit.
+	 * @param options The options of the generated code.
+	 */
+	public static void transform(CompilationUnit cu, TransformOptions options) {
+		transform(cu, options, new TransformStats(null));
+	}
+
+	/**
+	 * Transforms a compilation unit in place, and adds the time of every phase and what was generated to the stats.
+	 */
+	public static void transform(CompilationUnit cu, TransformOptions options, TransformStats stats) {
+		if (options.isTailCallElimination()) {
+			long start = System.nanoTime();
+			TailCallVisitor tailCallVisitor = new TailCallVisitor();
+			tailCallVisitor.visit(cu, null);
+			stats.addNanos(TransformStats.Phase.TRANSFORM, System.nanoTime() - start);
+			stats.tailCallsTransformed(tailCallVisitor.getTransformedMethods());
+		} else {
 			// Use a visitor to analyse the method names already used.
+			long start = System.nanoTime();
 			MethodVisitor methodVisitor = new MethodVisitor();
 			methodVisitor.visit(cu, null);
-			
-			new Visitador(methodVisitor.getMethodNames()).visit(cu, null);
-			
-			FileWriter fw = new FileWriter(fOut);
-			fw.write(cu.toString());
-			fw.close();
-			System.out.printf("Transform OK %s --> %s\n", fIn.getPath(), fOut.getPath());
+			long names = System.nanoTime();
+			stats.addNanos(TransformStats.Phase.NAMES, names - start);
+
+			new Visitador(methodVisitor.getMethodNames(), options, stats).visit(cu, null);
+			stats.addNanos(TransformStats.Phase.TRANSFORM, System.nanoTime() - names);
+		}
+	}
+
+	public static boolean transformFile(File fIn, File fOut) {
+		return transformFile(fIn, fOut, new TransformOptions());
+	}
+
+	public static boolean transformFile(File fIn, File fOut, TransformOptions options) {
+		return transformFile(fIn, fOut, options, System.out, System.err, new TransformStats(fIn.getPath()));
+	}
+
+	private static boolean transformFile(File fIn, File fOut, TransformOptions options, PrintStream out, PrintStream err, TransformStats stats) {
+		try {
+			long start = System.nanoTime();
+			CompilationUnit cu = JavaParser.parse(fIn);
+			stats.addNanos(TransformStats.Phase.PARSE, System.nanoTime() - start);
+			transform(cu, options, stats);
+
+			// The code is written as it is printed, without building the whole file in memory.
+			start = System.nanoTime();
+			TimedWriter timedWriter = new TimedWriter(fOut);
+			Writer fw = new BufferedWriter(timedWriter);
+			try {
+				cu.accept(new DumpVisitor(fw), null);
+			} finally {
+				fw.close();
+			}
+			stats.addNanos(TransformStats.Phase.PRINT, System.nanoTime() - start - timedWriter.nanos);
+			stats.addNanos(TransformStats.Phase.WRITE, timedWriter.nanos);
+			stats.setBytes(fIn.length(), fOut.length());
+			out.printf("Transform OK %s --> %s\n", fIn.getPath(), fOut.getPath());
 			return true;
 		} catch (Exception e) {
-			System.out.printf("Transform FAILED %s --> %s\n", fIn.getPath(), fOut.getPath());
-			e.printStackTrace();
+			stats.setStatus(TransformStats.FAILED);
+			out.printf("Transform FAILED %s --> %s\n", fIn.getPath(), fOut.getPath());
+			e.printStackTrace(err);
 			return false;
 		}
 	}
 
+	/** A file writer that adds up the time spent in it, opening the file included. */
+	private static class TimedWriter extends Writer {
+		private final Writer writer;
+		private long nanos;
+
+		TimedWriter(File file) throws IOException {
+			long start = System.nanoTime();
+			this.writer = new FileWriter(file);
+			nanos += System.nanoTime() - start;
+		}
+
+		@Override
+		public void write(char[] cbuf, int off, int len) throws IOException {
+			long start = System.nanoTime();
+			writer.write(cbuf, off, len);
+			nanos += System.nanoTime() - start;
+		}
+
+		@Override
+		public void flush() throws IOException {
+			long start = System.nanoTime();
+			writer.flush();
+			nanos += System.nanoTime() - start;
+		}
+
+		@Override
+		public void close() throws IOException {
+			long start = System.nanoTime();
+			writer.close();
+			nanos += System.nanoTime() - start;
+		}
+	}
+
+	/**
+	 * Transforms every Java file of a folder and its subfolders, all of them every time.
+	 * @return The number of files that could not be transformed.
+	 */
 	public static int transformFolder(File fIn, File fOut) {
+		return transformFolder(fIn, fOut, false);
+	}
+
+	/**
+	 * Transforms every Java file of a folder and its subfolders. The files whose input and transformer have not
+	 * changed since the last run can be skipped (see {@link TransformCache}).
+	 * @param useCache Whether to skip the files that are up to date in the output folder.
+	 * @return The number of files that could not be transformed.
+	 */
+	public static int transformFolder(File fIn, File fOut, boolean useCache) {
+		return transformFolder(fIn, fOut, useCache, 1);
+	}
+
+	/**
+	 * Transforms every Java file of a folder and its subfolders with several threads. Every file is transformed with
+	 * its own state, so the output is the same whatever the number of workers. The messages of every file are printed
+	 * together, in the order of the serial run.
+	 * @param useCache Whether to skip the files that are up to date in the output folder.
+	 * @param workers The number of threads. With 1 the files are transformed in the calling thread.
+	 * @return The number of files that could not be transformed.
+	 */
+	public static int transformFolder(File fIn, File fOut, boolean useCache, int workers) {
+		return transformFolder(fIn, fOut, useCache, workers, new TransformOptions());
+	}
+
+	/**
+	 * Transforms every Java file of a folder and its subfolders with several threads and the given options.
+	 * @param useCache Whether to skip the files that are up to date in the output folder.
+	 * @param workers The number of threads. With 1 the files are transformed in the calling thread.
+	 * @param options The options of the generated code.
+	 * @return The number of files that could not be transformed.
+	 */
+	public static int transformFolder(File fIn, File fOut, boolean useCache, int workers, TransformOptions options) {
+		return transformFolder(fIn, fOut, useCache, workers, options, null);
+	}
+
+	/**
+	 * Transforms every Java file of a folder and its subfolders with several threads and the given options, and
+	 * writes a report with the time of every phase and what was generated for every file (see {@link TransformStats}).
+	 * @param useCache Whether to skip the files that are up to date in the output folder.
+	 * @param workers The number of threads. With 1 the files are transformed in the calling thread.
+	 * @param options The options of the generated code.
+	 * @param report The CSV or JSON file of the report, or {@code null} for none.
+	 * @return The number of files that could not be transformed.
+	 */
+	public static int transformFolder(File fIn, File fOut, boolean useCache, int workers, TransformOptions options, File report) {
 		if (!fIn.isDirectory() || (fOut.exists() && !fOut.isDirectory())) return 0;
 		if (!fOut.exists()) fOut.mkdirs();
+		TransformCache cache = useCache ? TransformCache.open(fOut, options.getKey()) : null;
+		List<TransformStats> stats = new ArrayList<>();
+		int errors = transformFolder(fIn, fOut, cache, options, Math.max(1, workers), stats);
+		System.out.printf("Phases: %s\n", TransformStats.total(stats).getPhaseSummary());
+		if (report != null) {
+			try {
+				TransformStats.writeReport(report, stats);
+			} catch (IOException e) {
+				System.out.printf("Cannot write the report %s: %s\n", report.getPath(), e);
+			}
+		}
+		if (cache != null) {
+			try {
+				cache.save();
+			} catch (IOException e) {
+				System.out.printf("Cannot save the transform cache of %s: %s\n", fOut.getPath(), e);
+			}
+			System.out.printf("Transform cache: %d hits, %d misses\n", cache.getHits(), cache.getMisses());
+		}
+		return errors;
+	}
+
+	/** A file to transform, or the start or the end of a folder, in the order the folders are walked. */
+	private static class FolderEntry {
+		enum Kind { FOLDER, FILE, END }
+
+		final Kind kind;
+		final File in;
+		final File out;
+
+		FolderEntry(Kind kind, File in, File out) {
+			this.kind = kind;
+			this.in = in;
+			this.out = out;
+		}
+	}
+
+	/** The outcome of transforming one file, with the messages it printed if it ran in a worker. */
+	private static class FileResult {
+		boolean ok;
+		long nanos;
+		TransformStats stats;
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final ByteArrayOutputStream err = new ByteArrayOutputStream();
+	}
+
+	/**
+	 * Transforms the files of a folder in the calling thread or in a pool of workers, and prints the same messages
+	 * in the same order either way: those of every file with its time, those of every folder when its files are
+	 * done, and the throughput of the whole run.
+	 */
+	private static int transformFolder(File fIn, File fOut, TransformCache cache, TransformOptions options, int workers, List<TransformStats> stats) {
+		// The files are listed (and the folders created) before any of them is transformed.
+		List<FolderEntry> entries = new ArrayList<>();
+		listFiles(fIn, fOut, entries);
+
+		long start = System.nanoTime();
+		ExecutorService pool = workers > 1 ? Executors.newFixedThreadPool(workers) : null;
+		List<Future<FileResult>> futures = new ArrayList<>(entries.size());
+		for (FolderEntry entry : entries)
+			futures.add(pool != null && entry.kind == FolderEntry.Kind.FILE ? pool.submit(() -> transformFile(entry, cache, options, true)) : null);
+
+		// The errors of every folder being listed, from the innermost one.
+		Deque<Integer> folderErrors = new ArrayDeque<>();
 		int errors = 0;
+		int files = 0;
+		long bytes = 0;
+		try {
+			for (int i = 0; i < entries.size(); i++) {
+				FolderEntry entry = entries.get(i);
+				if (entry.kind == FolderEntry.Kind.FOLDER) {
+					folderErrors.push(0);
+				} else if (entry.kind == FolderEntry.Kind.FILE) {
+					FileResult result = pool != null ? futures.get(i).get() : transformFile(entry, cache, options, false);
+					stats.add(result.stats);
+					System.out.print(result.out.toString());
+					System.err.print(result.err.toString());
+					System.out.printf("    %s: %.1f ms, %.1f KB/s\n", entry.in.getPath(), result.nanos / 1e6, entry.in.length() / 1024.0 / (result.nanos / 1e9));
+					if (!result.ok)
+						folderErrors.push(folderErrors.pop() + 1);
+					files++;
+					bytes += entry.in.length();
+				} else {
+					int endErrors = folderErrors.pop();
+					System.out.printf("Folder transform %s (%s --> %s)\n", endErrors == 0 ? "OK" : "FAILED with " + endErrors + " errors", entry.in.getPath(), entry.out.getPath());
+					if (folderErrors.isEmpty())
+						errors = endErrors;
+					else
+						folderErrors.push(folderErrors.pop() + endErrors);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while transforming " + fIn.getPath(), e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Unexpected error while transforming " + fIn.getPath(), e.getCause());
+		} finally {
+			if (pool != null)
+				pool.shutdown();
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		System.out.printf("Transformed %d files (%.1f KB) in %.3f s with %d %s: %.1f files/s, %.1f KB/s\n",
+				files, bytes / 1024.0, seconds, workers, workers == 1 ? "worker" : "workers", files / seconds, bytes / 1024.0 / seconds);
+		return errors;
+	}
+
+	/**
+	 * Transforms a file of a folder.
+	 * @param buffered Whether to keep the messages in the result, to print them in order, instead of printing them.
+	 */
+	private static FileResult transformFile(FolderEntry entry, TransformCache cache, TransformOptions options, boolean buffered) {
+		FileResult result = new FileResult();
+		result.stats = new TransformStats(entry.in.getPath());
+		long fileStart = System.nanoTime();
+		if (buffered) {
+			try (PrintStream out = new PrintStream(result.out); PrintStream err = new PrintStream(result.err)) {
+				result.ok = transformFile(entry.in, entry.out, cache, options, out, err, result.stats);
+			}
+		} else {
+			result.ok = transformFile(entry.in, entry.out, cache, options, System.out, System.err, result.stats);
+		}
+		result.nanos = System.nanoTime() - fileStart;
+		return result;
+	}
+
+	private static void listFiles(File fIn, File fOut, List<FolderEntry> entries) {
+		if (!fOut.exists()) fOut.mkdirs();
+		entries.add(new FolderEntry(FolderEntry.Kind.FOLDER, fIn, fOut));
 		for (File f : fIn.listFiles()) {
 			if (f.isDirectory())
-				errors += transformFolder(f, new File(fOut, f.getName()));
+				listFiles(f, new File(fOut, f.getName()), entries);
 			else if (f.getName().endsWith(".java"))
-				if (!transformFile(f, new File(fOut, f.getName())))
-					errors++;
+				entries.add(new FolderEntry(FolderEntry.Kind.FILE, f, new File(fOut, f.getName())));
 		}
-		System.out.printf("Folder transform %s (%s --> %s)\n", errors == 0 ? "OK" : "FAILED with " + errors + " errors", fIn.getPath(), fOut.getPath());
-		return errors;
+		entries.add(new FolderEntry(FolderEntry.Kind.END, fIn, fOut));
 	}
 
-}
+	private static boolean transformFile(File fIn, File fOut, TransformCache cache, TransformOptions options, PrintStream out, PrintStream err, TransformStats stats) {
+		if (cache == null)
+			return transformFile(fIn, fOut, options, out, err, stats);
+		String input;
+		try {
+			input = cache.check(fIn, fOut);
+		} catch (IOException e) {
+			stats.setStatus(TransformStats.FAILED);
+			out.printf("Transform FAILED %s --> %s\n", fIn.getPath(), fOut.getPath());
+			e.printStackTrace(err);
+			return false;
+		}
+		if (input == null) {
+			stats.setStatus(TransformStats.UP_TO_DATE);
+			out.printf("Transform UP-TO-DATE %s --> %s\n", fIn.getPath(), fOut.getPath());
+			return true;
+		}
+		if (!transformFile(fIn, fOut, options, out, err, stats))
+			return false;
+		try {
+			cache.put(fOut, input);
+		} catch (IOException e) {
+			// The file is transformed, it will only be transformed again on the next run.
+		}
+		return true;
+	}
 
+}
@@ -2,9 +2,13 @@ package transformador;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import iter2rec.transformation.loop.Do;
@@ -12,8 +16,10 @@ import iter2rec.transformation.loop.For;
 import iter2rec.transformation.loop.Foreach;
 import iter2rec.transformation.loop.Loop;
 import iter2rec.transformation.loop.While;
+import iter2rec.transformation.variable.DefUseIndex;
 import iter2rec.transformation.variable.LoopVariables;
 import iter2rec.transformation.variable.Variable;
+import iter2rec.transformation.variable.VariableTable;
 import japa.parser.ast.Node;
 import japa.parser.ast.body.ClassOrInterfaceDeclaration;
 import japa.parser.ast.body.MethodDeclaration;
@@ -22,15 +28,14 @@ import japa.parser.ast.body.Parameter;
 import japa.parser.ast.body.VariableDeclarator;
 import japa.parser.ast.body.VariableDeclaratorId;
 import japa.parser.ast.expr.ArrayAccessExpr;
-import japa.parser.ast.expr.ArrayCreationExpr;
-import japa.parser.ast.expr.ArrayInitializerExpr;
 import japa.parser.ast.expr.AssignExpr;
 import japa.parser.ast.expr.AssignExpr.Operator;
 import japa.parser.ast.expr.BinaryExpr;
-import japa.parser.ast.expr.CastExpr;
+import japa.parser.ast.expr.EnclosedExpr;
 import japa.parser.ast.expr.Expression;
 import japa.parser.ast.expr.FieldAccessExpr;
 import japa.parser.ast.expr.IntegerLiteralExpr;
+import japa.parser.ast.expr.LiteralExpr;
 import japa.parser.ast.expr.MethodCallExpr;
 import japa.parser.ast.expr.NameExpr;
 import japa.parser.ast.expr.ThisExpr;
@@ -44,6 +49,7 @@ import japa.parser.ast.stmt.ExpressionStmt;
 import japa.parser.ast.stmt.ForStmt;
 import japa.parser.ast.stmt.ForeachStmt;
 import japa.parser.ast.stmt.IfStmt;
+import japa.parser.ast.stmt.LabeledStmt;
 import japa.parser.ast.stmt.ReturnStmt;
 import japa.parser.ast.stmt.Statement;
 import japa.parser.ast.stmt.ThrowStmt;
@@ -51,9 +57,9 @@ import japa.parser.ast.stmt.WhileStmt;
 import japa.parser.ast.type.ClassOrInterfaceType;
 import japa.parser.ast.type.PrimitiveType;
 import japa.parser.ast.type.PrimitiveType.Primitive;
-import japa.parser.ast.type.ReferenceType;
 import japa.parser.ast.type.Type;
 import japa.parser.ast.visitor.ModifierVisitorAdapter;
+import japa.parser.ast.visitor.VoidVisitorAdapter;
 
 public class Visitador extends ModifierVisitorAdapter<Object>
 {
@@ -77,12 +83,34 @@ public class Visitador extends ModifierVisitorAdapter<Object>
 	// The collection of method names that have already been used.
 	private List<String> usedMethodNames;
 
+	// The options of the generated code.
+	private TransformOptions options;
+
+	// The declarations and uses of the variables of every method visited, shared by all its loops.
+	private Map<MethodDeclaration, DefUseIndex> defUseIndexes = new IdentityHashMap<MethodDeclaration, DefUseIndex>();
+
+	// The counters of the loops transformed.
+	private TransformStats stats;
+
+	// The declarations of the variables only written in a loop, added at the beginning of its recursive method.
+	private Set<Statement> localDeclarations = Collections.newSetFromMap(new IdentityHashMap<Statement, Boolean>());
+
 	/********************************************************/
 	/*********************** Metodos ************************/
 	/********************************************************/
 
 	public Visitador(List<String> usedMethodNames) {
+		this(usedMethodNames, new TransformOptions());
+	}
+
+	public Visitador(List<String> usedMethodNames, TransformOptions options) {
+		this(usedMethodNames, options, new TransformStats(null));
+	}
+
+	public Visitador(List<String> usedMethodNames, TransformOptions options, TransformStats stats) {
 		this.usedMethodNames = usedMethodNames;
+		this.options = options;
+		this.stats = stats;
 	}
 
 	// Visitador de clases
@@ -105,6 +133,7 @@ public class Visitador extends ModifierVisitorAdapter<Object>
 		this.previousMethodDeclarations.add(methodDeclaration);
 		this.methodDeclaration = methodDeclaration;
 		Node newMethodDeclaration = super.visit(methodDeclaration, args);
+		removeUnusedLocalDeclarations(methodDeclaration);
 		this.previousMethodDeclarations.removeLast();
 		this.methodDeclaration = this.previousMethodDeclarations.isEmpty() ? null : this.previousMethodDeclarations.getLast();
 
@@ -135,6 +164,16 @@ public class Visitador extends ModifierVisitorAdapter<Object>
 		// Creamos un objeto Loop que sirve para examinar bucles
 		Loop loop = new For(null, null, forStmt);
 
+		if (options.isDivideAndConquer())
+		{
+			Statement divided = transformCountedFor(loop, forStmt);
+
+			if (divided != null)
+			{
+				return divided;
+			}
+		}
+
 		// Convert the initialization expressions to statements.
 		List<Statement> initStatements = forStmt.getInit()
 				.stream()
@@ -144,7 +183,6 @@ public class Visitador extends ModifierVisitorAdapter<Object>
 		List<Statement> originalBodyStatements = blockWrapper(forStmt.getBody()).getStmts();
 
 		List<Statement> loopBodyStmts = new ArrayList<Statement>(originalBodyStatements);
-		BlockStmt forBody = new BlockStmt(loopBodyStmts);
 
 		// Add the update statements to the end of the body.
 		List<Statement> updateStatements = forStmt.getUpdate()
@@ -153,6 +191,7 @@ public class Visitador extends ModifierVisitorAdapter<Object>
 				.collect(Collectors.toList());
 
 		loopBodyStmts.addAll(updateStatements);
+		BlockStmt forBody = new BlockStmt(loopBodyStmts);
 
 		return transformLoopsToRecursiveMethods(loop, LoopType.FOR, forStmt.getCompare(), forBody, initStatements, null);
 	}
@@ -163,6 +202,16 @@ public class Visitador extends ModifierVisitorAdapter<Object>
 		// Creamos un objeto Loop que sirve para examinar bucles
 		Loop loop = new Foreach(null, null, forEachStmt);
 
+		if (options.isDivideAndConquer())
+		{
+			Statement divided = transformArrayForeach(loop, forEachStmt);
+
+			if (divided != null)
+			{
+				return divided;
+			}
+		}
+
 		// To transform the foreach loop into an equivalent recursive method, it should be first transformed into an equivalent for-loop.
 		// This way, the conversor already implemented can be reused.
 		// There are 3 steps for this conversion:
@@ -198,7 +247,6 @@ public class Visitador extends ModifierVisitorAdapter<Object>
 
 		// Add the increments to the body of the loop.
 		List<Statement> loopBodyStmts = new ArrayList<Statement>(originalBodyStatements);
-		BlockStmt foreachBody = new BlockStmt(loopBodyStmts);
 
 		UnaryExpr indexIncrement = new UnaryExpr(indexRef, japa.parser.ast.expr.UnaryExpr.Operator.posIncrement);
 		loopBodyStmts.add(new ExpressionStmt(indexIncrement));
@@ -209,12 +257,168 @@ public class Visitador extends ModifierVisitorAdapter<Object>
 		AssignExpr iteratorVariableAssign = new AssignExpr(iteratorVariable, iterableCollectionAccess, Operator.assign);
 
 		loopBodyStmts.add(0, new ExpressionStmt(iteratorVariableAssign));
+		BlockStmt foreachBody = new BlockStmt(loopBodyStmts);
 
-		Variable indexVariableRef = Variable.createVariable(0, integerType, indexVariableName, 0);
+		Variable indexVariableRef = Variable.createVariable(new VariableTable(), 0, integerType, indexVariableName, 0);
 
 		return transformLoopsToRecursiveMethods(loop, LoopType.FOREACH, indexComparison, foreachBody, initStatements, Arrays.asList(indexVariableRef));
 	}
 
+	/**
+	 * Transforms a counted loop, {@code for (int i = first; i < bound; i++)}, into a divide-and-conquer method.
+	 * @param loop The loop object, used to analyse its variable references.
+	 * @param forStmt The loop.
+	 * @return The statement that replaces the loop, or {@code null} if the loop is not counted or its iterations
+	 *         depend on each other.
+	 */
+	private Statement transformCountedFor(Loop loop, ForStmt forStmt) {
+		List<Expression> init = forStmt.getInit();
+		List<Expression> update = forStmt.getUpdate();
+
+		if (init == null || init.size() != 1 || !(init.get(0) instanceof VariableDeclarationExpr)
+				|| update == null || update.size() != 1
+				|| !(forStmt.getCompare() instanceof BinaryExpr))
+		{
+			return null;
+		}
+
+		VariableDeclarationExpr indexDeclaration = (VariableDeclarationExpr) init.get(0);
+		if (indexDeclaration.getVars().size() != 1
+				|| indexDeclaration.getVars().get(0).getInit() == null
+				|| indexDeclaration.getVars().get(0).getId().getArrayCount() != 0)
+		{
+			return null;
+		}
+		String indexName = indexDeclaration.getVars().get(0).getId().getName();
+
+		// The index goes up by one until the bound: i < bound, or i <= bound
+		BinaryExpr compare = (BinaryExpr) forStmt.getCompare();
+		boolean isExclusive = compare.getOperator() == BinaryExpr.Operator.less;
+		if (!(isExclusive || compare.getOperator() == BinaryExpr.Operator.lessEquals)
+				|| !isName(compare.getLeft(), indexName)
+				|| !isIncrement(update.get(0), indexName))
+		{
+			return null;
+		}
+
+		Expression bound = compare.getRight();
+		if (!(bound instanceof NameExpr || bound instanceof FieldAccessExpr || bound instanceof LiteralExpr))
+		{
+			bound = new EnclosedExpr(bound);
+		}
+		Expression last = isExclusive ?
+				new BinaryExpr(bound, new IntegerLiteralExpr("1"), japa.parser.ast.expr.BinaryExpr.Operator.minus)
+				: bound;
+
+		List<Statement> initStatements = Arrays.asList(new ExpressionStmt(indexDeclaration));
+
+		return transformDivideAndConquer(loop, LoopType.FOR, indexName, indexDeclaration.getType(), compare.getRight(),
+				blockWrapper(forStmt.getBody()).getStmts(), initStatements, compare, new NameExpr(indexName), last);
+	}
+
+	/**
+	 * Transforms a for-each loop over an array into a divide-and-conquer method on the indexes of the array.
+	 * @param loop The loop object, used to analyse its variable references.
+	 * @param forEachStmt The loop.
+	 * @return The statement that replaces the loop, or {@code null} if its iterations depend on each other.
+	 */
+	private Statement transformArrayForeach(Loop loop, ForeachStmt forEachStmt) {
+		// The array is read once per iteration, so it must be a variable
+		if (!(forEachStmt.getIterable() instanceof NameExpr))
+		{
+			return null;
+		}
+
+		String indexVariableName = getAvailableVariableName(loop, "index");
+		Expression array = forEachStmt.getIterable();
+
+		// Every iteration begins declaring its element: String animal = animals[index];
+		VariableDeclarationExpr iteratorVariable = forEachStmt.getVariable();
+		VariableDeclarator element = new VariableDeclarator(iteratorVariable.getVars().get(0).getId(), new ArrayAccessExpr(array, new NameExpr(indexVariableName)));
+		VariableDeclarationExpr elementDeclaration = new VariableDeclarationExpr(iteratorVariable.getModifiers(), iteratorVariable.getType(), Arrays.asList(element));
+
+		List<Statement> body = new ArrayList<Statement>();
+		body.add(new ExpressionStmt(elementDeclaration));
+		body.addAll(blockWrapper(forEachStmt.getBody()).getStmts());
+
+		FieldAccessExpr length = new FieldAccessExpr(array, "length");
+		BinaryExpr isNotEmpty = new BinaryExpr(new IntegerLiteralExpr("0"), length, japa.parser.ast.expr.BinaryExpr.Operator.less);
+		BinaryExpr last = new BinaryExpr(length, new IntegerLiteralExpr("1"), japa.parser.ast.expr.BinaryExpr.Operator.minus);
+
+		return transformDivideAndConquer(loop, LoopType.FOREACH, indexVariableName, new PrimitiveType(Primitive.Int), array,
+				body, Collections.<Statement>emptyList(), isNotEmpty, new IntegerLiteralExpr("0"), last);
+	}
+
+	/**
+	 * Transforms a loop over a range of indexes into a divide-and-conquer method, if its iterations do not depend on
+	 * each other (see {@link DivideAndConquer}).
+	 * @param loop The loop object, used to analyse its variable references.
+	 * @param loopType The kind of loop.
+	 * @param indexName The name of the index.
+	 * @param indexType The type of the index.
+	 * @param bound The expression that bounds the index in the loop.
+	 * @param body The statements of an iteration, without the increment of the index.
+	 * @param loopInitialization The statements that declare the index before the first iteration.
+	 * @param loopCondition The condition to run the first iteration.
+	 * @param first The first value of the index.
+	 * @param last The last value of the index.
+	 * @return The statement that replaces the loop, or {@code null} if the iterations depend on each other.
+	 */
+	private Statement transformDivideAndConquer(Loop loop, LoopType loopType, String indexName, Type indexType, Expression bound, List<Statement> body,
+			List<Statement> loopInitialization, Expression loopCondition, Expression first, Expression last) {
+		List<Variable> usedVariables = loop.getUsedVariables(getDefUseIndex());
+
+		DivideAndConquer divideAndConquer = DivideAndConquer.analyse(indexName, indexType, bound, body, usedVariables, options.isForkJoin());
+		if (divideAndConquer == null)
+		{
+			return null;
+		}
+
+		String methodName = getMethodName("metodo");
+		boolean isCallerMethodStatic = (this.methodDeclaration.getModifiers() & ModifierSet.STATIC) != 0;
+
+		List<Statement> rangeStatements = divideAndConquer.build(methodName, prefix -> getAvailableVariableName(loop, prefix),
+				isCallerMethodStatic, getHolderModifiers(isCallerMethodStatic), options.getForkJoinThreshold(),
+				this.methodDeclaration.getThrows(), this.classDeclaration.getMembers(), first, last);
+		stats.loopTransformed(loopType, true, divideAndConquer.getParameterCount(), divideAndConquer.getResultWidth());
+
+		IfStmt newIf = new IfStmt(loopCondition, new BlockStmt(rangeStatements), null);
+
+		if (loopInitialization.isEmpty())
+		{
+			return newIf;
+		}
+
+		List<Statement> blockStatements = new ArrayList<Statement>(loopInitialization);
+		blockStatements.add(newIf);
+
+		return new BlockStmt(blockStatements);
+	}
+
+	private static boolean isName(Expression expression, String name) {
+		return expression instanceof NameExpr && ((NameExpr) expression).getName().equals(name);
+	}
+
+	// i++, ++i or i += 1
+	private static boolean isIncrement(Expression expression, String indexName) {
+		if (expression instanceof UnaryExpr)
+		{
+			UnaryExpr unaryExpr = (UnaryExpr) expression;
+			return (unaryExpr.getOperator() == japa.parser.ast.expr.UnaryExpr.Operator.posIncrement
+					|| unaryExpr.getOperator() == japa.parser.ast.expr.UnaryExpr.Operator.preIncrement)
+					&& isName(unaryExpr.getExpr(), indexName);
+		}
+		if (expression instanceof AssignExpr)
+		{
+			AssignExpr assignExpr = (AssignExpr) expression;
+			return assignExpr.getOperator() == Operator.plus
+					&& isName(assignExpr.getTarget(), indexName)
+					&& assignExpr.getValue() instanceof IntegerLiteralExpr
+					&& ((IntegerLiteralExpr) assignExpr.getValue()).getValue().equals("1");
+		}
+		return false;
+	}
+
 	/**
 	 * Finds a variable name for the loop index that does not clash with any existing variable.
 	 * @param loop The loop.
@@ -222,12 +426,12 @@ public class Visitador extends ModifierVisitorAdapter<Object>
 	 */
 	private String getAvailableVariableName(Loop loop, String variableNamePrefix) {
 		// Get the name of the used variables used in the loop.
-		List<Variable> variables = loop.getUsedVariables(methodDeclaration);
+		List<Variable> variables = loop.getUsedVariables(getDefUseIndex());
 
-		List<String> variableNames = variables
+		Set<String> variableNames = variables
 				.stream()
 				.map(v -> v.getName())
-				.collect(Collectors.toList());
+				.collect(Collectors.toSet());
 
 		// Find a variable name that does not clash with the existing variables.
 		String variableName;
@@ -259,9 +463,14 @@ public class Visitador extends ModifierVisitorAdapter<Object>
 		String methodName = getMethodName("metodo");
 
 		// El objeto Loop nos calcula la lista de variables declaradas en el método y usadas en el bucle (la intersección)
-		List<Variable> variables = loop.getUsedVariables(methodDeclaration);
+		List<Variable> usedVariables = loop.getUsedVariables(getDefUseIndex());
+		// Only the variables read in the loop are passed to the method, and only the ones written in the loop and read
+		// after it are returned. The ones that are only written are declared in the method.
+		List<Variable> returnedVariables = new ArrayList<Variable>();
+		List<Variable> localVariables = new ArrayList<Variable>();
+		List<Variable> variables = getLoopParameters(loop, loopCondition, loopBody, usedVariables, returnedVariables, localVariables);
 		// Creamos un objeto LoopVariables que sirve para convertir la lista de variables en lista de argumentos y parámetros
-		LoopVariables loopVariables = new LoopVariables(variables);
+		LoopVariables loopVariables = new LoopVariables(loop.getVariableTable(), variables);
 		// El objeto LoopVariables nos calcula la lista de argumentos del método
 		List<Expression> arguments = loopVariables.getArgs();
 
@@ -292,15 +501,12 @@ public class Visitador extends ModifierVisitorAdapter<Object>
 		// Method call expression: this.method_x(args);
 		MethodCallExpr methodCallExpr = new MethodCallExpr(methodCallScope, methodName, arguments);
 
-		// Method call result assignment.
-		ClassOrInterfaceType objectType = new ClassOrInterfaceType("Object");
-		ReferenceType methodReturnType = new ReferenceType(objectType, 1);
-
-		Statement loopMethodCallStatement = buildMethodCallExpression(methodCallResultName, methodCallExpr, methodReturnType);
-		ifBlockStatements.add(loopMethodCallStatement);
+		// The values modified by the loop are returned with their own types, in a holder if there are several.
+		ResultCarrier resultCarrier = new ResultCarrier(methodName, variables, returnedVariables, options.isTrampolined(), getHolderModifiers(isCallerMethodStatic));
 
-		Collection<Statement> resultVariablesUnboxed = buildLoopResultCastingStatements(loopVariables, methodCallResultName);
-		ifBlockStatements.addAll(resultVariablesUnboxed);
+		// Call the method and copy back the values it returns. A trampolined method runs one iteration per call,
+		// the caller calls it again while it asks to go on.
+		ifBlockStatements.addAll(resultCarrier.buildCall(methodCallResultName, methodCallScope, methodCallExpr));
 
 		IfStmt newIf = new IfStmt(loopCondition, new BlockStmt(ifBlockStatements), null);
 
@@ -311,10 +517,10 @@ public class Visitador extends ModifierVisitorAdapter<Object>
 			|| loopType == LoopType.FOREACH)
 		{
 			ArrayList<Statement> blockStatements = new ArrayList<Statement>();
-			result = new BlockStmt(blockStatements);
-
 			blockStatements.addAll(loopInitialization);
 			blockStatements.add(newIf);
+
+			result = new BlockStmt(blockStatements);
 		}
 
 		/**************************/
@@ -326,12 +532,17 @@ public class Visitador extends ModifierVisitorAdapter<Object>
 				.map(v -> v.getParameter())
 				.collect(Collectors.toList());
 
-		BlockStmt methodBody = buildRecursiveMethodBody(loopCondition, loopBody, arguments, methodCallExpr, methodReturnType);
+		BlockStmt methodBody = buildRecursiveMethodBody(loopCondition, loopBody, methodCallExpr, resultCarrier);
+		List<Statement> localVariableDeclarations = localVariables.stream()
+				.map(v -> new ExpressionStmt(v.getDeclarationExpr()))
+				.collect(Collectors.toList());
+		methodBody.getStmts().addAll(0, localVariableDeclarations);
+		localDeclarations.addAll(localVariableDeclarations);
 
 		MethodDeclaration newMethod = new MethodDeclaration();
 
-		// Check if the method has any throws statement.
-		long numberOfThrows = methodBody.getStmts()
+		// Check if the method has any throws statement. The unrolled iterations copy the same statements.
+		long numberOfThrows = loopBody.getStmts()
 				.stream()
 				.filter(stmt -> stmt instanceof ThrowStmt)
 				.count();
@@ -352,16 +563,108 @@ public class Visitador extends ModifierVisitorAdapter<Object>
 		newMethod.setModifiers(recursiveMethodModifiers);
 		newMethod.setName(methodName);
 		newMethod.setParameters(methodParameters);
-		newMethod.setType(methodReturnType.getType());
-		newMethod.setArrayCount(methodReturnType.getArrayCount());
+		newMethod.setType(resultCarrier.getReturnType());
 		newMethod.setThrows(loopMethodThrows);
 
 		// Añadimos el nuevo método a la clase actual
 		this.classDeclaration.getMembers().add(newMethod);
+		stats.loopTransformed(loopType, false, methodParameters.size(), resultCarrier.getWidth());
+		if (resultCarrier.getHolder() != null)
+		{
+			this.classDeclaration.getMembers().add(resultCarrier.getHolder());
+		}
 
 		return result;
 	}
 
+	/**
+	 * Selects the parameters of the recursive method among the variables used in a loop, with a mod/ref analysis of
+	 * the loop and the variables live after it. A variable is read in the loop if an iteration may read the value
+	 * left by the previous one.
+	 * @param loop The loop.
+	 * @param loopCondition The condition to iterate in the loop.
+	 * @param loopBody The instructions executed in the body of the loop.
+	 * @param usedVariables The variables declared before the loop and used in it.
+	 * @param returnedVariables Receives the variables written in the loop and read after it.
+	 * @param localVariables Receives the other variables written in the loop.
+	 * @return The variables read in the loop or returned, in the order they are declared.
+	 */
+	private List<Variable> getLoopParameters(Loop loop, Expression loopCondition, BlockStmt loopBody, List<Variable> usedVariables, List<Variable> returnedVariables, List<Variable> localVariables) {
+		DefUseIndex.Uses conditionUses = DefUseIndex.getUses(loopCondition);
+		DefUseIndex.Uses bodyUses = getDefUseIndex().getUses(loopBody);
+		// A variable assigned at the beginning of every iteration is not read from the previous one
+		Set<String> bodyReads = getDefUseIndex().getExposedReads(loopBody.getStmts());
+		Set<String> liveAfter = getDefUseIndex().getLiveAfter(loop.getStatement());
+
+		List<Variable> parameters = new ArrayList<Variable>();
+
+		for (Variable variable : usedVariables)
+		{
+			String name = variable.getName();
+			boolean read = conditionUses.reads(name) || bodyReads.contains(name);
+			boolean written = !variable.isFinal() && (conditionUses.writes(name) || bodyUses.writes(name));
+			boolean returned = written && liveAfter.contains(name);
+
+			if (returned)
+			{
+				returnedVariables.add(variable);
+			}
+
+			if (read || returned)
+			{
+				parameters.add(variable);
+			}
+			else if (written)
+			{
+				localVariables.add(variable);
+			}
+		}
+
+		return parameters;
+	}
+
+	/**
+	 * Removes the declarations of the variables only written in a loop that its recursive method no longer uses. This
+	 * happens when they were only written in a nested loop, which has become a method of its own and declares them.
+	 * @param method The method, once its loops are transformed.
+	 */
+	private void removeUnusedLocalDeclarations(MethodDeclaration method) {
+		BlockStmt body = method.getBody();
+
+		if (body == null || body.getStmts() == null || body.getStmts().stream().noneMatch(localDeclarations::contains))
+		{
+			return;
+		}
+
+		Set<String> usedNames = new HashSet<String>();
+		body.accept(new VoidVisitorAdapter<Set<String>>() {
+			@Override
+			public void visit(NameExpr nameExpr, Set<String> arg) {
+				arg.add(nameExpr.getName());
+			}
+		}, usedNames);
+
+		body.getStmts().removeIf(stmt -> localDeclarations.contains(stmt)
+				&& !usedNames.contains(((VariableDeclarationExpr) ((ExpressionStmt) stmt).getExpression()).getVars().get(0).getId().getName()));
+	}
+
+	/**
+	 * Returns the index of variable declarations and uses of the method being visited. It is built the first time
+	 * one of its loops is analysed.
+	 * @return The index of the current method.
+	 */
+	private DefUseIndex getDefUseIndex() {
+		DefUseIndex index = defUseIndexes.get(methodDeclaration);
+
+		if (index == null)
+		{
+			index = new DefUseIndex(methodDeclaration);
+			defUseIndexes.put(methodDeclaration, index);
+		}
+
+		return index;
+	}
+
 	/**
 	 * Returns a method name that does not clash with an existing method.
 	 * @param methodNamePrefix The prefix to use in the method name.
@@ -382,77 +685,46 @@ public class Visitador extends ModifierVisitorAdapter<Object>
 	}
 
 	/**
-	 * Given an expression to call the recursive method, it builds another expression to declare a variable
-	 * and assign the results of the method call.
-	 * @param resultVariableName The name of the variable where the results should be stored.
-	 * @param methodCallExpr The expression that represents the recursive method call.
-	 * @param methodReturnType The expected return type of the method.
-	 * @return The statement of the result assignment of the method call.
+	 * Gets the modifiers of the class that holds the values returned by a recursive method. It is static unless it
+	 * has to see the type parameters of the class, or the class cannot declare static members.
+	 * @param isCallerMethodStatic Whether the method with the loop is static.
+	 * @return The modifiers of the holder class.
 	 */
-	private Statement buildMethodCallExpression(String resultVariableName, MethodCallExpr methodCallExpr, ReferenceType methodReturnType) {
-		VariableDeclaratorId methodCallResultVariableId = new VariableDeclaratorId(resultVariableName);
-		VariableDeclarator resultAssignment = new VariableDeclarator(methodCallResultVariableId, methodCallExpr);
-
-		VariableDeclarationExpr resultDeclaration = new VariableDeclarationExpr(methodReturnType, Arrays.asList(resultAssignment));
+	private int getHolderModifiers(boolean isCallerMethodStatic) {
+		int modifiers = ModifierSet.PRIVATE | ModifierSet.FINAL;
 
-		ExpressionStmt loopMethodCallStatement = new ExpressionStmt(resultDeclaration);
-
-		return loopMethodCallStatement;
-	}
-
-	/**
-	 * Builds the necessary castings for each of the variables modified on the loop.
-	 * @param loopVariables The collection of variables referenced by the loop.
-	 * @param resultObjectName The name of the object containing the results of the method call.
-	 * @return The built statements for each modified variable.
-	 */
-	private static Collection<Statement> buildLoopResultCastingStatements(LoopVariables loopVariables, String resultObjectName) {
-		// Unbox and assign the return values from the method call to the corresponding arguments.
-		List<String> returnNames = loopVariables.getReturnNames();
-		List<Type> returnTypes = loopVariables.getReturnTypes();
+		boolean isGeneric = this.classDeclaration.getTypeParameters() != null && !this.classDeclaration.getTypeParameters().isEmpty();
+		boolean isTopLevel = this.previousClassDeclarations.size() == 1;
+		boolean isStaticMember = ModifierSet.isStatic(this.classDeclaration.getModifiers())
+				|| (!isTopLevel && this.previousClassDeclarations.get(this.previousClassDeclarations.size() - 2).isInterface());
 
-		List<Statement> assignmentExpressions = new ArrayList<Statement>();
-
-		for (int i = 0; i < returnNames.size(); i++)
+		if (isCallerMethodStatic || (!isGeneric && (isTopLevel || isStaticMember)))
 		{
-			// Access the results array: result[i].
-			ArrayAccessExpr resultValue = new ArrayAccessExpr(new NameExpr(resultObjectName), new IntegerLiteralExpr("" + i));
-
-			// Unbox the value with a casting to the expected type: (Type) result[i]
-			CastExpr valueCast = new CastExpr(returnTypes.get(i) , resultValue );
-
-			// Assign the value to the input parameter: arg = (Type) result[i]
-			NameExpr parameterNameExpr = new NameExpr(returnNames.get(i));
-			AssignExpr assignExpr = new AssignExpr(parameterNameExpr, valueCast, Operator.assign);
-
-			assignmentExpressions.add(new ExpressionStmt(assignExpr));
+			modifiers |= ModifierSet.STATIC;
 		}
 
-		return assignmentExpressions;
+		return modifiers;
 	}
 
 	/**
 	 * Builds the body of the equivalent recursive method based on the input parameters.
 	 * @param loopCondition The condition to iterate in the loop.
 	 * @param loopBody The instructions executed in the body of the loop.
-	 * @param loopArguments The name of the parameters modified in the loop.
 	 * @param recursiveMethodCall The method call expression to invoke the recursive method.
-	 * @param methodReturnType The return type of the recursive method.
+	 * @param resultCarrier The values returned by the recursive method.
 	 * @return The body of the equivalent recursive method.
 	 */
 	private BlockStmt buildRecursiveMethodBody(
 			Expression loopCondition,
 			BlockStmt loopBody,
-			List<Expression> loopArguments,
 			MethodCallExpr recursiveMethodCall,
-			ReferenceType methodReturnType)
+			ResultCarrier resultCarrier)
 	{
 		BlockStmt methodBody = new BlockStmt(new ArrayList<Statement>());
 
-		// Builds result of the current iteration. To stop iterating: return new Object[] { x };
-		ArrayInitializerExpr arrayInitializerExpr = new ArrayInitializerExpr(loopArguments);
-		ArrayCreationExpr createResultArray = new ArrayCreationExpr(methodReturnType.getType(), methodReturnType.getArrayCount(), arrayInitializerExpr);
-		ReturnStmt returnResultArray = new ReturnStmt(createResultArray);
+		// Builds result of the current iteration. To stop iterating: return x;
+		// A trampolined method also tells the caller whether to go on: return new Metodo_1Result(x, false);
+		ReturnStmt returnResultArray = resultCarrier.buildReturn(false);
 
 		// Builds the if statement that contains the recursive method call. If the loop continue is still true,
 		// proceeds to a new iteration:
@@ -460,19 +732,103 @@ public class Visitador extends ModifierVisitorAdapter<Object>
 		// if (loopCondition) {
 		//	  return metodo_1(x);
 		// }
-		ReturnStmt returnRecursiveCallResult = new ReturnStmt(recursiveMethodCall);
-		IfStmt recursionIf = new IfStmt(loopCondition, blockWrapper(returnRecursiveCallResult), null);
+		//
+		// A method that returns nothing calls itself and returns: metodo_1(x); return;
+		// A trampolined method returns the continuation instead: return new Metodo_1Result(x, true);
+		BlockStmt nextIteration = options.isTrampolined() ?
+				blockWrapper(resultCarrier.buildReturn(true))
+				: new BlockStmt(resultCarrier.buildRecursion(recursiveMethodCall));
+		IfStmt recursionIf = new IfStmt(loopCondition, nextIteration, null);
 		recursionIf.setCondition(loopCondition);
 
-		boolean hasFirstLevelReturnOrThrowStatement = false;
+		// With an unroll factor k, the method runs k - 1 iterations before the last one, each in its own block so
+		// their local variables do not clash. A continue ends the block, and the condition is checked again
+		// before the next iteration:
+		//
+		// iteration_1: {
+		//	  ...
+		//	  if (c) break iteration_1;
+		//	  ...
+		// }
+		// if (!(loopCondition)) {
+		//	  return x;
+		// }
+		Set<String> labels = getLabels(loopBody);
+		for (int iteration = 1; iteration < options.getUnrollFactor(); iteration++)
+		{
+			String label = "iteration_" + iteration;
+			while (labels.contains(label))
+				label = label + "_";
+
+			BreakStmt endOfIteration = new BreakStmt(label);
+			List<Statement> iterationStatements = new ArrayList<Statement>();
+			boolean hasFirstLevelReturnOrThrowStatement = copyLoopBody(loopBody, endOfIteration, returnResultArray, iterationStatements);
+
+			BlockStmt iterationBlock = new BlockStmt(iterationStatements);
+			if (containsStatement(iterationBlock, endOfIteration))
+			{
+				methodBody.getStmts().add(new LabeledStmt(label, iterationBlock));
+			}
+			else
+			{
+				methodBody.getStmts().add(iterationBlock);
+
+				if (hasFirstLevelReturnOrThrowStatement)
+				{
+					// The next iterations would be unreachable code.
+					return methodBody;
+				}
+			}
 
-		// The body of the method begins with the code of the loop iteration.
-		List<Statement> loopBodyStatements = new ArrayList<Statement>();
+			Expression condition = loopCondition instanceof EnclosedExpr ? loopCondition : new EnclosedExpr(loopCondition);
+			methodBody.getStmts().add(new IfStmt(new UnaryExpr(condition, UnaryExpr.Operator.not), blockWrapper(returnResultArray), null));
+		}
 
+		// The last iteration of the method makes the recursive call. A nested continue must also stop iterating if the
+		// condition is false, instead of going on with the rest of the body:
+		//
+		// if (c) {
+		//	  if (loopCondition) {
+		//		  return metodo_1(x);
+		//	  }
+		//	  return x;
+		// }
+		List<Statement> continueStatements = new ArrayList<Statement>();
+		continueStatements.add(recursionIf);
+		continueStatements.add(returnResultArray);
+		BlockStmt nextIterationOrReturn = new BlockStmt(continueStatements);
+
+		boolean hasFirstLevelReturnOrThrowStatement = copyLoopBody(loopBody, nextIterationOrReturn, returnResultArray, methodBody.getStmts());
+
+		if (hasFirstLevelReturnOrThrowStatement)
+		{
+			// Since there was a first-level return statement, it makes no
+			// sense to add the rest of the loop statements.
+			// Otherwise, they would be unreachable code.
+			return methodBody;
+		}
+
+		methodBody.getStmts().add(recursionIf);
+		methodBody.getStmts().add(returnResultArray);
+
+		return methodBody;
+	}
+
+	/**
+	 * Copies the statements of an iteration of a loop to the body of the recursive method, with the equivalent
+	 * statements for the continue, break and return statements.
+	 * @param loopBody The instructions executed in the body of the loop.
+	 * @param continueStatementReplacement The statement to replace the continue statements.
+	 * @param returnOrBreakStatementReplacement The statement to replace the break or return statements.
+	 * @param statements Receives the statements copied.
+	 * @return Whether the copy ends with a first-level return or throw statement.
+	 */
+	private static boolean copyLoopBody(BlockStmt loopBody, Statement continueStatementReplacement, Statement returnOrBreakStatementReplacement, List<Statement> statements)
+	{
 		// Clone the loop body inside the method body, to avoid modifying the original.
 		for (Statement stmt : loopBody.getStmts())
 		{
-			Statement equivalentStatement = getEquivalentStatement(stmt, recursionIf, returnResultArray);
+			Statement equivalentStatement = getEquivalentStatement(stmt, continueStatementReplacement, returnOrBreakStatementReplacement);
 
 			if (equivalentStatement == null)
 			{
@@ -480,32 +836,60 @@ public class Visitador extends ModifierVisitorAdapter<Object>
 				break;
 			}
 
-			loopBodyStatements.add(equivalentStatement);
+			statements.add(equivalentStatement);
 
 			if (equivalentStatement instanceof ReturnStmt
 					|| equivalentStatement instanceof ThrowStmt)
 			{
 				// Stop copying statements after this statement, since they would be unreachable.
-				hasFirstLevelReturnOrThrowStatement = true;
-
-				break;
+				return true;
 			}
 		}
 
-		methodBody.getStmts().addAll(loopBodyStatements);
+		return false;
+	}
 
-		if (hasFirstLevelReturnOrThrowStatement)
+	/**
+	 * Checks if a statement built by {@link #getEquivalentStatement} contains another one.
+	 */
+	private static boolean containsStatement(Statement stmt, Statement target)
+	{
+		if (stmt == target)
+			return true;
+
+		if (stmt instanceof BlockStmt)
 		{
-			// Since there was a first-level return statement, it makes no
-			// sense to add the rest of the loop statements.
-			// Otherwise, they would be unreachable code.
-			return methodBody;
+			List<Statement> blockStatements = ((BlockStmt) stmt).getStmts();
+			if (blockStatements != null)
+				for (Statement s : blockStatements)
+					if (containsStatement(s, target))
+						return true;
+		}
+		else if (stmt instanceof IfStmt)
+		{
+			IfStmt ifStmt = (IfStmt) stmt;
+			return containsStatement(ifStmt.getThenStmt(), target) || containsStatement(ifStmt.getElseStmt(), target);
 		}
 
-		methodBody.getStmts().add(recursionIf);
-		methodBody.getStmts().add(returnResultArray);
+		return false;
+	}
 
-		return methodBody;
+	/**
+	 * The labels declared in the body of a loop, which the labels of its unrolled iterations must not hide.
+	 */
+	private static Set<String> getLabels(BlockStmt loopBody)
+	{
+		Set<String> labels = new HashSet<String>();
+
+		loopBody.accept(new VoidVisitorAdapter<Set<String>>() {
+			@Override
+			public void visit(LabeledStmt labeledStmt, Set<String> arg) {
+				arg.add(labeledStmt.getLabel());
+				super.visit(labeledStmt, arg);
+			}
+		}, labels);
+
+		return labels;
 	}
 
 
@@ -607,7 +991,7 @@ public class Visitador extends ModifierVisitorAdapter<Object>
 	// Dada un tipo,
 	// Si es un tipo primitivo, devuelve el wrapper correspondiente
 	// Si es un tipo no primitivo, lo devuelve
-	private Type getWrapper(Type type)
+	static Type getWrapper(Type type)
 	{
 		if (!(type instanceof PrimitiveType))
 			return type;
@@ -644,7 +1028,7 @@ public class Visitador extends ModifierVisitorAdapter<Object>
 	 * The type loop that is being analysed.
 	 *
 	 */
-	private enum LoopType
+	enum LoopType
 	{
 		WHILE,
 		DO_WHILE,
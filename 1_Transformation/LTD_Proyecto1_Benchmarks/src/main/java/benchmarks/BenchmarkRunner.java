@@ -0,0 +1,71 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler and prints, besides the JMH report, the bytes allocated per
+ * thousand source lines of every corpus.
+ * <p>
+ * Usage, from the benchmarks module folder:
+ * <pre>
+ * mvn package
+ * java -jar target/benchmarks.jar [JMH options] [benchmark regexp]
+ * </pre>
+ * The regular JMH command line options are accepted, e.g. {@code -p corpus=ejemplos ParserBenchmark.parse}.
+ */
+public class BenchmarkRunner {
+	private static final String ALLOC_NORM = "gc.alloc.rate.norm";
+
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+		Options options = new OptionsBuilder()
+				.parent(new CommandLineOptions(args))
+				.addProfiler(GCProfiler.class)
+				.build();
+
+		Collection<RunResult> results = new Runner(options).run();
+
+		printAllocationPerKloc(results);
+	}
+
+	/**
+	 * Prints the normalised allocation of the benchmarks that process a whole corpus per operation.
+	 * Per-file benchmarks ({@link ParserBenchmark#parseFile}) are skipped, since their operation is a single file.
+	 */
+	static void printAllocationPerKloc(Collection<RunResult> results) throws IOException {
+		Map<String, Integer> linesPerCorpus = new HashMap<String, Integer>();
+
+		System.out.println();
+		System.out.printf("%-40s %-18s %14s %14s%n", "Benchmark", "Corpus", "B/op", "B/KLOC");
+		for (RunResult result : results) {
+			String benchmark = result.getParams().getBenchmark();
+			String corpus = result.getParams().getParam("corpus");
+			Result alloc = result.getSecondaryResults().get(ALLOC_NORM);
+			if (corpus == null || alloc == null || benchmark.endsWith(".parseFile"))
+				continue;
+
+			Integer lines = linesPerCorpus.get(corpus);
+			if (lines == null) {
+				lines = Corpus.load(corpus).getLines();
+				linesPerCorpus.put(corpus, lines);
+			}
+
+			double bytesPerOp = alloc.getScore();
+			System.out.printf("%-40s %-18s %14.0f %14.0f%n",
+					benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1),
+					corpus, bytesPerOp, bytesPerOp * 1000 / lines);
+		}
+	}
+}
@@ -0,0 +1,190 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A set of Java sources kept in memory, so the benchmarks measure the parser and not the disk.
+ * A corpus is either the example programs of {@code src/Ejemplos} or a generated program.
+ */
+public class Corpus {
+	/** Name of the corpus made with the example programs. */
+	public static final String EJEMPLOS = "ejemplos";
+	/** Prefix of the generated corpora. The suffix is the number of generated methods. */
+	public static final String GENERATED = "generated-";
+
+	private static final String DOT_JAVA = ".java";
+
+	private final String name;
+	private final List<String> fileNames;
+	private final List<byte[]> sources;
+	private final int lines;
+
+	private Corpus(String name, List<String> fileNames, List<byte[]> sources) {
+		this.name = name;
+		this.fileNames = fileNames;
+		this.sources = sources;
+
+		int lines = 0;
+		for (byte[] source : sources)
+			lines += countLines(source);
+		this.lines = lines;
+	}
+
+	/**
+	 * Loads a corpus by name.
+	 * @param name {@link #EJEMPLOS} or {@link #GENERATED} followed by the number of methods.
+	 * @return The corpus.
+	 */
+	public static Corpus load(String name) throws IOException {
+		if (name.equals(EJEMPLOS))
+			return ejemplos(ejemplosFolder());
+		if (name.startsWith(GENERATED))
+			return generated(Integer.parseInt(name.substring(GENERATED.length())));
+		throw new IllegalArgumentException("Unknown corpus: " + name);
+	}
+
+	/**
+	 * The folder with the example programs. It can be changed with the {@code corpus.dir} system property.
+	 * By default the benchmarks are expected to be run from the benchmarks module folder.
+	 */
+	public static File ejemplosFolder() {
+		return new File(System.getProperty("corpus.dir", "../LTD_Proyecto1_Alumnos/src/Ejemplos"));
+	}
+
+	/** Reads every Java file under the given folder. */
+	public static Corpus ejemplos(File folder) throws IOException {
+		List<File> files = new ArrayList<File>();
+		findJavaFiles(folder, files);
+		if (files.isEmpty())
+			throw new IOException("No Java files found in " + folder.getAbsolutePath());
+
+		List<String> fileNames = new ArrayList<String>();
+		List<byte[]> sources = new ArrayList<byte[]>();
+		for (File file : files) {
+			fileNames.add(file.getPath());
+			sources.add(Files.readAllBytes(file.toPath()));
+		}
+		return new Corpus(EJEMPLOS, fileNames, sources);
+	}
+
+	/** Generates a single compilation unit with the given number of loop-heavy methods. */
+	public static Corpus generated(int methods) {
+		String source = generateSource("Generated", methods);
+		return new Corpus(GENERATED + methods,
+				Collections.singletonList("Generated" + DOT_JAVA),
+				Collections.singletonList(source.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	/**
+	 * Builds a class whose methods mix the loop shapes found in the examples (while, do-while, for, foreach,
+	 * break and return inside loops), so the generated code exercises the same grammar rules.
+	 * @param className The name of the class.
+	 * @param methods   The number of methods.
+	 * @return The source code of the class.
+	 */
+	public static String generateSource(String className, int methods) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("package generated;\n\n");
+		sb.append("public class ").append(className).append(" {\n\n");
+		sb.append("\tpublic static void main(String[] args) {\n");
+		for (int i = 0; i < methods; i++)
+			sb.append("\t\tSystem.out.println(metodo").append(i).append("(").append(i % 13).append("));\n");
+		sb.append("\t}\n");
+		for (int i = 0; i < methods; i++) {
+			sb.append("\n\t/* Generated method ").append(i).append(" */\n");
+			sb.append("\tstatic int metodo").append(i).append("(int n) {\n");
+			sb.append("\t\tint x = 0;\n");
+			sb.append("\t\tint[] datos = new int[] { 1, 2, 3, ").append(i).append(" };\n");
+			switch (i % 4) {
+			case 0:
+				sb.append("\t\twhile (x < n) {\n");
+				sb.append("\t\t\tx += datos[x % datos.length];\n");
+				sb.append("\t\t}\n");
+				break;
+			case 1:
+				sb.append("\t\tdo {\n");
+				sb.append("\t\t\tx++;\n");
+				sb.append("\t\t\tif (x > 100) break;\n");
+				sb.append("\t\t} while (x < n);\n");
+				break;
+			case 2:
+				sb.append("\t\tfor (int i = 0; i < n; i++) {\n");
+				sb.append("\t\t\tif (i % 2 == 0) continue;\n");
+				sb.append("\t\t\tx = x * 2 + i;\n");
+				sb.append("\t\t}\n");
+				break;
+			default:
+				sb.append("\t\tfor (int dato : datos) {\n");
+				sb.append("\t\t\tif (dato == n) return dato;\n");
+				sb.append("\t\t\tx = x + dato;\n");
+				sb.append("\t\t}\n");
+				break;
+			}
+			sb.append("\t\tString s = \"x = \" + x;\n");
+			sb.append("\t\treturn s.length() > 3 ? x : -x;\n");
+			sb.append("\t}\n");
+		}
+		sb.append("}\n");
+		return sb.toString();
+	}
+
+	private static void findJavaFiles(File file, List<File> res) {
+		if (file.isDirectory()) {
+			String[] children = file.list();
+			if (children == null)
+				return;
+			// Sorted so every run benchmarks the same order.
+			Arrays.sort(children);
+			for (String child : children)
+				findJavaFiles(new File(file, child), res);
+		} else if (file.getName().endsWith(DOT_JAVA)) {
+			res.add(file);
+		}
+	}
+
+	private static int countLines(byte[] source) {
+		int lines = 0;
+		for (byte b : source)
+			if (b == '\n')
+				lines++;
+		if (source.length > 0 && source[source.length - 1] != '\n')
+			lines++;
+		return lines;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public List<String> getFileNames() {
+		return fileNames;
+	}
+
+	public List<byte[]> getSources() {
+		return sources;
+	}
+
+	public int size() {
+		return sources.size();
+	}
+
+	/** Total number of source lines in the corpus. */
+	public int getLines() {
+		return lines;
+	}
+
+	/** Total number of source bytes in the corpus. */
+	public long getBytes() {
+		long bytes = 0;
+		for (byte[] source : sources)
+			bytes += source.length;
+		return bytes;
+	}
+}
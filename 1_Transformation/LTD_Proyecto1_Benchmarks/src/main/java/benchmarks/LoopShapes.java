@@ -0,0 +1,89 @@
+package benchmarks;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Small programs with a single loop of each shape the transformation handles, whose number of iterations is given
+ * by the first argument of {@code main}. They complement the examples of {@code src/Ejemplos}, whose sizes are fixed,
+ * so the cost of every shape can be measured as the input grows.
+ */
+public class LoopShapes {
+	/** Package of the generated programs. */
+	public static final String PACKAGE = "shapes";
+
+	/** The loop of every shape, reading {@code n} and {@code datos} (with {@code n} elements) and updating {@code x}. */
+	private static final Map<String, String> LOOPS = new LinkedHashMap<String, String>();
+
+	static {
+		LOOPS.put("while",
+				"\t\tint i = 0;\n" +
+				"\t\twhile (i < n) {\n" +
+				"\t\t\tx += datos[i] % 7;\n" +
+				"\t\t\ti++;\n" +
+				"\t\t}\n");
+		LOOPS.put("for",
+				"\t\tfor (int i = 0; i < n; i++) {\n" +
+				"\t\t\tx = x * 31 + datos[i];\n" +
+				"\t\t}\n");
+		LOOPS.put("foreach",
+				"\t\tfor (int dato : datos) {\n" +
+				"\t\t\tx += dato;\n" +
+				"\t\t}\n");
+		LOOPS.put("dowhile",
+				"\t\tint i = 0;\n" +
+				"\t\tdo {\n" +
+				"\t\t\tx ^= datos[i];\n" +
+				"\t\t\ti++;\n" +
+				"\t\t} while (i < n);\n");
+		LOOPS.put("break",
+				"\t\tfor (int i = 0; i < n; i++) {\n" +
+				"\t\t\tif (datos[i] == n) break;\n" +
+				"\t\t\tx += datos[i];\n" +
+				"\t\t}\n");
+		LOOPS.put("return",
+				"\t\tfor (int i = 0; i < n; i++) {\n" +
+				"\t\t\tif (datos[i] < 0) return -1;\n" +
+				"\t\t\tx += datos[i];\n" +
+				"\t\t}\n");
+	}
+
+	/** The names of the shapes. */
+	public static Iterable<String> names() {
+		return LOOPS.keySet();
+	}
+
+	/** The binary name of the class of a shape. */
+	public static String className(String shape) {
+		return PACKAGE + ".Shape_" + shape;
+	}
+
+	/**
+	 * Builds the program of a shape. Its {@code main} builds an array with {@code n} random values and prints the
+	 * result of the loop, so the original and the transformed program can be compared.
+	 * @param shape One of {@link #names()}.
+	 * @return The source code of the program.
+	 */
+	public static String generateSource(String shape) {
+		String loop = LOOPS.get(shape);
+		if (loop == null)
+			throw new IllegalArgumentException("Unknown loop shape: " + shape);
+
+		StringBuilder sb = new StringBuilder();
+		sb.append("package ").append(PACKAGE).append(";\n\n");
+		sb.append("public class Shape_").append(shape).append(" {\n\n");
+		sb.append("\tpublic static void main(String[] args) {\n");
+		sb.append("\t\tint n = Integer.parseInt(args[0]);\n");
+		// Without a loop, which would be transformed as well.
+		sb.append("\t\tint[] datos = new java.util.Random(42).ints(n, 0, 100).toArray();\n");
+		sb.append("\t\tSystem.out.println(loop(n, datos));\n");
+		sb.append("\t}\n\n");
+		sb.append("\tstatic int loop(int n, int[] datos) {\n");
+		sb.append("\t\tint x = 0;\n");
+		sb.append(loop);
+		sb.append("\t\treturn x;\n");
+		sb.append("\t}\n");
+		sb.append("}\n");
+		return sb.toString();
+	}
+}
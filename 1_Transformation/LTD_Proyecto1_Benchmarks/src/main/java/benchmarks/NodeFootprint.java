@@ -0,0 +1,58 @@
+package benchmarks;
+
+import japa.parser.JavaParser;
+import japa.parser.ParseException;
+import japa.parser.ast.CompilationUnit;
+import japa.parser.ast.Node;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.info.GraphLayout;
+
+/**
+ * Measures the heap taken by the ASTs of a {@link Corpus}: the whole object graph reachable from the
+ * compilation units and, within it, the {@link Node} objects alone.
+ * <p>
+ * Usage, from the benchmarks module folder:
+ * <pre>
+ * mvn package
+ * java -Djdk.attach.allowAttachSelf -cp target/benchmarks.jar benchmarks.NodeFootprint [corpus...]
+ * </pre>
+ * The corpus names are the ones of {@link Corpus#load}; by default {@code ejemplos}.
+ */
+public class NodeFootprint {
+
+	public static void main(String[] args) throws IOException, ParseException {
+		if (args.length == 0)
+			args = new String[] { Corpus.EJEMPLOS };
+
+		System.out.println(ClassLayout.parseClass(Node.class).toPrintable());
+		System.out.printf("%-18s %10s %14s %14s %14s %12s%n",
+				"Corpus", "Nodes", "Node bytes", "AST bytes", "B/node", "AST B/node");
+		for (String name : args)
+			measure(Corpus.load(name));
+	}
+
+	static void measure(Corpus corpus) throws ParseException {
+		List<CompilationUnit> units = new ArrayList<CompilationUnit>();
+		for (byte[] source : corpus.getSources())
+			units.add(JavaParser.parse(new ByteArrayInputStream(source)));
+
+		GraphLayout layout = GraphLayout.parseInstance(units.toArray());
+		long nodes = 0;
+		long nodeBytes = 0;
+		for (Class<?> klass : layout.getClasses()) {
+			if (Node.class.isAssignableFrom(klass)) {
+				nodes += layout.getClassCounts().count(klass);
+				nodeBytes += layout.getClassSizes().count(klass);
+			}
+		}
+
+		System.out.printf("%-18s %10d %14d %14d %14.1f %12.1f%n", corpus.getName(), nodes, nodeBytes,
+				layout.totalSize(), (double) nodeBytes / nodes, (double) layout.totalSize() / nodes);
+	}
+}
@@ -0,0 +1,340 @@
+package benchmarks;
+
+import japa.parser.JavaParser;
+import japa.parser.ParseException;
+import japa.parser.ast.CompilationUnit;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import transformador.MemoryCompiler;
+import transformador.ProgramRunner;
+import transformador.TransformOptions;
+import transformador.Transformador;
+
+/**
+ * Measures what the transformation costs at runtime: every example of {@code src/Ejemplos}, and every loop shape of
+ * {@link LoopShapes} with several input sizes, is run before and after the transformation, and a table with the time
+ * per run of {@code main}, the allocation and the maximum depth of the calls is printed for each one.
+ * <p>
+ * The measurement follows JMH: several warmup iterations and then several measured iterations of a fixed time, each
+ * one running {@code main} as many times as it can. The programs are compiled in memory and loaded in their own class
+ * loader (see {@link MemoryCompiler}), and their output is discarded while they are measured. Before that, both
+ * versions are run once with {@link ProgramRunner} to check that they print the same, and the examples that do not
+ * end are skipped. The allocation is read from the thread MXBean, and the maximum depth from an instrumented copy of
+ * the program (see {@link StackDepthProbe}). Unlike JMH, every program runs in the same JVM, so the longer the
+ * iterations the more stable the numbers.
+ * <p>
+ * Usage, from the benchmarks module folder:
+ * <pre>
+ * mvn package
+ * java -cp target/benchmarks.jar benchmarks.OverheadRunner [options] [regexp]
+ * </pre>
+ * The options are {@code -wi=N} warmup iterations (3), {@code -i=N} measured iterations (5), {@code -r=ms} time of
+ * an iteration (200), {@code -sizes=N,N...} sizes of the loop shapes (10,100,1000) and {@code -csv=file} to write
+ * the summary as CSV too; any other option is an option of the transformation (see {@link TransformOptions#parse}).
+ * Only the programs whose name matches the regular expression are measured, e.g. {@code shape/for} or {@code Easy}.
+ */
+public class OverheadRunner {
+	/** The time the programs may take in the output check. */
+	private static final long CHECK_TIMEOUT_MILLIS = 5000;
+	private static final String ORIGINAL = "original";
+	private static final String TRANSFORMED = "transformed";
+	/** The standard output and error of the programs while they are measured. */
+	private static final PrintStream DISCARD = new PrintStream(new OutputStream() {
+		@Override
+		public void write(int b) {
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+		}
+	});
+
+	private int warmupIterations = 3;
+	private int iterations = 5;
+	private long iterationMillis = 200;
+	private int[] sizes = { 10, 100, 1000 };
+	private File csv;
+	private Pattern filter;
+	private final TransformOptions options = new TransformOptions();
+
+	private final MemoryCompiler compiler = new MemoryCompiler();
+	private final ProgramRunner runner = new ProgramRunner(CHECK_TIMEOUT_MILLIS);
+	private final List<String> summary = new ArrayList<String>();
+
+	public static void main(String[] args) throws IOException, ParseException, ReflectiveOperationException, InterruptedException {
+		OverheadRunner overheadRunner = new OverheadRunner();
+		for (String arg : args)
+			overheadRunner.parseOption(arg);
+		overheadRunner.run();
+	}
+
+	private void parseOption(String arg) {
+		if (arg.startsWith("-wi="))
+			warmupIterations = Integer.parseInt(arg.substring("-wi=".length()));
+		else if (arg.startsWith("-i="))
+			iterations = Integer.parseInt(arg.substring("-i=".length()));
+		else if (arg.startsWith("-r="))
+			iterationMillis = Long.parseLong(arg.substring("-r=".length()));
+		else if (arg.startsWith("-sizes=")) {
+			String[] values = arg.substring("-sizes=".length()).split(",");
+			sizes = new int[values.length];
+			for (int i = 0; i < values.length; i++)
+				sizes[i] = Integer.parseInt(values[i].trim());
+		} else if (arg.startsWith("-csv="))
+			csv = new File(arg.substring("-csv=".length()));
+		else if (arg.startsWith("-"))
+			options.parse(arg);
+		else
+			filter = Pattern.compile(arg);
+	}
+
+	/** A program to measure with the arguments of its {@code main}. */
+	private static class Program {
+		final String name;
+		final String source;
+		final String size;
+		final String[] args;
+
+		Program(String name, String source, String size, String... args) {
+			this.name = name;
+			this.source = source;
+			this.size = size;
+			this.args = args;
+		}
+	}
+
+	/** The measurement of one version of a program. */
+	private static class Measure {
+		double nanosPerOp;
+		double nanosError;
+		double bytesPerOp;
+		int maxDepth;
+		String failure;
+	}
+
+	private void run() throws IOException, ParseException, ReflectiveOperationException, InterruptedException {
+		List<Program> programs = new ArrayList<Program>();
+		Corpus ejemplos = Corpus.ejemplos(Corpus.ejemplosFolder());
+		String root = Corpus.ejemplosFolder().getPath() + File.separator;
+		for (int i = 0; i < ejemplos.size(); i++) {
+			String fileName = ejemplos.getFileNames().get(i);
+			String name = "Ejemplos/" + fileName.substring(root.length(), fileName.length() - ".java".length()).replace(File.separatorChar, '/');
+			programs.add(new Program(name, new String(ejemplos.getSources().get(i), Charset.defaultCharset()), "-"));
+		}
+		for (String shape : LoopShapes.names())
+			for (int size : sizes)
+				programs.add(new Program("shape/" + shape, LoopShapes.generateSource(shape), String.valueOf(size), String.valueOf(size)));
+
+		System.out.printf("Transformation options: %s; %d warmup and %d measured iterations of %d ms%n",
+				options, warmupIterations, iterations, iterationMillis);
+		String previous = null;
+		for (Program program : programs) {
+			if (filter != null && !filter.matcher(program.name).find())
+				continue;
+			if (!program.name.equals(previous)) {
+				System.out.printf("%n%s%n%6s  %-12s %14s %12s %14s %14s %10s  %s%n", program.name,
+						"size", "variant", "time/op (us)", "stddev", "alloc (B/op)", "alloc (MB/s)", "max depth", "check");
+				previous = program.name;
+			}
+			measure(program);
+		}
+
+		printSummary();
+	}
+
+	private void measure(Program program) throws ParseException, ReflectiveOperationException, InterruptedException {
+		CompilationUnit cu = parse(program.source);
+		String packageName = cu.getPackage() == null ? null : cu.getPackage().getName().toString();
+		String simpleName = cu.getTypes().get(0).getName();
+		String className = packageName == null ? simpleName : packageName + "." + simpleName;
+
+		CompilationUnit transformedCu = parse(program.source);
+		Transformador.transform(transformedCu, options);
+		String transformedSource = transformedCu.toString();
+
+		MemoryCompiler.Compilation original = compiler.compile(className, program.source);
+		MemoryCompiler.Compilation transformed = compiler.compile(className, transformedSource);
+		if (!original.isSuccess() || !transformed.isSuccess()) {
+			printFailure(program, !original.isSuccess() ? "the original program does not compile" : "the transformed program does not compile");
+			return;
+		}
+
+		ProgramRunner.Execution originalRun = runner.run(original, className, program.args);
+		ProgramRunner.Execution transformedRun = runner.run(transformed, className, program.args);
+		if (originalRun.isTimedOut() || transformedRun.isTimedOut()) {
+			printFailure(program, (originalRun.isTimedOut() ? ORIGINAL : TRANSFORMED) + " program out of time");
+			return;
+		}
+		boolean same = originalRun.getOut().equals(transformedRun.getOut())
+				&& originalRun.getErr().equals(transformedRun.getErr())
+				&& originalRun.getStatus() == transformedRun.getStatus();
+		String check = same ? "same output" : "OUTPUT DIFFERS";
+
+		Measure before = measure(original, className, program.args);
+		before.maxDepth = maxDepth(parse(program.source), className, packageName, program.args);
+		Measure after = measure(transformed, className, program.args);
+		after.maxDepth = maxDepth(transformedCu, className, packageName, program.args);
+
+		printRow(program.size, ORIGINAL, before, check);
+		printRow(program.size, TRANSFORMED, after, check);
+		if (before.failure == null && after.failure == null) {
+			double timeRatio = after.nanosPerOp / before.nanosPerOp;
+			long bytesDelta = Math.round(after.bytesPerOp) - Math.round(before.bytesPerOp);
+			System.out.printf(Locale.ROOT, "%6s  %-12s %13.2fx %12s %+14d %14s %+10d%n",
+					program.size, "overhead", timeRatio, "", bytesDelta, "", after.maxDepth - before.maxDepth);
+			summary.add(String.format(Locale.ROOT, "%s,%s,%.3f,%.3f,%.2f,%.0f,%.0f,%d,%d,%s", program.name, program.size,
+					before.nanosPerOp / 1000, after.nanosPerOp / 1000, timeRatio, before.bytesPerOp, after.bytesPerOp,
+					before.maxDepth, after.maxDepth, same ? "same" : "differs"));
+		}
+	}
+
+	/** Runs the warmup and the measured iterations of a version of a program, with its output discarded. */
+	private Measure measure(MemoryCompiler.Compilation program, String className, String[] args) throws ReflectiveOperationException {
+		Method main = Class.forName(className, true, program.newClassLoader()).getMethod("main", String[].class);
+		Measure measure = new Measure();
+		double[] nanosPerOp = new double[iterations];
+		double bytes = 0;
+		long totalNanos = 0;
+		long ops = 0;
+
+		PrintStream out = System.out;
+		PrintStream err = System.err;
+		System.setOut(DISCARD);
+		System.setErr(DISCARD);
+		try {
+			for (int i = 0; i < warmupIterations; i++)
+				iteration(main, args);
+			for (int i = 0; i < iterations; i++) {
+				long startBytes = allocatedBytes();
+				long[] iteration = iteration(main, args);
+				bytes += allocatedBytes() - startBytes;
+				nanosPerOp[i] = (double) iteration[0] / iteration[1];
+				totalNanos += iteration[0];
+				ops += iteration[1];
+			}
+		} catch (StackOverflowError e) {
+			measure.failure = "StackOverflowError";
+			return measure;
+		} finally {
+			System.setOut(out);
+			System.setErr(err);
+		}
+
+		measure.nanosPerOp = (double) totalNanos / ops;
+		double variance = 0;
+		for (double value : nanosPerOp)
+			variance += (value - measure.nanosPerOp) * (value - measure.nanosPerOp);
+		measure.nanosError = iterations > 1 ? Math.sqrt(variance / (iterations - 1)) : 0;
+		measure.bytesPerOp = bytes / ops;
+		return measure;
+	}
+
+	/**
+	 * Runs {@code main} for {@link #iterationMillis}.
+	 * @return The nanoseconds and the number of runs.
+	 */
+	private long[] iteration(Method main, String[] args) throws IllegalAccessException {
+		long start = System.nanoTime();
+		long end = start + iterationMillis * 1000000;
+		long ops = 0;
+		long now;
+		do {
+			try {
+				// A copy, since main may change its arguments.
+				main.invoke(null, (Object) args.clone());
+			} catch (InvocationTargetException e) {
+				// A program that ends with an exception is measured as well, unless its stack overflows.
+				if (e.getCause() instanceof StackOverflowError)
+					throw (StackOverflowError) e.getCause();
+			}
+			ops++;
+			now = System.nanoTime();
+		} while (now < end);
+		return new long[] { now - start, ops };
+	}
+
+	/** Runs an instrumented copy of a program once and reads the maximum depth of its calls, or -1 if it overflows. */
+	private int maxDepth(CompilationUnit cu, String className, String packageName, String[] args) throws ReflectiveOperationException {
+		MemoryCompiler.Compilation instrumented = compiler.compile(className, StackDepthProbe.instrument(cu));
+		if (!instrumented.isSuccess())
+			throw new IllegalStateException("The instrumented program " + className + " does not compile:\n" + instrumented.getDiagnostics());
+
+		ClassLoader loader = instrumented.newClassLoader();
+		Method main = Class.forName(className, true, loader).getMethod("main", String[].class);
+		PrintStream out = System.out;
+		PrintStream err = System.err;
+		System.setOut(DISCARD);
+		System.setErr(DISCARD);
+		try {
+			main.invoke(null, (Object) args.clone());
+		} catch (InvocationTargetException e) {
+			if (e.getCause() instanceof StackOverflowError)
+				return -1;
+		} finally {
+			System.setOut(out);
+			System.setErr(err);
+		}
+		return StackDepthProbe.readMaxDepth(loader, packageName);
+	}
+
+	private static long allocatedBytes() {
+		return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	private static CompilationUnit parse(String source) throws ParseException {
+		return JavaParser.parse(new ByteArrayInputStream(source.getBytes(Charset.defaultCharset())));
+	}
+
+	private static void printRow(String size, String variant, Measure measure, String check) {
+		String depth = measure.maxDepth < 0 ? "overflow" : String.valueOf(measure.maxDepth);
+		if (measure.failure != null) {
+			System.out.printf("%6s  %-12s %14s %12s %14s %14s %10s  %s%n", size, variant, measure.failure, "", "", "", depth, check);
+			return;
+		}
+		double megabytesPerSecond = measure.bytesPerOp / measure.nanosPerOp * 1e9 / (1024 * 1024);
+		System.out.printf(Locale.ROOT, "%6s  %-12s %14.3f %12.3f %14.0f %14.1f %10s  %s%n", size, variant,
+				measure.nanosPerOp / 1000, measure.nanosError / 1000, measure.bytesPerOp, megabytesPerSecond, depth, check);
+	}
+
+	private static void printFailure(Program program, String failure) {
+		System.out.printf("%6s  skipped: %s%n", program.size, failure);
+	}
+
+	/** Prints the overhead of every program in a single table, and writes it to the CSV file if there is one. */
+	private void printSummary() throws IOException {
+		String header = "program,size,original_us,transformed_us,time_ratio,original_bytes,transformed_bytes,original_depth,transformed_depth,check";
+		System.out.printf("%nSummary%n%-40s %6s %10s %14s %14s%n", "Program", "Size", "Time", "Alloc (B/op)", "Max depth");
+		for (String line : summary) {
+			String[] columns = line.split(",");
+			System.out.printf("%-40s %6s %9sx %6s->%-7s %6s->%-7s %s%n", columns[0], columns[1], columns[4],
+					columns[5], columns[6], columns[7], columns[8], columns[9].equals("same") ? "" : "OUTPUT DIFFERS");
+		}
+
+		if (csv != null) {
+			PrintWriter writer = new PrintWriter(new FileWriter(csv));
+			try {
+				writer.println(header);
+				for (String line : summary)
+					writer.println(line);
+			} finally {
+				writer.close();
+			}
+			System.out.println("Summary written to " + csv.getPath());
+		}
+	}
+}
@@ -0,0 +1,158 @@
+package benchmarks;
+
+import japa.parser.ASTParserConstants;
+import japa.parser.ASTParserTokenManager;
+import japa.parser.JavaCharStream;
+import japa.parser.JavaParser;
+import japa.parser.MappedJavaCharStream;
+import japa.parser.ParseException;
+import japa.parser.ParserPool;
+import japa.parser.Token;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link JavaParser#parse(java.io.InputStream)} over a whole {@link Corpus}, and splits the cost
+ * between its layers: {@link JavaCharStream} alone ({@link #readChars}), the token manager on top of it
+ * ({@link #lex}) and the full parser building the AST ({@link #parse}). The parser cost is
+ * {@code parse - lex} and the lexer cost is {@code lex - readChars}.
+ * <p>
+ * One operation processes every file of the corpus, so the normalised allocation reported by the GC profiler
+ * ({@code gc.alloc.rate.norm}) is the allocation of the whole corpus; {@link BenchmarkRunner} divides it by the
+ * lines of the corpus. {@link #parseFile} parses a single file per operation to sample the per-file latency.
+ * <p>
+ * The {@code *Mapped} benchmarks do the same work over a {@link MappedJavaCharStream} built from the already
+ * decoded text, to compare both char streams without the cost of reading the files.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+	@Param({ Corpus.EJEMPLOS, Corpus.GENERATED + "100", Corpus.GENERATED + "1000" })
+	public String corpus;
+
+	private List<byte[]> sources;
+
+	private List<CharBuffer> decoded;
+
+	private final ParserPool pool = new ParserPool(1);
+
+	private int next;
+
+	@Setup(Level.Trial)
+	public void loadCorpus() throws IOException {
+		this.sources = Corpus.load(this.corpus).getSources();
+		this.decoded = new ArrayList<CharBuffer>();
+		for (byte[] source : this.sources)
+			this.decoded.add(Charset.defaultCharset().decode(ByteBuffer.wrap(source)));
+		this.next = 0;
+	}
+
+	/** Full parse of every file: char stream, token manager and AST construction. */
+	@Benchmark
+	public void parse(Blackhole bh) throws ParseException {
+		for (byte[] source : this.sources)
+			bh.consume(JavaParser.parse(new ByteArrayInputStream(source)));
+	}
+
+	/** Tokenizes every file without building the AST. */
+	@Benchmark
+	public void lex(Blackhole bh) throws IOException {
+		for (byte[] source : this.sources) {
+			ASTParserTokenManager tokenManager = new ASTParserTokenManager(
+					new JavaCharStream(new ByteArrayInputStream(source), null, 1, 1));
+			Token token;
+			do {
+				token = tokenManager.getNextToken();
+				bh.consume(token);
+			} while (token.kind != ASTParserConstants.EOF);
+		}
+	}
+
+	/** Reads every character of every file, unicode escapes and line/column bookkeeping included. */
+	@Benchmark
+	public void readChars(Blackhole bh) throws IOException {
+		for (byte[] source : this.sources) {
+			JavaCharStream stream = new JavaCharStream(new ByteArrayInputStream(source), null, 1, 1);
+			try {
+				while (true) {
+					bh.consume(stream.BeginToken());
+					bh.consume(stream.getEndLine());
+				}
+			} catch (IOException endOfStream) {
+				// JavaCharStream signals the end of the input with an IOException.
+			}
+		}
+	}
+
+	/** Full parse of every file through a {@link MappedJavaCharStream}. */
+	@Benchmark
+	public void parseMapped(Blackhole bh) throws ParseException {
+		for (CharBuffer source : this.decoded)
+			bh.consume(this.pool.parse(new MappedJavaCharStream(source.array(), source.limit())));
+	}
+
+	/** Tokenizes every file through a {@link MappedJavaCharStream}. */
+	@Benchmark
+	public void lexMapped(Blackhole bh) {
+		for (CharBuffer source : this.decoded) {
+			ASTParserTokenManager tokenManager = new ASTParserTokenManager(
+					new MappedJavaCharStream(source.array(), source.limit()));
+			Token token;
+			do {
+				token = tokenManager.getNextToken();
+				bh.consume(token);
+			} while (token.kind != ASTParserConstants.EOF);
+		}
+	}
+
+	/** Reads every character of every file through a {@link MappedJavaCharStream}. */
+	@Benchmark
+	public void readCharsMapped(Blackhole bh) {
+		for (CharBuffer source : this.decoded) {
+			JavaCharStream stream = new MappedJavaCharStream(source.array(), source.limit());
+			try {
+				while (true) {
+					bh.consume(stream.BeginToken());
+					bh.consume(stream.getEndLine());
+				}
+			} catch (IOException endOfStream) {
+				// End of the input.
+			}
+		}
+	}
+
+	/** Parses one file per operation, cycling through the corpus, to sample the per-file latency. */
+	@Benchmark
+	@BenchmarkMode(Mode.SampleTime)
+	public Object parseFile() throws ParseException {
+		byte[] source = this.sources.get(this.next);
+		this.next = (this.next + 1) % this.sources.size();
+		return JavaParser.parse(new ByteArrayInputStream(source));
+	}
+}
@@ -0,0 +1,88 @@
+package benchmarks;
+
+import japa.parser.ast.CompilationUnit;
+import japa.parser.ast.Node;
+import japa.parser.ast.body.MethodDeclaration;
+import japa.parser.ast.expr.MethodCallExpr;
+import japa.parser.ast.expr.NameExpr;
+import japa.parser.ast.stmt.BlockStmt;
+import japa.parser.ast.stmt.ExpressionStmt;
+import japa.parser.ast.stmt.Statement;
+import japa.parser.ast.stmt.TryStmt;
+import japa.parser.ast.visitor.ModifierVisitorAdapter;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Instruments a program to measure the maximum depth of its calls. Every method body becomes
+ * <pre>
+ * { StackProbe__.enter(); try { body } finally { StackProbe__.exit(); } }
+ * </pre>
+ * and a class {@code StackProbe__} that keeps the depth of every thread and the maximum of all of them is added to
+ * the package of the program. The depth only counts the methods of the program, so {@code main} alone is 1.
+ * <p>
+ * The instrumented program is only run to read the depth: the probe is too slow to measure its time.
+ */
+public class StackDepthProbe extends ModifierVisitorAdapter<Object> {
+	/** The name of the class added to the program. */
+	public static final String PROBE_CLASS = "StackProbe__";
+
+	private static final String PROBE_SOURCE = "\n" +
+			"class " + PROBE_CLASS + " {\n" +
+			"    static final ThreadLocal<int[]> DEPTH = new ThreadLocal<int[]>() {\n" +
+			"        protected int[] initialValue() { return new int[1]; }\n" +
+			"    };\n" +
+			"    static int max;\n" +
+			"    static void enter() {\n" +
+			"        int depth = ++DEPTH.get()[0];\n" +
+			"        synchronized (" + PROBE_CLASS + ".class) { if (depth > max) max = depth; }\n" +
+			"    }\n" +
+			"    static void exit() { DEPTH.get()[0]--; }\n" +
+			"}\n";
+
+	/**
+	 * Instruments a compilation unit, which is modified.
+	 * @return The source code of the instrumented program, with the probe class.
+	 */
+	public static String instrument(CompilationUnit cu) {
+		new StackDepthProbe().visit(cu, null);
+		return cu.toString() + PROBE_SOURCE;
+	}
+
+	/**
+	 * Reads the maximum depth reached by an instrumented program.
+	 * @param loader The class loader that ran the program.
+	 * @param packageName The package of the program, or {@code null} for the default package.
+	 */
+	public static int readMaxDepth(ClassLoader loader, String packageName) throws ReflectiveOperationException {
+		String name = packageName == null ? PROBE_CLASS : packageName + "." + PROBE_CLASS;
+		Field max = Class.forName(name, true, loader).getDeclaredField("max");
+		max.setAccessible(true);
+		return max.getInt(null);
+	}
+
+	@Override
+	public Node visit(MethodDeclaration methodDeclaration, Object arg) {
+		// The methods of the local and anonymous classes of the body are instrumented first.
+		super.visit(methodDeclaration, arg);
+
+		BlockStmt body = methodDeclaration.getBody();
+		if (body == null)
+			return methodDeclaration;
+
+		List<Statement> exit = new ArrayList<Statement>();
+		exit.add(call("exit"));
+		List<Statement> statements = new ArrayList<Statement>();
+		statements.add(call("enter"));
+		statements.add(new TryStmt(body, null, new BlockStmt(exit)));
+		methodDeclaration.setBody(new BlockStmt(statements));
+
+		return methodDeclaration;
+	}
+
+	private static Statement call(String method) {
+		return new ExpressionStmt(new MethodCallExpr(new NameExpr(PROBE_CLASS), method));
+	}
+}
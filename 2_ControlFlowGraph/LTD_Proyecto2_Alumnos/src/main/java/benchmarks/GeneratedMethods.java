@@ -0,0 +1,124 @@
+package benchmarks;
+
+import java.util.Random;
+
+/**
+ * Generates classes with a single large method, to measure the analyses of the dependence graphs on
+ * sizes the examples of {@code ejemplos} do not reach. The method mixes assignments between a few
+ * variables with ifs, whiles and fors nested a few levels, so its dependence graph has long chains
+ * of data dependences, cycles in the loops and many shared sub-slices.
+ */
+public class GeneratedMethods {
+	// The number of variables of the method, and how deep the statements can be nested.
+	private static final int VARIABLES = 12;
+	private static final int MAX_DEPTH = 4;
+
+	private final Random random;
+
+	private final StringBuilder source = new StringBuilder();
+
+	private int statements;
+
+	private int loops;
+
+	private GeneratedMethods(long seed) {
+		this.random = new Random(seed);
+	}
+
+	/**
+	 * Generates the source code of a class with a method of about the given number of statements.
+	 * The same size and seed always generate the same method.
+	 * @param size The number of statements.
+	 * @param seed The seed of the random choices.
+	 * @return The source code.
+	 */
+	public static String generateSource(int size, long seed) {
+		GeneratedMethods generator = new GeneratedMethods(seed);
+
+		return generator.generate(size);
+	}
+
+	private String generate(int size) {
+		this.source.append("public class Generated {\n\n");
+		this.source.append("\tstatic int method(int n) {\n");
+
+		for (int v = 0; v < VARIABLES; v++)
+		{
+			this.source.append("\t\tint v").append(v).append(" = n + ").append(v).append(";\n");
+		}
+
+		while (this.statements < size)
+		{
+			statement(2, size);
+		}
+
+		this.source.append("\t\treturn v0");
+
+		for (int v = 1; v < VARIABLES; v++)
+		{
+			this.source.append(" + v").append(v);
+		}
+
+		this.source.append(";\n\t}\n}\n");
+
+		return this.source.toString();
+	}
+
+	private void statement(int depth, int size) {
+		this.statements++;
+
+		int choice = depth - 2 < MAX_DEPTH ? this.random.nextInt(10) : 0;
+
+		if (choice < 6)
+		{
+			indent(depth).append(variable()).append(" = ").append(variable()).append(" + ").append(variable()).append(";\n");
+		}
+		else if (choice < 8)
+		{
+			indent(depth).append("if (").append(variable()).append(" > ").append(variable()).append(") {\n");
+			block(depth + 1, size);
+			indent(depth).append("}\n");
+		}
+		else if (choice < 9)
+		{
+			String counter = "w" + this.loops++;
+
+			indent(depth).append("int ").append(counter).append(" = 0;\n");
+			indent(depth).append("while (").append(counter).append(" < ").append(variable()).append(") {\n");
+			block(depth + 1, size);
+			indent(depth + 1).append(counter).append("++;\n");
+			indent(depth).append("}\n");
+		}
+		else
+		{
+			String counter = "i" + this.loops++;
+
+			indent(depth).append("for (int ").append(counter).append(" = 0; ").append(counter).append(" < n; ")
+				.append(counter).append("++) {\n");
+			block(depth + 1, size);
+			indent(depth).append("}\n");
+		}
+	}
+
+	private void block(int depth, int size) {
+		int length = 1 + this.random.nextInt(6);
+
+		for (int i = 0; i < length && this.statements < size; i++)
+		{
+			statement(depth, size);
+		}
+	}
+
+	private String variable() {
+		return "v" + this.random.nextInt(VARIABLES);
+	}
+
+	private StringBuilder indent(int depth) {
+		for (int i = 0; i < depth; i++)
+		{
+			this.source.append('\t');
+		}
+
+		return this.source;
+	}
+}
@@ -0,0 +1,170 @@
+package benchmarks;
+
+import java.util.BitSet;
+import java.util.Locale;
+import java.util.Random;
+
+import grafos.ProgramDependencyGraph;
+import grafos.ReachabilityIndex;
+import grafos.Slicer;
+
+/**
+ * Measures the {@link ReachabilityIndex} of the dependences of large generated methods (see
+ * {@link GeneratedMethods}): for every size it builds the index with the transitive closure, if it
+ * fits, and with labels, and prints the build time, the size, the queries per second of a batch of
+ * random queries and how many of them had to search the graph. Every answer is checked against the
+ * backward slices of the {@link Slicer}.
+ * <p>
+ * Usage, from the module folder:
+ * <pre>
+ * mvn compile
+ * java -cp target/classes:&lt;javaparser jar&gt; benchmarks.ReachabilityBenchmark [options]
+ * </pre>
+ * The options are {@code -i=N} measured iterations (5), {@code -sizes=N,N...} statements of the generated
+ * methods (1000,5000,20000), {@code -queries=N} queries of every iteration (1000000) and {@code -labels=N}
+ * labels of the index (5).
+ */
+public class ReachabilityBenchmark {
+	private static final long SEED = 42;
+
+	private int iterations = 5;
+	private int[] sizes = { 1000, 5000, 20000 };
+	private int queryCount = 1000000;
+	private int labelCount = ReachabilityIndex.DEFAULT_LABEL_COUNT;
+
+	public static void main(String[] args) {
+		ReachabilityBenchmark benchmark = new ReachabilityBenchmark();
+
+		for (String arg : args)
+		{
+			benchmark.parseOption(arg);
+		}
+
+		benchmark.run();
+	}
+
+	private void parseOption(String arg) {
+		if (arg.startsWith("-i="))
+		{
+			this.iterations = Integer.parseInt(arg.substring("-i=".length()));
+		}
+		else if (arg.startsWith("-sizes="))
+		{
+			String[] values = arg.substring("-sizes=".length()).split(",");
+
+			this.sizes = new int[values.length];
+
+			for (int i = 0; i < values.length; i++)
+			{
+				this.sizes[i] = Integer.parseInt(values[i].trim());
+			}
+		}
+		else if (arg.startsWith("-queries="))
+		{
+			this.queryCount = Integer.parseInt(arg.substring("-queries=".length()));
+		}
+		else if (arg.startsWith("-labels="))
+		{
+			this.labelCount = Integer.parseInt(arg.substring("-labels=".length()));
+		}
+		else
+		{
+			throw new IllegalArgumentException("Unknown option: " + arg);
+		}
+	}
+
+	private void run() {
+		System.out.printf("%d measured iterations of %d queries%n", this.iterations, this.queryCount);
+		System.out.printf("%7s %8s %10s  %-9s %10s %12s %14s %10s %10s%n",
+			"size", "nodes", "components", "index", "build (ms)", "size (KB)", "queries/s", "searches", "reachable");
+
+		for (int size : this.sizes)
+		{
+			ProgramDependencyGraph pdg = SlicingBenchmark.build(GeneratedMethods.generateSource(size, SEED));
+
+			int[] sources = new int[this.queryCount];
+			int[] targets = new int[this.queryCount];
+
+			Random random = new Random(SEED);
+
+			for (int q = 0; q < this.queryCount; q++)
+			{
+				sources[q] = random.nextInt(pdg.getNodeCount());
+				targets[q] = random.nextInt(pdg.getNodeCount());
+			}
+
+			boolean[] expected = expectedAnswers(pdg, sources, targets);
+
+			measure(size, pdg, pdg.createDependenceIndex(ReachabilityIndex.DEFAULT_MAX_CLOSURE_BYTES, this.labelCount), sources, targets, expected);
+			measure(size, pdg, pdg.createDependenceIndex(0, this.labelCount), sources, targets, expected);
+		}
+	}
+
+	/**
+	 * Answers the queries with the backward slices of the sources.
+	 * @param pdg The program dependency graph.
+	 * @param sources The source of every query.
+	 * @param targets The target of every query.
+	 * @return The answer of every query.
+	 */
+	private static boolean[] expectedAnswers(ProgramDependencyGraph pdg, int[] sources, int[] targets) {
+		Slicer slicer = pdg.getBackwardSlicer();
+
+		boolean[] expected = new boolean[sources.length];
+
+		for (int q = 0; q < sources.length; q++)
+		{
+			BitSet slice = slicer.slice(sources[q]);
+
+			expected[q] = slice.get(targets[q]);
+		}
+
+		slicer.clear();
+
+		return expected;
+	}
+
+	private void measure(int size, ProgramDependencyGraph pdg, ReachabilityIndex index, int[] sources, int[] targets, boolean[] expected) {
+		int reachable = 0;
+
+		for (int q = 0; q < sources.length; q++)
+		{
+			if (index.reaches(sources[q], targets[q]) != expected[q])
+			{
+				throw new IllegalStateException("Wrong answer from " + sources[q] + " to " + targets[q]);
+			}
+
+			reachable += expected[q] ? 1 : 0;
+		}
+
+		long searchesBefore = index.getSearches();
+		long nanos = 0;
+
+		// The answers are counted so the queries cannot be optimized away.
+		int answers = 0;
+
+		for (int i = 0; i < this.iterations; i++)
+		{
+			long start = System.nanoTime();
+
+			for (int q = 0; q < sources.length; q++)
+			{
+				answers += index.reaches(sources[q], targets[q]) ? 1 : 0;
+			}
+
+			nanos += System.nanoTime() - start;
+		}
+
+		if (answers != reachable * this.iterations)
+		{
+			throw new IllegalStateException("The answers changed between iterations");
+		}
+
+		System.out.printf(Locale.ROOT, "%7d %8d %10d  %-9s %10.1f %12.1f %14.0f %9.2f%% %9.2f%%%n",
+			size, pdg.getNodeCount(), index.getCondensation().getComponentCount(),
+			index.isClosure() ? "closure" : index.getLabelCount() + " labels", index.getBuildNanos() / 1e6,
+			index.getSizeInBytes() / 1024.0, (double) sources.length * this.iterations / (nanos / 1e9),
+			100.0 * (index.getSearches() - searchesBefore) / ((long) sources.length * this.iterations),
+			100.0 * reachable / sources.length);
+	}
+}
@@ -0,0 +1,275 @@
+package benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Locale;
+import java.util.Random;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+
+import grafos.Adjacency;
+import grafos.CFG;
+import grafos.ProgramDependencyGraph;
+import grafos.Slicer;
+import grafos.VisitadorCFG;
+import grafos.VisitadorPDG;
+
+/**
+ * Measures how many slicing criteria per second the {@link Slicer} answers on the dependence graphs
+ * of large generated methods (see {@link GeneratedMethods}). For every size, the backward and the
+ * forward slices of a batch of criteria are computed, with the slicer's kept slices forgotten before
+ * every iteration, and compared with a breadth first search per criterion that reuses nothing (only on the
+ * first criteria of the batch, since it is far slower).
+ * <p>
+ * Usage, from the module folder:
+ * <pre>
+ * mvn compile
+ * java -cp target/classes:&lt;javaparser jar&gt; benchmarks.SlicingBenchmark [options]
+ * </pre>
+ * The options are {@code -wi=N} warmup iterations (2), {@code -i=N} measured iterations (5),
+ * {@code -sizes=N,N...} statements of the generated methods (1000,5000,20000) and {@code -criteria=N}
+ * criteria of every batch, chosen at random (all the nodes by default).
+ */
+public class SlicingBenchmark {
+	// The output of the visitors, which print every node they create.
+	private static final PrintStream DISCARD = new PrintStream(new OutputStream() {
+		@Override
+		public void write(int b) {
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+		}
+	});
+
+	private static final long SEED = 42;
+
+	// The breadth first search is too slow for whole batches of the large sizes, so it only slices the first criteria.
+	private static final int BASELINE_CRITERIA = 1000;
+
+	private int warmupIterations = 2;
+	private int iterations = 5;
+	private int[] sizes = { 1000, 5000, 20000 };
+	private int criteriaCount = -1;
+
+	public static void main(String[] args) {
+		SlicingBenchmark benchmark = new SlicingBenchmark();
+
+		for (String arg : args)
+		{
+			benchmark.parseOption(arg);
+		}
+
+		benchmark.run();
+	}
+
+	private void parseOption(String arg) {
+		if (arg.startsWith("-wi="))
+		{
+			this.warmupIterations = Integer.parseInt(arg.substring("-wi=".length()));
+		}
+		else if (arg.startsWith("-i="))
+		{
+			this.iterations = Integer.parseInt(arg.substring("-i=".length()));
+		}
+		else if (arg.startsWith("-sizes="))
+		{
+			String[] values = arg.substring("-sizes=".length()).split(",");
+
+			this.sizes = new int[values.length];
+
+			for (int i = 0; i < values.length; i++)
+			{
+				this.sizes[i] = Integer.parseInt(values[i].trim());
+			}
+		}
+		else if (arg.startsWith("-criteria="))
+		{
+			this.criteriaCount = Integer.parseInt(arg.substring("-criteria=".length()));
+		}
+		else
+		{
+			throw new IllegalArgumentException("Unknown option: " + arg);
+		}
+	}
+
+	private void run() {
+		System.out.printf("%d warmup and %d measured iterations%n", this.warmupIterations, this.iterations);
+		System.out.printf("%7s %8s %8s %10s %10s  %-9s %12s %14s %14s %10s%n",
+			"size", "nodes", "edges", "build (ms)", "criteria", "direction", "slicer (ms)", "criteria/s", "BFS criteria/s", "avg slice");
+
+		for (int size : this.sizes)
+		{
+			long start = System.nanoTime();
+			ProgramDependencyGraph pdg = build(GeneratedMethods.generateSource(size, SEED));
+			double buildMillis = (System.nanoTime() - start) / 1e6;
+
+			int[] criteria = chooseCriteria(pdg.getNodeCount());
+
+			measure(size, pdg, buildMillis, criteria, true);
+			measure(size, pdg, buildMillis, criteria, false);
+		}
+	}
+
+	/**
+	 * Builds the program dependency graph of a program, as {@code Transformador} does.
+	 * @param source The source code.
+	 * @return The program dependency graph.
+	 */
+	static ProgramDependencyGraph build(String source) {
+		CompilationUnit cu = JavaParser.parse(source);
+
+		PrintStream out = System.out;
+		System.setOut(DISCARD);
+
+		try
+		{
+			CFG cfg = new CFG();
+			new VisitadorCFG().visit(cu, cfg);
+
+			ProgramDependencyGraph pdg = new ProgramDependencyGraph();
+			new VisitadorPDG().visit(cu, pdg);
+
+			pdg.addControlDependences(cfg);
+			pdg.addDataDependences(cfg);
+
+			return pdg;
+		}
+		finally
+		{
+			System.setOut(out);
+		}
+	}
+
+	private int[] chooseCriteria(int nodeCount) {
+		if (this.criteriaCount < 0 || this.criteriaCount >= nodeCount)
+		{
+			int[] criteria = new int[nodeCount];
+
+			for (int n = 0; n < nodeCount; n++)
+			{
+				criteria[n] = n;
+			}
+
+			return criteria;
+		}
+
+		Random random = new Random(SEED);
+		int[] criteria = new int[this.criteriaCount];
+
+		for (int i = 0; i < criteria.length; i++)
+		{
+			criteria[i] = random.nextInt(nodeCount);
+		}
+
+		return criteria;
+	}
+
+	private void measure(int size, ProgramDependencyGraph pdg, double buildMillis, int[] criteria, boolean backward) {
+		long start = System.nanoTime();
+		Slicer slicer = backward ? pdg.getBackwardSlicer() : pdg.getForwardSlicer();
+		double slicerMillis = (System.nanoTime() - start) / 1e6;
+
+		int[] baselineCriteria = Arrays.copyOf(criteria, Math.min(criteria.length, BASELINE_CRITERIA));
+
+		long totalSize = 0;
+		long baselineSize = 0;
+
+		for (int i = 0; i < this.warmupIterations; i++)
+		{
+			slicer.clear();
+			slicer.slices(criteria);
+		}
+
+		long nanos = 0;
+
+		for (int i = 0; i < this.iterations; i++)
+		{
+			slicer.clear();
+
+			start = System.nanoTime();
+			BitSet[] slices = slicer.slices(criteria);
+			nanos += System.nanoTime() - start;
+
+			totalSize = 0;
+			baselineSize = 0;
+
+			for (int c = 0; c < slices.length; c++)
+			{
+				totalSize += slices[c].cardinality();
+				baselineSize += c < baselineCriteria.length ? slices[c].cardinality() : 0;
+			}
+		}
+
+		// The slices without reuse, to check them and to compare.
+		Adjacency dependences = slicer.getDependences();
+
+		for (int i = 0; i < this.warmupIterations; i++)
+		{
+			breadthFirstSlices(dependences, baselineCriteria);
+		}
+
+		long bfsNanos = 0;
+		long bfsSize = 0;
+
+		for (int i = 0; i < this.iterations; i++)
+		{
+			start = System.nanoTime();
+			bfsSize = breadthFirstSlices(dependences, baselineCriteria);
+			bfsNanos += System.nanoTime() - start;
+		}
+
+		if (bfsSize != baselineSize)
+		{
+			throw new IllegalStateException("The slices differ from the breadth first search: " + baselineSize + " != " + bfsSize);
+		}
+
+		System.out.printf(Locale.ROOT, "%7d %8d %8d %10.1f %10d  %-9s %12.1f %14.0f %14.0f %10.1f%n",
+			size, pdg.getNodeCount(), pdg.getEdgeCount(), buildMillis, criteria.length, backward ? "backward" : "forward",
+			slicerMillis, criteria.length * this.iterations / (nanos / 1e9), baselineCriteria.length * this.iterations / (bfsNanos / 1e9),
+			(double) totalSize / criteria.length);
+	}
+
+	/**
+	 * Slices every criterion with a breadth first search of its own, as a baseline.
+	 * @param dependences The dependences to follow.
+	 * @param criteria The criteria.
+	 * @return The sum of the sizes of the slices.
+	 */
+	private static long breadthFirstSlices(Adjacency dependences, int[] criteria) {
+		long totalSize = 0;
+
+		for (int criterion : criteria)
+		{
+			BitSet slice = new BitSet(dependences.getNodeCount());
+			ArrayDeque<Integer> queue = new ArrayDeque<Integer>();
+
+			slice.set(criterion);
+			queue.add(criterion);
+
+			while (!queue.isEmpty())
+			{
+				int node = queue.poll();
+
+				for (int i = 0; i < dependences.degree(node); i++)
+				{
+					int next = dependences.get(node, i);
+
+					if (!slice.get(next))
+					{
+						slice.set(next);
+						queue.add(next);
+					}
+				}
+			}
+
+			totalSize += slice.cardinality();
+		}
+
+		return totalSize;
+	}
+}
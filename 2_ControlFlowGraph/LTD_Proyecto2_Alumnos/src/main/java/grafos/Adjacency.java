@@ -0,0 +1,186 @@
+package grafos;
+
+import java.util.Arrays;
+
+import grafos.util.IntList;
+
+/**
+ * An immutable compressed sparse row view of some of the edges of a {@link Graph}.
+ * The neighbours of the node {@code n} are {@code getNodes()[getOffsets()[n]]} to
+ * {@code getNodes()[getOffsets()[n + 1] - 1]}, in the order their edges were added.
+ * Analyses can loop over both arrays directly, without allocating per node.
+ */
+public final class Adjacency {
+	// The start of the neighbours of every node, plus the end of the last one.
+	private final int[] offsets;
+
+	// The neighbours of all the nodes, one after another.
+	private final int[] nodes;
+
+	/**
+	 * Builds the adjacency of the edges of the given kinds.
+	 * @param graph The graph.
+	 * @param kindMask The mask of the kinds of edges to include (see {@link EdgeKind#mask(EdgeKind...)}).
+	 * @param forward True to list the successors of every node, false to list its predecessors.
+	 */
+	Adjacency(Graph graph, int kindMask, boolean forward) {
+		int nodeCount = graph.getNodeCount();
+		int edgeCount = graph.getEdgeCount();
+
+		this.offsets = new int[nodeCount + 1];
+
+		// Count the neighbours of every node, shifted one position to the right.
+		for (int e = 0; e < edgeCount; e++)
+		{
+			if ((graph.getKind(e).mask() & kindMask) != 0)
+			{
+				this.offsets[(forward ? graph.getSource(e) : graph.getTarget(e)) + 1]++;
+			}
+		}
+
+		for (int n = 0; n < nodeCount; n++)
+		{
+			this.offsets[n + 1] += this.offsets[n];
+		}
+
+		this.nodes = new int[this.offsets[nodeCount]];
+
+		int[] next = new int[nodeCount];
+		System.arraycopy(this.offsets, 0, next, 0, nodeCount);
+
+		for (int e = 0; e < edgeCount; e++)
+		{
+			if ((graph.getKind(e).mask() & kindMask) != 0)
+			{
+				int from = forward ? graph.getSource(e) : graph.getTarget(e);
+				int to = forward ? graph.getTarget(e) : graph.getSource(e);
+
+				this.nodes[next[from]++] = to;
+			}
+		}
+	}
+
+	/**
+	 * Builds the adjacency of a list of edges.
+	 * @param nodeCount The number of nodes.
+	 * @param sources The source of every edge.
+	 * @param targets The target of every edge.
+	 * @param forward True to list the successors of every node, false to list its predecessors.
+	 */
+	Adjacency(int nodeCount, IntList sources, IntList targets, boolean forward) {
+		IntList from = forward ? sources : targets;
+		IntList to = forward ? targets : sources;
+
+		this.offsets = new int[nodeCount + 1];
+
+		for (int e = 0; e < from.size(); e++)
+		{
+			this.offsets[from.get(e) + 1]++;
+		}
+
+		for (int n = 0; n < nodeCount; n++)
+		{
+			this.offsets[n + 1] += this.offsets[n];
+		}
+
+		this.nodes = new int[from.size()];
+
+		int[] next = Arrays.copyOf(this.offsets, nodeCount);
+
+		for (int e = 0; e < from.size(); e++)
+		{
+			this.nodes[next[from.get(e)]++] = to.get(e);
+		}
+	}
+
+	public int getNodeCount() {
+		return offsets.length - 1;
+	}
+
+	public int getEdgeCount() {
+		return nodes.length;
+	}
+
+	/**
+	 * Returns the number of neighbours of a node.
+	 * @param node The node.
+	 * @return The number of neighbours.
+	 */
+	public int degree(int node) {
+		return offsets[node + 1] - offsets[node];
+	}
+
+	/**
+	 * Returns a neighbour of a node.
+	 * @param node The node.
+	 * @param index The index of the neighbour, from 0 to {@link #degree(int)} - 1.
+	 * @return The neighbour.
+	 */
+	public int get(int node, int index) {
+		return nodes[offsets[node] + index];
+	}
+
+	/**
+	 * Returns the offsets array. It must not be modified.
+	 * @return The start of the neighbours of every node, plus the end of the last one.
+	 */
+	public int[] getOffsets() {
+		return offsets;
+	}
+
+	/**
+	 * Returns the neighbours array. It must not be modified.
+	 * @return The neighbours of all the nodes, one after another.
+	 */
+	public int[] getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * Returns the nodes reachable from a root in reverse postorder: every node comes before its
+	 * neighbours, except the ones that close a cycle.
+	 * @param root The root node.
+	 * @return The reachable nodes in reverse postorder.
+	 */
+	public int[] reversePostorder(int root) {
+		int nodeCount = getNodeCount();
+
+		int[] order = new int[nodeCount];
+		int position = nodeCount;
+
+		boolean[] visited = new boolean[nodeCount];
+
+		// Depth first search with an explicit stack of nodes and the index of their next neighbour.
+		int[] stack = new int[nodeCount];
+		int[] nextNeighbour = new int[nodeCount];
+		int depth = 0;
+
+		stack[depth++] = root;
+		visited[root] = true;
+		nextNeighbour[root] = this.offsets[root];
+
+		while (depth > 0)
+		{
+			int node = stack[depth - 1];
+
+			if (nextNeighbour[node] < this.offsets[node + 1])
+			{
+				int neighbour = this.nodes[nextNeighbour[node]++];
+
+				if (!visited[neighbour])
+				{
+					visited[neighbour] = true;
+					nextNeighbour[neighbour] = this.offsets[neighbour];
+					stack[depth++] = neighbour;
+				}
+			}
+			else
+			{
+				order[--position] = node;
+				depth--;
+			}
+		}
+
+		return Arrays.copyOfRange(order, position, nodeCount);
+	}
+}
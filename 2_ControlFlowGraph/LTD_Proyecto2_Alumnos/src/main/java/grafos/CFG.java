@@ -1,10 +1,34 @@
 package grafos;
 
-import java.util.ArrayList;
-import java.util.List;
+/**
+ * The control flow graph of the methods of a program. All the methods share the
+ * {@link #START} and {@link #STOP} nodes, and all the edges are {@link EdgeKind#CONTROL_FLOW} edges.
+ */
+public class CFG extends Graph {
 
-public class CFG {
-	
-	List<String> arcos = new ArrayList<String>();
+	// The node where the execution of every method starts.
+	public static final int START = 0;
 
+	// The node where the execution of every method ends.
+	public static final int STOP = 1;
+
+	public CFG() {
+		addNode("Start", null);
+		addNode("Stop", null);
+	}
+
+	/**
+	 * Adds a control flow edge, unless it already exists.
+	 * @param source The source node.
+	 * @param target The target node.
+	 * @return True if the edge has been added, false if it already existed.
+	 */
+	public boolean addEdge(int source, int target) {
+		return addEdge(source, target, EdgeKind.CONTROL_FLOW);
+	}
+
+	@Override
+	protected String getDotId(int node) {
+		return node == START || node == STOP ? getLabel(node) : super.getDotId(node);
+	}
 }
@@ -0,0 +1,201 @@
+package grafos;
+
+import java.util.Arrays;
+
+import grafos.util.IntList;
+
+/**
+ * The condensation of a graph: its strongly connected components, found with Tarjan's algorithm,
+ * and the acyclic graph of the edges between them. Two nodes are in the same component if each one
+ * can reach the other, so every node of a component reaches the same nodes.
+ * The components are numbered in reverse topological order: every edge between two components goes
+ * from a component to another one with a lower number.
+ */
+public class Condensation {
+	// The component of every node.
+	private final int[] components;
+
+	// The nodes of every component, and the components every component has an edge to.
+	private final Adjacency componentNodes;
+	private final Adjacency componentEdges;
+
+	/**
+	 * Computes the condensation of a graph.
+	 * @param graph The neighbours of every node.
+	 */
+	public Condensation(Adjacency graph) {
+		int nodeCount = graph.getNodeCount();
+
+		this.components = new int[nodeCount];
+
+		int componentCount = findComponents(graph);
+
+		IntList componentIds = new IntList(nodeCount);
+		IntList nodes = new IntList(nodeCount);
+
+		for (int n = 0; n < nodeCount; n++)
+		{
+			componentIds.add(this.components[n]);
+			nodes.add(n);
+		}
+
+		this.componentNodes = new Adjacency(componentCount, componentIds, nodes, true);
+
+		// The edges inside a component are dropped, and the edges between two components are added once.
+		IntList sources = new IntList();
+		IntList targets = new IntList();
+
+		int[] lastSource = new int[componentCount];
+		Arrays.fill(lastSource, -1);
+
+		int[] offsets = graph.getOffsets();
+		int[] neighbours = graph.getNodes();
+
+		for (int c = 0; c < componentCount; c++)
+		{
+			for (int i = this.componentNodes.getOffsets()[c]; i < this.componentNodes.getOffsets()[c + 1]; i++)
+			{
+				int node = this.componentNodes.getNodes()[i];
+
+				for (int e = offsets[node]; e < offsets[node + 1]; e++)
+				{
+					int target = this.components[neighbours[e]];
+
+					if (target != c && lastSource[target] != c)
+					{
+						lastSource[target] = c;
+						sources.add(c);
+						targets.add(target);
+					}
+				}
+			}
+		}
+
+		this.componentEdges = new Adjacency(componentCount, sources, targets, true);
+	}
+
+	/**
+	 * Finds the strongly connected components with an iterative version of Tarjan's algorithm.
+	 * A component is numbered when the search leaves it, after all the components it reaches.
+	 * @param graph The neighbours of every node.
+	 * @return The number of components.
+	 */
+	private int findComponents(Adjacency graph) {
+		int nodeCount = graph.getNodeCount();
+		int[] offsets = graph.getOffsets();
+		int[] neighbours = graph.getNodes();
+
+		// The discovery number of every node (0 if it has not been discovered) and the lowest one it reaches.
+		int[] discovery = new int[nodeCount];
+		int[] lowest = new int[nodeCount];
+		int discovered = 0;
+
+		// The nodes discovered whose component has not been found yet.
+		int[] pending = new int[nodeCount];
+		boolean[] isPending = new boolean[nodeCount];
+		int pendingCount = 0;
+
+		// The path of the search, and the next neighbour to follow from every node.
+		int[] path = new int[nodeCount];
+		int[] nextNeighbour = new int[nodeCount];
+		int depth = 0;
+
+		int componentCount = 0;
+
+		for (int root = 0; root < nodeCount; root++)
+		{
+			if (discovery[root] != 0)
+			{
+				continue;
+			}
+
+			discovery[root] = lowest[root] = ++discovered;
+			pending[pendingCount++] = root;
+			isPending[root] = true;
+			nextNeighbour[root] = offsets[root];
+			path[depth++] = root;
+
+			while (depth > 0)
+			{
+				int node = path[depth - 1];
+
+				if (nextNeighbour[node] < offsets[node + 1])
+				{
+					int neighbour = neighbours[nextNeighbour[node]++];
+
+					if (discovery[neighbour] == 0)
+					{
+						discovery[neighbour] = lowest[neighbour] = ++discovered;
+						pending[pendingCount++] = neighbour;
+						isPending[neighbour] = true;
+						nextNeighbour[neighbour] = offsets[neighbour];
+						path[depth++] = neighbour;
+					}
+					else if (isPending[neighbour])
+					{
+						lowest[node] = Math.min(lowest[node], discovery[neighbour]);
+					}
+
+					continue;
+				}
+
+				depth--;
+
+				if (depth > 0)
+				{
+					lowest[path[depth - 1]] = Math.min(lowest[path[depth - 1]], lowest[node]);
+				}
+
+				// The node is the first one discovered of its component: the pending nodes from it form the component.
+				if (lowest[node] == discovery[node])
+				{
+					int member;
+
+					do
+					{
+						member = pending[--pendingCount];
+						isPending[member] = false;
+						this.components[member] = componentCount;
+					} while (member != node);
+
+					componentCount++;
+				}
+			}
+		}
+
+		return componentCount;
+	}
+
+	public int getNodeCount() {
+		return components.length;
+	}
+
+	public int getComponentCount() {
+		return componentNodes.getNodeCount();
+	}
+
+	/**
+	 * Returns the component of a node.
+	 * @param node The node.
+	 * @return The number of its component.
+	 */
+	public int getComponent(int node) {
+		return components[node];
+	}
+
+	/**
+	 * Returns the nodes of every component.
+	 * @return The adjacency from every component to its nodes.
+	 */
+	public Adjacency getComponentNodes() {
+		return componentNodes;
+	}
+
+	/**
+	 * Returns the edges between the components, without duplicates. They form an acyclic graph.
+	 * @return The adjacency from every component to the components it has an edge to.
+	 */
+	public Adjacency getComponentEdges() {
+		return componentEdges;
+	}
+}
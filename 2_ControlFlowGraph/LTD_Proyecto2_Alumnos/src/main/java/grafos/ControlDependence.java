@@ -0,0 +1,101 @@
+package grafos;
+
+import grafos.util.IntList;
+
+/**
+ * The control dependences of a control flow graph. A node {@code b} is control dependent on a
+ * node {@code a} if {@code a} decides whether {@code b} is executed: {@code a} has a successor
+ * post-dominated by {@code b}, and {@code b} does not post-dominate {@code a}. They are the
+ * post-dominance frontiers of the graph with an additional edge from the entry to the exit,
+ * so the nodes that are always executed depend on the entry.
+ * They are derived from the edges only, so any jump (break, continue, return, throw) present
+ * in the graph is taken into account without treating it specially.
+ */
+public class ControlDependence {
+	private final DominatorTree postDominators;
+
+	// The nodes that depend on every node, and the nodes every node depends on.
+	private final Adjacency dependents;
+	private final Adjacency controllers;
+
+	/**
+	 * Computes the control dependences of the {@link EdgeKind#CONTROL_FLOW} edges of a graph.
+	 * The nodes that cannot reach the exit (in infinite loops) depend on nothing.
+	 * @param flowGraph The control flow graph.
+	 * @param entry The node where the execution starts.
+	 * @param exit The node where the execution ends.
+	 */
+	public ControlDependence(Graph flowGraph, int entry, int exit) {
+		this.postDominators = DominatorTree.postDominators(flowGraph, exit, EdgeKind.CONTROL_FLOW);
+
+		Adjacency frontiers = this.postDominators.getFrontiers();
+
+		IntList sources = new IntList();
+		IntList targets = new IntList();
+
+		// A node depends on the nodes of its post-dominance frontier.
+		for (int node = 0; node < frontiers.getNodeCount(); node++)
+		{
+			for (int f = frontiers.getOffsets()[node]; f < frontiers.getOffsets()[node + 1]; f++)
+			{
+				sources.add(frontiers.getNodes()[f]);
+				targets.add(node);
+			}
+		}
+
+		// The edge from the entry to the exit adds the entry to the frontier of the nodes that post-dominate its
+		// successors, up to the exit. The ones that already had it (if the entry has several successors) are skipped.
+		if (this.postDominators.isReachable(entry))
+		{
+			Adjacency successors = flowGraph.successors(EdgeKind.CONTROL_FLOW);
+
+			for (int s = successors.getOffsets()[entry]; s < successors.getOffsets()[entry + 1]; s++)
+			{
+				// A successor that cannot reach the exit is not post-dominated by anything, so it depends on nothing.
+				for (int runner = successors.getNodes()[s]; runner != exit && this.postDominators.isReachable(runner); runner = this.postDominators.getImmediateDominator(runner))
+				{
+					if (!isInFrontier(frontiers, runner, entry))
+					{
+						sources.add(entry);
+						targets.add(runner);
+					}
+				}
+			}
+		}
+
+		this.dependents = new Adjacency(flowGraph.getNodeCount(), sources, targets, true);
+		this.controllers = new Adjacency(flowGraph.getNodeCount(), sources, targets, false);
+	}
+
+	private static boolean isInFrontier(Adjacency frontiers, int node, int frontierNode) {
+		for (int f = frontiers.getOffsets()[node]; f < frontiers.getOffsets()[node + 1]; f++)
+		{
+			if (frontiers.getNodes()[f] == frontierNode)
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	public DominatorTree getPostDominators() {
+		return postDominators;
+	}
+
+	/**
+	 * Returns the nodes that depend on every node. A loop condition depends on itself.
+	 * @return The dependents of every node.
+	 */
+	public Adjacency getDependents() {
+		return dependents;
+	}
+
+	/**
+	 * Returns the nodes every node depends on.
+	 * @return The controllers of every node.
+	 */
+	public Adjacency getControllers() {
+		return controllers;
+	}
+}
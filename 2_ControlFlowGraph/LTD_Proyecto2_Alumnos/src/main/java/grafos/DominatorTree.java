@@ -0,0 +1,273 @@
+package grafos;
+
+import java.util.Arrays;
+
+import grafos.util.IntList;
+
+/**
+ * The dominator tree of a graph from a root node, computed with the iterative algorithm of
+ * Cooper, Harvey and Kennedy ("A Simple, Fast Dominance Algorithm"). A node {@code a} dominates
+ * a node {@code b} if every path from the root to {@code b} goes through {@code a}.
+ * Built over the reversed graph from the exit node, it is the post-dominator tree
+ * (see {@link #postDominators(Graph, int, EdgeKind...)}).
+ */
+public class DominatorTree {
+	private final int root;
+
+	// The immediate dominator of every node, the root for the root, or -1 if it is not reachable from it.
+	private final int[] immediateDominators;
+
+	// The predecessors of every node, to compute the frontiers.
+	private final Adjacency predecessors;
+
+	// The preorder number of every node in the tree, and the largest preorder number of its subtree.
+	private final int[] preorder;
+	private final int[] lastDescendant;
+
+	private Adjacency frontiers;
+
+	/**
+	 * Computes the dominator tree of a graph.
+	 * @param successors The successors of every node.
+	 * @param predecessors The predecessors of every node.
+	 * @param root The root of the tree.
+	 */
+	public DominatorTree(Adjacency successors, Adjacency predecessors, int root) {
+		this.root = root;
+		this.predecessors = predecessors;
+
+		int nodeCount = successors.getNodeCount();
+
+		int[] order = successors.reversePostorder(root);
+
+		// The position of every node in reverse postorder, to know which one of two nodes is closer to the root.
+		int[] position = new int[nodeCount];
+		Arrays.fill(position, -1);
+
+		for (int i = 0; i < order.length; i++)
+		{
+			position[order[i]] = i;
+		}
+
+		this.immediateDominators = new int[nodeCount];
+		Arrays.fill(this.immediateDominators, -1);
+		this.immediateDominators[root] = root;
+
+		int[] offsets = predecessors.getOffsets();
+		int[] nodes = predecessors.getNodes();
+
+		boolean changed = true;
+
+		while (changed)
+		{
+			changed = false;
+
+			for (int i = 1; i < order.length; i++)
+			{
+				int node = order[i];
+				int dominator = -1;
+
+				// The dominator is the nearest common dominator of the processed predecessors.
+				for (int p = offsets[node]; p < offsets[node + 1]; p++)
+				{
+					int predecessor = nodes[p];
+
+					if (this.immediateDominators[predecessor] == -1)
+					{
+						continue;
+					}
+
+					dominator = dominator == -1 ? predecessor : intersect(predecessor, dominator, position);
+				}
+
+				if (this.immediateDominators[node] != dominator)
+				{
+					this.immediateDominators[node] = dominator;
+					changed = true;
+				}
+			}
+		}
+
+		this.preorder = new int[nodeCount];
+		this.lastDescendant = new int[nodeCount];
+
+		numberTree(order);
+	}
+
+	/**
+	 * Computes the dominator tree of the edges of the given kinds from an entry node.
+	 * @param graph The graph.
+	 * @param entry The entry node.
+	 * @param kinds The kinds of edges to follow.
+	 * @return The dominator tree.
+	 */
+	public static DominatorTree dominators(Graph graph, int entry, EdgeKind... kinds) {
+		return new DominatorTree(graph.successors(kinds), graph.predecessors(kinds), entry);
+	}
+
+	/**
+	 * Computes the post-dominator tree of the edges of the given kinds to an exit node: a node
+	 * {@code a} post-dominates a node {@code b} if every path from {@code b} to the exit goes through {@code a}.
+	 * @param graph The graph.
+	 * @param exit The exit node.
+	 * @param kinds The kinds of edges to follow.
+	 * @return The post-dominator tree.
+	 */
+	public static DominatorTree postDominators(Graph graph, int exit, EdgeKind... kinds) {
+		return new DominatorTree(graph.predecessors(kinds), graph.successors(kinds), exit);
+	}
+
+	private int intersect(int a, int b, int[] position) {
+		while (a != b)
+		{
+			while (position[a] > position[b])
+			{
+				a = this.immediateDominators[a];
+			}
+
+			while (position[b] > position[a])
+			{
+				b = this.immediateDominators[b];
+			}
+		}
+
+		return a;
+	}
+
+	/**
+	 * Numbers the nodes of the tree in preorder, so the dominance between two nodes can be answered in constant time.
+	 * @param order The reachable nodes.
+	 */
+	private void numberTree(int[] order) {
+		IntList sources = new IntList(order.length);
+		IntList targets = new IntList(order.length);
+
+		for (int node : order)
+		{
+			if (node != this.root)
+			{
+				sources.add(this.immediateDominators[node]);
+				targets.add(node);
+			}
+		}
+
+		Adjacency children = new Adjacency(this.preorder.length, sources, targets, true);
+
+		// In a depth first preorder, the subtree of a node is the range from its number to the number of
+		// its last descendant.
+		int[] stack = new int[order.length];
+		int[] nextChild = new int[this.preorder.length];
+		int depth = 0;
+		int number = 0;
+
+		stack[depth++] = this.root;
+		this.preorder[this.root] = number++;
+		nextChild[this.root] = children.getOffsets()[this.root];
+
+		while (depth > 0)
+		{
+			int node = stack[depth - 1];
+
+			if (nextChild[node] < children.getOffsets()[node + 1])
+			{
+				int child = children.getNodes()[nextChild[node]++];
+
+				this.preorder[child] = number++;
+				nextChild[child] = children.getOffsets()[child];
+				stack[depth++] = child;
+			}
+			else
+			{
+				this.lastDescendant[node] = number - 1;
+				depth--;
+			}
+		}
+	}
+
+	public int getRoot() {
+		return root;
+	}
+
+	/**
+	 * Returns a value indicating whether a node is reachable from the root, and so it is in the tree.
+	 * @param node The node.
+	 * @return True if the node is in the tree, false otherwise.
+	 */
+	public boolean isReachable(int node) {
+		return immediateDominators[node] != -1;
+	}
+
+	/**
+	 * Returns the immediate dominator of a node: its parent in the tree.
+	 * @param node The node.
+	 * @return The immediate dominator, or -1 for the root and the nodes that are not reachable from it.
+	 */
+	public int getImmediateDominator(int node) {
+		return node == root ? -1 : immediateDominators[node];
+	}
+
+	/**
+	 * Returns a value indicating whether a node dominates another one. Every node dominates itself.
+	 * @param dominator The node that may dominate the other one.
+	 * @param node The other node.
+	 * @return True if both nodes are in the tree and the first one dominates the second one.
+	 */
+	public boolean dominates(int dominator, int node) {
+		return isReachable(dominator) && isReachable(node)
+			&& preorder[dominator] <= preorder[node] && preorder[node] <= lastDescendant[dominator];
+	}
+
+	/**
+	 * Returns the dominance frontier of every node: the nodes where the dominance of the node ends,
+	 * because they have a predecessor dominated by it but they are not strictly dominated by it.
+	 * For a post-dominator tree they are the post-dominance frontiers.
+	 * @return The frontier of every node.
+	 */
+	public Adjacency getFrontiers() {
+		if (this.frontiers != null)
+		{
+			return this.frontiers;
+		}
+
+		IntList sources = new IntList();
+		IntList targets = new IntList();
+
+		// The last join node added to the frontier of every node, to skip duplicates.
+		int[] lastJoin = new int[this.immediateDominators.length];
+		Arrays.fill(lastJoin, -1);
+
+		int[] offsets = this.predecessors.getOffsets();
+		int[] nodes = this.predecessors.getNodes();
+
+		for (int join = 0; join < this.immediateDominators.length; join++)
+		{
+			if (!isReachable(join) || offsets[join + 1] - offsets[join] < 2)
+			{
+				continue;
+			}
+
+			for (int p = offsets[join]; p < offsets[join + 1]; p++)
+			{
+				// Walk up from the predecessor until the dominator of the join node.
+				for (int runner = nodes[p]; isReachable(runner) && runner != this.immediateDominators[join]; runner = this.immediateDominators[runner])
+				{
+					if (lastJoin[runner] != join)
+					{
+						lastJoin[runner] = join;
+						sources.add(runner);
+						targets.add(join);
+					}
+
+					if (runner == this.root)
+					{
+						break;
+					}
+				}
+			}
+		}
+
+		this.frontiers = new Adjacency(this.immediateDominators.length, sources, targets, true);
+
+		return this.frontiers;
+	}
+}
@@ -0,0 +1,39 @@
+package grafos;
+
+/**
+ * Represents the kind of an edge of a {@link Graph}.
+ */
+public enum EdgeKind {
+	// The execution can go from the source to the target (CFG).
+	CONTROL_FLOW,
+	// Whether the target is executed depends on the source (PDG).
+	CONTROL_DEPENDENCE,
+	// The target uses a value defined by the source (PDG).
+	DATA_DEPENDENCE;
+
+	/**
+	 * Returns the bit of this kind in a mask of edge kinds.
+	 * @return The bit of the kind.
+	 */
+	public int mask()
+	{
+		return 1 << this.ordinal();
+	}
+
+	/**
+	 * Returns the mask with the bits of the given edge kinds.
+	 * @param kinds The edge kinds.
+	 * @return The mask of the kinds.
+	 */
+	public static int mask(EdgeKind... kinds)
+	{
+		int mask = 0;
+
+		for (EdgeKind kind : kinds)
+		{
+			mask |= kind.mask();
+		}
+
+		return mask;
+	}
+}
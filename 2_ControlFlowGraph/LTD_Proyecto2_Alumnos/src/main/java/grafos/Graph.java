@@ -0,0 +1,300 @@
+package grafos;
+
+import java.util.Arrays;
+
+import com.github.javaparser.ast.Node;
+
+/**
+ * A directed graph whose nodes are numbered from 0 in the order they are added.
+ * Every node has a label and, optionally, the AST node it was created from. Every edge
+ * has an {@link EdgeKind}, and there is at most one edge of each kind between two nodes.
+ * The edges are stored in primitive arrays in the order they are added, and the graph is
+ * only turned into DOT text when it is exported with {@link #toDot()}.
+ */
+public class Graph {
+	private static final int INITIAL_CAPACITY = 16;
+
+	private static final EdgeKind[] EDGE_KINDS = EdgeKind.values();
+
+	// The label of every node.
+	private String[] labels = new String[INITIAL_CAPACITY];
+
+	// The AST node every node was created from, or null.
+	private Node[] astNodes = new Node[INITIAL_CAPACITY];
+
+	private int nodeCount;
+
+	// The source, target and kind of every edge.
+	private int[] sources = new int[INITIAL_CAPACITY];
+	private int[] targets = new int[INITIAL_CAPACITY];
+	private byte[] kinds = new byte[INITIAL_CAPACITY];
+
+	private int edgeCount;
+
+	// Open addressing hash table with the index of every edge (or -1), to discard duplicated edges.
+	private int[] edgeTable = newEdgeTable(INITIAL_CAPACITY * 2);
+
+	// The adjacencies built since the last edge was added, by kind mask and direction.
+	private Adjacency[] adjacencies = new Adjacency[2 << EDGE_KINDS.length];
+
+	/**
+	 * Adds a node to the graph.
+	 * @param label The label of the node.
+	 * @param astNode The AST node the node is created from, or null.
+	 * @return The number of the new node.
+	 */
+	public int addNode(String label, Node astNode) {
+		if (this.nodeCount == this.labels.length)
+		{
+			this.labels = Arrays.copyOf(this.labels, this.nodeCount * 2);
+			this.astNodes = Arrays.copyOf(this.astNodes, this.nodeCount * 2);
+		}
+
+		this.labels[this.nodeCount] = label;
+		this.astNodes[this.nodeCount] = astNode;
+
+		return this.nodeCount++;
+	}
+
+	/**
+	 * Adds an edge to the graph, unless it already has an edge of the same kind between both nodes.
+	 * @param source The source node.
+	 * @param target The target node.
+	 * @param kind The kind of the edge.
+	 * @return True if the edge has been added, false if it already existed.
+	 */
+	public boolean addEdge(int source, int target, EdgeKind kind) {
+		checkNode(source);
+		checkNode(target);
+
+		int mask = this.edgeTable.length - 1;
+		int slot = hash(source, target, kind) & mask;
+
+		while (this.edgeTable[slot] != -1)
+		{
+			int e = this.edgeTable[slot];
+
+			if (this.sources[e] == source && this.targets[e] == target && this.kinds[e] == kind.ordinal())
+			{
+				return false;
+			}
+
+			slot = (slot + 1) & mask;
+		}
+
+		if (this.edgeCount == this.sources.length)
+		{
+			this.sources = Arrays.copyOf(this.sources, this.edgeCount * 2);
+			this.targets = Arrays.copyOf(this.targets, this.edgeCount * 2);
+			this.kinds = Arrays.copyOf(this.kinds, this.edgeCount * 2);
+		}
+
+		this.sources[this.edgeCount] = source;
+		this.targets[this.edgeCount] = target;
+		this.kinds[this.edgeCount] = (byte) kind.ordinal();
+		this.edgeTable[slot] = this.edgeCount++;
+
+		// Keep the table at most half full.
+		if (this.edgeCount * 2 > this.edgeTable.length)
+		{
+			rehash(this.edgeTable.length * 2);
+		}
+
+		Arrays.fill(this.adjacencies, null);
+
+		return true;
+	}
+
+	/**
+	 * Returns a value indicating whether the graph has an edge.
+	 * @param source The source node.
+	 * @param target The target node.
+	 * @param kind The kind of the edge.
+	 * @return True if the graph has the edge, false otherwise.
+	 */
+	public boolean hasEdge(int source, int target, EdgeKind kind) {
+		int mask = this.edgeTable.length - 1;
+
+		for (int slot = hash(source, target, kind) & mask; this.edgeTable[slot] != -1; slot = (slot + 1) & mask)
+		{
+			int e = this.edgeTable[slot];
+
+			if (this.sources[e] == source && this.targets[e] == target && this.kinds[e] == kind.ordinal())
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	public int getNodeCount() {
+		return nodeCount;
+	}
+
+	public int getEdgeCount() {
+		return edgeCount;
+	}
+
+	public String getLabel(int node) {
+		checkNode(node);
+
+		return labels[node];
+	}
+
+	public Node getAstNode(int node) {
+		checkNode(node);
+
+		return astNodes[node];
+	}
+
+	public int getSource(int edge) {
+		checkEdge(edge);
+
+		return sources[edge];
+	}
+
+	public int getTarget(int edge) {
+		checkEdge(edge);
+
+		return targets[edge];
+	}
+
+	public EdgeKind getKind(int edge) {
+		checkEdge(edge);
+
+		return EDGE_KINDS[kinds[edge]];
+	}
+
+	/**
+	 * Returns the successors of every node through the edges of the given kinds.
+	 * The adjacency is reused until another edge is added.
+	 * @param kinds The kinds of edges to follow.
+	 * @return The adjacency.
+	 */
+	public Adjacency successors(EdgeKind... kinds) {
+		return adjacency(EdgeKind.mask(kinds), true);
+	}
+
+	/**
+	 * Returns the predecessors of every node through the edges of the given kinds.
+	 * The adjacency is reused until another edge is added.
+	 * @param kinds The kinds of edges to follow.
+	 * @return The adjacency.
+	 */
+	public Adjacency predecessors(EdgeKind... kinds) {
+		return adjacency(EdgeKind.mask(kinds), false);
+	}
+
+	private Adjacency adjacency(int kindMask, boolean forward) {
+		int key = kindMask * 2 + (forward ? 1 : 0);
+
+		// Nodes added after the adjacency was built would be missing from it.
+		if (this.adjacencies[key] == null || this.adjacencies[key].getNodeCount() != this.nodeCount)
+		{
+			this.adjacencies[key] = new Adjacency(this, kindMask, forward);
+		}
+
+		return this.adjacencies[key];
+	}
+
+	/**
+	 * Exports the graph as the statements of a DOT graph, one per edge, in the order they were added.
+	 * @return The DOT statements.
+	 */
+	public String toDot() {
+		StringBuilder dot = new StringBuilder();
+
+		appendEdges(dot, EdgeKind.mask(EDGE_KINDS));
+
+		return dot.toString();
+	}
+
+	/**
+	 * Appends the DOT statements of the edges of the given kinds.
+	 * @param dot The DOT text.
+	 * @param kindMask The mask of the kinds of edges to append.
+	 */
+	protected void appendEdges(StringBuilder dot, int kindMask) {
+		for (int e = 0; e < this.edgeCount; e++)
+		{
+			if ((EDGE_KINDS[this.kinds[e]].mask() & kindMask) != 0)
+			{
+				dot.append(getDotId(this.sources[e])).append("->").append(getDotId(this.targets[e]));
+
+				String attributes = getDotAttributes(e);
+
+				if (attributes != null)
+				{
+					dot.append('[').append(attributes).append(']');
+				}
+
+				dot.append(';');
+			}
+		}
+	}
+
+	/**
+	 * Returns the DOT attributes of an edge.
+	 * @param edge The edge.
+	 * @return The attributes, without brackets, or null if it has none.
+	 */
+	protected String getDotAttributes(int edge) {
+		return null;
+	}
+
+	/**
+	 * Returns the DOT identifier of a node: its label, quoted.
+	 * @param node The node.
+	 * @return The identifier.
+	 */
+	protected String getDotId(int node) {
+		return "\"" + this.labels[node].replace("\"", "\\\"") + "\"";
+	}
+
+	private void rehash(int capacity) {
+		this.edgeTable = newEdgeTable(capacity);
+
+		int mask = capacity - 1;
+
+		for (int e = 0; e < this.edgeCount; e++)
+		{
+			int slot = hash(this.sources[e], this.targets[e], EDGE_KINDS[this.kinds[e]]) & mask;
+
+			while (this.edgeTable[slot] != -1)
+			{
+				slot = (slot + 1) & mask;
+			}
+
+			this.edgeTable[slot] = e;
+		}
+	}
+
+	private static int[] newEdgeTable(int capacity) {
+		int[] table = new int[capacity];
+
+		Arrays.fill(table, -1);
+
+		return table;
+	}
+
+	private static int hash(int source, int target, EdgeKind kind) {
+		int h = (source * 0x9E3779B1 + target) * 0x85EBCA6B + kind.ordinal();
+
+		return h ^ (h >>> 16);
+	}
+
+	private void checkNode(int node) {
+		if (node < 0 || node >= this.nodeCount)
+		{
+			throw new IndexOutOfBoundsException("Node: " + node + ", nodes: " + this.nodeCount);
+		}
+	}
+
+	private void checkEdge(int edge) {
+		if (edge < 0 || edge >= this.edgeCount)
+		{
+			throw new IndexOutOfBoundsException("Edge: " + edge + ", edges: " + this.edgeCount);
+		}
+	}
+}
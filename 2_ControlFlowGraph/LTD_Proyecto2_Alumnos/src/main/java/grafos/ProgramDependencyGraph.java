@@ -1,16 +1,460 @@
 package grafos;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
-public class ProgramDependencyGraph {
-	// Contains the edges of control dependencies.
-	List<String> controlEdges = new ArrayList<String>();
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.stmt.ExpressionStmt;
 
-	// Contains the edges of data dependencies.
-	List<String> dataEdges = new ArrayList<String>();
+import grafos.util.IntList;
+import grafos.util.X11Colours;
+
+/**
+ * The program dependency graph of the methods of a program. It has
+ * {@link EdgeKind#CONTROL_DEPENDENCE} and {@link EdgeKind#DATA_DEPENDENCE} edges,
+ * and all the methods share the {@link #ENTRY} node.
+ * Both kinds of edges are computed from the control flow graph of the program: the control dependences
+ * from its post-dominators (see {@link #addControlDependences(CFG)}), and the data dependences from the
+ * definitions and uses of the variables registered in the nodes (see {@link #addDataDependences(CFG)}).
+ */
+public class ProgramDependencyGraph extends Graph {
+	// The node every method depends on.
+	public static final int ENTRY = 0;
 
 	// The graph nodes grouped by their nesting level.
-	HashMap<Integer, List<String>> nodes = new HashMap<Integer, List<String>>();
+	private List<IntList> levels = new ArrayList<IntList>();
+
+	// The nesting level of every node, or -1 if it has not been registered in a level.
+	private IntList nodeLevels = new IntList();
+
+	// The numbers of the variables defined or used by the nodes, in the order they are found.
+	private Map<String, Integer> variables = new HashMap<String, Integer>();
+
+	// The node and the variable of every definition and use.
+	private IntList definitionNodes = new IntList();
+	private IntList definitionVariables = new IntList();
+	private IntList useNodes = new IntList();
+	private IntList useVariables = new IntList();
+
+	// The node and variable pairs already registered as definitions and uses.
+	private Set<Long> definitions = new HashSet<Long>();
+	private Set<Long> uses = new HashSet<Long>();
+
+	// Map that assigns a colour to the outgoing data dependencies edges of every node, filled when exporting.
+	private Map<Integer, String> nodeDataDependenciesColours = new HashMap<Integer, String>();
+
+	// The slicers of the dependences, built when they are first needed and rebuilt if an edge is added.
+	private Slicer backwardSlicer;
+	private Slicer forwardSlicer;
+
+	public ProgramDependencyGraph() {
+		addNode("Entry", null);
+	}
+
+	@Override
+	public int addNode(String label, Node astNode) {
+		int node = super.addNode(label, astNode);
+
+		this.nodeLevels.add(-1);
+
+		return node;
+	}
+
+	/**
+	 * Registers a node in its nesting level, if it has not been registered yet.
+	 * @param node The node.
+	 * @param level The nesting level of the node.
+	 */
+	public void setLevel(int node, int level) {
+		if (this.nodeLevels.get(node) != -1)
+		{
+			return;
+		}
+
+		this.nodeLevels.set(node, level);
+
+		while (this.levels.size() <= level)
+		{
+			this.levels.add(new IntList());
+		}
+
+		this.levels.get(level).add(node);
+	}
+
+	/**
+	 * Returns the nesting level of a node.
+	 * @param node The node.
+	 * @return The nesting level, or -1 if the node has not been registered in a level.
+	 */
+	public int getLevel(int node) {
+		return this.nodeLevels.get(node);
+	}
+
+	/**
+	 * Registers that a node defines (assigns a value to) a variable.
+	 * @param node The node.
+	 * @param variable The name of the variable.
+	 */
+	public void addDefinition(int node, String variable) {
+		int v = getVariable(variable);
+
+		if (this.definitions.add(((long) node << 32) | v))
+		{
+			this.definitionNodes.add(node);
+			this.definitionVariables.add(v);
+		}
+	}
+
+	/**
+	 * Registers that a node uses (reads the value of) a variable.
+	 * @param node The node.
+	 * @param variable The name of the variable.
+	 */
+	public void addUse(int node, String variable) {
+		int v = getVariable(variable);
+
+		if (this.uses.add(((long) node << 32) | v))
+		{
+			this.useNodes.add(node);
+			this.useVariables.add(v);
+		}
+	}
+
+	private int getVariable(String variable) {
+		Integer v = this.variables.get(variable);
+
+		if (v == null)
+		{
+			v = this.variables.size();
+			this.variables.put(variable, v);
+		}
+
+		return v;
+	}
+
+	/**
+	 * Adds a control dependence edge from every node to the nodes whose execution it decides,
+	 * computed from the post-dominators of the control flow graph of the program (see {@link ControlDependence}).
+	 * The nodes that depend on no other node, as the ones outside the control flow graph, depend on {@link #ENTRY}.
+	 * @param cfg The control flow graph of the same compilation unit.
+	 * @return The control dependences computed, numbered as the nodes of the control flow graph.
+	 */
+	public ControlDependence addControlDependences(CFG cfg) {
+		int[] flowNodes = getFlowNodes(cfg);
+
+		// The node of this graph of every node of the control flow graph.
+		int[] nodes = new int[cfg.getNodeCount()];
+		Arrays.fill(nodes, -1);
+
+		for (int n = 0; n < flowNodes.length; n++)
+		{
+			if (flowNodes[n] >= 0)
+			{
+				nodes[flowNodes[n]] = n;
+			}
+		}
+
+		ControlDependence controlDependence = new ControlDependence(cfg, CFG.START, CFG.STOP);
+
+		Adjacency controllers = controlDependence.getControllers();
+
+		for (int n = 0; n < flowNodes.length; n++)
+		{
+			if (n == ENTRY)
+			{
+				continue;
+			}
+
+			boolean hasController = false;
+
+			if (flowNodes[n] >= 0)
+			{
+				for (int c = controllers.getOffsets()[flowNodes[n]]; c < controllers.getOffsets()[flowNodes[n] + 1]; c++)
+				{
+					int controller = nodes[controllers.getNodes()[c]];
+
+					// A loop condition decides its own next execution, but the edge is not drawn.
+					if (controller >= 0 && controller != n)
+					{
+						addEdge(controller, n, EdgeKind.CONTROL_DEPENDENCE);
+						hasController = true;
+					}
+				}
+			}
+
+			if (!hasController)
+			{
+				addEdge(ENTRY, n, EdgeKind.CONTROL_DEPENDENCE);
+			}
+		}
+
+		return controlDependence;
+	}
+
+	/**
+	 * Adds a data dependence edge from every definition to every use of the same variable it reaches,
+	 * following the control flow graph of the program. The nodes of both graphs are matched by the AST
+	 * node they were created from, and the nodes that are not in the control flow graph get no data dependences.
+	 * @param cfg The control flow graph of the same compilation unit.
+	 * @return The reaching definitions computed, numbered in the order the definitions were registered.
+	 */
+	public ReachingDefinitions addDataDependences(CFG cfg) {
+		int[] flowNodes = getFlowNodes(cfg);
+
+		// Number the definitions in the order they were registered, skipping the ones outside the control flow graph.
+		int[] flowDefinitionNodes = new int[this.definitionNodes.size()];
+		int[] flowDefinitionVariables = new int[this.definitionNodes.size()];
+
+		for (int d = 0; d < this.definitionNodes.size(); d++)
+		{
+			int flowNode = flowNodes[this.definitionNodes.get(d)];
+
+			// A definition outside the flow graph is attached to the stop node, from where it reaches nothing.
+			flowDefinitionNodes[d] = flowNode >= 0 ? flowNode : CFG.STOP;
+			flowDefinitionVariables[d] = this.definitionVariables.get(d);
+		}
+
+		ReachingDefinitions reachingDefinitions = new ReachingDefinitions(cfg, CFG.START, flowDefinitionNodes, flowDefinitionVariables);
+
+		BitSet reaching = new BitSet();
+
+		for (int u = 0; u < this.useNodes.size(); u++)
+		{
+			int useNode = this.useNodes.get(u);
+
+			if (flowNodes[useNode] < 0)
+			{
+				continue;
+			}
+
+			reaching.clear();
+			reaching.or(reachingDefinitions.getReachingDefinitions(flowNodes[useNode]));
+			reaching.and(reachingDefinitions.getDefinitions(this.useVariables.get(u)));
+
+			for (int d = reaching.nextSetBit(0); d >= 0; d = reaching.nextSetBit(d + 1))
+			{
+				addEdge(this.definitionNodes.get(d), useNode, EdgeKind.DATA_DEPENDENCE);
+			}
+		}
+
+		return reachingDefinitions;
+	}
+
+	/**
+	 * Returns the nodes created from the statements that start at a line of the source code.
+	 * @param line The line, from 1.
+	 * @return The nodes of the line, in the order they were added.
+	 */
+	public int[] getNodesAtLine(int line) {
+		IntList nodes = new IntList();
+
+		for (int n = 0; n < getNodeCount(); n++)
+		{
+			Node astNode = getAstNode(n) == null ? null : getStatementKey(getAstNode(n));
+
+			if (astNode != null && astNode.getBegin().isPresent() && astNode.getBegin().get().line == line)
+			{
+				nodes.add(n);
+			}
+		}
+
+		return nodes.toArray();
+	}
+
+	/**
+	 * Returns the backward slice of every criterion: the nodes it depends on, directly or transitively,
+	 * through control and data dependences. The slices are computed by the {@link Slicer} of the graph,
+	 * which keeps them to reuse them in later slices.
+	 * @param criteria The nodes of the criteria.
+	 * @return The nodes of the slice of every criterion, in the same order. The sets must not be modified.
+	 */
+	public BitSet[] backwardSlices(int... criteria) {
+		return getBackwardSlicer().slices(criteria);
+	}
+
+	/**
+	 * Returns the forward slice of every criterion: the nodes that depend on it, directly or transitively,
+	 * through control and data dependences.
+	 * @param criteria The nodes of the criteria.
+	 * @return The nodes of the slice of every criterion, in the same order. The sets must not be modified.
+	 */
+	public BitSet[] forwardSlices(int... criteria) {
+		return getForwardSlicer().slices(criteria);
+	}
+
+	/**
+	 * Returns the slicer that follows the dependences backwards, from every node to the nodes it depends on.
+	 * @return The backward slicer.
+	 */
+	public Slicer getBackwardSlicer() {
+		Adjacency dependences = predecessors(EdgeKind.CONTROL_DEPENDENCE, EdgeKind.DATA_DEPENDENCE);
+
+		if (this.backwardSlicer == null || this.backwardSlicer.getDependences() != dependences)
+		{
+			this.backwardSlicer = new Slicer(dependences);
+		}
+
+		return this.backwardSlicer;
+	}
+
+	/**
+	 * Returns the slicer that follows the dependences forwards, from every node to the nodes that depend on it.
+	 * @return The forward slicer.
+	 */
+	public Slicer getForwardSlicer() {
+		Adjacency dependences = successors(EdgeKind.CONTROL_DEPENDENCE, EdgeKind.DATA_DEPENDENCE);
+
+		if (this.forwardSlicer == null || this.forwardSlicer.getDependences() != dependences)
+		{
+			this.forwardSlicer = new Slicer(dependences);
+		}
+
+		return this.forwardSlicer;
+	}
+
+	/**
+	 * Builds an index to answer whether a node depends on another one, directly or transitively, through
+	 * control and data dependences: {@code index.reaches(a, b)} is true if {@code a} depends on {@code b},
+	 * that is, if {@code b} is in the backward slice of {@code a}. The index does not change if edges are added later.
+	 * @param maxClosureBytes The memory the index can use for a transitive closure, or labels are used
+	 * (see {@link ReachabilityIndex}).
+	 * @param labelCount The number of labels if the transitive closure does not fit.
+	 * @return The index.
+	 */
+	public ReachabilityIndex createDependenceIndex(long maxClosureBytes, int labelCount) {
+		return new ReachabilityIndex(predecessors(EdgeKind.CONTROL_DEPENDENCE, EdgeKind.DATA_DEPENDENCE), maxClosureBytes, labelCount, 42);
+	}
+
+	/**
+	 * Builds an index to answer whether a node depends on another one, with the default memory and labels.
+	 * @return The index.
+	 */
+	public ReachabilityIndex createDependenceIndex() {
+		return createDependenceIndex(ReachabilityIndex.DEFAULT_MAX_CLOSURE_BYTES, ReachabilityIndex.DEFAULT_LABEL_COUNT);
+	}
+
+	/**
+	 * Matches the nodes of this graph with the nodes of a control flow graph, by the AST node they were created from.
+	 * @param cfg The control flow graph of the same compilation unit.
+	 * @return The node of the control flow graph of every node, or -1 if it is not in it.
+	 */
+	private int[] getFlowNodes(CFG cfg) {
+		Map<Node, Integer> nodesByAst = new IdentityHashMap<Node, Integer>();
+
+		for (int n = 0; n < getNodeCount(); n++)
+		{
+			if (getAstNode(n) != null)
+			{
+				nodesByAst.put(getStatementKey(getAstNode(n)), n);
+			}
+		}
+
+		int[] flowNodes = new int[getNodeCount()];
+		Arrays.fill(flowNodes, -1);
+
+		flowNodes[ENTRY] = CFG.START;
+
+		for (int n = 0; n < cfg.getNodeCount(); n++)
+		{
+			Integer node = cfg.getAstNode(n) == null ? null : nodesByAst.get(getStatementKey(cfg.getAstNode(n)));
+
+			if (node != null)
+			{
+				flowNodes[node] = n;
+			}
+		}
+
+		return flowNodes;
+	}
+
+	/**
+	 * Returns the AST node that identifies the statement of a graph node. The visitors wrap some
+	 * expressions in new {@link ExpressionStmt}s, so the expression identifies them.
+	 * @param astNode The AST node of a graph node.
+	 * @return The AST node that identifies the statement.
+	 */
+	private static Node getStatementKey(Node astNode) {
+		return astNode instanceof ExpressionStmt ? ((ExpressionStmt) astNode).getExpression() : astNode;
+	}
+
+	/**
+	 * Exports the graph as DOT statements: the nodes of every level ranked together, then the
+	 * control dependence edges and then the data dependence edges.
+	 * @return The DOT statements.
+	 */
+	@Override
+	public String toDot() {
+		StringBuilder dot = new StringBuilder();
+
+		// The control nodes must be ranked on their level. Otherwise, the graphs are optimized and printed weird.
+		for (IntList level : this.levels)
+		{
+			if (level.isEmpty())
+			{
+				continue;
+			}
+
+			dot.append("{ rank = same {");
+
+			for (int i = 0; i < level.size(); i++)
+			{
+				dot.append(i > 0 ? "," : "").append(getDotId(level.get(i)));
+			}
+
+			dot.append("}}");
+		}
+
+		appendEdges(dot, EdgeKind.CONTROL_DEPENDENCE.mask());
+		appendEdges(dot, EdgeKind.DATA_DEPENDENCE.mask());
+
+		return dot.toString();
+	}
+
+	@Override
+	protected String getDotAttributes(int edge) {
+		if (getKind(edge) != EdgeKind.DATA_DEPENDENCE)
+		{
+			return null;
+		}
+
+		return "color= " + getNodeColour(getSource(edge)) + ", constraint = false";
+	}
+
+	@Override
+	protected String getDotId(int node) {
+		return node == ENTRY ? getLabel(node) : super.getDotId(node);
+	}
+
+	/**
+	 * Returns the colour associated to the given node.
+	 * @param node The node to get the colour from.
+	 * @return The name of the colour associated to the node.
+	 */
+	private String getNodeColour(int node) {
+		if (this.nodeDataDependenciesColours.containsKey(node))
+		{
+			return this.nodeDataDependenciesColours.get(node);
+		}
+
+		String colour = null;
+
+		// Once every colour is in use, they have to be repeated.
+		boolean repeatColours = this.nodeDataDependenciesColours.size() >= X11Colours.getColourCount();
+
+		do
+		{
+			colour = X11Colours.getRandomColour();
+		} while (!repeatColours && this.nodeDataDependenciesColours.values().contains(colour));
+
+		this.nodeDataDependenciesColours.put(node, colour);
+
+		return colour;
+	}
 }
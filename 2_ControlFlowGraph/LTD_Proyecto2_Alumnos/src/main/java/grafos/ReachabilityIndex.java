@@ -0,0 +1,402 @@
+package grafos;
+
+import java.util.Random;
+
+/**
+ * An index to answer whether a node reaches another one without searching the graph every time.
+ * It is built over the {@link Condensation} of the graph, since the nodes of a component reach the
+ * same nodes, with one of two strategies:
+ * <ul>
+ * <li>If the bit matrix fits in the memory allowed, the transitive closure of the components: every query
+ * reads a bit.</li>
+ * <li>Otherwise, GRAIL labels (Yildirim, Chaoji and Zaki, "GRAIL: Scalable Reachability Index for Large Graphs"):
+ * every component gets an interval from each of several random depth first traversals, and the interval of a
+ * component contains the intervals of the components it reaches. A query is answered in constant time if an
+ * interval is not contained in the other one (not reachable), if the target is a descendant of the source in the
+ * spanning tree of a traversal (reachable) or if the numbering of the components rules it out; only the
+ * rest search the graph, pruned with the same checks.</li>
+ * </ul>
+ * The queries reuse arrays of the index, so an index must not be queried from several threads at the same time.
+ */
+public class ReachabilityIndex {
+	/**
+	 * The memory the transitive closure can use by default: 32 MB, a closure of about 16000 components.
+	 */
+	public static final long DEFAULT_MAX_CLOSURE_BYTES = 32L << 20;
+
+	/**
+	 * The number of random traversals labelled by default when the closure does not fit.
+	 */
+	public static final int DEFAULT_LABEL_COUNT = 5;
+
+	private final Condensation condensation;
+
+	// The transitive closure: the components every component reaches, as rows of words. Null if labels are used.
+	private final long[] closure;
+	private final int words;
+
+	// The intervals of every component in every traversal: the label l of the component c is
+	// [lows[l * components + c], posts[l * components + c]].
+	private final int[] lows;
+	private final int[] posts;
+	private final int labelCount;
+
+	// The interval of every component in the spanning tree of every traversal, indexed as the labels.
+	private final int[] treeStarts;
+	private final int[] treeEnds;
+
+	// The stack and marks of the searches of the queries.
+	private final int[] stack;
+	private final int[] marks;
+	private int search;
+	private long searches;
+
+	private final long buildNanos;
+
+	/**
+	 * Builds the index of a graph with the default memory and number of labels.
+	 * @param graph The neighbours of every node.
+	 */
+	public ReachabilityIndex(Adjacency graph) {
+		this(graph, DEFAULT_MAX_CLOSURE_BYTES, DEFAULT_LABEL_COUNT, 42);
+	}
+
+	/**
+	 * Builds the index of a graph.
+	 * @param graph The neighbours of every node.
+	 * @param maxClosureBytes The memory the transitive closure can use. If it does not fit, labels are used.
+	 * @param labelCount The number of random traversals labelled if the closure is not used, at least 1.
+	 * @param seed The seed of the random traversals.
+	 */
+	public ReachabilityIndex(Adjacency graph, long maxClosureBytes, int labelCount, long seed) {
+		if (labelCount < 1)
+		{
+			throw new IllegalArgumentException("At least one label is needed: " + labelCount);
+		}
+
+		long start = System.nanoTime();
+
+		this.condensation = new Condensation(graph);
+
+		int componentCount = this.condensation.getComponentCount();
+
+		this.words = (componentCount + 63) / 64;
+
+		if ((long) componentCount * this.words * 8 <= maxClosureBytes && (long) componentCount * this.words <= Integer.MAX_VALUE - 8)
+		{
+			this.closure = buildClosure();
+			this.labelCount = 0;
+			this.lows = this.posts = this.treeStarts = this.treeEnds = this.stack = this.marks = null;
+		}
+		else
+		{
+			this.closure = null;
+			this.labelCount = labelCount;
+			this.lows = new int[labelCount * componentCount];
+			this.posts = new int[labelCount * componentCount];
+			this.treeStarts = new int[labelCount * componentCount];
+			this.treeEnds = new int[labelCount * componentCount];
+			this.stack = new int[componentCount];
+			this.marks = new int[componentCount];
+
+			Random random = new Random(seed);
+
+			for (int l = 0; l < labelCount; l++)
+			{
+				label(l, random);
+			}
+		}
+
+		this.buildNanos = System.nanoTime() - start;
+	}
+
+	/**
+	 * Builds the transitive closure. The components are numbered in reverse topological order, so the
+	 * rows of the components a component has an edge to are complete when it is processed.
+	 * @return The rows of the closure.
+	 */
+	private long[] buildClosure() {
+		Adjacency edges = this.condensation.getComponentEdges();
+
+		long[] rows = new long[this.condensation.getComponentCount() * this.words];
+
+		for (int c = 0; c < this.condensation.getComponentCount(); c++)
+		{
+			int row = c * this.words;
+
+			rows[row + (c >>> 6)] |= 1L << c;
+
+			for (int e = edges.getOffsets()[c]; e < edges.getOffsets()[c + 1]; e++)
+			{
+				int successorRow = edges.getNodes()[e] * this.words;
+
+				// The successor has a lower number, so the words after its own are empty.
+				for (int w = 0; w <= edges.getNodes()[e] >>> 6; w++)
+				{
+					rows[row + w] |= rows[successorRow + w];
+				}
+			}
+		}
+
+		return rows;
+	}
+
+	/**
+	 * Labels the components with the intervals of a random depth first traversal: the postorder number of a
+	 * component and the lowest postorder number of the components it reaches.
+	 * The preorder numbers of its spanning tree are kept too.
+	 * @param label The number of the label.
+	 * @param random The random choices of the traversal.
+	 */
+	private void label(int label, Random random) {
+		Adjacency edges = this.condensation.getComponentEdges();
+		int[] offsets = edges.getOffsets();
+		int[] successors = edges.getNodes();
+
+		int componentCount = this.condensation.getComponentCount();
+		int base = label * componentCount;
+
+		// The roots in a random order, and the successors of every component from a random one.
+		int[] roots = new int[componentCount];
+
+		for (int c = 0; c < componentCount; c++)
+		{
+			int j = random.nextInt(c + 1);
+			roots[c] = roots[j];
+			roots[j] = c;
+		}
+
+		int[] firstSuccessor = new int[componentCount];
+		int[] visitedSuccessors = new int[componentCount];
+		boolean[] visited = new boolean[componentCount];
+
+		int post = 0;
+		int preorder = 0;
+
+		for (int root : roots)
+		{
+			if (visited[root])
+			{
+				continue;
+			}
+
+			int depth = 0;
+
+			this.stack[depth++] = root;
+			visited[root] = true;
+			firstSuccessor[root] = randomSuccessor(root, offsets, random);
+
+			this.treeStarts[base + root] = preorder++;
+
+			while (depth > 0)
+			{
+				int c = this.stack[depth - 1];
+				int degree = offsets[c + 1] - offsets[c];
+
+				if (visitedSuccessors[c] < degree)
+				{
+					int successor = successors[offsets[c] + (firstSuccessor[c] + visitedSuccessors[c]++) % degree];
+
+					if (!visited[successor])
+					{
+						visited[successor] = true;
+						firstSuccessor[successor] = randomSuccessor(successor, offsets, random);
+						this.stack[depth++] = successor;
+						this.treeStarts[base + successor] = preorder++;
+					}
+
+					continue;
+				}
+
+				depth--;
+
+				// Every successor has finished, since the graph of the components is acyclic.
+				int low = post;
+
+				for (int e = offsets[c]; e < offsets[c + 1]; e++)
+				{
+					low = Math.min(low, this.lows[base + successors[e]]);
+				}
+
+				this.lows[base + c] = low;
+				this.posts[base + c] = post++;
+				this.treeEnds[base + c] = preorder - 1;
+			}
+		}
+	}
+
+	private static int randomSuccessor(int component, int[] offsets, Random random) {
+		int degree = offsets[component + 1] - offsets[component];
+
+		return degree == 0 ? 0 : random.nextInt(degree);
+	}
+
+	/**
+	 * Returns a value indicating whether a node reaches another one through the edges of the graph.
+	 * Every node reaches itself.
+	 * @param source The source node.
+	 * @param target The target node.
+	 * @return True if there is a path from the source to the target, false otherwise.
+	 */
+	public boolean reaches(int source, int target) {
+		int from = this.condensation.getComponent(source);
+		int to = this.condensation.getComponent(target);
+
+		if (this.closure != null)
+		{
+			return (this.closure[from * this.words + (to >>> 6)] & (1L << to)) != 0;
+		}
+
+		Boolean known = check(from, to);
+
+		return known != null ? known : search(from, to);
+	}
+
+	/**
+	 * Answers a query between two components with the labels, if they are enough.
+	 * @param from The source component.
+	 * @param to The target component.
+	 * @return True or false if the labels answer the query, or null if the graph has to be searched.
+	 */
+	private Boolean check(int from, int to) {
+		if (from == to)
+		{
+			return Boolean.TRUE;
+		}
+
+		// The edges go from a component to another one with a lower number.
+		if (to > from)
+		{
+			return Boolean.FALSE;
+		}
+
+		int componentCount = this.condensation.getComponentCount();
+
+		for (int l = 0, i = from, j = to; l < this.labelCount; l++, i += componentCount, j += componentCount)
+		{
+			if (this.lows[j] < this.lows[i] || this.posts[j] > this.posts[i])
+			{
+				return Boolean.FALSE;
+			}
+		}
+
+		// A descendant in a spanning tree is reachable.
+		for (int l = 0, i = from, j = to; l < this.labelCount; l++, i += componentCount, j += componentCount)
+		{
+			if (this.treeStarts[i] <= this.treeStarts[j] && this.treeStarts[j] <= this.treeEnds[i])
+			{
+				return Boolean.TRUE;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Searches the graph of the components, skipping the components the labels rule out.
+	 * @param from The source component.
+	 * @param to The target component.
+	 * @return True if the source reaches the target, false otherwise.
+	 */
+	private boolean search(int from, int to) {
+		Adjacency edges = this.condensation.getComponentEdges();
+		int[] offsets = edges.getOffsets();
+		int[] successors = edges.getNodes();
+
+		this.search++;
+		this.searches++;
+
+		int top = 0;
+
+		this.stack[top++] = from;
+		this.marks[from] = this.search;
+
+		while (top > 0)
+		{
+			int c = this.stack[--top];
+
+			for (int e = offsets[c]; e < offsets[c + 1]; e++)
+			{
+				int successor = successors[e];
+
+				if (this.marks[successor] == this.search)
+				{
+					continue;
+				}
+
+				this.marks[successor] = this.search;
+
+				Boolean known = check(successor, to);
+
+				if (known == Boolean.TRUE)
+				{
+					return true;
+				}
+
+				if (known == null)
+				{
+					this.stack[top++] = successor;
+				}
+			}
+		}
+
+		return false;
+	}
+
+	public Condensation getCondensation() {
+		return condensation;
+	}
+
+	/**
+	 * Returns a value indicating whether the index is the transitive closure, or labels otherwise.
+	 * @return True if the index is the transitive closure.
+	 */
+	public boolean isClosure() {
+		return closure != null;
+	}
+
+	/**
+	 * Returns the number of random traversals labelled.
+	 * @return The number of labels, or 0 if the index is the transitive closure.
+	 */
+	public int getLabelCount() {
+		return labelCount;
+	}
+
+	/**
+	 * Returns the time it took to build the index, condensation included.
+	 * @return The nanoseconds.
+	 */
+	public long getBuildNanos() {
+		return buildNanos;
+	}
+
+	/**
+	 * Returns the memory of the arrays of the index, the condensation included.
+	 * @return The approximate size in bytes.
+	 */
+	public long getSizeInBytes() {
+		Adjacency nodes = this.condensation.getComponentNodes();
+		Adjacency edges = this.condensation.getComponentEdges();
+
+		// The component of every node, and the offsets and neighbours of both adjacencies.
+		long bytes = 4L * (this.condensation.getNodeCount() + nodes.getOffsets().length + nodes.getNodes().length
+			+ edges.getOffsets().length + edges.getNodes().length);
+
+		if (this.closure != null)
+		{
+			return bytes + 8L * this.closure.length;
+		}
+
+		return bytes + 4L * (this.lows.length + this.posts.length + this.treeStarts.length + this.treeEnds.length
+			+ this.stack.length + this.marks.length);
+	}
+
+	/**
+	 * Returns the number of queries that the labels could not answer, so the graph had to be searched.
+	 * @return The number of searches.
+	 */
+	public long getSearches() {
+		return searches;
+	}
+}
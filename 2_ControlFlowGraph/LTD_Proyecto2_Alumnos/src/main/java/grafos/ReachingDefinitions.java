@@ -0,0 +1,215 @@
+package grafos;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Computes the definitions that reach every node of a control flow graph, with the classic
+ * iterative dataflow analysis: the gen and kill sets of every node are {@link BitSet}s indexed by
+ * definition number, and the nodes are processed in reverse postorder until nothing changes.
+ * A definition of a variable reaches a node if there is a path from the definition to the node
+ * that does not define the variable again.
+ */
+public class ReachingDefinitions {
+	// The node and the variable of every definition.
+	private final int[] definitionNodes;
+	private final int[] definitionVariables;
+
+	// The definitions of every variable.
+	private final BitSet[] variableDefinitions;
+
+	// The definitions that reach the start of every node.
+	private final BitSet[] in;
+
+	// The number of times a node has been processed until the solution was found.
+	private int iterations;
+
+	/**
+	 * Computes the reaching definitions of a control flow graph.
+	 * @param flowGraph The control flow graph. Only its {@link EdgeKind#CONTROL_FLOW} edges are followed.
+	 * @param entry The node where the execution starts. The nodes that cannot be reached from it are not analysed.
+	 * @param definitionNodes The node of every definition.
+	 * @param definitionVariables The variable of every definition, numbered from 0.
+	 */
+	public ReachingDefinitions(Graph flowGraph, int entry, int[] definitionNodes, int[] definitionVariables) {
+		if (definitionNodes.length != definitionVariables.length)
+		{
+			throw new IllegalArgumentException("Every definition needs a node and a variable");
+		}
+
+		this.definitionNodes = definitionNodes;
+		this.definitionVariables = definitionVariables;
+
+		int nodeCount = flowGraph.getNodeCount();
+
+		int variableCount = 0;
+
+		for (int variable : definitionVariables)
+		{
+			variableCount = Math.max(variableCount, variable + 1);
+		}
+
+		this.variableDefinitions = new BitSet[variableCount];
+
+		for (int v = 0; v < variableCount; v++)
+		{
+			this.variableDefinitions[v] = new BitSet();
+		}
+
+		BitSet[] gen = new BitSet[nodeCount];
+
+		for (int d = 0; d < definitionNodes.length; d++)
+		{
+			this.variableDefinitions[definitionVariables[d]].set(d);
+
+			if (gen[definitionNodes[d]] == null)
+			{
+				gen[definitionNodes[d]] = new BitSet();
+			}
+
+			gen[definitionNodes[d]].set(d);
+		}
+
+		// A node kills the other definitions of the variables it defines.
+		BitSet[] kill = new BitSet[nodeCount];
+
+		for (int n = 0; n < nodeCount; n++)
+		{
+			if (gen[n] == null)
+			{
+				continue;
+			}
+
+			kill[n] = new BitSet();
+
+			for (int d = gen[n].nextSetBit(0); d >= 0; d = gen[n].nextSetBit(d + 1))
+			{
+				kill[n].or(this.variableDefinitions[definitionVariables[d]]);
+			}
+
+			kill[n].andNot(gen[n]);
+		}
+
+		this.in = new BitSet[nodeCount];
+
+		solve(flowGraph, entry, gen, kill);
+	}
+
+	private void solve(Graph flowGraph, int entry, BitSet[] gen, BitSet[] kill) {
+		Adjacency successors = flowGraph.successors(EdgeKind.CONTROL_FLOW);
+		Adjacency predecessors = flowGraph.predecessors(EdgeKind.CONTROL_FLOW);
+
+		int[] order = successors.reversePostorder(entry);
+
+		// The position of every node in the order, or -1 if it is not reachable.
+		int[] position = new int[flowGraph.getNodeCount()];
+		Arrays.fill(position, -1);
+
+		for (int i = 0; i < order.length; i++)
+		{
+			position[order[i]] = i;
+		}
+
+		BitSet[] out = new BitSet[this.in.length];
+
+		// The nodes that are not reachable are never executed, so their definitions reach nothing.
+		for (int n = 0; n < this.in.length; n++)
+		{
+			this.in[n] = new BitSet();
+			out[n] = gen[n] == null || position[n] < 0 ? new BitSet() : (BitSet) gen[n].clone();
+		}
+
+		// The positions of the nodes that have to be processed again, visited in order round and round.
+		BitSet pending = new BitSet(order.length);
+		pending.set(0, order.length);
+
+		BitSet newOut = new BitSet();
+
+		int i = pending.nextSetBit(0);
+
+		while (i >= 0)
+		{
+			pending.clear(i);
+			this.iterations++;
+
+			int node = order[i];
+
+			// IN(n) = union of OUT(p) for every predecessor p.
+			BitSet nodeIn = this.in[node];
+
+			for (int p = predecessors.getOffsets()[node]; p < predecessors.getOffsets()[node + 1]; p++)
+			{
+				nodeIn.or(out[predecessors.getNodes()[p]]);
+			}
+
+			// OUT(n) = GEN(n) + (IN(n) - KILL(n)).
+			newOut.clear();
+			newOut.or(nodeIn);
+
+			if (kill[node] != null)
+			{
+				newOut.andNot(kill[node]);
+				newOut.or(gen[node]);
+			}
+
+			if (!newOut.equals(out[node]))
+			{
+				out[node].clear();
+				out[node].or(newOut);
+
+				for (int s = successors.getOffsets()[node]; s < successors.getOffsets()[node + 1]; s++)
+				{
+					int successor = position[successors.getNodes()[s]];
+
+					if (successor >= 0)
+					{
+						pending.set(successor);
+					}
+				}
+			}
+
+			// Continue with the next pending node, going back to the first one after the last one.
+			int next = pending.nextSetBit(i + 1);
+
+			i = next >= 0 ? next : pending.nextSetBit(0);
+		}
+	}
+
+	public int getDefinitionCount() {
+		return definitionNodes.length;
+	}
+
+	public int getDefinitionNode(int definition) {
+		return definitionNodes[definition];
+	}
+
+	public int getDefinitionVariable(int definition) {
+		return definitionVariables[definition];
+	}
+
+	/**
+	 * Returns the definitions of a variable. The set must not be modified.
+	 * @param variable The variable.
+	 * @return The definitions of the variable.
+	 */
+	public BitSet getDefinitions(int variable) {
+		return variable < variableDefinitions.length ? variableDefinitions[variable] : new BitSet();
+	}
+
+	/**
+	 * Returns the definitions that reach the start of a node. The set must not be modified.
+	 * @param node The node.
+	 * @return The reaching definitions.
+	 */
+	public BitSet getReachingDefinitions(int node) {
+		return in[node];
+	}
+
+	/**
+	 * Returns the number of times a node was processed until the solution was found.
+	 * @return The number of iterations.
+	 */
+	public int getIterations() {
+		return iterations;
+	}
+}
@@ -0,0 +1,203 @@
+package grafos;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Computes the slices of a dependence graph: the nodes reachable from a slicing criterion through
+ * its dependences. Following the dependences backwards gives the nodes that affect the criterion
+ * (backward slice), and following them forwards the nodes affected by it (forward slice).
+ * <p>
+ * The slices are computed over the {@link Condensation} of the graph, since all the nodes of a
+ * cycle have the same slice, and the slice of every criterion is kept: when the traversal of another
+ * criterion reaches it, the kept slice is added instead of traversing it again. The criteria of a batch
+ * are sliced from the deepest to the shallowest, so the shared sub-slices are always found.
+ * The traversals only use arrays allocated once, so the only allocation of a slice is its result.
+ */
+public class Slicer {
+	private final Adjacency dependences;
+
+	private final Condensation condensation;
+
+	// The slice of every component sliced, or null.
+	private final BitSet[] slices;
+
+	// The stack of the traversal, and the number of the last traversal that reached every component.
+	private final int[] stack;
+	private final int[] marks;
+	private int traversal;
+
+	// The number of slices computed, and the number of times a kept slice was added to another one.
+	private int slicesComputed;
+	private int slicesReused;
+
+	/**
+	 * Creates a slicer.
+	 * @param dependences The dependences to follow from every node: its predecessors in the dependence
+	 * graph for backward slices, or its successors for forward slices.
+	 */
+	public Slicer(Adjacency dependences) {
+		this.dependences = dependences;
+		this.condensation = new Condensation(dependences);
+
+		int componentCount = this.condensation.getComponentCount();
+
+		this.slices = new BitSet[componentCount];
+		this.stack = new int[componentCount];
+		this.marks = new int[componentCount];
+	}
+
+	/**
+	 * Returns the slice of a criterion: the criterion and every node reachable from it.
+	 * @param criterion The node of the criterion.
+	 * @return The nodes of the slice. The set is kept for other slices, so it must not be modified.
+	 */
+	public BitSet slice(int criterion) {
+		return sliceComponent(this.condensation.getComponent(criterion));
+	}
+
+	/**
+	 * Returns the slice of every criterion of a batch. The criteria are sliced from the ones that are
+	 * in the slices of others to the ones that are not, so every slice is computed from the shared ones.
+	 * @param criteria The nodes of the criteria.
+	 * @return The nodes of the slice of every criterion, in the same order. The sets must not be modified.
+	 */
+	public BitSet[] slices(int... criteria) {
+		// Sort the criteria by component, keeping their position in the lower half.
+		long[] order = new long[criteria.length];
+
+		for (int i = 0; i < criteria.length; i++)
+		{
+			order[i] = ((long) this.condensation.getComponent(criteria[i]) << 32) | i;
+		}
+
+		Arrays.sort(order);
+
+		BitSet[] result = new BitSet[criteria.length];
+
+		for (long key : order)
+		{
+			result[(int) key] = sliceComponent((int) (key >>> 32));
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the union of the slices of several criteria, traversing the graph once.
+	 * @param criteria The nodes of the criteria.
+	 * @return The nodes of the union of the slices. The set is new, so it can be modified.
+	 */
+	public BitSet union(int... criteria) {
+		BitSet result = new BitSet(this.condensation.getNodeCount());
+
+		this.traversal++;
+
+		int top = 0;
+
+		for (int criterion : criteria)
+		{
+			top = push(this.condensation.getComponent(criterion), top);
+		}
+
+		traverse(top, -1, result);
+
+		return result;
+	}
+
+	private BitSet sliceComponent(int component) {
+		if (this.slices[component] != null)
+		{
+			return this.slices[component];
+		}
+
+		BitSet result = new BitSet(this.condensation.getNodeCount());
+
+		this.traversal++;
+
+		traverse(push(component, 0), component, result);
+
+		this.slices[component] = result;
+		this.slicesComputed++;
+
+		return result;
+	}
+
+	/**
+	 * Adds to a slice the nodes of the components in the stack and of the components they reach.
+	 * @param top The number of components in the stack.
+	 * @param component The component whose slice is computed, that is traversed even if it is kept, or -1.
+	 * @param result The slice.
+	 */
+	private void traverse(int top, int component, BitSet result) {
+		Adjacency componentNodes = this.condensation.getComponentNodes();
+		Adjacency componentEdges = this.condensation.getComponentEdges();
+
+		while (top > 0)
+		{
+			int c = this.stack[--top];
+
+			// The slice of the component includes all the components it reaches.
+			if (c != component && this.slices[c] != null)
+			{
+				result.or(this.slices[c]);
+				this.slicesReused++;
+
+				continue;
+			}
+
+			for (int i = componentNodes.getOffsets()[c]; i < componentNodes.getOffsets()[c + 1]; i++)
+			{
+				result.set(componentNodes.getNodes()[i]);
+			}
+
+			for (int i = componentEdges.getOffsets()[c]; i < componentEdges.getOffsets()[c + 1]; i++)
+			{
+				top = push(componentEdges.getNodes()[i], top);
+			}
+		}
+	}
+
+	private int push(int component, int top) {
+		if (this.marks[component] == this.traversal)
+		{
+			return top;
+		}
+
+		this.marks[component] = this.traversal;
+		this.stack[top] = component;
+
+		return top + 1;
+	}
+
+	/**
+	 * Forgets the slices kept, to free their memory.
+	 */
+	public void clear() {
+		Arrays.fill(this.slices, null);
+	}
+
+	public Adjacency getDependences() {
+		return dependences;
+	}
+
+	public Condensation getCondensation() {
+		return condensation;
+	}
+
+	/**
+	 * Returns the number of slices computed (not reused) since the slicer was created.
+	 * @return The number of slices computed.
+	 */
+	public int getSlicesComputed() {
+		return slicesComputed;
+	}
+
+	/**
+	 * Returns the number of times a kept slice was added to another slice instead of traversing it again.
+	 * @return The number of slices reused.
+	 */
+	public int getSlicesReused() {
+		return slicesReused;
+	}
+}
@@ -2,9 +2,6 @@ package grafos;
 
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
 
 import com.github.javaparser.JavaParser;
 import com.github.javaparser.ast.CompilationUnit;
@@ -55,22 +52,24 @@ public class Transformador {
 		VoidVisitor<CFG> visitadorCFG = new VisitadorCFG();
 		visitadorCFG.visit(cu, cfg);
 
-		printGraph(ruta, null, cfg.arcos, "CFG");
+		printGraph(ruta, cfg.toDot(), "CFG");
 
 		ProgramDependencyGraph pdg = new ProgramDependencyGraph();
 		VoidVisitor<ProgramDependencyGraph> visitadorPDG = new VisitadorPDG();
 		visitadorPDG.visit(cu, pdg);
 
-		List<String> pdgEdges = new ArrayList<String>(pdg.controlEdges);
+		// Las dependencias de control se obtienen de los post-dominadores del CFG,
+		// y las de datos de las definiciones que alcanzan cada uso en el CFG
+		pdg.addControlDependences(cfg);
+		pdg.addDataDependences(cfg);
 
-		pdgEdges.addAll(pdg.dataEdges);
-
-		printGraph(ruta, pdg.nodes, pdgEdges, "PDG");
+		printGraph(ruta, pdg.toDot(), "PDG");
 	}
 
-	private static void printGraph(String ruta, Map<Integer, List<String>> nodes,  List<String> edges, String graphName) {
+	private static void printGraph(String ruta, String dotInfo, String graphName) {
 		// Imprimimos el grafo del programa
-		String dotInfo = imprimirGrafo(graphName, nodes, edges);
+		System.out.println("\n" + graphName + ":");
+		System.out.println(dotInfo);
 
 		// Generamos un PDF con el CFG del programa
 		System.out.print("\nGenerando PDF...");
@@ -90,36 +89,6 @@ public class Transformador {
 	    System.out.println("     PDF generado!");
 	}
 
-	// Imprime el grafo en la pantalla
-	private static String imprimirGrafo(String graphName, Map<Integer, List<String>> groupedNodes, List<String> arcos)
-	{
-		String dotInfo="";
-
-		if (groupedNodes != null)
-		{
-			// The control nodes must be ranked on their level. Otherwise, the graphs are optimized and printed weird.
-			for (Integer level : groupedNodes.keySet())
-			{
-				List<String> nodes = groupedNodes.get(level);
-
-				String joinedNodes = String.join(",", nodes);
-
-				System.out.println("Level "+ level + " nodes: " + joinedNodes);
-
-				dotInfo += "{ rank = same {" + joinedNodes + "}}";
-			}
-		}
-
-		for(String arco:arcos) {
-			dotInfo += arco;
-			System.out.println("ARCO: "+arco);
-		}
-		System.out.println("\n" + graphName + ":");
-		System.out.println(dotInfo);
-
-		return dotInfo;
-	}
-
 	// Elimina todos los comentarios de un nodo y sus hijos
 	static void quitarComentarios(Node node){
 		node.removeComment();
@@ -1,27 +1,33 @@
 package grafos;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Stack;
-import java.util.stream.Collectors;
 
+import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.NodeList;
 import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.SimpleName;
 import com.github.javaparser.ast.stmt.BlockStmt;
 import com.github.javaparser.ast.stmt.BreakStmt;
+import com.github.javaparser.ast.stmt.ContinueStmt;
 import com.github.javaparser.ast.stmt.DoStmt;
 import com.github.javaparser.ast.stmt.ExpressionStmt;
 import com.github.javaparser.ast.stmt.ForStmt;
 import com.github.javaparser.ast.stmt.ForeachStmt;
 import com.github.javaparser.ast.stmt.IfStmt;
+import com.github.javaparser.ast.stmt.LabeledStmt;
+import com.github.javaparser.ast.stmt.ReturnStmt;
 import com.github.javaparser.ast.stmt.Statement;
 import com.github.javaparser.ast.stmt.SwitchEntryStmt;
 import com.github.javaparser.ast.stmt.SwitchStmt;
 import com.github.javaparser.ast.stmt.ThrowStmt;
 import com.github.javaparser.ast.stmt.WhileStmt;
 import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
+import com.github.javaparser.printer.PrettyPrinterConfiguration;
 
 import grafos.nodes.ControlNodeCFG;
 import grafos.nodes.NodeType;
@@ -33,20 +39,22 @@ public class VisitadorCFG extends VoidVisitorAdapter<CFG>
 	/********************** Atributos ***********************/
 	/********************************************************/
 
+	// Imprime las instrucciones de los nodos sin sus comentarios, que se han quitado antes
+	private static final PrettyPrinterConfiguration IMPRESORA_SIN_COMENTARIOS = new PrettyPrinterConfiguration().setPrintComments(false);
+
 	// Usamos un contador para numerar las instrucciones
 	int contador=1;
-	String nodoAnterior = "Start";
-	String nodoActual = "";
 
-	// The collection of control nodes that we are currently analysing.
-	// Each control node in the stack represents a nesting level.
-	Stack<ControlNodeCFG> controlNodes = new Stack<ControlNodeCFG>();
+	// The nodes whose execution continues in the next instruction. After a jump (break, continue,
+	// return or throw) it is empty, since the next instruction can only be reached from somewhere else.
+	List<Integer> nodosAnteriores = new ArrayList<Integer>();
 
-	// The amount of control nodes that can be unstacked.
-	int exitDepth = 0;
+	// The loops, switches and labeled statements that we are currently analysing, where
+	// a break or a continue can jump. Each control node in the stack represents a nesting level.
+	Stack<ControlNodeCFG> controlNodes = new Stack<ControlNodeCFG>();
 
-	// A flag that indicates that a break expression has been visited.
-	boolean breakExpressionVisited = false;
+	// The label of the loop that is going to be visited, if it is labeled.
+	String loopLabel = null;
 
 	/********************************************************/
 	/*********************** Metodos ************************/
@@ -57,11 +65,14 @@ public class VisitadorCFG extends VoidVisitorAdapter<CFG>
 	@Override
 	public void visit(MethodDeclaration methodDeclaration, CFG cfg)
 	{
+		// Cada método empieza en el nodo inicial
+		nodosAnteriores = nodos(CFG.START);
+
 	    // Visitamos el método
 		super.visit(methodDeclaration, cfg);
 
 		// Añadimos el nodo final al CFG
-		cfg.arcos.add(nodoAnterior+"-> Stop;");
+		crearArcos(cfg, CFG.STOP);
 	}
 
 	// Visitador de expresiones
@@ -70,11 +81,9 @@ public class VisitadorCFG extends VoidVisitorAdapter<CFG>
 	public void visit(ExpressionStmt es, CFG cfg)
 	{
 		// Creamos el nodo actual
-		nodoActual = crearNodo(es);
+		int nodoActual = crearNodo(cfg, es, es);
 
-		crearArcos(cfg);
-
-		nodoAnterior = nodoActual;
+		crearArcos(cfg, nodoActual);
 
 		// Seguimos visitando...
 		super.visit(es, cfg);
@@ -87,45 +96,34 @@ public class VisitadorCFG extends VoidVisitorAdapter<CFG>
 	 */
 	@Override
 	public void visit(IfStmt ifStmt, CFG cfg) {
-		String ifNode = crearNodo("if (" + ifStmt.getCondition() + ")");
-
-		// Create the arcs with the previous node.
-		this.nodoActual = ifNode;
-
-		crearArcos(cfg);
-
-		// Create the arcs to the 'if' child nodes.
-		this.nodoAnterior = ifNode;
+		int ifNode = crearNodo(cfg, "if (" + ifStmt.getCondition() + ")", ifStmt);
 
-		ControlNodeCFG ifControlNode = new ControlNodeCFG(NodeType.IF,  ifNode);
-		this.controlNodes.push(ifControlNode);
+		// Create the arcs with the previous nodes.
+		crearArcos(cfg, ifNode);
 
 		// First visit the 'then' statement, that will always be present.
 		super.visit(convertirEnBloque(ifStmt.getThenStmt()), cfg);
 
-		// If it is present, also visit the 'else' statement.
+		List<Integer> exitNodes = this.nodosAnteriores;
+
+		// If it is present, also visit the 'else' statement. Otherwise, the execution continues from the if.
 		Optional<Statement> elseStmt = ifStmt.getElseStmt();
 
 		if (elseStmt.isPresent())
 		{
-			// Replace the exit node with a reference to the last node in the 'then' branch.
-			// This way, both branches will converge in the instruction after the if statement.
-			ifControlNode.getExitNodes().set(0, this.nodoAnterior);
-
-			this.nodoAnterior = ifNode;
-
-			// Set the exit depth to 0, to avoid unstacking control nodes that cannot be unstacked yet.
-			int aux = this.exitDepth;
-			this.exitDepth = 0;
+			this.nodosAnteriores = nodos(ifNode);
 
 			super.visit(convertirEnBloque(elseStmt.get()), cfg);
 
-			// Restore the initial exit depth.
-			this.exitDepth += aux;
+			exitNodes.addAll(this.nodosAnteriores);
+		}
+		else
+		{
+			exitNodes.add(ifNode);
 		}
 
-		// Indicate that this control instruction can be removed from the stack.
-		this.exitDepth++;
+		// Both branches converge in the instruction after the if statement.
+		this.nodosAnteriores = exitNodes;
 	}
 
 	/**
@@ -135,15 +133,9 @@ public class VisitadorCFG extends VoidVisitorAdapter<CFG>
 	 */
 	@Override
 	public void visit(WhileStmt whileStmt, CFG cfg) {
-		String whileNode = crearNodo("while (" + whileStmt.getCondition() + ")");
-
-		ControlNodeCFG whileControlNode = new ControlNodeCFG(NodeType.WHILE,  whileNode);
-		this.controlNodes.push(whileControlNode);
-
-		visitLoop(whileStmt.getBody(), cfg, whileNode);
+		int whileNode = crearNodo(cfg, "while (" + whileStmt.getCondition() + ")", whileStmt);
 
-		// Remove the while control node since it is not needed anymore.
-		this.controlNodes.pop();
+		visitLoop(NodeType.WHILE, whileStmt.getBody(), cfg, whileNode, true, Collections.<Expression>emptyList());
 	}
 
 	/**
@@ -154,34 +146,18 @@ public class VisitadorCFG extends VoidVisitorAdapter<CFG>
 	@Override
 	public void visit(ForStmt forStmt, CFG cfg) {
 		// Add the edges for the initialization nodes.
-		for (Expression node : forStmt.getInitialization().toArray(new Expression[0]))
+		for (Expression node : forStmt.getInitialization())
 		{
-			this.nodoActual = crearNodo(node);
-
-			crearArcos(cfg);
-
-			this.nodoAnterior = this.nodoActual;
+			crearArcos(cfg, crearNodo(cfg, node, node));
 		}
 
-		String forNode = crearNodo("for (" + forStmt.getCompare().get() + ")");
-
-		ControlNodeCFG forControlNode = new ControlNodeCFG(NodeType.FOR,  forNode);
-		this.controlNodes.push(forControlNode);
+		// Without a condition, the loop can only be left with a jump.
+		Optional<Expression> compare = forStmt.getCompare();
 
-		// Add the update statements to the end of the body.
-		BlockStmt forBody = convertirEnBloque(forStmt.getBody());
+		int forNode = crearNodo(cfg, "for (" + (compare.isPresent() ? compare.get() : "") + ")", forStmt);
 
-		List<Statement> updateStatements = forStmt.getUpdate()
-				.stream()
-				.map(u -> new ExpressionStmt(u))
-				.collect(Collectors.toList());
-
-		forBody.getStatements().addAll(updateStatements);
-
-		this.visitLoop(forBody, cfg, forNode);
-
-		// Remove the for control node since it is not needed anymore.
-		this.controlNodes.pop();
+		// The update expressions are visited at the end of the body, where a continue jumps.
+		visitLoop(NodeType.FOR, forStmt.getBody(), cfg, forNode, compare.isPresent(), forStmt.getUpdate());
 	}
 
 	/**
@@ -191,41 +167,50 @@ public class VisitadorCFG extends VoidVisitorAdapter<CFG>
 	 */
 	@Override
 	public void visit(ForeachStmt forEachStmt, CFG cfg) {
-		String foreachNode = crearNodo("foreach (" + forEachStmt.getVariable() + " : " + forEachStmt.getIterable() + ")");
+		int foreachNode = crearNodo(cfg, "foreach (" + forEachStmt.getVariable() + " : " + forEachStmt.getIterable() + ")", forEachStmt);
 
-		ControlNodeCFG foreachControlNode = new ControlNodeCFG(NodeType.FOREACH,  foreachNode);
-		this.controlNodes.push(foreachControlNode);
-
-		visitLoop(forEachStmt.getBody(), cfg, foreachNode);
-
-		// Remove the for control node since it is not needed anymore.
-		this.controlNodes.pop();
+		visitLoop(NodeType.FOREACH, forEachStmt.getBody(), cfg, foreachNode, true, Collections.<Expression>emptyList());
 	}
 
 	/**
 	 * Visits the given loop and registers all the nodes into the {@link CFG}.
+	 * @param type The type of the loop.
 	 * @param loopBody The body of the loop.
 	 * @param cfg The control flow graph.
 	 * @param loopNode The node that represents the loop.
+	 * @param canExit Whether the loop node can leave the loop, because it has a condition.
+	 * @param updates The expressions evaluated at the end of every iteration.
 	 */
-	private void visitLoop(Statement loopBody, CFG cfg, String loopNode) {
-		// Create the edges from the previous node to the loop.
-		this.nodoActual = loopNode;
-
-		crearArcos(cfg);
+	private void visitLoop(NodeType type, Statement loopBody, CFG cfg, int loopNode, boolean canExit, List<Expression> updates) {
+		// Create the edges from the previous nodes to the loop.
+		crearArcos(cfg, loopNode);
 
-		this.nodoAnterior = loopNode;
+		ControlNodeCFG loopControlNode = pushControlNode(type);
 
 		// Create the edges to the loop's child nodes.
 		super.visit(convertirEnBloque(loopBody), cfg);
 
-		// Create the edge from the last node of the body to the loop node.
-		this.nodoActual = loopNode;
+		// The continue statements jump to the end of the body.
+		this.nodosAnteriores.addAll(loopControlNode.getContinueNodes());
+
+		for (Expression update : updates)
+		{
+			crearArcos(cfg, crearNodo(cfg, update.toString(IMPRESORA_SIN_COMENTARIOS) + ";", update));
+		}
 
-		crearArcos(cfg);
+		// Create the edges from the last nodes of the body to the loop node.
+		crearArcos(cfg, loopNode);
 
-		// The CFG analysis continues from the loopNode.
-		this.nodoAnterior = loopNode;
+		// Remove the loop control node since it is not needed anymore.
+		this.controlNodes.pop();
+
+		// The CFG analysis continues from the loop node and the break statements.
+		if (!canExit)
+		{
+			this.nodosAnteriores.clear();
+		}
+
+		this.nodosAnteriores.addAll(loopControlNode.getExitNodes());
 	}
 
 	/**
@@ -235,30 +220,31 @@ public class VisitadorCFG extends VoidVisitorAdapter<CFG>
 	 */
 	@Override
 	public void visit(DoStmt doStmt, CFG cfg) {
-		ControlNodeCFG doWhileControlNode = new ControlNodeCFG(NodeType.DO,  null);
-		this.controlNodes.push(doWhileControlNode);
+		ControlNodeCFG doWhileControlNode = pushControlNode(NodeType.DO);
+
+		// The first node created in the body is its first instruction, where every iteration starts.
+		int firstBodyNode = cfg.getNodeCount();
 
 		// Create the arcs to the 'do' statement child nodes.
 		// The first iteration is executed unconditionally.
 		super.visit(convertirEnBloque(doStmt.getBody()), cfg);
 
-		String doWhileNode = crearNodo("while (" + doStmt.getCondition() + ")");
+		// The continue statements jump to the condition.
+		this.nodosAnteriores.addAll(doWhileControlNode.getContinueNodes());
 
-		// Create the arcs with the previous node.
-		this.nodoActual = doWhileNode;
+		int doWhileNode = crearNodo(cfg, "while (" + doStmt.getCondition() + ")", doStmt);
 
-		crearArcos(cfg);
-
-		// The while statement is the node to continue the CFG analysis.
-		this.nodoAnterior = doWhileNode;
+		// Create the arcs with the previous nodes.
+		crearArcos(cfg, doWhileNode);
 
 		// Create the edges to loop to the first instruction of the body.
-		this.nodoActual = doWhileControlNode.getExitNodes().get(0);
-
-		crearArcos(cfg);
+		cfg.addEdge(doWhileNode, firstBodyNode < doWhileNode ? firstBodyNode : doWhileNode);
 
 		// Remove the while statement from the control nodes, since it is not needed anymore.
 		this.controlNodes.pop();
+
+		// The while statement and the break statements are the nodes to continue the CFG analysis.
+		this.nodosAnteriores.addAll(doWhileControlNode.getExitNodes());
 	}
 
 	/**
@@ -268,224 +254,226 @@ public class VisitadorCFG extends VoidVisitorAdapter<CFG>
 	 */
 	@Override
 	public void visit(SwitchStmt switchStmt, CFG cfg) {
-		// Create the edges from the previous node to the switch.
-		String switchNode = crearNodo("switch (" + switchStmt.getSelector() + ")");
-
-		this.nodoActual = switchNode;
+		// Create the edges from the previous nodes to the switch.
+		int switchNode = crearNodo(cfg, "switch (" + switchStmt.getSelector() + ")", switchStmt);
 
-		crearArcos(cfg);
+		crearArcos(cfg, switchNode);
 
 		// Stack the switch control node.
-		ControlNodeCFG switchControlNode = new ControlNodeCFG(NodeType.SWITCH,  null);
-		this.controlNodes.push(switchControlNode);
+		ControlNodeCFG switchControlNode = pushControlNode(NodeType.SWITCH);
 
-		int aux = 0;
+		// The nodes of the previous case that continue in the next one, because it does not end with a break.
+		List<Integer> fallthroughNodes = new ArrayList<Integer>();
 
-		boolean breakStmtVisited = false;
-		this.nodoAnterior = switchNode;
+		boolean hasDefault = false;
 
 		// Explore each case statement.
 		for (SwitchEntryStmt entry : switchStmt.getEntries())
 		{
-			// Since we are exploring other cases, do not unstack any control nodes from
-			// the previous branches.
-			aux += this.exitDepth;
-			this.exitDepth = 0;
+			hasDefault |= !entry.getLabel().isPresent();
 
-			List<String> previousNodes = new ArrayList<>();
+			this.nodosAnteriores = fallthroughNodes;
+			this.nodosAnteriores.add(switchNode);
 
-			if (!breakStmtVisited)
-			{
-				previousNodes.add(this.nodoActual);
-			}
+			this.visit(entry, cfg);
 
-			previousNodes.add(switchNode);
-
-			breakStmtVisited = this.visit(entry, cfg, previousNodes);
+			fallthroughNodes = this.nodosAnteriores;
 		}
 
-		// Remove the current node to avoid adding duplicate transitions.
-		switchControlNode.getExitNodes().remove(this.nodoActual);
+		this.controlNodes.pop();
 
-		// Restore the actual exit depth.
-		this.exitDepth = aux;
+		// The execution continues after the switch from the last case, the break statements and, if
+		// no case matches and there is no default, from the switch itself.
+		this.nodosAnteriores = fallthroughNodes;
+		this.nodosAnteriores.addAll(switchControlNode.getExitNodes());
 
-		this.exitDepth++;
+		if (!hasDefault)
+		{
+			this.nodosAnteriores.add(switchNode);
+		}
 	}
 
 	/**
 	 * Visits a {@link SwitchEntryStmt} and registers all the nodes into the {@link CFG}.
 	 * @param switchEntryStatement The switch entry statement.
 	 * @param cfg The control flow graph.
-	 * @param previousNodes The previous nodes that can reach this case statement.
 	 */
-	public boolean visit(SwitchEntryStmt switchEntryStatement, CFG arg, List<String> previousNodes) {
+	@Override
+	public void visit(SwitchEntryStmt switchEntryStatement, CFG cfg) {
 		// If it is a case, add the case label. Otherwise add the default label.
 		String switchLabel = switchEntryStatement.getLabel().isPresent()?
 				"case " + switchEntryStatement.getLabel().get()
 				: "default";
 
-		// Create the edges from the previous node to the switch entry.
-		String switchEntryNode = crearNodo(switchLabel);
+		// Create the edges from the previous nodes to the switch entry.
+		int switchEntryNode = crearNodo(cfg, switchLabel, switchEntryStatement);
 
-		this.nodoActual = switchEntryNode;
+		crearArcos(cfg, switchEntryNode);
 
-		// Create the references to the previous nodes.
-		for (String node : previousNodes)
-		{
-			this.nodoAnterior = node;
+		// Visit the switch entry.
+		super.visit(switchEntryStatement, cfg);
+	}
+
+	/**
+	 * Visits a {@link LabeledStmt} and registers its statement into the {@link CFG}.
+	 * @param labeledStmt The labeled statement to visit.
+	 * @param cfg The control flow graph.
+	 */
+	@Override
+	public void visit(LabeledStmt labeledStmt, CFG cfg) {
+		ControlNodeCFG labeledControlNode = new ControlNodeCFG(NodeType.LABELED, labeledStmt.getLabel().asString());
+		this.controlNodes.push(labeledControlNode);
+
+		// A continue with the label jumps to the next iteration of the loop, if the statement is a loop.
+		Statement statement = labeledStmt.getStatement();
 
-			this.crearArcos(arg);
+		if (statement.isWhileStmt() || statement.isDoStmt() || statement.isForStmt() || statement.isForeachStmt())
+		{
+			this.loopLabel = labeledControlNode.getLabel();
 		}
 
-		this.nodoAnterior = switchEntryNode;
+		statement.accept(this, cfg);
 
-		// Set the flag of a visited break statement to false.
-		this.breakExpressionVisited = false;
+		this.controlNodes.pop();
 
-		// Store the switch statement control node so we can unstack all the child nodes.
-		ControlNodeCFG switchControlNode = this.controlNodes.peek();
+		// A break with the label jumps after the statement.
+		this.nodosAnteriores.addAll(labeledControlNode.getExitNodes());
+	}
 
-		// Visit the switch entry.
-		super.visit(switchEntryStatement, arg);
+	/**
+	 * Visits a {@link BreakStmt} and registers it into the {@link CFG}.
+	 * The break does not have its own node: the previous nodes jump to the end of the loop or switch.
+	 * @param breakStmt The break statement to visit.
+	 * @param cfg The control flow graph.
+	 */
+	@Override
+	public void visit(BreakStmt breakStmt, CFG cfg)
+	{
+		ControlNodeCFG target = findJumpTarget(breakStmt.getLabel(), false);
 
-		ControlNodeCFG controlNode = null;
+		target.getExitNodes().addAll(this.nodosAnteriores);
 
-		// Unstack all the control nodes minus the switch.
-		for (int i = this.controlNodes.size() - 1; i >= 0; i--)
-		{
-			controlNode = this.controlNodes.get(i);
+		this.nodosAnteriores = new ArrayList<Integer>();
+	}
 
-			if (controlNode.equals(switchControlNode))
-			{
-				break;
-			}
-		}
+	/**
+	 * Visits a {@link ContinueStmt} and registers it into the {@link CFG}.
+	 * The continue does not have its own node: the previous nodes jump to the end of the loop's body.
+	 * @param continueStmt The continue statement to visit.
+	 * @param cfg The control flow graph.
+	 */
+	@Override
+	public void visit(ContinueStmt continueStmt, CFG cfg)
+	{
+		ControlNodeCFG target = findJumpTarget(continueStmt.getLabel(), true);
 
-		// Add the last visited node to the exit nodes of the switch.
-		// If a break statement was not visited, it should not be included. It should
-		// direct to the next case.
-		if (this.breakExpressionVisited)
-		{
-			switchControlNode.getExitNodes().add(this.nodoActual);
-		}
+		target.getContinueNodes().addAll(this.nodosAnteriores);
 
-		return this.breakExpressionVisited;
+		this.nodosAnteriores = new ArrayList<Integer>();
 	}
 
 	/**
-	 * Visits a {@link BreakStmt} and registers it into the {@link CFG}.
-	 * @param breakStmt The break statement to visit.
+	 * Visits a {@link ReturnStmt} and registers it into the {@link CFG}. It jumps to the end of the method.
+	 * @param returnStmt The return statement to visit.
 	 * @param cfg The control flow graph.
 	 */
-	public void visit(BreakStmt breakStmt, CFG cfg)
+	@Override
+	public void visit(ReturnStmt returnStmt, CFG cfg)
 	{
-		// Activate the flag to notify the switch entry visitor that a break statement was found.
-		this.breakExpressionVisited = true;
+		visitExit(returnStmt, cfg);
 	}
 
 	/**
 	 * Visits a {@link ThrowStmt} and registers it into the {@link CFG}.
-	 * @param breakStmt The break statement to visit.
+	 * Exceptions are not caught in the graph, so it jumps to the end of the method.
+	 * @param throwsStmt The throw statement to visit.
 	 * @param cfg The control flow graph.
 	 */
+	@Override
 	public void visit(ThrowStmt throwsStmt, CFG cfg)
 	{
-		// Do nothing with the throw statement on the flow, just register it as a expression.
-		this.visit(new ExpressionStmt(throwsStmt.getExpression()), cfg);
+		visitExit(throwsStmt, cfg);
 	}
 
-	// Crear arcos
-	private void crearArcos(CFG cfg)
+	private void visitExit(Statement exitStmt, CFG cfg)
 	{
-		añadirArcoSecuencialCFG(cfg);
+		crearArcos(cfg, crearNodo(cfg, exitStmt, exitStmt));
 
-		// Check if the control stack is empty.
-		if (this.controlNodes.isEmpty())
-		{
-			return;
-		}
+		crearArcos(cfg, CFG.STOP);
 
-		addDoWhileExitNode();
-
-		// Check if any element from the control stack can be removed.
-		if (exitDepth > 0)
-		{
-			addExitEdgesCFG(cfg);
-		}
+		this.nodosAnteriores = new ArrayList<Integer>();
 	}
 
 	/**
-	 * Adds the exit node to the do while control stack element.
+	 * Stacks the control node of a loop or a switch, with the label of the loop if it is labeled.
+	 * @param type The type of the control node.
+	 * @return The control node.
 	 */
-	private void addDoWhileExitNode() {
-		ControlNodeCFG lastControlNode = this.controlNodes.peek();
-
-		// If the current control node is a Do-While with no exit code, this means that
-		// this must be the first instruction of its body.
-		if (lastControlNode != null
-			&& lastControlNode.getType() == NodeType.DO
-			&& lastControlNode.getExitNodes().isEmpty())
-		{
-			// Because the do-while statement needs to loop back to this instruction,
-			// it must be stored for future reference.
-			List<String> exitNodes = lastControlNode.getExitNodes();
+	private ControlNodeCFG pushControlNode(NodeType type) {
+		ControlNodeCFG controlNode = new ControlNodeCFG(type, type.isLoopType() ? this.loopLabel : null);
 
-			exitNodes.add(this.nodoActual);
-		}
-	}
+		this.loopLabel = null;
 
-	// Añade un arco desde el último nodo hasta el nodo actual (se le pasa como parametro)
-	private void añadirArcoSecuencialCFG(CFG cfg)
-	{
-		System.out.println("NODO: " + nodoActual);
-
-		String arco = nodoAnterior + "->" + nodoActual + ";";
-
-		if (!cfg.arcos.contains(arco))
-		{
-			cfg.arcos.add(arco);
-		}
+		return this.controlNodes.push(controlNode);
 	}
 
 	/**
-	 * Adds to the {@link CFG} the edges to the exit nodes of every {@link ControlNodeCFG}
-	 * that can be removed.
-	 * @param cfg The control flow graph.
+	 * Returns the control node where a break or a continue jumps.
+	 * @param label The label of the jump, if any.
+	 * @param isContinue True for a continue, that can only jump to a loop; false for a break.
+	 * @return The control node.
 	 */
-	private void addExitEdgesCFG(CFG cfg) {
-		String aux = this.nodoAnterior;
-
-		while (this.exitDepth > 0)
+	private ControlNodeCFG findJumpTarget(Optional<SimpleName> label, boolean isContinue) {
+		for (int i = this.controlNodes.size() - 1; i >= 0; i--)
 		{
-			ControlNodeCFG controlNode = this.controlNodes.pop();
+			ControlNodeCFG controlNode = this.controlNodes.get(i);
 
-			// Create an edge for each exit node of the control instruction.
-			for (String exitNode : controlNode.getExitNodes())
-			{
-				this.nodoAnterior = exitNode;
+			boolean matches = label.isPresent()
+				? label.get().asString().equals(controlNode.getLabel())
+					&& (isContinue ? controlNode.getType().isLoopType() : controlNode.getType() == NodeType.LABELED)
+				: controlNode.getType().isLoopType() || (!isContinue && controlNode.getType() == NodeType.SWITCH);
 
-				añadirArcoSecuencialCFG(cfg);
+			if (matches)
+			{
+				return controlNode;
 			}
+		}
+
+		throw new IllegalStateException("There is no statement to jump to from " + (isContinue ? "continue" : "break")
+			+ (label.isPresent() ? " " + label.get() : ""));
+	}
+
+	// Crear arcos
+	// Añade un arco desde los nodos anteriores hasta el nodo actual, que pasa a ser el único nodo anterior
+	private void crearArcos(CFG cfg, int nodoActual)
+	{
+		System.out.println("NODO: " + cfg.getLabel(nodoActual));
 
-			this.exitDepth--;
+		for (int nodoAnterior : this.nodosAnteriores)
+		{
+			cfg.addEdge(nodoAnterior, nodoActual);
 		}
 
-		// Restore the node that existed before.
-		this.nodoAnterior = aux;
+		this.nodosAnteriores = nodos(nodoActual);
 	}
 
-	// Crear nodo
-	// Añade un arco desde el nodo actual hasta el último control
-	private String crearNodo(Object objeto)
+	// Devuelve una lista modificable con un nodo
+	private static List<Integer> nodos(int nodo)
 	{
-		return "\"("+ contador++ +") "+quitarComillas(objeto.toString())+"\"";
+		List<Integer> nodos = new ArrayList<Integer>();
+		nodos.add(nodo);
+
+		return nodos;
 	}
 
-	// Sustituye " por \" en un string: Sirve para eliminar comillas.
-	private static String quitarComillas(String texto)
+	// Crear nodo
+	// Añade al grafo un nodo numerado con el texto del objeto y el nodo del AST del que se crea
+	private int crearNodo(Graph grafo, Object objeto, Node nodo)
 	{
-	    return texto.replace("\"", "\\\"");
+		// Sin comentarios, la impresión de una instrucción no recorre las instrucciones anteriores de su bloque
+		String texto = objeto instanceof Node ? ((Node) objeto).toString(IMPRESORA_SIN_COMENTARIOS) : objeto.toString();
+
+		return grafo.addNode("("+ contador++ +") "+texto, nodo);
 	}
 
 	// Dada una sentencia,
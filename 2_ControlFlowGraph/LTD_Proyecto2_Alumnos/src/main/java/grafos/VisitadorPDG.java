@@ -1,13 +1,11 @@
 package grafos;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.Stack;
-import java.util.stream.Collectors;
 
+import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.NodeList;
 import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.ast.body.VariableDeclarator;
@@ -23,16 +21,17 @@ import com.github.javaparser.ast.stmt.ExpressionStmt;
 import com.github.javaparser.ast.stmt.ForStmt;
 import com.github.javaparser.ast.stmt.ForeachStmt;
 import com.github.javaparser.ast.stmt.IfStmt;
+import com.github.javaparser.ast.stmt.ReturnStmt;
 import com.github.javaparser.ast.stmt.Statement;
 import com.github.javaparser.ast.stmt.SwitchEntryStmt;
 import com.github.javaparser.ast.stmt.SwitchStmt;
+import com.github.javaparser.ast.stmt.ThrowStmt;
 import com.github.javaparser.ast.stmt.WhileStmt;
 import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
+import com.github.javaparser.printer.PrettyPrinterConfiguration;
 
 import grafos.nodes.ControlNodePDG;
 import grafos.nodes.NodeType;
-import grafos.nodes.VariableAssignmentNode;
-import grafos.util.X11Colours;
 
 
 public class VisitadorPDG extends VoidVisitorAdapter<ProgramDependencyGraph>
@@ -41,6 +40,9 @@ public class VisitadorPDG extends VoidVisitorAdapter<ProgramDependencyGraph>
 	/********************** Atributos ***********************/
 	/********************************************************/
 
+	// Imprime las instrucciones de los nodos sin sus comentarios, que se han quitado antes
+	private static final PrettyPrinterConfiguration IMPRESORA_SIN_COMENTARIOS = new PrettyPrinterConfiguration().setPrintComments(false);
+
 	// Usamos un contador para numerar las instrucciones
 	int contador=1;
 
@@ -48,7 +50,7 @@ public class VisitadorPDG extends VoidVisitorAdapter<ProgramDependencyGraph>
 	// Each control node in the stack represents a nesting level.
 	Stack<ControlNodePDG> controlNodes = new Stack<ControlNodePDG>();
 
-	String currentNode = "Entry";
+	int currentNode = ProgramDependencyGraph.ENTRY;
 
 	// Flag indicating whether we are currently visiting an assign expression.
 	boolean isInsideAssign = false;
@@ -59,9 +61,6 @@ public class VisitadorPDG extends VoidVisitorAdapter<ProgramDependencyGraph>
     // Flag indicating whether we are currently visiting the parameters of a method call.
 	boolean isParameterOfMethodCall = false;
 
-	// Map that assigns a colour to the outgoing data dependencies edges.
-	Map<String,String> nodeDataDependenciesColours = new HashMap<String, String>();
-
 	/********************************************************/
 	/*********************** Metodos ************************/
 	/********************************************************/
@@ -71,10 +70,12 @@ public class VisitadorPDG extends VoidVisitorAdapter<ProgramDependencyGraph>
 	@Override
 	public void visit(MethodDeclaration methodDeclaration, ProgramDependencyGraph programDependencyGraph)
 	{
-		this.controlNodes.add(new ControlNodePDG(NodeType.METHOD, "Entry", null));
+		this.controlNodes.add(new ControlNodePDG(NodeType.METHOD, ProgramDependencyGraph.ENTRY, null));
 
 	    // Visitamos el método
 		super.visit(methodDeclaration, programDependencyGraph);
+
+		this.controlNodes.pop();
 	}
 
 	// Visitador de expresiones
@@ -83,7 +84,7 @@ public class VisitadorPDG extends VoidVisitorAdapter<ProgramDependencyGraph>
 	public void visit(ExpressionStmt expressionStmt, ProgramDependencyGraph programDependencyGraph)
 	{
 		// Creamos el nodo actual
-		this.currentNode = crearNodo(expressionStmt);
+		this.currentNode = crearNodo(programDependencyGraph, expressionStmt, expressionStmt);
 
 		createEdges(this.currentNode, programDependencyGraph);
 
@@ -102,11 +103,14 @@ public class VisitadorPDG extends VoidVisitorAdapter<ProgramDependencyGraph>
 		// Add the variable to the data dependency dictionary.
 		String variableName = variableDeclarator.getNameAsString();
 
-		registerVariableReference(variableName, this.currentNode, programDependencyGraph);
-
 		registerVariableAssignment(variableName, this.currentNode, programDependencyGraph);
 
+		// The variables in the initializer are read, as in the value of an assignment.
+		this.isInsideAssign = true;
+
 		super.visit(variableDeclarator, programDependencyGraph);
+
+		this.isInsideAssign = false;
 	}
 
 	@Override
@@ -126,7 +130,8 @@ public class VisitadorPDG extends VoidVisitorAdapter<ProgramDependencyGraph>
 
 	public void visit(UnaryExpr unaryExpr, ProgramDependencyGraph programDependencyGraph)
 	{
-		if (unaryExpr.getExpression() instanceof NameExpr)
+		// Only the increments and decrements assign the variable. The other operators just read it.
+		if (unaryExpr.getExpression() instanceof NameExpr && isIncrementOrDecrement(unaryExpr.getOperator()))
 		{
 			NameExpr nameExpr = (NameExpr) unaryExpr.getExpression();
 
@@ -137,6 +142,18 @@ public class VisitadorPDG extends VoidVisitorAdapter<ProgramDependencyGraph>
 
 			this.registerVariableAssignment(variableName, this.currentNode, programDependencyGraph);
 		}
+		else
+		{
+			super.visit(unaryExpr, programDependencyGraph);
+		}
+	}
+
+	private static boolean isIncrementOrDecrement(UnaryExpr.Operator operator)
+	{
+		return operator == UnaryExpr.Operator.PREFIX_INCREMENT
+			|| operator == UnaryExpr.Operator.PREFIX_DECREMENT
+			|| operator == UnaryExpr.Operator.POSTFIX_INCREMENT
+			|| operator == UnaryExpr.Operator.POSTFIX_DECREMENT;
 	}
 
 	@Override
@@ -170,7 +187,7 @@ public class VisitadorPDG extends VoidVisitorAdapter<ProgramDependencyGraph>
 	@Override
 	public void visit(IfStmt ifStmt, ProgramDependencyGraph programDependencyGraph) {
 		// Create the edges to the if node.
-		String ifNode = crearNodo("if (" + ifStmt.getCondition() + ")");
+		int ifNode = crearNodo(programDependencyGraph, "if (" + ifStmt.getCondition() + ")", ifStmt);
 
 		createEdges(ifNode, programDependencyGraph);
 
@@ -188,9 +205,6 @@ public class VisitadorPDG extends VoidVisitorAdapter<ProgramDependencyGraph>
 
 		if (elseStmt.isPresent())
 		{
-			// Mark the start of new block, to avoid referencing variables from the then-block.
-			ifControlNode.startNewBlock();
-
 			super.visit(convertirEnBloque(elseStmt.get()), programDependencyGraph);
 		}
 
@@ -205,11 +219,11 @@ public class VisitadorPDG extends VoidVisitorAdapter<ProgramDependencyGraph>
 	 */
 	@Override
 	public void visit(WhileStmt whileStmt, ProgramDependencyGraph programDependencyGraph) {
-		String whileNode = crearNodo("while (" + whileStmt.getCondition() + ")");
+		int whileNode = crearNodo(programDependencyGraph, "while (" + whileStmt.getCondition() + ")", whileStmt);
 
 		ControlNodePDG whileControlNode = new ControlNodePDG(NodeType.WHILE,  whileNode, this.controlNodes.peek());
 
-		visitLoop(whileControlNode, whileStmt.getCondition(), whileStmt.getBody(), programDependencyGraph);
+		visitLoop(whileControlNode, whileStmt.getCondition(), whileStmt.getBody(), Collections.<Expression>emptyList(), programDependencyGraph);
 	}
 
 	/**
@@ -219,11 +233,11 @@ public class VisitadorPDG extends VoidVisitorAdapter<ProgramDependencyGraph>
 	 */
 	@Override
 	public void visit(DoStmt doStmt, ProgramDependencyGraph programDependencyGraph) {
-		String doWhileNode = crearNodo("do-while (" + doStmt.getCondition() + ")");
+		int doWhileNode = crearNodo(programDependencyGraph, "do-while (" + doStmt.getCondition() + ")", doStmt);
 
 		ControlNodePDG doWhileControlNode = new ControlNodePDG(NodeType.DO,  doWhileNode, this.controlNodes.peek());
 
-		visitLoop(doWhileControlNode, doStmt.getCondition(), doStmt.getBody(), programDependencyGraph);
+		visitLoop(doWhileControlNode, doStmt.getCondition(), doStmt.getBody(), Collections.<Expression>emptyList(), programDependencyGraph);
 	}
 
 	/**
@@ -233,7 +247,10 @@ public class VisitadorPDG extends VoidVisitorAdapter<ProgramDependencyGraph>
 	 */
 	@Override
 	public void visit(ForStmt forStmt, ProgramDependencyGraph programDependencyGraph) {
-		String forNode = crearNodo("for (" + forStmt.getCompare().get() + ")");
+		// Without a condition, the loop can only be left with a jump.
+		Optional<Expression> compare = forStmt.getCompare();
+
+		int forNode = crearNodo(programDependencyGraph, "for (" + (compare.isPresent() ? compare.get() : "") + ")", forStmt);
 
 		ControlNodePDG forControlNode = new ControlNodePDG(NodeType.FOR, forNode, this.controlNodes.peek());
 
@@ -243,8 +260,7 @@ public class VisitadorPDG extends VoidVisitorAdapter<ProgramDependencyGraph>
 			this.visit(new ExpressionStmt(node), programDependencyGraph);
 		}
 
-		// TODO: Can the Compare be null?
-		visitLoop(forControlNode, forStmt.getCompare().get(), forStmt.getBody(), programDependencyGraph);
+		visitLoop(forControlNode, compare.orElse(null), forStmt.getBody(), forStmt.getUpdate(), programDependencyGraph);
 	}
 
 	/**
@@ -254,61 +270,54 @@ public class VisitadorPDG extends VoidVisitorAdapter<ProgramDependencyGraph>
 	 */
 	@Override
 	public void visit(ForeachStmt forEachStmt, ProgramDependencyGraph programDependencyGraph) {
-		String foreachNode = crearNodo("foreach (" + forEachStmt.getVariable() + " : " + forEachStmt.getIterable() + ")");
+		int foreachNode = crearNodo(programDependencyGraph, "foreach (" + forEachStmt.getVariable() + " : " + forEachStmt.getIterable() + ")", forEachStmt);
 
 		ControlNodePDG foreachControlNode = new ControlNodePDG(NodeType.FOREACH, foreachNode, this.controlNodes.peek());
 
-		// Register the variable assignments from the foreach node.
-		this.currentNode = foreachNode;
-
-		// Visit all the variables in the foreach declaration.
+		// Every iteration assigns the variables in the foreach declaration.
 		forEachStmt.getVariable()
 			.getVariables()
-			.forEach(v -> this.visit(v, programDependencyGraph));
+			.forEach(v -> this.registerVariableAssignment(v.getNameAsString(), foreachNode, programDependencyGraph));
 
-		visitLoop(foreachControlNode, forEachStmt.getIterable(), forEachStmt.getBody(), programDependencyGraph);
+		visitLoop(foreachControlNode, forEachStmt.getIterable(), forEachStmt.getBody(), Collections.<Expression>emptyList(), programDependencyGraph);
 	}
 
 	/**
 	 * Visits a generic loop given all the required parameters.
 	 * @param controlNode The control node that represents the loop.
-	 * @param loopCondition The loop's condition expression.
+	 * @param loopCondition The loop's condition expression, or null if it has none.
 	 * @param loopBody The loop's body statement.
+	 * @param updates The expressions evaluated at the end of every iteration.
 	 * @param programDependencyGraph The program dependency graph.
-	 * @param initializationExpressions (Optional) The initialization expressions, if any, for the loop counter variables.
 	 */
-	private void visitLoop(ControlNodePDG controlNode, Expression loopCondition, Statement loopBody, ProgramDependencyGraph programDependencyGraph)
+	private void visitLoop(ControlNodePDG controlNode, Expression loopCondition, Statement loopBody, List<Expression> updates, ProgramDependencyGraph programDependencyGraph)
 	{
 		// Create the edges from the previous node to the loop.
 		createEdges(controlNode.getNode(), programDependencyGraph);
 
 		addNewControlNode(controlNode);
 
-		// Register the variable references from the condition, if any exists.
-		if (controlNode.getType() != NodeType.DO)
+		// Register the variable references from the condition. The definitions that reach them, from before the loop
+		// or from the previous iterations, are found later in the control flow graph.
+		if (loopCondition != null)
 		{
-			// The first reference should not be registered in DO-WHILE statements.
-			// The body is always executed one time before evaluating the condition.
 			registerConditionDataDependencies(controlNode.getNode(), loopCondition, programDependencyGraph);
 		}
 
 		// Create the edges to the loop's child nodes.
 		super.visit(convertirEnBloque(loopBody), programDependencyGraph);
 
-		// Register the data dependencies from the condition again,
-		registerConditionDataDependencies(controlNode.getNode(), loopCondition, programDependencyGraph);
-
-		// The variables modified inside the loop are referenced as dependencies for the next iterations.
-		registerLoopNextIterationDataDependencies(controlNode, loopCondition, programDependencyGraph);
+		// The update expressions are executed in every iteration, after the body.
+		for (Expression update : updates)
+		{
+			this.visit(new ExpressionStmt(update), programDependencyGraph);
+		}
 
 		// Remove the for control node since it is not needed anymore.
 		this.controlNodes.pop();
 	}
 
 	private void addNewControlNode(ControlNodePDG controlNode) {
-		// Add as a children of the current parent node.
-		this.controlNodes.peek().addChildNode(controlNode);
-
 		// Add it to the stack.
 		this.controlNodes.push(controlNode);
 	}
@@ -321,7 +330,7 @@ public class VisitadorPDG extends VoidVisitorAdapter<ProgramDependencyGraph>
 	@Override
 	public void visit(SwitchStmt switchStmt, ProgramDependencyGraph programDependencyGraph) {
 		// Create the edges from the previous node to the switch.
-		String switchNode = crearNodo("switch (" + switchStmt.getSelector() + ")");
+		int switchNode = crearNodo(programDependencyGraph, "switch (" + switchStmt.getSelector() + ")", switchStmt);
 
 		registerConditionDataDependencies(switchNode, switchStmt.getSelector(), programDependencyGraph);
 
@@ -348,7 +357,7 @@ public class VisitadorPDG extends VoidVisitorAdapter<ProgramDependencyGraph>
 				"case " + switchEntryStatement.getLabel().get()
 				: "default";
 
-		String switchEntryNode = crearNodo(switchLabel);
+		int switchEntryNode = crearNodo(programDependencyGraph, switchLabel, switchEntryStatement);
 
 		createEdges(switchEntryNode, programDependencyGraph);
 
@@ -362,6 +371,44 @@ public class VisitadorPDG extends VoidVisitorAdapter<ProgramDependencyGraph>
 		this.controlNodes.pop();
 	}
 
+	/**
+	 * Visits a {@link ReturnStmt} and registers it into the {@link ProgramDependencyGraph}.
+	 * @param returnStmt The return statement to visit.
+	 * @param programDependencyGraph The program dependency graph.
+	 */
+	@Override
+	public void visit(ReturnStmt returnStmt, ProgramDependencyGraph programDependencyGraph) {
+		this.currentNode = crearNodo(programDependencyGraph, returnStmt, returnStmt);
+
+		createEdges(this.currentNode, programDependencyGraph);
+
+		// The variables in the returned value are read.
+		this.isInsideAssign = true;
+
+		super.visit(returnStmt, programDependencyGraph);
+
+		this.isInsideAssign = false;
+	}
+
+	/**
+	 * Visits a {@link ThrowStmt} and registers it into the {@link ProgramDependencyGraph}.
+	 * @param throwStmt The throw statement to visit.
+	 * @param programDependencyGraph The program dependency graph.
+	 */
+	@Override
+	public void visit(ThrowStmt throwStmt, ProgramDependencyGraph programDependencyGraph) {
+		this.currentNode = crearNodo(programDependencyGraph, throwStmt, throwStmt);
+
+		createEdges(this.currentNode, programDependencyGraph);
+
+		// The variables in the thrown exception are read.
+		this.isInsideAssign = true;
+
+		super.visit(throwStmt, programDependencyGraph);
+
+		this.isInsideAssign = false;
+	}
+
 	/**
 	 * Visits a {@link MethodCallExpr} and registers all the nodes into the {@link ProgramDependencyGraph}.
 	 */
@@ -381,7 +428,7 @@ public class VisitadorPDG extends VoidVisitorAdapter<ProgramDependencyGraph>
 	 * @param conditionExpression The condition expression.
 	 * @param programDependencyGraph The program dependency graph.
 	 */
-	private void registerConditionDataDependencies(String conditionNode, Expression conditionExpression, ProgramDependencyGraph programDependencyGraph) {
+	private void registerConditionDataDependencies(int conditionNode, Expression conditionExpression, ProgramDependencyGraph programDependencyGraph) {
 		// A flag to indicate to the visitor methods that we are currently visiting a condition expression.
 		this.isPartOfCondition = true;
 
@@ -392,129 +439,33 @@ public class VisitadorPDG extends VoidVisitorAdapter<ProgramDependencyGraph>
 	}
 
 	/**
-	 * Registers the data dependencies of the next iterations of a loop. After visiting a loop, if a variable
-	 * is modified inside its body, the dependencies should retroactively added to all the variable references in it.
-	 * @param controlNode The loop's control node.
-	 * @param loopCondition The loop's condition expression.
-	 * @param programDependencyGraph The program dependency graph.
-	 */
-	private void registerLoopNextIterationDataDependencies(ControlNodePDG controlNode, Expression loopCondition, ProgramDependencyGraph programDependencyGraph) {
-
-		// Get all the variable assignment from this control node and its children.
-		Map<String, List<VariableAssignmentNode>> loopAssignments = controlNode.getLastAssignments();
-
-		// For each variable that has been assigned inside the loop or its children.
-		for (String variableName : loopAssignments.keySet())
-		{
-			// Get all the assignments of the variable inside the loop.
-			List<VariableAssignmentNode> loopCurrentVariableAssignments = loopAssignments.get(variableName);
-
-			for (VariableAssignmentNode va : loopCurrentVariableAssignments)
-			{
-				for (int i = this.controlNodes.size() - 1; i >= 0; i--)
-				{
-					ControlNodePDG node = this.controlNodes.get(i);
-
-					List<VariableAssignmentNode> assignments = node.getLastAssignments(variableName);
-
-					VariableAssignmentNode assignment = null;
-
-					// If the node type is a loop, we want to retrieve its first assignment.
-					// That way, we can copy its references and link them to the last assignment from the loop.
-					if (node.getType().isLoopType())
-					{
-						// Find the first assignment that is not equal to the current assignment.
-						assignment = assignments.stream()
-							.filter(a -> !a.equals(va))
-							.findFirst()
-							.orElse(null);
-					}
-					else
-					{
-						// If it wasn't a loop node, get only the last assignment from the variables.
-						List<VariableAssignmentNode> aux = assignments.stream()
-							.filter(a -> !a.equals(va))
-							.collect(Collectors.toList());
-
-						assignment = aux.get(aux.size() -1);
-					}
-
-					// If no assignment was found that was different to the current assignment, return.
-					if (assignment == null)
-					{
-						continue;
-					}
-
-					// Copy the references from the first assignment to the last one.
-					for(String reference : assignment.getReferences())
-					{
-						addDataDependencyEdges(va.getNode(), reference, programDependencyGraph);
-					}
-				}
-			}
-		}
-	}
-
-	/**
-	 * Registers the assignment of a given variable. Depending on the nesting level, it might override other
-	 * assignments.
+	 * Registers the assignment of a given variable. The uses it reaches are found later, in the control flow graph.
 	 * @param variableName The name of the variable.
 	 * @param assignmentNode The node where the variable is assigned.
 	 * @param programDependencyGraph The program dependency graph.
 	 */
-	private void registerVariableAssignment(String variableName, String assignmentNode, ProgramDependencyGraph programDependencyGraph) {
-		ControlNodePDG currentControlNode = this.controlNodes.peek();
-
-		currentControlNode.getCurrentBlock().addAssignment(
-			new VariableAssignmentNode(variableName, assignmentNode, currentControlNode));
+	private void registerVariableAssignment(String variableName, int assignmentNode, ProgramDependencyGraph programDependencyGraph) {
+		programDependencyGraph.addDefinition(assignmentNode, variableName);
 	}
 
 	/**
-	 * Registers a data dependency from the target node to the given variable assignments.
-	 * @param sourceVariableAssignments The nodes where the current variable was assigned.
+	 * Registers a reference to a given variable. The assignments that reach it are found later, in the control flow graph.
+	 * @param variableName The name of the variable.
 	 * @param referenceNode The node that references the variable.
 	 * @param programDependencyGraph The program dependency graph.
 	 */
-	private void registerVariableReference(String variableName, String referenceNode, ProgramDependencyGraph programDependencyGraph) {
-		List<VariableAssignmentNode> assignments = null;
-
-		ControlNodePDG controlNode = this.controlNodes.peek();
-
-		// If an IF statement is found as a parent node, only the current branch must be
-		// traversed. Otherwise, assignments from other branches would be added.
-		boolean getOnlyCurrentBlockAssignments = false;
-
-		do
-		{
-			getOnlyCurrentBlockAssignments |= controlNode.getType() == NodeType.IF;
-
-			assignments = controlNode.getLastAssignments(variableName, getOnlyCurrentBlockAssignments);
-
-			controlNode = controlNode.getParent();
-		}
-		while (assignments.size() == 0 && controlNode != null);
-
-		// Add references to all the available assignments to that variable.
-		for (VariableAssignmentNode va : assignments)
-		{
-			List<String> nodeReferences = va.getReferences();
-
-			if (!nodeReferences.contains(referenceNode))
-			{
-				nodeReferences.add(referenceNode);
-
-				addDataDependencyEdges(va.getNode(), this.currentNode, programDependencyGraph);
-			}
-		}
+	private void registerVariableReference(String variableName, int referenceNode, ProgramDependencyGraph programDependencyGraph) {
+		programDependencyGraph.addUse(referenceNode, variableName);
 	}
 
 	// Crear arcos
-	private void createEdges(String currentNode, ProgramDependencyGraph programDependencyGraph)
+	// Las dependencias de control se calculan después a partir del CFG, aquí solo se registra el nivel del nodo
+	private void createEdges(int currentNode, ProgramDependencyGraph programDependencyGraph)
 	{
+		System.out.println("NODO: " + programDependencyGraph.getLabel(currentNode));
+
 		// Register the node and its nesting level if they haven't been registered yet.
 		addNode(currentNode, programDependencyGraph);
-
-		addControlEdge(currentNode, programDependencyGraph);
 	}
 
 	/**
@@ -522,91 +473,18 @@ public class VisitadorPDG extends VoidVisitorAdapter<ProgramDependencyGraph>
 	 * @param currentNode The node to register.
 	 * @param programDependencyGraph The program dependency graph.
 	 */
-	private void addNode(String currentNode, ProgramDependencyGraph programDependencyGraph) {
-		int nestingLevel = this.controlNodes.size();
-
-		if (programDependencyGraph.nodes.containsKey(nestingLevel))
-		{
-			List<String> nodes = programDependencyGraph.nodes.get(nestingLevel);
-
-			if (!nodes.contains(currentNode))
-			{
-				nodes.add(currentNode);
-			}
-		}
-		else {
-			List<String> nodes = new ArrayList<String>();
-
-			nodes.add(currentNode);
-
-			programDependencyGraph.nodes.put(nestingLevel, nodes);
-		}
-	}
-
-
-	// Añade un arco desde el último nodo hasta el nodo actual (se le pasa como parametro)
-	private void addControlEdge(String currentNode, ProgramDependencyGraph programDependencyGraph)
-	{
-		System.out.println("NODO: " + currentNode);
-
-		String edge = this.controlNodes.peek().getNode() + "->" + currentNode + ";";
-
-		programDependencyGraph.controlEdges.add(edge);
-	}
-
-	/**
-	 * Adds a data dependency edge from the previous node to the current node.
-	 * @param sourceNode The source node for the data dependency edge.
-	 * @param targetNode The target of the data dependency edge.
-	 * @param programDependencyGraph The program dependency graph.
-	 */
-	private void addDataDependencyEdges(String sourceNode, String targetNode, ProgramDependencyGraph programDependencyGraph) {
-		System.out.println("DATOS NODO: " + targetNode);
-
-		String colour = this.getNodeColour(sourceNode);
-
-		String edge = sourceNode + "->" + targetNode + "[color= " + colour + ", constraint = false];";
-
-		if (!programDependencyGraph.dataEdges.contains(edge))
-		{
-			programDependencyGraph.dataEdges.add(edge);
-		}
-	}
-
-	/**
-	 * Returns the colour associated to the given node.
-	 * @param node The node to get the colour from.
-	 * @return The name of the colour associated to the node.
-	 */
-	private String getNodeColour(String node) {
-		if (this.nodeDataDependenciesColours.containsKey(node))
-		{
-			return this.nodeDataDependenciesColours.get(node);
-		}
-
-		String colour = null;
-
-		do
-		{
-			colour = X11Colours.getRandomColour();
-		} while (this.nodeDataDependenciesColours.values().contains(colour));
-
-		this.nodeDataDependenciesColours.put(node, colour);
-
-		return colour;
+	private void addNode(int currentNode, ProgramDependencyGraph programDependencyGraph) {
+		programDependencyGraph.setLevel(currentNode, this.controlNodes.size());
 	}
 
 	// Crear nodo
-	// Añade un arco desde el nodo actual hasta el último control
-	private String crearNodo(Object objeto)
+	// Añade al grafo un nodo numerado con el texto del objeto y el nodo del AST del que se crea
+	private int crearNodo(Graph grafo, Object objeto, Node nodo)
 	{
-		return "\"("+ contador++ +") "+quitarComillas(objeto.toString())+"\"";
-	}
+		// Sin comentarios, la impresión de una instrucción no recorre las instrucciones anteriores de su bloque
+		String texto = objeto instanceof Node ? ((Node) objeto).toString(IMPRESORA_SIN_COMENTARIOS) : objeto.toString();
 
-	// Sustituye " por \" en un string: Sirve para eliminar comillas.
-	private static String quitarComillas(String texto)
-	{
-	    return texto.replace("\"", "\\\"");
+		return grafo.addNode("("+ contador++ +") "+texto, nodo);
 	}
 
 	// Dada una sentencia,
@@ -4,31 +4,42 @@ import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Represents a control instruction from a program.
+ * Represents a control instruction from a program where a break or a continue can jump.
  * These are special nodes that have an effect on how the control graph
  * is generated. 
  */
 public class ControlNodeCFG extends NodeBase {
-	// The nodes that must be used when exiting the control node.
-	private List<String> exitNodes;
+	// The nodes that jump to the instruction after the control node (break).
+	private List<Integer> exitNodes;
+
+	// The nodes that jump to the next iteration of the loop (continue).
+	private List<Integer> continueNodes;
+
+	// The label of the instruction, if any.
+	private String label;
 
 	/**
 	 * Creates a new instance of a {@link ControlNodeCFG}.
 	 * @param type The type of the control node.
-	 * @param exitNode The node that must be used when exiting the control node.
+	 * @param label The label of the instruction, or null.
 	 */
-	public ControlNodeCFG(NodeType type, String exitNode) {
+	public ControlNodeCFG(NodeType type, String label) {
 		super(type);
 		
-		this.exitNodes = new ArrayList<String>();
-		
-		if (exitNode != null)
-		{
-			this.exitNodes.add(exitNode);			
-		}
+		this.exitNodes = new ArrayList<Integer>();
+		this.continueNodes = new ArrayList<Integer>();
+		this.label = label;
 	}
 
-	public List<String> getExitNodes() {
+	public List<Integer> getExitNodes() {
 		return this.exitNodes;
 	}
+
+	public List<Integer> getContinueNodes() {
+		return this.continueNodes;
+	}
+
+	public String getLabel() {
+		return this.label;
+	}
 }
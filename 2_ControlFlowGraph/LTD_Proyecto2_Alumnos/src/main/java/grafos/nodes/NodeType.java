@@ -13,7 +13,7 @@ public enum NodeType {
 	FOREACH,
 	SWITCH,
 	SWITCH_CASE,
-	VARIABLE_ASSIGNATION;
+	LABELED;
 
 	/**
 	 * Returns a value indicating whether the {@link NodeType} is a loop type.
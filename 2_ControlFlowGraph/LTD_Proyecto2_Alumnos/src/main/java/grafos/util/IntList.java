@@ -0,0 +1,80 @@
+package grafos.util;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of primitive ints, to avoid boxing in the graphs and the analyses.
+ */
+public class IntList {
+	private int[] values;
+
+	private int size;
+
+	public IntList() {
+		this(8);
+	}
+
+	public IntList(int capacity) {
+		this.values = new int[Math.max(1, capacity)];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public int get(int index) {
+		if (index >= size)
+		{
+			throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+		}
+
+		return values[index];
+	}
+
+	public void set(int index, int value) {
+		if (index >= size)
+		{
+			throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+		}
+
+		values[index] = value;
+	}
+
+	public void add(int value) {
+		if (size == values.length)
+		{
+			values = Arrays.copyOf(values, size * 2);
+		}
+
+		values[size++] = value;
+	}
+
+	/**
+	 * Removes and returns the last value of the list.
+	 * @return The last value.
+	 */
+	public int removeLast() {
+		if (size == 0)
+		{
+			throw new IndexOutOfBoundsException("The list is empty");
+		}
+
+		return values[--size];
+	}
+
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Returns a copy of the values of the list.
+	 * @return An array with the values, in order.
+	 */
+	public int[] toArray() {
+		return Arrays.copyOf(values, size);
+	}
+}
@@ -19,4 +19,9 @@ public class X11Colours {
 
     	return CNAMES[i];
     }
+
+    public static int getColourCount()
+    {
+    	return CNAMES.length;
+    }
 }
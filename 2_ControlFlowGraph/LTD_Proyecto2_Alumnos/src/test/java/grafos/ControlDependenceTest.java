@@ -0,0 +1,194 @@
+package grafos;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests the {@link DominatorTree} and the {@link ControlDependence} computed from it.
+ */
+public class ControlDependenceTest extends TestCase {
+
+	public void testDominatorsAgreeWithPathSearch() {
+		Random random = new Random(42);
+
+		for (int test = 0; test < 200; test++)
+		{
+			int nodeCount = 3 + random.nextInt(30);
+			Graph graph = TestGraphs.randomFlowGraph(nodeCount, random.nextInt(nodeCount * 3), random);
+
+			// A node dominates another one if the other one cannot be reached without going through it.
+			checkDominators(test, DominatorTree.dominators(graph, 0, EdgeKind.CONTROL_FLOW),
+				graph.successors(EdgeKind.CONTROL_FLOW), 0);
+			checkDominators(test, DominatorTree.postDominators(graph, 1, EdgeKind.CONTROL_FLOW),
+				graph.predecessors(EdgeKind.CONTROL_FLOW), 1);
+		}
+	}
+
+	private static void checkDominators(int test, DominatorTree tree, Adjacency edges, int root) {
+		BitSet reachable = TestGraphs.reachable(edges, root, -1);
+
+		for (int node = 0; node < edges.getNodeCount(); node++)
+		{
+			assertEquals("Graph " + test + ", node " + node, reachable.get(node), tree.isReachable(node));
+		}
+
+		for (int dominator = reachable.nextSetBit(0); dominator >= 0; dominator = reachable.nextSetBit(dominator + 1))
+		{
+			BitSet avoiding = TestGraphs.reachable(edges, root, dominator);
+
+			for (int node = reachable.nextSetBit(0); node >= 0; node = reachable.nextSetBit(node + 1))
+			{
+				assertEquals("Graph " + test + ", " + dominator + " dominates " + node,
+					dominator == node || !avoiding.get(node), tree.dominates(dominator, node));
+			}
+		}
+	}
+
+	public void testControlDependencesAgreeWithDefinition() {
+		Random random = new Random(7);
+
+		for (int test = 0; test < 200; test++)
+		{
+			int nodeCount = 3 + random.nextInt(30);
+			Graph graph = TestGraphs.randomFlowGraph(nodeCount, random.nextInt(nodeCount * 3), random);
+
+			Adjacency controllers = new ControlDependence(graph, 0, 1).getControllers();
+
+			// The definition is applied to the graph with the edge from the entry to the exit.
+			Graph augmented = TestGraphs.flowGraph(nodeCount, 0, 1);
+
+			for (int e = 0; e < graph.getEdgeCount(); e++)
+			{
+				augmented.addEdge(graph.getSource(e), graph.getTarget(e), EdgeKind.CONTROL_FLOW);
+			}
+
+			Adjacency successors = augmented.successors(EdgeKind.CONTROL_FLOW);
+			Adjacency predecessors = augmented.predecessors(EdgeKind.CONTROL_FLOW);
+
+			for (int node = 0; node < nodeCount; node++)
+			{
+				BitSet expected = new BitSet();
+
+				for (int controller = 0; controller < nodeCount; controller++)
+				{
+					if (dependsOn(successors, predecessors, node, controller))
+					{
+						expected.set(controller);
+					}
+				}
+
+				BitSet actual = new BitSet();
+
+				for (int c = 0; c < controllers.degree(node); c++)
+				{
+					actual.set(controllers.get(node, c));
+				}
+
+				assertEquals("Graph " + test + ", node " + node, expected, actual);
+			}
+		}
+	}
+
+	/**
+	 * Returns a value indicating whether a node is control dependent on another one: the other one has a
+	 * successor post-dominated by the node, and the node does not strictly post-dominate the other one.
+	 */
+	private static boolean dependsOn(Adjacency successors, Adjacency predecessors, int node, int controller) {
+		for (int s = 0; s < successors.degree(controller); s++)
+		{
+			if (postDominates(predecessors, node, successors.get(controller, s)))
+			{
+				return node == controller || !postDominates(predecessors, node, controller);
+			}
+		}
+
+		return false;
+	}
+
+	private static boolean postDominates(Adjacency predecessors, int postDominator, int node) {
+		return TestGraphs.reachable(predecessors, 1, -1).get(node)
+			&& (postDominator == node || !TestGraphs.reachable(predecessors, 1, postDominator).get(node));
+	}
+
+	public void testNodesThatCannotReachTheExitDependOnNothing() {
+		// Start -> while (true) -> x++ -> while (true), a method that starts with an infinite loop,
+		// and Start -> y++ -> Stop, another method of the same graph.
+		ControlDependence dependence = new ControlDependence(TestGraphs.flowGraph(5, 0, 2, 2, 3, 3, 2, 0, 4, 4, 1), 0, 1);
+
+		assertEquals(0, dependence.getControllers().degree(2));
+		assertEquals(0, dependence.getControllers().degree(3));
+		assertEquals(1, dependence.getDependents().degree(0));
+		assertEquals(4, dependence.getDependents().get(0, 0));
+
+		// Start -> if -> while (true) -> x++ -> while (true); if -> y++ -> Stop
+		dependence = new ControlDependence(TestGraphs.flowGraph(6, 0, 2, 2, 3, 3, 4, 4, 3, 2, 5, 5, 1), 0, 1);
+
+		assertEquals(0, dependence.getControllers().degree(3));
+		assertEquals(0, dependence.getControllers().degree(4));
+		assertEquals(1, dependence.getControllers().degree(2));
+		assertEquals(0, dependence.getControllers().get(2, 0));
+		assertEquals(1, dependence.getControllers().degree(5));
+		assertEquals(0, dependence.getControllers().get(5, 0));
+	}
+
+	public void testJumpsInLoop() {
+		ProgramDependencyGraph pdg = TestGraphs.buildPdg(
+			"class A {\n"
+			+ "	int f(int n) {\n"
+			+ "		int s = 0;\n"
+			+ "		for (int i = 0; i < n; i++) {\n"
+			+ "			if (i == 3) continue;\n"
+			+ "			if (i == 7) break;\n"
+			+ "			if (s > 100) return s;\n"
+			+ "			s += i;\n"
+			+ "		}\n"
+			+ "		return s;\n"
+			+ "	}\n"
+			+ "}\n");
+
+		int condition = TestGraphs.node(pdg, "for (i < n)");
+		int isContinue = TestGraphs.node(pdg, "if (i == 3)");
+		int isBreak = TestGraphs.node(pdg, "if (i == 7)");
+		int isReturn = TestGraphs.node(pdg, "if (s > 100)");
+		int[] returns = TestGraphs.nodes(pdg, "return s;");
+
+		assertEquals(nodeSet(ProgramDependencyGraph.ENTRY), controllers(pdg, TestGraphs.node(pdg, "int s = 0;")));
+		assertEquals(nodeSet(ProgramDependencyGraph.ENTRY, isContinue, isReturn), controllers(pdg, condition));
+		assertEquals(nodeSet(condition), controllers(pdg, isContinue));
+		assertEquals(nodeSet(isContinue), controllers(pdg, isBreak));
+		assertEquals(nodeSet(isBreak), controllers(pdg, isReturn));
+		assertEquals(nodeSet(isReturn), controllers(pdg, returns[0]));
+		assertEquals(nodeSet(isReturn), controllers(pdg, TestGraphs.node(pdg, "s += i;")));
+
+		// The update is reached after a continue and after a whole iteration.
+		assertEquals(nodeSet(isContinue, isReturn), controllers(pdg, TestGraphs.node(pdg, "i++;")));
+
+		// The return after the loop is reached when the condition is false or after a break.
+		assertEquals(nodeSet(condition, isBreak), controllers(pdg, returns[1]));
+	}
+
+	private static BitSet controllers(ProgramDependencyGraph pdg, int node) {
+		Adjacency controllers = pdg.predecessors(EdgeKind.CONTROL_DEPENDENCE);
+		BitSet result = new BitSet();
+
+		for (int c = 0; c < controllers.degree(node); c++)
+		{
+			result.set(controllers.get(node, c));
+		}
+
+		return result;
+	}
+
+	private static BitSet nodeSet(int... nodes) {
+		BitSet result = new BitSet();
+
+		for (int node : nodes)
+		{
+			result.set(node);
+		}
+
+		return result;
+	}
+}
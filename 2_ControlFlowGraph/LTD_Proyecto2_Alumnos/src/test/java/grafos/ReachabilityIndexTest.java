@@ -0,0 +1,89 @@
+package grafos;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import benchmarks.GeneratedMethods;
+import junit.framework.TestCase;
+
+/**
+ * Tests that the {@link ReachabilityIndex} answers as a breadth first search, with the transitive
+ * closure and with the interval labels.
+ */
+public class ReachabilityIndexTest extends TestCase {
+
+	public void testClosureAgreesWithBreadthFirstSearch() {
+		Random random = new Random(42);
+
+		for (int test = 0; test < 200; test++)
+		{
+			Adjacency graph = randomGraph(random);
+			ReachabilityIndex index = new ReachabilityIndex(graph);
+
+			assertTrue(index.isClosure());
+			checkQueries(test, graph, index);
+		}
+	}
+
+	public void testLabelsAgreeWithBreadthFirstSearch() {
+		Random random = new Random(7);
+
+		for (int test = 0; test < 200; test++)
+		{
+			Adjacency graph = randomGraph(random);
+			ReachabilityIndex index = new ReachabilityIndex(graph, 0, 1 + test % ReachabilityIndex.DEFAULT_LABEL_COUNT, test);
+
+			assertFalse(index.isClosure());
+			assertEquals(1 + test % ReachabilityIndex.DEFAULT_LABEL_COUNT, index.getLabelCount());
+			checkQueries(test, graph, index);
+		}
+	}
+
+	public void testDependenceIndexAgreesWithBackwardSlices() {
+		ProgramDependencyGraph pdg = TestGraphs.buildPdg(GeneratedMethods.generateSource(300, 42));
+
+		int[] criteria = new int[pdg.getNodeCount()];
+
+		for (int n = 0; n < criteria.length; n++)
+		{
+			criteria[n] = n;
+		}
+
+		BitSet[] slices = pdg.backwardSlices(criteria);
+
+		ReachabilityIndex closure = pdg.createDependenceIndex();
+		ReachabilityIndex labels = pdg.createDependenceIndex(0, ReachabilityIndex.DEFAULT_LABEL_COUNT);
+
+		assertTrue(closure.isClosure());
+		assertFalse(labels.isClosure());
+
+		// A node depends on another one if the other one is in its backward slice.
+		for (int a = 0; a < criteria.length; a++)
+		{
+			for (int b = 0; b < criteria.length; b++)
+			{
+				assertEquals(a + " depends on " + b, slices[a].get(b), closure.reaches(a, b));
+				assertEquals(a + " depends on " + b, slices[a].get(b), labels.reaches(a, b));
+			}
+		}
+	}
+
+	private static Adjacency randomGraph(Random random) {
+		int nodeCount = 1 + random.nextInt(60);
+
+		return TestGraphs.randomGraph(nodeCount, random.nextInt(nodeCount * 2), EdgeKind.DATA_DEPENDENCE, random)
+			.successors(EdgeKind.DATA_DEPENDENCE);
+	}
+
+	private static void checkQueries(int test, Adjacency graph, ReachabilityIndex index) {
+		for (int source = 0; source < graph.getNodeCount(); source++)
+		{
+			BitSet reachable = TestGraphs.reachable(graph, source, -1);
+
+			for (int target = 0; target < graph.getNodeCount(); target++)
+			{
+				assertEquals("Graph " + test + ", " + source + " reaches " + target, reachable.get(target), index.reaches(source, target));
+			}
+		}
+	}
+}
@@ -0,0 +1,187 @@
+package grafos;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests the {@link ReachingDefinitions} and the data dependences built from them.
+ */
+public class ReachingDefinitionsTest extends TestCase {
+
+	public void testRedefinitionKillsThePreviousOne() {
+		// Start -> x = 1 -> x = 2 -> use x -> Stop
+		Graph graph = TestGraphs.flowGraph(5, 0, 2, 2, 3, 3, 4, 4, 1);
+
+		ReachingDefinitions reaching = new ReachingDefinitions(graph, 0, new int[] { 2, 3 }, new int[] { 0, 0 });
+
+		assertEquals(bits(0), reaching.getReachingDefinitions(3));
+		assertEquals(bits(1), reaching.getReachingDefinitions(4));
+		assertEquals(bits(), reaching.getReachingDefinitions(2));
+	}
+
+	public void testDefinitionInLoopReachesTheCondition() {
+		// Start -> x = 0 -> while -> x = x + 1 -> while; while -> use x -> Stop
+		Graph graph = TestGraphs.flowGraph(6, 0, 2, 2, 3, 3, 4, 4, 3, 3, 5, 5, 1);
+
+		ReachingDefinitions reaching = new ReachingDefinitions(graph, 0, new int[] { 2, 4 }, new int[] { 0, 0 });
+
+		assertEquals(bits(0, 1), reaching.getReachingDefinitions(3));
+		assertEquals(bits(0, 1), reaching.getReachingDefinitions(4));
+		assertEquals(bits(0, 1), reaching.getReachingDefinitions(5));
+	}
+
+	public void testUnreachableNodesAreNotAnalysed() {
+		// Start -> x = 0 -> Stop; y = 0 -> z = 0 is never executed.
+		Graph graph = TestGraphs.flowGraph(5, 0, 2, 2, 1, 3, 4);
+
+		ReachingDefinitions reaching = new ReachingDefinitions(graph, 0, new int[] { 2, 3 }, new int[] { 0, 1 });
+
+		assertEquals(bits(0), reaching.getReachingDefinitions(1));
+		assertEquals(bits(), reaching.getReachingDefinitions(4));
+	}
+
+	public void testRandomGraphsAgreeWithPathSearch() {
+		Random random = new Random(42);
+
+		for (int test = 0; test < 200; test++)
+		{
+			int nodeCount = 3 + random.nextInt(30);
+			Graph graph = TestGraphs.randomFlowGraph(nodeCount, random.nextInt(nodeCount * 3), random);
+
+			int definitionCount = random.nextInt(nodeCount * 2);
+			int[] definitionNodes = new int[definitionCount];
+			int[] definitionVariables = new int[definitionCount];
+
+			for (int d = 0; d < definitionCount; d++)
+			{
+				definitionNodes[d] = random.nextInt(nodeCount);
+				definitionVariables[d] = random.nextInt(4);
+			}
+
+			ReachingDefinitions reaching = new ReachingDefinitions(graph, 0, definitionNodes, definitionVariables);
+
+			Adjacency successors = graph.successors(EdgeKind.CONTROL_FLOW);
+			BitSet executed = TestGraphs.reachable(successors, 0, -1);
+
+			for (int node = executed.nextSetBit(0); node >= 0; node = executed.nextSetBit(node + 1))
+			{
+				assertEquals("Graph " + test + ", node " + node,
+					searchReachingDefinitions(successors, executed, node, definitionNodes, definitionVariables),
+					reaching.getReachingDefinitions(node));
+			}
+		}
+	}
+
+	public void testDataDependencesInLoopWithJumps() {
+		ProgramDependencyGraph pdg = TestGraphs.buildPdg(
+			"class A {\n"
+			+ "	int f(int n) {\n"
+			+ "		int s = 0;\n"
+			+ "		for (int i = 0; i < n; i++) {\n"
+			+ "			if (i == 3) continue;\n"
+			+ "			if (i == 7) break;\n"
+			+ "			s += i;\n"
+			+ "		}\n"
+			+ "		return s;\n"
+			+ "	}\n"
+			+ "}\n");
+
+		int init = TestGraphs.node(pdg, "int s = 0;");
+		int add = TestGraphs.node(pdg, "s += i;");
+		int result = TestGraphs.node(pdg, "return s;");
+		int first = TestGraphs.node(pdg, "int i = 0;");
+		int update = TestGraphs.node(pdg, "i++;");
+		int condition = TestGraphs.node(pdg, "for (i < n)");
+
+		assertTrue(pdg.hasEdge(init, add, EdgeKind.DATA_DEPENDENCE));
+		assertTrue(pdg.hasEdge(add, add, EdgeKind.DATA_DEPENDENCE));
+		assertTrue(pdg.hasEdge(init, result, EdgeKind.DATA_DEPENDENCE));
+		assertTrue(pdg.hasEdge(add, result, EdgeKind.DATA_DEPENDENCE));
+
+		// The update, also reached after a continue, defines the value of the next iteration.
+		assertTrue(pdg.hasEdge(first, condition, EdgeKind.DATA_DEPENDENCE));
+		assertTrue(pdg.hasEdge(update, condition, EdgeKind.DATA_DEPENDENCE));
+		assertTrue(pdg.hasEdge(update, update, EdgeKind.DATA_DEPENDENCE));
+		assertTrue(pdg.hasEdge(first, update, EdgeKind.DATA_DEPENDENCE));
+	}
+
+	/**
+	 * Finds the definitions that reach a node by searching forward from every definition
+	 * until the variable is defined again.
+	 */
+	private static BitSet searchReachingDefinitions(Adjacency successors, BitSet executed, int target,
+		int[] definitionNodes, int[] definitionVariables) {
+		BitSet result = new BitSet();
+
+		for (int d = 0; d < definitionNodes.length; d++)
+		{
+			if (!executed.get(definitionNodes[d]))
+			{
+				continue;
+			}
+
+			// The nodes the definition reaches the start of, and the ones that let it through.
+			BitSet reached = new BitSet();
+			ArrayDeque<Integer> queue = new ArrayDeque<Integer>();
+			queue.add(definitionNodes[d]);
+
+			boolean first = true;
+
+			while (!queue.isEmpty())
+			{
+				int node = queue.poll();
+
+				if (!first && definesVariable(node, definitionVariables[d], definitionNodes, definitionVariables))
+				{
+					continue;
+				}
+
+				first = false;
+
+				for (int i = 0; i < successors.degree(node); i++)
+				{
+					int next = successors.get(node, i);
+
+					if (!reached.get(next))
+					{
+						reached.set(next);
+						queue.add(next);
+					}
+				}
+			}
+
+			if (reached.get(target))
+			{
+				result.set(d);
+			}
+		}
+
+		return result;
+	}
+
+	private static boolean definesVariable(int node, int variable, int[] definitionNodes, int[] definitionVariables) {
+		for (int d = 0; d < definitionNodes.length; d++)
+		{
+			if (definitionNodes[d] == node && definitionVariables[d] == variable)
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static BitSet bits(int... values) {
+		BitSet bits = new BitSet();
+
+		for (int value : values)
+		{
+			bits.set(value);
+		}
+
+		return bits;
+	}
+}
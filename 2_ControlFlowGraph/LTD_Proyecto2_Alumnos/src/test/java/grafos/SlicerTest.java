@@ -0,0 +1,138 @@
+package grafos;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import benchmarks.GeneratedMethods;
+import junit.framework.TestCase;
+
+/**
+ * Tests the {@link Condensation} of a graph and the slices the {@link Slicer} computes over it.
+ */
+public class SlicerTest extends TestCase {
+
+	public void testCondensationAgreesWithPathSearch() {
+		Random random = new Random(42);
+
+		for (int test = 0; test < 200; test++)
+		{
+			int nodeCount = 1 + random.nextInt(40);
+			Adjacency graph = TestGraphs.randomGraph(nodeCount, random.nextInt(nodeCount * 3), EdgeKind.DATA_DEPENDENCE, random)
+				.successors(EdgeKind.DATA_DEPENDENCE);
+
+			Condensation condensation = new Condensation(graph);
+
+			BitSet[] reachable = new BitSet[nodeCount];
+
+			for (int node = 0; node < nodeCount; node++)
+			{
+				reachable[node] = TestGraphs.reachable(graph, node, -1);
+			}
+
+			// Two nodes are in the same component if each one reaches the other one.
+			for (int a = 0; a < nodeCount; a++)
+			{
+				for (int b = 0; b < nodeCount; b++)
+				{
+					assertEquals("Graph " + test + ", nodes " + a + " and " + b,
+						reachable[a].get(b) && reachable[b].get(a),
+						condensation.getComponent(a) == condensation.getComponent(b));
+				}
+			}
+
+			// The components are numbered in reverse topological order, so the edges go to lower numbers.
+			Adjacency componentEdges = condensation.getComponentEdges();
+
+			for (int c = 0; c < componentEdges.getNodeCount(); c++)
+			{
+				for (int i = 0; i < componentEdges.degree(c); i++)
+				{
+					assertTrue("Graph " + test + ", component " + c, componentEdges.get(c, i) < c);
+				}
+			}
+
+			Adjacency componentNodes = condensation.getComponentNodes();
+			int total = 0;
+
+			for (int c = 0; c < condensation.getComponentCount(); c++)
+			{
+				for (int i = 0; i < componentNodes.degree(c); i++)
+				{
+					assertEquals(c, condensation.getComponent(componentNodes.get(c, i)));
+				}
+
+				total += componentNodes.degree(c);
+			}
+
+			assertEquals(nodeCount, total);
+		}
+	}
+
+	public void testSlicesAgreeWithBreadthFirstSearch() {
+		Random random = new Random(7);
+
+		for (int test = 0; test < 200; test++)
+		{
+			int nodeCount = 1 + random.nextInt(40);
+			Adjacency graph = TestGraphs.randomGraph(nodeCount, random.nextInt(nodeCount * 3), EdgeKind.DATA_DEPENDENCE, random)
+				.successors(EdgeKind.DATA_DEPENDENCE);
+
+			Slicer slicer = new Slicer(graph);
+
+			int[] criteria = new int[random.nextInt(2 * nodeCount)];
+
+			for (int i = 0; i < criteria.length; i++)
+			{
+				criteria[i] = random.nextInt(nodeCount);
+			}
+
+			BitSet[] slices = slicer.slices(criteria);
+			BitSet union = new BitSet();
+
+			for (int i = 0; i < criteria.length; i++)
+			{
+				BitSet expected = TestGraphs.reachable(graph, criteria[i], -1);
+
+				assertEquals("Graph " + test + ", criterion " + criteria[i], expected, slices[i]);
+				union.or(expected);
+			}
+
+			assertEquals("Graph " + test, union, slicer.union(criteria));
+
+			// The kept slices are forgotten, and the slices computed again one by one.
+			slicer.clear();
+
+			for (int node = nodeCount - 1; node >= 0; node--)
+			{
+				assertEquals("Graph " + test + ", criterion " + node, TestGraphs.reachable(graph, node, -1), slicer.slice(node));
+			}
+		}
+	}
+
+	public void testProgramSlicesAgreeWithBreadthFirstSearch() {
+		ProgramDependencyGraph pdg = TestGraphs.buildPdg(GeneratedMethods.generateSource(300, 42));
+
+		int[] criteria = new int[pdg.getNodeCount()];
+
+		for (int n = 0; n < criteria.length; n++)
+		{
+			criteria[n] = n;
+		}
+
+		BitSet[] backward = pdg.backwardSlices(criteria);
+		BitSet[] forward = pdg.forwardSlices(criteria);
+
+		Adjacency predecessors = pdg.predecessors(EdgeKind.CONTROL_DEPENDENCE, EdgeKind.DATA_DEPENDENCE);
+		Adjacency successors = pdg.successors(EdgeKind.CONTROL_DEPENDENCE, EdgeKind.DATA_DEPENDENCE);
+
+		for (int n = 0; n < criteria.length; n++)
+		{
+			assertEquals("Backward slice of " + pdg.getLabel(n), TestGraphs.reachable(predecessors, n, -1), backward[n]);
+			assertEquals("Forward slice of " + pdg.getLabel(n), TestGraphs.reachable(successors, n, -1), forward[n]);
+		}
+
+		// Every node depends on the entry, and the entry on nothing.
+		assertEquals(pdg.getNodeCount(), forward[ProgramDependencyGraph.ENTRY].cardinality());
+		assertEquals(1, backward[ProgramDependencyGraph.ENTRY].cardinality());
+	}
+}
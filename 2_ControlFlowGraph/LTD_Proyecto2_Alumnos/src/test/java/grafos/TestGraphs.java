@@ -0,0 +1,232 @@
+package grafos;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Random;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+
+import junit.framework.Assert;
+
+/**
+ * Graphs shared by the tests: the graphs of small programs, random graphs and a plain breadth
+ * first search to check the analyses against.
+ */
+final class TestGraphs {
+	// The output of the visitors, which print every node they create.
+	private static final PrintStream DISCARD = new PrintStream(new OutputStream() {
+		@Override
+		public void write(int b) {
+		}
+	});
+
+	private TestGraphs() {
+	}
+
+	/**
+	 * Builds the control flow graph of a program.
+	 * @param source The source code.
+	 * @return The control flow graph.
+	 */
+	static CFG buildCfg(String source) {
+		CompilationUnit cu = JavaParser.parse(source);
+
+		PrintStream out = System.out;
+		System.setOut(DISCARD);
+
+		try
+		{
+			CFG cfg = new CFG();
+			new VisitadorCFG().visit(cu, cfg);
+
+			return cfg;
+		}
+		finally
+		{
+			System.setOut(out);
+		}
+	}
+
+	/**
+	 * Builds the program dependency graph of a program, with its control and data dependences, as {@code Transformador} does.
+	 * @param source The source code.
+	 * @return The program dependency graph.
+	 */
+	static ProgramDependencyGraph buildPdg(String source) {
+		CompilationUnit cu = JavaParser.parse(source);
+
+		PrintStream out = System.out;
+		System.setOut(DISCARD);
+
+		try
+		{
+			CFG cfg = new CFG();
+			new VisitadorCFG().visit(cu, cfg);
+
+			ProgramDependencyGraph pdg = new ProgramDependencyGraph();
+			new VisitadorPDG().visit(cu, pdg);
+
+			pdg.addControlDependences(cfg);
+			pdg.addDataDependences(cfg);
+
+			return pdg;
+		}
+		finally
+		{
+			System.setOut(out);
+		}
+	}
+
+	/**
+	 * Returns the only node of a graph created from a statement.
+	 * @param graph The graph.
+	 * @param statement The statement, as it is printed in the label after the node number.
+	 * @return The node.
+	 */
+	static int node(Graph graph, String statement) {
+		int[] nodes = nodes(graph, statement);
+
+		Assert.assertEquals("Nodes of " + statement, 1, nodes.length);
+
+		return nodes[0];
+	}
+
+	/**
+	 * Returns the nodes of a graph created from a statement.
+	 * @param graph The graph.
+	 * @param statement The statement, as it is printed in the label after the node number.
+	 * @return The nodes, in order.
+	 */
+	static int[] nodes(Graph graph, String statement) {
+		BitSet found = new BitSet();
+
+		for (int n = 0; n < graph.getNodeCount(); n++)
+		{
+			String label = graph.getLabel(n);
+
+			if (label.endsWith(") " + statement) && label.startsWith("("))
+			{
+				found.set(n);
+			}
+		}
+
+		return found.stream().toArray();
+	}
+
+	/**
+	 * Creates a control flow graph with Start (0) and Stop (1).
+	 * @param nodeCount The number of nodes.
+	 * @param edges The source and the target of every edge.
+	 * @return The graph.
+	 */
+	static Graph flowGraph(int nodeCount, int... edges) {
+		Graph graph = new Graph();
+
+		for (int n = 0; n < nodeCount; n++)
+		{
+			graph.addNode(Integer.toString(n), null);
+		}
+
+		for (int e = 0; e < edges.length; e += 2)
+		{
+			graph.addEdge(edges[e], edges[e + 1], EdgeKind.CONTROL_FLOW);
+		}
+
+		return graph;
+	}
+
+	/**
+	 * Creates a random graph, with cycles and self edges.
+	 * @param nodeCount The number of nodes.
+	 * @param edgeCount The number of edges to try to add; the repeated ones are discarded.
+	 * @param kind The kind of the edges.
+	 * @param random The source of randomness.
+	 * @return The graph.
+	 */
+	static Graph randomGraph(int nodeCount, int edgeCount, EdgeKind kind, Random random) {
+		Graph graph = new Graph();
+
+		for (int n = 0; n < nodeCount; n++)
+		{
+			graph.addNode(Integer.toString(n), null);
+		}
+
+		for (int e = 0; e < edgeCount; e++)
+		{
+			graph.addEdge(random.nextInt(nodeCount), random.nextInt(nodeCount), kind);
+		}
+
+		return graph;
+	}
+
+	/**
+	 * Creates a random control flow graph with an entry (0) without predecessors and an exit (1) without
+	 * successors, as the ones built from programs. Some nodes may not reach the exit or not be reached from the entry.
+	 * @param nodeCount The number of nodes, at least 3.
+	 * @param edgeCount The number of edges to try to add; the repeated ones are discarded.
+	 * @param random The source of randomness.
+	 * @return The graph.
+	 */
+	static Graph randomFlowGraph(int nodeCount, int edgeCount, Random random) {
+		Graph graph = new Graph();
+
+		for (int n = 0; n < nodeCount; n++)
+		{
+			graph.addNode(Integer.toString(n), null);
+		}
+
+		graph.addEdge(0, 2 + random.nextInt(nodeCount - 2), EdgeKind.CONTROL_FLOW);
+
+		for (int e = 0; e < edgeCount; e++)
+		{
+			int source = random.nextInt(nodeCount);
+			int target = random.nextInt(nodeCount);
+
+			if (source != 1 && target != 0)
+			{
+				graph.addEdge(source, target, EdgeKind.CONTROL_FLOW);
+			}
+		}
+
+		return graph;
+	}
+
+	/**
+	 * Returns the nodes reachable from a node with a breadth first search, the node included.
+	 * @param graph The edges to follow.
+	 * @param from The first node.
+	 * @param removed A node that cannot be visited, or -1.
+	 * @return The nodes reached.
+	 */
+	static BitSet reachable(Adjacency graph, int from, int removed) {
+		BitSet reached = new BitSet(graph.getNodeCount());
+		ArrayDeque<Integer> queue = new ArrayDeque<Integer>();
+
+		if (from != removed)
+		{
+			reached.set(from);
+			queue.add(from);
+		}
+
+		while (!queue.isEmpty())
+		{
+			int node = queue.poll();
+
+			for (int i = 0; i < graph.degree(node); i++)
+			{
+				int next = graph.get(node, i);
+
+				if (next != removed && !reached.get(next))
+				{
+					reached.set(next);
+					queue.add(next);
+				}
+			}
+		}
+
+		return reached;
+	}
+}